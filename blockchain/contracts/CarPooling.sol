@@ -33,20 +33,46 @@ contract CarPooling {
         uint256 timestamp;        // When cancelled
     }
     
+    // Structure to store a bulk import: one record for all its rides
+    struct ImportRecord {
+        uint256 firstRideId;      // Database ID of the first imported ride
+        address importedBy;       // Who imported
+        uint256 rideCount;        // How many rides were imported
+        bytes32 digest;           // SHA-256 over the imported rides
+        uint256 timestamp;        // When imported
+    }
+    
+    // Structure to store a recurring ride template: one record for all its occurrences
+    struct TemplateRecord {
+        uint256 templateId;       // Template ID from database
+        address driver;           // Blockchain address of driver
+        string source;            // Starting location
+        string destination;       // Ending location
+        uint256 seats;            // Seats on every occurrence
+        uint256 pricePerSeat;     // Price per seat
+        uint256 timestamp;        // When template was created
+    }
+    
     // Storage: mapping to store all records
     mapping(uint256 => RideRecord) public rides;
     mapping(uint256 => BookingRecord) public bookings;
     mapping(uint256 => CancellationRecord) public cancellations;
+    mapping(uint256 => ImportRecord) public imports;
+    mapping(uint256 => TemplateRecord) public templates;
     
     // Counters
     uint256 public rideCount = 0;
     uint256 public bookingCount = 0;
     uint256 public cancellationCount = 0;
+    uint256 public importCount = 0;
+    uint256 public templateCount = 0;
     
     // Events (like logs - to track what happened)
     event RideCreated(uint256 rideId, address driver, string source, string destination);
     event RideBooked(uint256 bookingId, uint256 rideId, address passenger, uint256 amount);
     event BookingCancelled(uint256 bookingId, address cancelledBy, uint256 penalty);
+    event RidesImported(uint256 firstRideId, address importedBy, uint256 rideCount, bytes32 digest);
+    event TemplateAnchored(uint256 templateId, address driver, string source, string destination);
     
     // Function 1: Record a new ride on blockchain
     function createRide(
@@ -149,4 +175,44 @@ contract CarPooling {
             booking.timestamp
         );
     }
+    
+    // Function 6: Record a bulk ride import as one entry (not as rides of its own)
+    function anchorImport(
+        uint256 _firstRideId,
+        uint256 _rideCount,
+        bytes32 _digest
+    ) public {
+        importCount++;
+        imports[_firstRideId] = ImportRecord(
+            _firstRideId,
+            msg.sender,              // Who imported
+            _rideCount,
+            _digest,
+            block.timestamp
+        );
+        
+        emit RidesImported(_firstRideId, msg.sender, _rideCount, _digest);
+    }
+    
+    // Function 7: Record a recurring ride template once (not as a ride of its own)
+    function anchorTemplate(
+        uint256 _templateId,
+        string memory _source,
+        string memory _destination,
+        uint256 _seats,
+        uint256 _pricePerSeat
+    ) public {
+        templateCount++;
+        templates[_templateId] = TemplateRecord(
+            _templateId,
+            msg.sender,              // Driver's blockchain address
+            _source,
+            _destination,
+            _seats,
+            _pricePerSeat,
+            block.timestamp
+        );
+        
+        emit TemplateAnchored(_templateId, msg.sender, _source, _destination);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.carpooling.securecarpooling.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result with the committed baseline and flags benchmarks whose
+ * score or normalized allocation (gc.alloc.rate.norm, bytes per operation) grew by more
+ * than the tolerance. Exits with status 1 if anything regressed.
+ *
+ * Usage: BaselineComparison baseline.json current.json [tolerancePercent]
+ */
+public class BaselineComparison {
+
+    // Default tolerance in percent; timings on a shared machine are noisy
+    private static final double DEFAULT_TOLERANCE = 10.0;
+
+    // Allocation below this many bytes per operation is too small to compare by percentage
+    private static final double MIN_ALLOCATION_BYTES = 64.0;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison baseline.json current.json [tolerancePercent]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE;
+
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> current = read(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result before = baseline.get(entry.getKey());
+            Result after = entry.getValue();
+            if (before == null) {
+                System.out.println("NEW        " + entry.getKey() + " " + after);
+                continue;
+            }
+            boolean slower = change(before.score, after.score) > tolerance;
+            boolean allocates = after.allocation > MIN_ALLOCATION_BYTES
+                    && change(before.allocation, after.allocation) > tolerance;
+            if (slower || allocates) {
+                regressions++;
+            }
+            System.out.printf("%-10s %s %s -> %s (%+.1f%% time, %+.1f%% alloc)%n",
+                    slower || allocates ? "REGRESSED" : "OK", entry.getKey(), before, after,
+                    change(before.score, after.score), change(before.allocation, after.allocation));
+        }
+
+        if (regressions > 0) {
+            System.err.println(regressions + " benchmark(s) regressed by more than " + tolerance + "%");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Read a JMH JSON result file
+     * @param file - File written with -rf json
+     * @return Results by benchmark name and parameters
+     */
+    private static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder name = new StringBuilder(run.get("benchmark").asText());
+            JsonNode params = run.get("params");
+            if (params != null) {
+                params.fields().forEachRemaining(param ->
+                        name.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            }
+            JsonNode primary = run.get("primaryMetric");
+            JsonNode allocation = run.path("secondaryMetrics").path("gc.alloc.rate.norm").path("score");
+            results.put(name.toString(), new Result(primary.get("score").asDouble(),
+                    primary.get("scoreUnit").asText(), allocation.asDouble(0.0)));
+        }
+        return results;
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100.0 / before;
+    }
+
+    private static final class Result {
+
+        private final double score;
+        private final String unit;
+        private final double allocation;
+
+        private Result(double score, String unit, double allocation) {
+            this.score = score;
+            this.unit = unit;
+            this.allocation = allocation;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f %s, %.0f B/op", score, unit, allocation);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.carpooling.securecarpooling.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.web3j.abi.FunctionEncoder;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ABI encoding of the createRide call that BlockchainService sends for every new ride,
+ * without the RPC round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockchainEncodeBenchmark {
+
+    private final BigInteger rideId = BigInteger.valueOf(42);
+
+    @Benchmark
+    public String encodeCreateRide() {
+        return FunctionEncoder.encode(
+                BlockchainService.createRideFunction(rideId, "Chennai", "Bangalore", 4, 700.0));
+    }
+}
@@ -0,0 +1,61 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.blockchain.CarPoolingContractEmulator;
+import com.carpooling.securecarpooling.blockchain.InProcessEthereumService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+import org.web3j.tx.RawTransactionManager;
+import org.web3j.tx.TransactionManager;
+import org.web3j.tx.gas.DefaultGasProvider;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The client side of recording a ride as BlockchainService does it (nonce lookup, signing,
+ * submission), against the in-process node so no Ganache is needed and node time is zero.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockchainSendBenchmark {
+
+    private static final String CONTRACT = "0x0E4Be682efeB4eb945CfE0Fe75c167ba9bB06e9C";
+
+    private final DefaultGasProvider gasProvider = new DefaultGasProvider();
+    private TransactionManager transactionManager;
+    private long rideId;
+
+    @Setup
+    public void setUp() throws Exception {
+        try (InputStream in = new FileInputStream("../../blockchain/build/contracts/CarPooling.json")) {
+            Web3j web3j = Web3j.build(new InProcessEthereumService(CarPoolingContractEmulator.load(in), CONTRACT));
+            transactionManager = new RawTransactionManager(web3j,
+                    Credentials.create("0x47aa7c28a7ed92333b6333eec2577eb72c3e3ec90a89ecbaf384761647e8c14b"));
+        }
+    }
+
+    @Benchmark
+    public String recordRide() throws Exception {
+        String data = FunctionEncoder.encode(BlockchainService.createRideFunction(
+                BigInteger.valueOf(++rideId), "Chennai", "Bangalore", 4, 700.0));
+        return transactionManager.sendTransaction(gasProvider.getGasPrice(), gasProvider.getGasLimit(),
+                CONTRACT, data, BigInteger.ZERO).getTransactionHash();
+    }
+}
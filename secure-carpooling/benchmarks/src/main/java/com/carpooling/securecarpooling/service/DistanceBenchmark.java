@@ -0,0 +1,51 @@
+package com.carpooling.securecarpooling.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DistanceService lookups behind ride creation, import and booking prices.
+ * "Legacy" pairs are answered by the hard-coded table, "network" pairs by an A* search
+ * on the road network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceBenchmark {
+
+    private DistanceService distanceService;
+
+    @Setup
+    public void setUp() {
+        distanceService = new DistanceService();
+        distanceService.loadRoadNetwork();
+    }
+
+    @Benchmark
+    public Double calculateDistanceLegacyPair() {
+        return distanceService.calculateDistance("Chennai", "Bangalore");
+    }
+
+    @Benchmark
+    public Double calculateDistanceNetworkPair() {
+        return distanceService.calculateDistance("Madurai", "Mysore");
+    }
+
+    @Benchmark
+    public Double calculatePrice() {
+        return distanceService.calculatePrice(350.0, 4);
+    }
+}
@@ -0,0 +1,48 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.config.PasswordConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password check done by AuthService.loginUser, with the encoder the application uses.
+ * BCrypt is slow on purpose; this tracks what one login costs in CPU.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordBenchmark {
+
+    private PasswordEncoder passwordEncoder;
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new PasswordConfig().passwordEncoder();
+        encodedPassword = passwordEncoder.encode("correct-horse-battery");
+    }
+
+    @Benchmark
+    public boolean matchesCorrectPassword() {
+        return passwordEncoder.matches("correct-horse-battery", encodedPassword);
+    }
+
+    @Benchmark
+    public boolean matchesWrongPassword() {
+        return passwordEncoder.matches("wrong-password", encodedPassword);
+    }
+}
@@ -0,0 +1,97 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.dto.BookingResponse;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.model.Booking;
+import com.carpooling.securecarpooling.model.Ride;
+import com.carpooling.securecarpooling.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO conversion done for every ride listing and booking response.
+ * Entities are built in memory; no database is involved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseConversionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Rides {
+
+        // Rides in one listing
+        @Param({"20", "200"})
+        private int count;
+
+        private final RideService rideService = new RideService();
+        private final List<Ride> rides = new ArrayList<>();
+
+        @Setup
+        public void setUp() {
+            User driver = driver();
+            LocalDateTime departure = LocalDateTime.of(2030, 1, 1, 8, 0);
+            for (int i = 0; i < count; i++) {
+                Ride ride = new Ride(driver, "Chennai", "Bangalore", departure.plusMinutes(15L * i),
+                        4, "Swift", "TN01AB" + i, "White");
+                ride.setId((long) i + 1);
+                ride.setRoute(List.of("Chennai", "Bangalore"), new double[]{0.0, 350.0});
+                ride.setPricePerSeat(700.0);
+                rides.add(ride);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class MultiStopBooking {
+
+        private final BookingService bookingService = new BookingService();
+        private Booking booking;
+
+        @Setup
+        public void setUp() {
+            User passenger = new User("Passenger", "passenger@example.com", "9000000002", "secret", "ID-2");
+            passenger.setId(2L);
+            Ride ride = new Ride(driver(), "Chennai", "Bangalore", LocalDateTime.of(2030, 1, 1, 8, 0),
+                    4, "Swift", "TN01AB0", "White");
+            ride.setId(1L);
+            ride.setRoute(List.of("Chennai", "Vellore", "Krishnagiri", "Bangalore"),
+                    new double[]{0.0, 140.0, 230.0, 350.0});
+            ride.setPricePerSeat(700.0);
+            booking = new Booking(ride, passenger, 2, 1400.0);
+            booking.setId(1L);
+        }
+    }
+
+    @Benchmark
+    public List<RideResponse> convertToRideResponseList(Rides state) {
+        return state.rideService.convertToRideResponseList(state.rides);
+    }
+
+    @Benchmark
+    public BookingResponse convertToBookingResponse(MultiStopBooking state) {
+        return state.bookingService.convertToBookingResponse(state.booking);
+    }
+
+    private static User driver() {
+        User driver = new User("Driver", "driver@example.com", "9000000001", "secret", "ID-1");
+        driver.setId(1L);
+        return driver;
+    }
+}
@@ -0,0 +1,104 @@
+package com.carpooling.securecarpooling.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Latency histogram and outcome counters of one endpoint.
+ *
+ * Latency is measured from the moment a request was scheduled to start, not from when
+ * it was sent, so queueing in the client or the server shows up in the numbers instead
+ * of silently lowering the offered load (coordinated omission).
+ */
+public class EndpointStats {
+
+    // Highest latency tracked (one minute), with 3 significant digits
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String name;
+    private final Histogram histogram = new ConcurrentHistogram(MAX_MICROS, 3);
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicReference<String> firstError = new AtomicReference<>();
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Record a finished request
+     * @param scheduledNanos - System.nanoTime() at which the request was due to start
+     * @param error - Error description, or null if the request succeeded
+     */
+    public void record(long scheduledNanos, String error) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledNanos);
+        histogram.recordValue(Math.min(Math.max(micros, 0), MAX_MICROS));
+        if (error != null) {
+            errors.incrementAndGet();
+            firstError.compareAndSet(null, error);
+        }
+    }
+
+    /**
+     * Record an arrival that could not be issued (e.g. no booking left to cancel)
+     */
+    public void skip() {
+        skipped.incrementAndGet();
+    }
+
+    public long getCount() {
+        return histogram.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors.get();
+    }
+
+    /**
+     * One report line: count, errors, throughput and latency percentiles in milliseconds
+     * @param seconds - Length of the measured phase
+     */
+    public String summary(double seconds) {
+        return String.format("%-10s %8d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                name, histogram.getTotalCount(), errors.get(), skipped.get(), histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    public String getFirstError() {
+        return firstError.get();
+    }
+
+    /**
+     * Write the full percentile distribution, loadable in HdrHistogram's plotter
+     * @param file - Target .hgrm file
+     */
+    public void writeDistribution(Path file) throws FileNotFoundException {
+        try (PrintStream out = new PrintStream(file.toFile())) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    public void reset() {
+        histogram.reset();
+        errors.set(0);
+        skipped.set(0);
+        firstError.set(null);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
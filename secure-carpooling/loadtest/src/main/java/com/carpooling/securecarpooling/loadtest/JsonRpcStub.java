@@ -0,0 +1,178 @@
+package com.carpooling.securecarpooling.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.web3j.crypto.Hash;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal in-process Ethereum JSON-RPC endpoint standing in for Ganache.
+ *
+ * It answers only what BlockchainService and web3j's RawTransactionManager call:
+ * client version, chain id, nonces and raw transaction submission. Submitted
+ * transactions are not executed; their hash is the keccak-256 of the signed bytes, as
+ * a real node would return, and each one gets a receipt in the next block. An optional
+ * delay per request models the node's round trip.
+ */
+public class JsonRpcStub implements AutoCloseable {
+
+    private static final String CLIENT_VERSION = "SecureCarpoolingLoadTest/JsonRpcStub";
+    private static final long CHAIN_ID = 1337;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long delayMillis;
+
+    private final AtomicLong nonce = new AtomicLong();
+    private final AtomicLong blockNumber = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+
+    /**
+     * Start the stub on a free loopback port
+     * @param delayMillis - Delay added to every request, or 0
+     * @throws IOException if the server cannot be bound
+     */
+    public JsonRpcStub(long delayMillis) throws IOException {
+        this.delayMillis = delayMillis;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.executor = Executors.newFixedThreadPool(16, runnable -> {
+            Thread thread = new Thread(runnable, "json-rpc-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * URL to configure as blockchain.rpc.url
+     */
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * JSON-RPC requests answered so far
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            JsonNode request = objectMapper.readTree(in);
+            JsonNode response;
+            if (request.isArray()) {
+                ArrayNode batch = objectMapper.createArrayNode();
+                for (JsonNode call : request) {
+                    batch.add(answer(call));
+                }
+                response = batch;
+            } else {
+                response = answer(request);
+            }
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.sendResponseHeaders(503, -1);
+        } catch (Exception e) {
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Answer one JSON-RPC call
+     * @param call - Request object with id, method and params
+     * @return Response object with a result or an error
+     */
+    private ObjectNode answer(JsonNode call) {
+        requests.incrementAndGet();
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", call.get("id"));
+
+        String method = call.path("method").asText();
+        JsonNode params = call.path("params");
+        switch (method) {
+            case "web3_clientVersion":
+                response.put("result", CLIENT_VERSION);
+                break;
+            case "eth_chainId":
+                response.put("result", quantity(CHAIN_ID));
+                break;
+            case "net_version":
+                response.put("result", String.valueOf(CHAIN_ID));
+                break;
+            case "eth_blockNumber":
+                response.put("result", quantity(blockNumber.get()));
+                break;
+            case "eth_gasPrice":
+                response.put("result", quantity(20_000_000_000L));
+                break;
+            case "eth_getTransactionCount":
+                response.put("result", quantity(nonce.get()));
+                break;
+            case "eth_sendRawTransaction":
+                nonce.incrementAndGet();
+                blockNumber.incrementAndGet();
+                response.put("result", Hash.sha3(params.path(0).asText()));
+                break;
+            case "eth_getTransactionReceipt":
+                response.set("result", receipt(params.path(0).asText()));
+                break;
+            default:
+                ObjectNode error = response.putObject("error");
+                error.put("code", -32601);
+                error.put("message", "Method not supported by the load-test stub: " + method);
+        }
+        return response;
+    }
+
+    private ObjectNode receipt(String transactionHash) {
+        ObjectNode receipt = objectMapper.createObjectNode();
+        receipt.put("transactionHash", transactionHash);
+        receipt.put("transactionIndex", "0x0");
+        receipt.put("blockNumber", quantity(blockNumber.get()));
+        receipt.put("blockHash", Hash.sha3(quantity(blockNumber.get())));
+        receipt.put("cumulativeGasUsed", "0x5208");
+        receipt.put("gasUsed", "0x5208");
+        receipt.put("status", "0x1");
+        receipt.putArray("logs");
+        return receipt;
+    }
+
+    private static String quantity(long value) {
+        return "0x" + Long.toHexString(value);
+    }
+}
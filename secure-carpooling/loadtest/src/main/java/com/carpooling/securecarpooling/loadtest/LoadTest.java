@@ -0,0 +1,253 @@
+package com.carpooling.securecarpooling.loadtest;
+
+import com.carpooling.securecarpooling.SecureCarpoolingApplication;
+import com.carpooling.securecarpooling.loadtest.Workload.Operation;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * End-to-end load test: boots the application on an in-memory H2 database (PostgreSQL
+ * mode, same Flyway migrations) with JsonRpcStub in place of Ganache, seeds users and
+ * rides over HTTP, then drives a weighted mix of register, login, search, book, cancel
+ * and complete requests.
+ *
+ * Arrivals are open loop: request start times follow a Poisson process at the target
+ * rate whether or not earlier requests have finished, so a slow server faces a growing
+ * queue just as it would in production. Latency per endpoint goes into HDR histograms.
+ *
+ * Options (key=value): rate (requests/s), duration and warmup (seconds), users, drivers,
+ * rides, seats, rpc-delay-ms, mix (operation:weight,...), out (report directory).
+ */
+public class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("rate", "100");
+        DEFAULTS.put("duration", "60");
+        DEFAULTS.put("warmup", "10");
+        DEFAULTS.put("users", "200");
+        DEFAULTS.put("drivers", "20");
+        DEFAULTS.put("rides", "500");
+        DEFAULTS.put("seats", "6");
+        DEFAULTS.put("rpc-delay-ms", "0");
+        DEFAULTS.put("mix", "register:2,login:3,search:60,book:20,cancel:7,complete:8");
+        DEFAULTS.put("out", "target/loadtest");
+    }
+
+    // Requests allowed in flight before new arrivals are dropped (and counted) to protect the client
+    private static final int MAX_IN_FLIGHT = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        double rate = Double.parseDouble(options.get("rate"));
+        int durationSeconds = Integer.parseInt(options.get("duration"));
+        int warmupSeconds = Integer.parseInt(options.get("warmup"));
+        double[] mix = parseMix(options.get("mix"));
+        Path out = Paths.get(options.get("out"));
+        Files.createDirectories(out);
+
+        // Application output goes to a file so it neither floods nor slows down the report
+        PrintStream console = System.out;
+        PrintStream appLog = new PrintStream(new BufferedOutputStream(
+                new FileOutputStream(out.resolve("app.log").toFile())), false);
+        System.setOut(appLog);
+        System.setErr(appLog);
+
+        console.println("Load test options: " + options);
+        try (JsonRpcStub stub = new JsonRpcStub(Long.parseLong(options.get("rpc-delay-ms")))) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(SecureCarpoolingApplication.class)
+                    .profiles("loadtest")
+                    .run("--blockchain.rpc.url=" + stub.getUrl());
+            try {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                console.println("Application started on port " + port + ", JSON-RPC stub at " + stub.getUrl());
+
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build();
+                Workload workload = new Workload(client, "http://127.0.0.1:" + port);
+
+                long seedStart = System.nanoTime();
+                workload.seed(Integer.parseInt(options.get("users")), Integer.parseInt(options.get("drivers")),
+                        Integer.parseInt(options.get("rides")), Integer.parseInt(options.get("seats")));
+                console.printf("Seeded in %.1f s%n", (System.nanoTime() - seedStart) / 1e9);
+
+                if (warmupSeconds > 0) {
+                    console.println("Warming up for " + warmupSeconds + " s at " + rate + " requests/s");
+                    drive(rate, warmupSeconds, scheduled -> workload.run(pick(mix), scheduled));
+                    workload.getStats().values().forEach(EndpointStats::reset);
+                }
+
+                console.println("Measuring for " + durationSeconds + " s at " + rate + " requests/s");
+                int dropped = drive(rate, durationSeconds, scheduled -> workload.run(pick(mix), scheduled));
+                report(console, workload, durationSeconds, dropped, stub, out);
+            } finally {
+                context.close();
+                appLog.flush();
+            }
+        } finally {
+            System.setOut(console);
+            System.setErr(console);
+        }
+    }
+
+    /**
+     * Issue requests with exponential inter-arrival times, then wait for the stragglers
+     * @param rate - Mean arrivals per second
+     * @param seconds - Length of the phase
+     * @param arrival - Starts one request, given the System.nanoTime() it was due at; the future
+     *                  completes once its outcome is recorded
+     * @return Arrivals dropped because too many requests were in flight
+     */
+    static int drive(double rate, int seconds, LongFunction<CompletableFuture<?>> arrival) throws InterruptedException {
+        Random random = new Random();
+        AtomicInteger inFlight = new AtomicInteger();
+        int dropped = 0;
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long next = System.nanoTime();
+
+        while (true) {
+            next += (long) (-Math.log(1.0 - random.nextDouble()) / rate * 1e9);
+            if (next >= end) {
+                break;
+            }
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (inFlight.get() >= MAX_IN_FLIGHT) {
+                dropped++;
+                continue;
+            }
+
+            inFlight.incrementAndGet();
+            try {
+                arrival.apply(next).whenComplete((ignored, failure) -> inFlight.decrementAndGet());
+            } catch (RuntimeException e) {
+                inFlight.decrementAndGet();
+                throw e;
+            }
+        }
+
+        // Let requests still in flight finish so their latency is counted
+        long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+        return dropped;
+    }
+
+    private static void report(PrintStream console, Workload workload, int seconds, int dropped,
+                               JsonRpcStub stub, Path out) throws Exception {
+        console.println();
+        console.printf("%-10s %8s %7s %7s %9s %9s %9s %9s %9s %9s%n", "endpoint", "count", "errors", "skipped",
+                "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long total = 0;
+        for (EndpointStats stats : workload.getStats().values()) {
+            console.println(stats.summary(seconds));
+            stats.writeDistribution(out.resolve(stats.getName() + ".hgrm"));
+            total += stats.getCount();
+        }
+
+        EndpointStats book = workload.getStats().get(Operation.BOOK);
+        console.println();
+        console.printf("Throughput: %.1f requests/s, %.1f successful bookings/s%n",
+                total / (double) seconds, (book.getCount() - book.getErrors()) / (double) seconds);
+        console.println("Dropped arrivals: " + dropped + ", open bookings left: " + workload.getBookingsOpen()
+                + ", JSON-RPC calls: " + stub.getRequestCount());
+        for (EndpointStats stats : workload.getStats().values()) {
+            if (stats.getFirstError() != null) {
+                console.println("First " + stats.getName() + " error: " + abbreviate(stats.getFirstError()));
+            }
+        }
+        console.println("Histograms and application log written to " + out.toAbsolutePath());
+    }
+
+    /**
+     * Parse "operation:weight,..." into cumulative weights indexed by Operation ordinal
+     */
+    static double[] parseMix(String mix) {
+        double[] weights = new double[Operation.values().length];
+        for (String part : mix.split(",")) {
+            String[] pair = part.split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but got: " + part);
+            }
+            weights[Operation.of(pair[0]).ordinal()] = Double.parseDouble(pair[1].trim());
+        }
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("Negative weight in mix: " + mix);
+            }
+            sum += weights[i];
+            weights[i] = sum;
+        }
+        if (sum <= 0) {
+            throw new IllegalArgumentException("Mix has no positive weight: " + mix);
+        }
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] /= sum;
+        }
+        return weights;
+    }
+
+    static Operation pick(double[] cumulative) {
+        return pick(cumulative, ThreadLocalRandom.current().nextDouble());
+    }
+
+    static Operation pick(double[] cumulative, double uniform) {
+        for (int i = 0; i < cumulative.length; i++) {
+            if (uniform < cumulative[i]) {
+                return Operation.values()[i];
+            }
+        }
+        return Operation.values()[cumulative.length - 1];
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        return parse(args, DEFAULTS);
+    }
+
+    /**
+     * Apply key=value arguments over the defaults
+     * @param args - Command line arguments
+     * @param defaults - Known options and their default values
+     */
+    static Map<String, String> parse(String[] args, Map<String, String> defaults) {
+        Map<String, String> options = new LinkedHashMap<>(defaults);
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0 || !defaults.containsKey(arg.substring(0, equals))) {
+                throw new IllegalArgumentException("Unknown option: " + arg + " (known: " + defaults.keySet() + ")");
+            }
+            options.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+        return options;
+    }
+
+    static String abbreviate(String text) {
+        return text.length() <= 200 ? text : text.substring(0, 200) + "...";
+    }
+}
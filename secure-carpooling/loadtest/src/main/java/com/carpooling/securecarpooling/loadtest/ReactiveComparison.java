@@ -0,0 +1,195 @@
+package com.carpooling.securecarpooling.loadtest;
+
+import com.carpooling.reactive.ReactiveCarpoolingApplication;
+import com.carpooling.securecarpooling.SecureCarpoolingApplication;
+import com.carpooling.securecarpooling.loadtest.Workload.Operation;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Servlet read endpoints (RideController, BookingController on JPA/JDBC) against their reactive
+ * counterparts under /api/v2 (WebFlux on R2DBC), on the same data: both applications run in this
+ * JVM on one in-memory H2 database, seeded over HTTP as in LoadTest.
+ *
+ * Each endpoint is driven on its own at the same open-loop rate, first on the servlet
+ * application, then on the reactive one, so the two never compete for the CPU. Latency counts
+ * until the whole response body has arrived.
+ *
+ * Options (key=value): rate (requests/s), duration and warmup (seconds per endpoint and stack),
+ * users, drivers, rides, seats, bookings, endpoints (search, available, my-bookings), out
+ * (report directory).
+ */
+public class ReactiveComparison {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("rate", "100");
+        DEFAULTS.put("duration", "30");
+        DEFAULTS.put("warmup", "10");
+        DEFAULTS.put("users", "100");
+        DEFAULTS.put("drivers", "20");
+        DEFAULTS.put("rides", "500");
+        DEFAULTS.put("seats", "6");
+        DEFAULTS.put("bookings", "400");
+        DEFAULTS.put("endpoints", "search,available,my-bookings");
+        DEFAULTS.put("out", "target/reactive-comparison");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTest.parse(args, DEFAULTS);
+        double rate = Double.parseDouble(options.get("rate"));
+        int durationSeconds = Integer.parseInt(options.get("duration"));
+        int warmupSeconds = Integer.parseInt(options.get("warmup"));
+        Path out = Paths.get(options.get("out"));
+        Files.createDirectories(out);
+
+        // Application output goes to a file so it neither floods nor slows down the report
+        PrintStream console = System.out;
+        PrintStream appLog = new PrintStream(new BufferedOutputStream(
+                new FileOutputStream(out.resolve("app.log").toFile())), false);
+        System.setOut(appLog);
+        System.setErr(appLog);
+
+        console.println("Comparison options: " + options);
+        try (JsonRpcStub stub = new JsonRpcStub(0)) {
+            ConfigurableApplicationContext servlet = new SpringApplicationBuilder(SecureCarpoolingApplication.class)
+                    .profiles("loadtest")
+                    .run("--blockchain.rpc.url=" + stub.getUrl());
+            ConfigurableApplicationContext reactive = null;
+            try {
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build();
+                String servletUrl = "http://127.0.0.1:" + port(servlet);
+                Workload workload = new Workload(client, servletUrl);
+
+                long seedStart = System.nanoTime();
+                workload.seed(Integer.parseInt(options.get("users")), Integer.parseInt(options.get("drivers")),
+                        Integer.parseInt(options.get("rides")), Integer.parseInt(options.get("seats")));
+                List<CompletableFuture<Void>> booked = new ArrayList<>();
+                for (int i = 0; i < Integer.parseInt(options.get("bookings")); i++) {
+                    booked.add(workload.run(Operation.BOOK, System.nanoTime()));
+                }
+                booked.forEach(CompletableFuture::join);
+                console.printf("Seeded in %.1f s%n", (System.nanoTime() - seedStart) / 1e9);
+
+                reactive = new SpringApplicationBuilder(ReactiveCarpoolingApplication.class)
+                        .profiles("reactive-compare")
+                        .run();
+                String reactiveUrl = "http://127.0.0.1:" + port(reactive);
+                console.println("Servlet application on " + servletUrl + ", reactive on " + reactiveUrl);
+
+                console.println();
+                console.printf("%-10s %8s %7s %7s %9s %9s %9s %9s %9s %9s%n", "stack", "count", "errors", "skipped",
+                        "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+                for (String endpoint : options.get("endpoints").split(",")) {
+                    endpoint = endpoint.trim();
+                    console.println(endpoint);
+                    compare(console, client, workload, endpoint, "servlet", servletUrl + "/api",
+                            rate, warmupSeconds, durationSeconds, out);
+                    compare(console, client, workload, endpoint, "reactive", reactiveUrl + "/api/v2",
+                            rate, warmupSeconds, durationSeconds, out);
+                }
+                console.println();
+                console.println("Histograms and application log written to " + out.toAbsolutePath());
+            } finally {
+                if (reactive != null) {
+                    reactive.close();
+                }
+                servlet.close();
+                appLog.flush();
+            }
+        } finally {
+            System.setOut(console);
+            System.setErr(console);
+        }
+    }
+
+    /**
+     * Warm up, then measure one endpoint on one stack and print its report line
+     * @param baseUrl - URL the endpoint paths are relative to, e.g. http://127.0.0.1:8081/api/v2
+     */
+    private static void compare(PrintStream console, HttpClient client, Workload workload, String endpoint,
+                                String stack, String baseUrl, double rate, int warmupSeconds, int durationSeconds,
+                                Path out) throws Exception {
+        EndpointStats stats = new EndpointStats(stack);
+        if (warmupSeconds > 0) {
+            LoadTest.drive(rate, warmupSeconds, scheduled -> read(client, workload, endpoint, baseUrl, stats, scheduled));
+            stats.reset();
+        }
+        int dropped = LoadTest.drive(rate, durationSeconds,
+                scheduled -> read(client, workload, endpoint, baseUrl, stats, scheduled));
+        console.println(stats.summary(durationSeconds) + (dropped > 0 ? "  dropped " + dropped : ""));
+        if (stats.getFirstError() != null) {
+            console.println("  first error: " + LoadTest.abbreviate(stats.getFirstError()));
+        }
+        stats.writeDistribution(out.resolve(endpoint + "-" + stack + ".hgrm"));
+    }
+
+    private static CompletableFuture<Void> read(HttpClient client, Workload workload, String endpoint, String baseUrl,
+                                                EndpointStats stats, long scheduledNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        HttpRequest.Builder request;
+        switch (endpoint) {
+            case "search": {
+                String[] route = Workload.ROUTES[random.nextInt(Workload.ROUTES.length)];
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/rides/search?source=" + encode(route[0])
+                        + "&destination=" + encode(route[1])));
+                break;
+            }
+            case "available":
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/rides/available"));
+                break;
+            case "my-bookings": {
+                List<Long> passengers = workload.getPassengerIds();
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/bookings/my-bookings"))
+                        .header("userId", String.valueOf(passengers.get(random.nextInt(passengers.size()))));
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown endpoint: " + endpoint + " (known: search, available, my-bookings)");
+        }
+        return client.sendAsync(request.timeout(Duration.ofSeconds(60)).GET().build(), HttpResponse.BodyHandlers.ofString())
+                .handle((response, failure) -> {
+                    String error = null;
+                    if (failure != null) {
+                        error = failure.getClass().getSimpleName() + ": " + failure.getMessage();
+                    } else if (response.statusCode() / 100 != 2) {
+                        error = response.statusCode() + " " + response.body();
+                    }
+                    stats.record(scheduledNanos, error);
+                    return null;
+                });
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,272 @@
+package com.carpooling.securecarpooling.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * The user actions the load test issues against AuthController, RideController and
+ * BookingController, and the shared state they draw on: known users, seeded rides and
+ * confirmed bookings waiting to be cancelled or completed.
+ *
+ * Every action is asynchronous; the caller never waits for one to finish before
+ * starting the next (open loop).
+ */
+public class Workload {
+
+    /**
+     * A user action and the endpoint it calls
+     */
+    public enum Operation {
+        REGISTER("register"),
+        LOGIN("login"),
+        SEARCH("search"),
+        BOOK("book"),
+        CANCEL("cancel"),
+        COMPLETE("complete");
+
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public static Operation of(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equalsIgnoreCase(key.trim())) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation: " + key);
+        }
+    }
+
+    // Routes rides are offered on; all are on the application's road network
+    static final String[][] ROUTES = {
+            {"Chennai", "Bangalore"}, {"Bangalore", "Chennai"}, {"Mumbai", "Pune"}, {"Pune", "Mumbai"},
+            {"Delhi", "Agra"}, {"Agra", "Delhi"}, {"Hyderabad", "Vijayawada"}, {"Bangalore", "Mysore"},
+            {"Chennai", "Pondicherry"}, {"Madurai", "Bangalore"}
+    };
+
+    static final String PASSWORD = "loadtest-password";
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+
+    private final AtomicLong userSequence = new AtomicLong();
+    private final List<String> emails = new CopyOnWriteArrayList<>();
+    private final List<Long> passengerIds = new CopyOnWriteArrayList<>();
+    private final List<Long> rideIds = new CopyOnWriteArrayList<>();
+
+    // Confirmed bookings as {bookingId, passengerId}
+    private final ConcurrentLinkedQueue<long[]> bookings = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param client - Shared asynchronous HTTP client
+     * @param baseUrl - Application URL, e.g. http://127.0.0.1:8080
+     */
+    public Workload(HttpClient client, String baseUrl) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation.getKey()));
+        }
+    }
+
+    public Map<Operation, EndpointStats> getStats() {
+        return stats;
+    }
+
+    /**
+     * Register and log in users, then let the first drivers offer rides on every route
+     * @param users - Users to create; each logs in once so its ID is known
+     * @param drivers - How many of them offer rides (the rest only book)
+     * @param rides - Rides to create, spread over the drivers, routes and the next week
+     * @param seats - Seats per ride
+     */
+    public void seed(int users, int drivers, int rides, int seats) {
+        List<CompletableFuture<Long>> logins = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            long user = userSequence.incrementAndGet();
+            String email = email(user);
+            logins.add(send(post("/api/auth/register", registerBody(user), null))
+                    .thenCompose(registered -> send(post("/api/auth/login", loginBody(email), null)))
+                    .thenApply(response -> {
+                        emails.add(email);
+                        return json(response).path("userId").asLong();
+                    }));
+        }
+        List<Long> userIds = new ArrayList<>();
+        for (CompletableFuture<Long> login : logins) {
+            userIds.add(login.join());
+        }
+        List<Long> driverIds = userIds.subList(0, Math.max(1, Math.min(drivers, userIds.size() - 1)));
+        passengerIds.addAll(userIds.subList(driverIds.size(), userIds.size()));
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        List<CompletableFuture<HttpResponse<String>>> created = new ArrayList<>();
+        for (int i = 0; i < rides; i++) {
+            String[] route = ROUTES[i % ROUTES.length];
+            String body = "{\"source\":\"" + route[0] + "\",\"destination\":\"" + route[1]
+                    + "\",\"dateTime\":\"" + start.plusMinutes(10L * i) + "\",\"seatsAvailable\":" + seats
+                    + ",\"carModel\":\"Swift\",\"carNumber\":\"LT" + i + "\",\"carColor\":\"White\"}";
+            created.add(send(post("/api/rides/create", body, driverIds.get(i % driverIds.size()))));
+        }
+        for (CompletableFuture<HttpResponse<String>> ride : created) {
+            HttpResponse<String> response = ride.join();
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding rides failed: " + response.body());
+            }
+            rideIds.add(json(response).path("id").asLong());
+        }
+    }
+
+    /**
+     * Start one action; the returned future completes once its outcome is recorded
+     * @param operation - Action to run
+     * @param scheduledNanos - When the action was due to start, for latency measurement
+     */
+    public CompletableFuture<Void> run(Operation operation, long scheduledNanos) {
+        EndpointStats endpoint = stats.get(operation);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case REGISTER: {
+                long user = userSequence.incrementAndGet();
+                String email = email(user);
+                return track(endpoint, scheduledNanos, post("/api/auth/register", registerBody(user), null),
+                        response -> emails.add(email));
+            }
+            case LOGIN: {
+                String email = emails.get(random.nextInt(emails.size()));
+                return track(endpoint, scheduledNanos, post("/api/auth/login", loginBody(email), null), null);
+            }
+            case SEARCH: {
+                String[] route = ROUTES[random.nextInt(ROUTES.length)];
+                return track(endpoint, scheduledNanos, get("/api/rides/search?source=" + encode(route[0])
+                        + "&destination=" + encode(route[1])), null);
+            }
+            case BOOK: {
+                long passengerId = passengerIds.get(random.nextInt(passengerIds.size()));
+                long rideId = rideIds.get(random.nextInt(rideIds.size()));
+                String body = "{\"rideId\":" + rideId + ",\"seatsBooked\":1}";
+                return track(endpoint, scheduledNanos, post("/api/bookings/book", body, passengerId),
+                        response -> bookings.add(new long[]{json(response).path("id").asLong(), passengerId}));
+            }
+            case CANCEL:
+            case COMPLETE: {
+                long[] booking = bookings.poll();
+                if (booking == null) {
+                    endpoint.skip();
+                    return CompletableFuture.completedFuture(null);
+                }
+                String path = (operation == Operation.CANCEL ? "/api/bookings/cancel/" : "/api/bookings/complete/")
+                        + booking[0];
+                return track(endpoint, scheduledNanos, put(path, booking[1]), null);
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported operation: " + operation);
+        }
+    }
+
+    public List<Long> getPassengerIds() {
+        return passengerIds;
+    }
+
+    public int getBookingsOpen() {
+        return bookings.size();
+    }
+
+    private CompletableFuture<Void> track(EndpointStats endpoint, long scheduledNanos, HttpRequest request,
+                                          Consumer<HttpResponse<String>> onSuccess) {
+        return send(request).handle((response, failure) -> {
+            String error = null;
+            if (failure != null) {
+                error = failure.getClass().getSimpleName() + ": " + failure.getMessage();
+            } else if (response.statusCode() / 100 != 2) {
+                error = response.statusCode() + " " + response.body();
+            } else if (onSuccess != null) {
+                onSuccess.accept(response);
+            }
+            endpoint.record(scheduledNanos, error);
+            return null;
+        });
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest get(String path) {
+        return request(path, null).GET().build();
+    }
+
+    private HttpRequest post(String path, String body, Long userId) {
+        return request(path, userId).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private HttpRequest put(String path, Long userId) {
+        return request(path, userId).PUT(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest.Builder request(String path, Long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60));
+        if (userId != null) {
+            builder.header("userId", String.valueOf(userId));
+        }
+        return builder;
+    }
+
+    private static String email(long user) {
+        return "loadtest-" + user + "@example.com";
+    }
+
+    // Email and phone must both be unique
+    private static String registerBody(long user) {
+        return "{\"name\":\"Load Test\",\"email\":\"" + email(user) + "\",\"phone\":\"" + String.format("9%09d", user)
+                + "\",\"password\":\""
+                + PASSWORD + "\",\"idProof\":\"LOADTEST\"}";
+    }
+
+    private static String loginBody(String email) {
+        return "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private JsonNode json(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (Exception e) {
+            throw new IllegalStateException("Unexpected response: " + response.body(), e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,109 @@
+package com.carpooling.securecarpooling.loadtest;
+
+import com.carpooling.reactive.ReactiveCarpoolingApplication;
+import com.carpooling.reactive.repository.RideReadRepository;
+import com.carpooling.securecarpooling.SecureCarpoolingApplication;
+import com.carpooling.securecarpooling.dto.BookRideRequest;
+import com.carpooling.securecarpooling.dto.CreateRideRequest;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.model.User;
+import com.carpooling.securecarpooling.repository.UserRepository;
+import com.carpooling.securecarpooling.service.BookingService;
+import com.carpooling.securecarpooling.service.RideService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Route search on /api (RideService) and on /api/v2 (RideReadRepository) over the same rides:
+ * both applications run in this JVM on one in-memory H2 database, as in ReactiveComparison.
+ */
+class SearchParityTests {
+
+    private static JsonRpcStub stub;
+    private static ConfigurableApplicationContext servlet;
+    private static ConfigurableApplicationContext reactive;
+
+    @BeforeAll
+    static void startApplications() throws Exception {
+        stub = new JsonRpcStub(0);
+        servlet = new SpringApplicationBuilder(SecureCarpoolingApplication.class)
+                .profiles("loadtest")
+                .run("--blockchain.rpc.url=" + stub.getUrl());
+        reactive = new SpringApplicationBuilder(ReactiveCarpoolingApplication.class)
+                .profiles("reactive-compare")
+                .run();
+    }
+
+    @AfterAll
+    static void stopApplications() {
+        if (reactive != null) {
+            reactive.close();
+        }
+        if (servlet != null) {
+            servlet.close();
+        }
+        if (stub != null) {
+            stub.close();
+        }
+    }
+
+    @Test
+    void bothSearchesFindTheSameRides() {
+        RideService rideService = servlet.getBean(RideService.class);
+        User driver = servlet.getBean(UserRepository.class)
+                .save(new User("Parity Driver", "parity-driver@example.com", "9100000001", "x", "ID-P1"));
+        User passenger = servlet.getBean(UserRepository.class)
+                .save(new User("Parity Passenger", "parity-passenger@example.com", "9100000002", "x", "ID-P2"));
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+
+        rideService.createRide(ride("Chennai", "Bangalore", tomorrow, 2, "PAR-1"), driver.getId());
+        CreateRideRequest passing = ride("Madurai", "Mysore", tomorrow, 1, "PAR-2");
+        passing.setStops(List.of("Chennai", "Bangalore"));
+        rideService.createRide(passing, driver.getId());
+        CreateRideRequest partlyTaken = ride("Chennai", "Mysore", tomorrow, 1, "PAR-3");
+        partlyTaken.setStops(List.of("Vellore", "Bangalore"));
+        Long partlyTakenId = rideService.createRide(partlyTaken, driver.getId()).getId();
+        CreateRideRequest full = ride("Chennai", "Bangalore", tomorrow, 1, "PAR-4");
+        Long fullId = rideService.createRide(full, driver.getId()).getId();
+
+        // The only seat of PAR-3 is taken as far as Vellore; PAR-4 is taken all the way
+        BookRideRequest firstLeg = new BookRideRequest(partlyTakenId, 1);
+        firstLeg.setToStop("Vellore");
+        servlet.getBean(BookingService.class).bookRide(firstLeg, passenger.getId());
+        servlet.getBean(BookingService.class).bookRide(new BookRideRequest(fullId, 1), passenger.getId());
+
+        RideReadRepository rideReadRepository = reactive.getBean(RideReadRepository.class);
+        for (String[] route : new String[][] {
+                {"Chennai", "Bangalore"}, {"Chennai", "Vellore"}, {"Vellore", "Mysore"},
+                {"Madurai", "Mysore"}, {"Bangalore", "Chennai"}}) {
+            List<Long> servletRides = rideIds(rideService.searchRides(route[0], route[1]));
+            List<Long> reactiveRides = rideIds(rideReadRepository.searchRides(route[0], route[1]).collectList().block());
+            assertEquals(servletRides, reactiveRides, route[0] + " to " + route[1]);
+        }
+        // PAR-1 on its route and PAR-2 between its stops; the others are taken somewhere in between
+        assertEquals(2, rideService.searchRides("Chennai", "Bangalore").size());
+    }
+
+    private static CreateRideRequest ride(String source, String destination, LocalDateTime departure, int seats,
+                                          String carNumber) {
+        return new CreateRideRequest(source, destination, departure, seats, "Swift", carNumber, "Grey");
+    }
+
+    private static List<Long> rideIds(List<RideResponse> rides) {
+        List<Long> ids = new ArrayList<>();
+        for (RideResponse ride : rides) {
+            ids.add(ride.getId());
+        }
+        ids.sort(null);
+        return ids;
+    }
+}
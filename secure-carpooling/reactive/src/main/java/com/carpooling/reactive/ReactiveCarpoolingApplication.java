@@ -0,0 +1,19 @@
+package com.carpooling.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Reactive read API (/api/v2) next to the servlet application, on the same database.
+ * Lives outside com.carpooling.securecarpooling so neither application scans the other's
+ * components when both run in one JVM (see the load test's ReactiveComparison).
+ */
+@SpringBootApplication
+public class ReactiveCarpoolingApplication {
+
+	public static void main(String[] args) {
+
+        SpringApplication.run(ReactiveCarpoolingApplication.class, args);
+	}
+
+}
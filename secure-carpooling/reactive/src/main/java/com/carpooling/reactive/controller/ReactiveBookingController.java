@@ -0,0 +1,45 @@
+package com.carpooling.reactive.controller;
+
+import com.carpooling.reactive.repository.RideReadRepository;
+import com.carpooling.securecarpooling.dto.BookingResponse;
+import com.carpooling.securecarpooling.dto.MessageResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive counterpart of BookingController's my-bookings, streamed like ReactiveRideController.
+ */
+@RestController
+@RequestMapping("/api/v2/bookings")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ReactiveBookingController {
+
+    @Autowired
+    private RideReadRepository rideReadRepository;
+
+    /**
+     * Get all bookings made by logged-in user (as passenger)
+     * GET: http://localhost:8081/api/v2/bookings/my-bookings
+     * Header: userId (Long)
+     * @param userId - User ID from header
+     * @return List of user's bookings
+     */
+    @GetMapping(value = "/my-bookings", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<BookingResponse> getMyBookings(@RequestHeader("userId") Long userId) {
+        return rideReadRepository.getMyBookings(userId);
+    }
+
+    /**
+     * Database failures before the first booking was written; later ones end the response early
+     */
+    @ExceptionHandler(DataAccessException.class)
+    public ResponseEntity<MessageResponse> handleDataAccess(DataAccessException e) {
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Failed to fetch bookings: " + e.getMessage()));
+    }
+}
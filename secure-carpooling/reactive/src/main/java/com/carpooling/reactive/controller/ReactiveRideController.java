@@ -0,0 +1,66 @@
+package com.carpooling.reactive.controller;
+
+import com.carpooling.reactive.repository.RideReadRepository;
+import com.carpooling.securecarpooling.dto.MessageResponse;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Reactive counterparts of RideController's list reads. Responses are written as they are read,
+ * as one JSON array or, with Accept: application/x-ndjson, one ride per line.
+ */
+@RestController
+@RequestMapping("/api/v2/rides")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ReactiveRideController {
+
+    @Autowired
+    private RideReadRepository rideReadRepository;
+
+    /**
+     * Get all available rides
+     * GET: http://localhost:8081/api/v2/rides/available
+     * @return Upcoming active rides with free seats, by departure
+     */
+    @GetMapping(value = "/available", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<RideResponse> getAvailableRides() {
+        return rideReadRepository.getAvailableRides(LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES));
+    }
+
+    /**
+     * Search rides by source and destination
+     * GET: http://localhost:8081/api/v2/rides/search?source=Chennai&destination=Bangalore
+     * @param source - Starting location
+     * @param destination - Ending location
+     * @return Matching rides; all available rides if source or destination is missing
+     */
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<RideResponse> searchRides(
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) String destination) {
+
+        if (source != null && !source.trim().isEmpty() &&
+                destination != null && !destination.trim().isEmpty()) {
+            return rideReadRepository.searchRides(source, destination);
+        }
+        return getAvailableRides();
+    }
+
+    /**
+     * Database failures before the first ride was written; later ones end the response early
+     */
+    @ExceptionHandler(DataAccessException.class)
+    public ResponseEntity<MessageResponse> handleDataAccess(DataAccessException e) {
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new MessageResponse("Failed to fetch rides: " + e.getMessage()));
+    }
+}
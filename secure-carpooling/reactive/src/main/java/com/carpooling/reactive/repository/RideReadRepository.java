@@ -0,0 +1,281 @@
+package com.carpooling.reactive.repository;
+
+import com.carpooling.securecarpooling.dto.BookingResponse;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.model.BookingStatus;
+import com.carpooling.securecarpooling.model.RideStatus;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Ride and booking reads over R2DBC, producing the same RideResponse and BookingResponse as
+ * RideService and BookingService. Each list is one joined query whose rows are turned into
+ * responses as they arrive. Demand is passed on in batches of fetch-size, both to the driver
+ * (rows per round trip) and upstream of the response writer, so a slow client holds back the
+ * database cursor instead of a full list piling up in memory.
+ *
+ * A ride with intermediate stops comes as one row per stop (ordered by stop index) and is
+ * assembled from consecutive rows; rides with only source and destination have no stop rows.
+ *
+ * quotedPricePerSeat is left out: the demand multiplier it applies lives in the servlet
+ * application's memory (PricingService), so only /api can quote a price.
+ */
+@Repository
+public class RideReadRepository {
+
+    private static final String RIDE_COLUMNS =
+            "SELECT r.id, r.source, r.destination, r.date_time, r.seats_available, r.total_seats, " +
+            "r.car_model, r.car_number, r.car_color, r.distance_km, r.price_per_seat, r.max_detour_km, " +
+            "r.template_id, r.status, r.stop_count, r.segment_seats, " +
+            "d.id AS driver_id, d.name AS driver_name, d.phone AS driver_phone, d.rating AS driver_rating, " +
+            "s.name AS stop_name " +
+            "FROM rides r " +
+            "JOIN users d ON d.id = r.driver_id " +
+            "LEFT JOIN ride_stops s ON s.ride_id = r.id AND r.stop_count > 2 ";
+
+    // Rides on the route and rides passing both places as stops, in order, as in RideService.searchRides;
+    // which of them have a seat free on the segments in between is checked once a ride is assembled
+    private static final String SEARCH_SQL = RIDE_COLUMNS +
+            "WHERE r.status = :status AND r.seats_available > 0 " +
+            "AND ((r.source = :source AND r.destination = :destination) " +
+            "OR EXISTS (SELECT 1 FROM ride_stops a JOIN ride_stops b ON b.ride_id = a.ride_id " +
+            "AND b.stop_index > a.stop_index " +
+            "WHERE a.ride_id = r.id AND a.name = :source AND b.name = :destination)) " +
+            "ORDER BY r.id, s.stop_index";
+
+    private static final String AVAILABLE_SQL = RIDE_COLUMNS +
+            "WHERE r.date_time > :now AND r.status = :status AND r.seats_available > 0 " +
+            "ORDER BY r.date_time, r.id, s.stop_index";
+
+    // Stop names for segment bookings; whole-route bookings (no from/to stop) use the route ends
+    private static final String MY_BOOKINGS_SQL =
+            "SELECT b.id, b.seats_booked, b.total_amount, b.status, b.booked_at, b.from_stop, b.to_stop, " +
+            "r.id AS ride_id, r.source, r.destination, r.date_time, r.car_model, r.car_number, r.car_color, " +
+            "r.stop_count, " +
+            "p.id AS passenger_id, p.name AS passenger_name, p.phone AS passenger_phone, " +
+            "d.id AS driver_id, d.name AS driver_name, d.phone AS driver_phone, " +
+            "fs.name AS from_stop_name, ts.name AS to_stop_name " +
+            "FROM bookings b " +
+            "JOIN rides r ON r.id = b.ride_id " +
+            "JOIN users p ON p.id = b.passenger_id " +
+            "JOIN users d ON d.id = r.driver_id " +
+            "LEFT JOIN ride_stops fs ON fs.ride_id = r.id AND r.stop_count > 2 " +
+            "AND fs.stop_index = COALESCE(b.from_stop, 0) " +
+            "LEFT JOIN ride_stops ts ON ts.ride_id = r.id AND r.stop_count > 2 " +
+            "AND ts.stop_index = COALESCE(b.to_stop, r.stop_count - 1) " +
+            "WHERE b.passenger_id = :passengerId " +
+            "ORDER BY b.id";
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    /**
+     * @param databaseClient - R2DBC client on the application's database
+     * @param fetchSize - Rows fetched per round trip, and elements requested at a time
+     */
+    public RideReadRepository(DatabaseClient databaseClient, @Value("${reactive.fetch-size:64}") int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Active rides with a seat free from source to destination, on their route or between two of their stops
+     * @param source - Starting location
+     * @param destination - Ending location
+     * @return Matching rides, by ID
+     */
+    public Flux<RideResponse> searchRides(String source, String destination) {
+        return rides(databaseClient.sql(SEARCH_SQL)
+                .bind("source", source)
+                .bind("destination", destination)
+                .bind("status", RideStatus.ACTIVE.getCode()))
+                .filter(ride -> ride.hasFreeSeats(source, destination));
+    }
+
+    /**
+     * Active rides with free seats departing after the given time
+     * @param now - Departure lower bound (exclusive)
+     * @return Upcoming rides, by departure
+     */
+    public Flux<RideResponse> getAvailableRides(LocalDateTime now) {
+        return rides(databaseClient.sql(AVAILABLE_SQL)
+                .bind("now", now)
+                .bind("status", RideStatus.ACTIVE.getCode()));
+    }
+
+    /**
+     * Bookings made by a passenger
+     * @param passengerId - Passenger's user ID
+     * @return The passenger's bookings, by ID
+     */
+    public Flux<BookingResponse> getMyBookings(Long passengerId) {
+        return databaseClient.sql(MY_BOOKINGS_SQL)
+                .bind("passengerId", passengerId)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(RideReadRepository::toBookingResponse)
+                .all()
+                .limitRate(fetchSize);
+    }
+
+    private Flux<RideResponse> rides(DatabaseClient.GenericExecuteSpec spec) {
+        return spec.filter(statement -> statement.fetchSize(fetchSize))
+                .map(RideRow::new)
+                .all()
+                .bufferUntilChanged(row -> row.id)
+                .map(RideReadRepository::toRideResponse)
+                .limitRate(fetchSize);
+    }
+
+    private static RideResponse toRideResponse(List<RideRow> rows) {
+        RideRow ride = rows.get(0);
+        RideResponse response = new RideResponse();
+        response.setId(ride.id);
+        response.setDriverId(ride.driverId);
+        response.setDriverName(ride.driverName);
+        response.setDriverPhone(ride.driverPhone);
+        response.setDriverRating(ride.driverRating);
+        response.setSource(ride.source);
+        response.setDestination(ride.destination);
+        response.setDateTime(ride.dateTime);
+        response.setSeatsAvailable(ride.seatsAvailable);
+        response.setTotalSeats(ride.totalSeats);
+        response.setCarModel(ride.carModel);
+        response.setCarNumber(ride.carNumber);
+        response.setCarColor(ride.carColor);
+        response.setDistanceKm(ride.distanceKm);
+        response.setPricePerSeat(ride.pricePerSeat);
+        response.setMaxDetourKm(ride.maxDetourKm);
+        response.setTemplateId(ride.templateId);
+        response.setStatus(RideStatus.fromCode(ride.status).name());
+
+        List<String> stops = new ArrayList<>();
+        if (ride.stopCount <= 2) {
+            stops.add(ride.source);
+            stops.add(ride.destination);
+        } else {
+            for (RideRow row : rows) {
+                stops.add(row.stopName);
+            }
+        }
+        response.setStops(stops);
+        response.setSegmentSeats(ride.segmentSeats);
+        return response;
+    }
+
+    private static BookingResponse toBookingResponse(Readable row) {
+        BookingResponse response = new BookingResponse();
+
+        response.setId(row.get("id", Long.class));
+        response.setRideId(row.get("ride_id", Long.class));
+        String source = row.get("source", String.class);
+        String destination = row.get("destination", String.class);
+        response.setSource(source);
+        response.setDestination(destination);
+        response.setRideDateTime(row.get("date_time", LocalDateTime.class));
+
+        response.setPassengerId(row.get("passenger_id", Long.class));
+        response.setPassengerName(row.get("passenger_name", String.class));
+        response.setPassengerPhone(row.get("passenger_phone", String.class));
+
+        response.setDriverId(row.get("driver_id", Long.class));
+        response.setDriverName(row.get("driver_name", String.class));
+        response.setDriverPhone(row.get("driver_phone", String.class));
+
+        response.setCarModel(row.get("car_model", String.class));
+        response.setCarNumber(row.get("car_number", String.class));
+        response.setCarColor(row.get("car_color", String.class));
+
+        response.setSeatsBooked(row.get("seats_booked", Integer.class));
+        // Same as Booking.boardingStop()/alightingStop() on Ride.getStopNames()
+        int stopCount = Objects.requireNonNull(row.get("stop_count", Integer.class));
+        Integer fromStop = row.get("from_stop", Integer.class);
+        Integer toStop = row.get("to_stop", Integer.class);
+        int boarding = fromStop != null ? fromStop : 0;
+        int alighting = toStop != null ? toStop : stopCount - 1;
+        response.setFromStop(stopCount > 2 ? row.get("from_stop_name", String.class)
+                : (boarding == 0 ? source : destination));
+        response.setToStop(stopCount > 2 ? row.get("to_stop_name", String.class)
+                : (alighting == 0 ? source : destination));
+        // Charged per seat, as in BookingService
+        Double totalAmount = Objects.requireNonNull(row.get("total_amount", Double.class));
+        int seatsBooked = Objects.requireNonNull(row.get("seats_booked", Integer.class));
+        response.setPricePerSeat(Math.round(totalAmount * 100.0 / seatsBooked) / 100.0);
+        response.setTotalAmount(totalAmount);
+        response.setStatus(BookingStatus.fromCode(Objects.requireNonNull(row.get("status", Short.class))).name());
+        response.setBookedAt(row.get("booked_at", LocalDateTime.class));
+
+        return response;
+    }
+
+    /**
+     * One result row of a ride query: the ride, its driver and at most one stop
+     */
+    private static final class RideRow {
+
+        final Long id;
+        final Long driverId;
+        final String driverName;
+        final String driverPhone;
+        final Double driverRating;
+        final String source;
+        final String destination;
+        final LocalDateTime dateTime;
+        final Integer seatsAvailable;
+        final Integer totalSeats;
+        final String carModel;
+        final String carNumber;
+        final String carColor;
+        final Double distanceKm;
+        final Double pricePerSeat;
+        final Double maxDetourKm;
+        final Long templateId;
+        final short status;
+        final int stopCount;
+        final List<Integer> segmentSeats;
+        final String stopName;
+
+        RideRow(Readable row) {
+            id = row.get("id", Long.class);
+            driverId = row.get("driver_id", Long.class);
+            driverName = row.get("driver_name", String.class);
+            driverPhone = row.get("driver_phone", String.class);
+            driverRating = row.get("driver_rating", Double.class);
+            source = row.get("source", String.class);
+            destination = row.get("destination", String.class);
+            dateTime = row.get("date_time", LocalDateTime.class);
+            seatsAvailable = row.get("seats_available", Integer.class);
+            totalSeats = row.get("total_seats", Integer.class);
+            carModel = row.get("car_model", String.class);
+            carNumber = row.get("car_number", String.class);
+            carColor = row.get("car_color", String.class);
+            distanceKm = row.get("distance_km", Double.class);
+            pricePerSeat = row.get("price_per_seat", Double.class);
+            maxDetourKm = row.get("max_detour_km", Double.class);
+            templateId = row.get("template_id", Long.class);
+            status = Objects.requireNonNull(row.get("status", Short.class));
+            stopCount = Objects.requireNonNull(row.get("stop_count", Integer.class));
+            segmentSeats = segmentSeats(row.get("segment_seats"));
+            stopName = row.get("stop_name", String.class);
+        }
+
+        // Integer[] from PostgreSQL, Object[] from H2
+        private static List<Integer> segmentSeats(Object value) {
+            if (value == null) {
+                return null;
+            }
+            List<Integer> seats = new ArrayList<>();
+            for (Object segment : (Object[]) value) {
+                seats.add(((Number) segment).intValue());
+            }
+            return seats;
+        }
+    }
+}
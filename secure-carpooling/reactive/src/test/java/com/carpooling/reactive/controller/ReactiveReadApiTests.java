@@ -0,0 +1,141 @@
+package com.carpooling.reactive.controller;
+
+import com.carpooling.securecarpooling.dto.BookingResponse;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The v2 read API on an in-memory H2 database in PostgreSQL mode, migrated with the application's
+ * Flyway scripts and filled over JDBC.
+ */
+@SpringBootTest(properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///carpooling_reactive?options=MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "reactive.fetch-size=2"
+})
+@AutoConfigureWebTestClient
+class ReactiveReadApiTests {
+
+    private static final String JDBC_URL =
+            "jdbc:h2:mem:carpooling_reactive;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeAll
+    static void createData() throws Exception {
+        Flyway.configure().dataSource(JDBC_URL, "sa", "").locations("classpath:db/migration/h2").load().migrate();
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1).withNano(0);
+        try (Connection connection = DriverManager.getConnection(JDBC_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (id, name, email, phone, password, role, rating) VALUES "
+                    + "(1, 'Driver', 'driver@example.com', '5500000001', 'x', 'USER', 4.5), "
+                    + "(2, 'Passenger', 'passenger@example.com', '5500000002', 'x', 'USER', 5.0)");
+            // 10: direct, 11: with an intermediate stop, 12: full, 13: cancelled, 14: departed
+            String ride = "INSERT INTO rides (id, driver_id, source, destination, date_time, seats_available, "
+                    + "total_seats, car_model, car_number, car_color, distance_km, price_per_seat, status, stop_count) "
+                    + "VALUES (?, 1, 'Chennai', 'Bangalore', ?, ?, 3, 'Swift', ?, 'White', 350.0, 700.0, ?, ?)";
+            try (PreparedStatement insert = connection.prepareStatement(ride)) {
+                Object[][] rides = {
+                        {10L, tomorrow.plusHours(2), 2, (short) 0, 2},
+                        {11L, tomorrow.plusHours(1), 3, (short) 0, 3},
+                        {12L, tomorrow, 0, (short) 0, 2},
+                        {13L, tomorrow, 3, (short) 3, 2},
+                        {14L, LocalDateTime.now().minusHours(1), 3, (short) 0, 2}
+                };
+                for (Object[] values : rides) {
+                    insert.setLong(1, (Long) values[0]);
+                    insert.setTimestamp(2, Timestamp.valueOf((LocalDateTime) values[1]));
+                    insert.setInt(3, (Integer) values[2]);
+                    insert.setString(4, "TN-" + values[0]);
+                    insert.setShort(5, (Short) values[3]);
+                    insert.setInt(6, (Integer) values[4]);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            statement.execute("INSERT INTO ride_stops (ride_id, stop_index, name, distance_km) VALUES "
+                    + "(11, 0, 'Chennai', 0.0), (11, 1, 'Vellore', 140.0), (11, 2, 'Bangalore', 350.0)");
+            statement.execute("UPDATE rides SET segment_seats = ARRAY[3, 3] WHERE id = 11");
+            // 15: passes Chennai and Bangalore as stops, 16: passes them but is full in between
+            statement.execute("INSERT INTO rides (id, driver_id, source, destination, date_time, seats_available, "
+                    + "total_seats, car_model, car_number, car_color, distance_km, price_per_seat, status, stop_count, "
+                    + "segment_seats) VALUES "
+                    + "(15, 1, 'Madurai', 'Bangalore', TIMESTAMP '" + Timestamp.valueOf(tomorrow.plusHours(3)) + "', "
+                    + "2, 3, 'Swift', 'TN-15', 'White', 810.0, 1400.0, 0, 3, ARRAY[0, 2]), "
+                    + "(16, 1, 'Chennai', 'Mysore', TIMESTAMP '" + Timestamp.valueOf(tomorrow.plusHours(4)) + "', "
+                    + "3, 3, 'Swift', 'TN-16', 'White', 490.0, 900.0, 0, 3, ARRAY[0, 3])");
+            statement.execute("INSERT INTO ride_stops (ride_id, stop_index, name, distance_km) VALUES "
+                    + "(15, 0, 'Madurai', 0.0), (15, 1, 'Chennai', 460.0), (15, 2, 'Bangalore', 810.0), "
+                    + "(16, 0, 'Chennai', 0.0), (16, 1, 'Bangalore', 350.0), (16, 2, 'Mysore', 490.0)");
+            statement.execute("INSERT INTO bookings (id, ride_id, passenger_id, seats_booked, total_amount, status, "
+                    + "booked_at, from_stop, to_stop) VALUES "
+                    + "(20, 10, 2, 1, 700.0, 0, CURRENT_TIMESTAMP, NULL, NULL), "
+                    + "(21, 11, 2, 2, 560.0, 0, CURRENT_TIMESTAMP, 1, NULL)");
+        }
+    }
+
+    @Test
+    void searchAssemblesStopsAndSkipsFullOrCancelledRides() {
+        List<RideResponse> rides = webTestClient.get().uri("/api/v2/rides/search?source=Chennai&destination=Bangalore")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(RideResponse.class).returnResult().getResponseBody();
+
+        assertEquals(4, rides.size());
+        assertEquals(List.of(10L, 11L, 14L, 15L), rides.stream().map(RideResponse::getId).toList());
+        assertEquals(List.of("Chennai", "Bangalore"), rides.get(0).getStops());
+        assertEquals(List.of("Chennai", "Vellore", "Bangalore"), rides.get(1).getStops());
+        assertEquals(List.of(3, 3), rides.get(1).getSegmentSeats());
+        assertEquals(List.of("Madurai", "Chennai", "Bangalore"), rides.get(3).getStops());
+        assertEquals("Driver", rides.get(1).getDriverName());
+        assertEquals("ACTIVE", rides.get(1).getStatus());
+    }
+
+    @Test
+    void availableStreamsUpcomingRidesAsNdjson() {
+        List<RideResponse> rides = webTestClient.get().uri("/api/v2/rides/available")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(RideResponse.class).getResponseBody().collectList().block();
+
+        assertEquals(List.of(11L, 10L, 15L, 16L), rides.stream().map(RideResponse::getId).toList());
+    }
+
+    @Test
+    void myBookingsResolvesStopNames() {
+        List<BookingResponse> bookings = webTestClient.get().uri("/api/v2/bookings/my-bookings")
+                .header("userId", "2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(BookingResponse.class).returnResult().getResponseBody();
+
+        assertEquals(2, bookings.size());
+        assertEquals("Chennai", bookings.get(0).getFromStop());
+        assertEquals("Bangalore", bookings.get(0).getToStop());
+        assertEquals("Vellore", bookings.get(1).getFromStop());
+        assertEquals("Bangalore", bookings.get(1).getToStop());
+        assertEquals("CONFIRMED", bookings.get(1).getStatus());
+        assertEquals("Passenger", bookings.get(1).getPassengerName());
+    }
+}
@@ -0,0 +1,105 @@
+#!/usr/bin/env bash
+# Smoke test of the native image, compared with the JVM build of the same code.
+#
+# Build both with "mvn -Pnative,native-smoke -DskipTests package native:compile" (GraalVM JDK as
+# JAVA_HOME): target/secure-carpooling is the native binary, the jar is the JVM build. Each variant
+# runs with the standalone profile (in-memory H2, in-process blockchain node), then registers a
+# driver and a passenger, creates and books a ride, reads the booking back and waits for the
+# readiness probe, which includes the node. Prints startup time, time to first request and
+# resident memory after the smoke calls (current and peak) per variant.
+#
+# Usage: scripts/native-smoke.sh [native-binary] [jar]
+#   Run from secure-carpooling/, where the in-process node finds ../blockchain/build/contracts.
+#   A missing native binary is reported and skipped, so the JVM half runs anywhere.
+set -euo pipefail
+
+NATIVE_BIN=${1:-target/secure-carpooling}
+APP_JAR=${2:-$(ls target/secure-carpooling-*.jar | grep -v -- '-classes.jar' | head -1)}
+PORT=${PORT:-18080}
+BASE="http://localhost:$PORT"
+LOG=$(mktemp)
+pid=
+
+cleanup() {
+    if [ -n "$pid" ]; then
+        kill "$pid" 2>/dev/null || true
+        wait "$pid" 2>/dev/null || true
+        pid=
+    fi
+}
+trap 'cleanup; rm -f "$LOG"' EXIT
+
+fail() {
+    echo "FAIL ($1): $2" >&2
+    cat "$LOG" >&2
+    exit 1
+}
+
+# POST JSON, print the response body, fail on a non-2xx status
+post() {
+    curl -sf -X POST -H 'Content-Type: application/json' "${@:3}" -d "$2" "$BASE$1"
+}
+
+field() {
+    grep -o "\"$1\":[0-9]*" | head -1 | cut -d: -f2
+}
+
+rss_kb() {
+    awk -v key="$1:" '$1 == key { print $2 }' "/proc/$pid/status"
+}
+
+# run_variant <name> <command...>
+run_variant() {
+    local name=$1
+    shift
+    : > "$LOG"
+    local start first
+    start=$(date +%s%N)
+    "$@" --spring.profiles.active=standalone --server.port="$PORT" > "$LOG" 2>&1 &
+    pid=$!
+
+    until curl -sf -o /dev/null "$BASE/api/rides/available"; do
+        kill -0 "$pid" 2>/dev/null || fail "$name" "exited during startup"
+        sleep 0.02
+    done
+    first=$(date +%s%N)
+
+    local tag driver passenger ride
+    tag=$name-$$
+    post /api/auth/register "{\"name\":\"Smoke Driver\",\"email\":\"driver-$tag@example.com\",\"phone\":\"5300000001\",\"password\":\"secret1\",\"idProof\":\"D1\"}" > /dev/null \
+        || fail "$name" "register driver"
+    post /api/auth/register "{\"name\":\"Smoke Passenger\",\"email\":\"passenger-$tag@example.com\",\"phone\":\"5300000002\",\"password\":\"secret1\",\"idProof\":\"P1\"}" > /dev/null \
+        || fail "$name" "register passenger"
+    driver=$(post /api/auth/login "{\"email\":\"driver-$tag@example.com\",\"password\":\"secret1\"}" | field userId) \
+        || fail "$name" "login driver"
+    passenger=$(post /api/auth/login "{\"email\":\"passenger-$tag@example.com\",\"password\":\"secret1\"}" | field userId) \
+        || fail "$name" "login passenger"
+    ride=$(post /api/rides/create "{\"source\":\"Smokeville\",\"destination\":\"Nativepur\",\"dateTime\":\"$(date -d tomorrow +%Y-%m-%dT09:00:00)\",\"seatsAvailable\":3,\"carModel\":\"Swift\",\"carNumber\":\"SMOKE-1\",\"carColor\":\"Grey\"}" \
+        -H "userId: $driver" | field id) || fail "$name" "create ride"
+    post /api/bookings/book "{\"rideId\":$ride,\"seatsBooked\":1}" -H "userId: $passenger" > /dev/null \
+        || fail "$name" "book ride"
+    curl -sf -H "userId: $passenger" "$BASE/api/bookings/my-bookings" | grep -q "\"rideId\":$ride" \
+        || fail "$name" "booking not listed"
+    for _ in $(seq 100); do
+        curl -sf -o /dev/null "$BASE/actuator/health/readiness" && break
+        sleep 0.1
+    done
+    curl -sf -o /dev/null "$BASE/actuator/health/readiness" || fail "$name" "not ready"
+
+    local started
+    started=$(grep -o 'Started SecureCarpoolingApplication in [0-9.]* seconds' "$LOG" | grep -o '[0-9.]*' | head -1 || true)
+    printf '%-10s %12s %16s %14s %14s\n' "$name" "${started:-n/a} s" "$(( (first - start) / 1000000 )) ms" \
+        "$(( $(rss_kb VmRSS) / 1024 )) MB" "$(( $(rss_kb VmHWM) / 1024 )) MB"
+    cleanup
+}
+
+printf '%-10s %12s %16s %14s %14s\n' variant startup "first request" "RSS" "peak RSS"
+if [ -x "$NATIVE_BIN" ]; then
+    run_variant native "$NATIVE_BIN"
+else
+    echo "native     skipped: no binary at $NATIVE_BIN"
+fi
+# shellcheck disable=SC2086
+run_variant jvm java ${JAVA_OPTS:-} -jar "$APP_JAR"
+# shellcheck disable=SC2086
+run_variant jvm-aot java ${JAVA_OPTS:-} -Dspring.aot.enabled=true -jar "$APP_JAR"
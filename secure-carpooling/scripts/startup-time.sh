@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Cold start and time to first request of the packaged application.
+#
+# Starts the extracted jar against an in-memory H2 database (no PostgreSQL needed), polls
+# GET /api/rides/available until it answers 200 and prints both times. Extra JVM options
+# (e.g. -XX:SharedArchiveFile=... -Dspring.aot.enabled=true) are taken from JAVA_OPTS.
+#
+# Usage: scripts/startup-time.sh [extracted-dir] [rpc-url]
+#   extracted-dir  output of "java -Djarmode=tools -jar app.jar extract" (default target/extracted)
+#   rpc-url        blockchain node; an unroutable address shows the cost of an unreachable node
+set -euo pipefail
+
+APP_DIR=${1:-target/extracted}
+RPC_URL=${2:-http://127.0.0.1:7545}
+PORT=${PORT:-18080}
+H2_JAR=${H2_JAR:-$(find ~/.m2/repository/com/h2database/h2 -name 'h2-*.jar' | sort | tail -1)}
+LOG=$(mktemp)
+
+# Run from the extracted directory with the jar named as in the CDS training run, so an archive matches
+cd "$APP_DIR"
+APP_JAR=$(ls secure-carpooling-*.jar)
+
+start=$(date +%s%N)
+# shellcheck disable=SC2086
+java ${JAVA_OPTS:-} -cp "$APP_JAR:$H2_JAR" com.carpooling.securecarpooling.SecureCarpoolingApplication \
+    --server.port="$PORT" \
+    --spring.datasource.url="jdbc:h2:mem:startup;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH" \
+    --spring.datasource.username=sa --spring.datasource.password= \
+    --spring.datasource.driver-class-name=org.h2.Driver \
+    --spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect \
+    --blockchain.rpc.url="$RPC_URL" > "$LOG" 2>&1 &
+pid=$!
+trap 'kill $pid 2>/dev/null; wait $pid 2>/dev/null || true; rm -f "$LOG"' EXIT
+
+until curl -sf -o /dev/null "http://localhost:$PORT/api/rides/available"; do
+    if ! kill -0 $pid 2>/dev/null; then
+        cat "$LOG"
+        exit 1
+    fi
+    sleep 0.02
+done
+first=$(date +%s%N)
+
+started=$(grep -o 'Started SecureCarpoolingApplication in [0-9.]* seconds' "$LOG" | grep -o '[0-9.]* seconds' || true)
+echo "cold start (Spring Boot):  ${started:-n/a}"
+echo "time to first request:     $(( (first - start) / 1000000 )) ms"
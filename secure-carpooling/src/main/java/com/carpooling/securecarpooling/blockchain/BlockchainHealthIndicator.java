@@ -0,0 +1,102 @@
+package com.carpooling.securecarpooling.blockchain;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.v;
+
+/**
+ * Blockchain node connectivity as a health indicator ("blockchain"), part of the readiness
+ * probe (/actuator/health/readiness).
+ *
+ * The node is checked on a background thread once the application is ready and then every
+ * blockchain.health.interval-ms, so neither startup nor a probe ever waits on the node; a
+ * probe answers with the last result. Until the first check completes the node counts as
+ * out of service. Connection changes are logged once, not on every check.
+ */
+@Component("blockchain")
+public class BlockchainHealthIndicator implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(BlockchainHealthIndicator.class);
+
+    @Autowired
+    private Web3j web3j;
+
+    @Autowired
+    private Credentials credentials;
+
+    @Value("${blockchain.contract.address}")
+    private String contractAddress;
+
+    @Value("${blockchain.rpc.url}")
+    private String rpcUrl;
+
+    @Value("${blockchain.health.interval-ms:15000}")
+    private long intervalMillis;
+
+    private volatile Health health = Health.outOfService().withDetail("reason", "Not checked yet").build();
+
+    private ScheduledExecutorService checker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startChecking() {
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "blockchain-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::check, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stopChecking() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+    }
+
+    @Override
+    public Health health() {
+        return health;
+    }
+
+    /**
+     * Ask the node for its client version and keep the outcome for the next probes
+     */
+    void check() {
+        Status previous = health.getStatus();
+        try {
+            String clientVersion = web3j.web3ClientVersion().send().getWeb3ClientVersion();
+            health = Health.up()
+                    .withDetail("clientVersion", clientVersion)
+                    .withDetail("contractAddress", contractAddress)
+                    .withDetail("accountAddress", credentials.getAddress())
+                    .build();
+            if (!Status.UP.equals(previous)) {
+                log.info("Connected to blockchain {}, contract {}, account {}", v("clientVersion", clientVersion),
+                        v("contractAddress", contractAddress), v("accountAddress", credentials.getAddress()));
+            }
+        } catch (Exception e) {
+            health = Health.down().withDetail("error", String.valueOf(e.getMessage())).build();
+            if (!Status.DOWN.equals(previous)) {
+                log.error("Blockchain connection failed: {} (make sure the node at {} is running)",
+                        e.getMessage(), rpcUrl);
+            }
+        }
+    }
+}
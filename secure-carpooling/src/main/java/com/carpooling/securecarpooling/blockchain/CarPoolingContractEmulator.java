@@ -0,0 +1,282 @@
+package com.carpooling.securecarpooling.blockchain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.Utils;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.Utf8String;
+import org.web3j.abi.datatypes.generated.Bytes32;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.crypto.Hash;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Java stand-in for CarPooling.sol, driven by the contract's Truffle artifact.
+ *
+ * The ABI in the artifact supplies function selectors, argument decoding, return
+ * encoding and event signatures, so calls look exactly as they would against the
+ * deployed contract. The state changes of createRide, bookRide, cancelBooking, anchorImport and
+ * anchorTemplate and the public getters are re-implemented here instead of running the bytecode
+ * in an EVM.
+ * Not thread-safe; InProcessEthereumService serializes access.
+ */
+public class CarPoolingContractEmulator {
+
+    private final Map<String, AbiFunction> functions = new HashMap<>();
+    private final Map<String, String> eventTopics = new HashMap<>();
+    private final String deployedBytecode;
+
+    // Storage of the contract: rides, bookings, cancellations, imports and templates by ID, as their struct fields
+    private final Map<BigInteger, List<Type<?>>> rides = new HashMap<>();
+    private final Map<BigInteger, List<Type<?>>> bookings = new HashMap<>();
+    private final Map<BigInteger, List<Type<?>>> cancellations = new HashMap<>();
+    private final Map<BigInteger, List<Type<?>>> imports = new HashMap<>();
+    private final Map<BigInteger, List<Type<?>>> templates = new HashMap<>();
+    private long rideCount;
+    private long bookingCount;
+    private long cancellationCount;
+    private long importCount;
+    private long templateCount;
+
+    /**
+     * Read the ABI and deployed bytecode from a Truffle build artifact
+     * @param artifact - Content of CarPooling.json
+     * @return Emulator with empty storage
+     * @throws IOException if the artifact cannot be read or has no ABI
+     */
+    public static CarPoolingContractEmulator load(InputStream artifact) throws IOException {
+        JsonNode json = new ObjectMapper().readTree(artifact);
+        if (!json.path("abi").isArray()) {
+            throw new IOException("Contract artifact has no ABI");
+        }
+        return new CarPoolingContractEmulator(json.get("abi"), json.path("deployedBytecode").asText("0x"));
+    }
+
+    private CarPoolingContractEmulator(JsonNode abi, String deployedBytecode) throws IOException {
+        this.deployedBytecode = deployedBytecode;
+        for (JsonNode entry : abi) {
+            String name = entry.path("name").asText();
+            List<String> inputs = types(entry.path("inputs"));
+            String signature = name + "(" + String.join(",", inputs) + ")";
+            if ("function".equals(entry.path("type").asText())) {
+                AbiFunction function = new AbiFunction(name, inputs, types(entry.path("outputs")),
+                        !"view".equals(entry.path("stateMutability").asText()));
+                functions.put(Hash.sha3String(signature).substring(0, 10), function);
+            } else if ("event".equals(entry.path("type").asText())) {
+                eventTopics.put(name, Hash.sha3String(signature));
+            }
+        }
+    }
+
+    public String getDeployedBytecode() {
+        return deployedBytecode;
+    }
+
+    /**
+     * Run a state-changing call, as a mined transaction would
+     * @param data - Call data: 4-byte selector followed by the ABI-encoded arguments
+     * @param sender - Address that signed the transaction (msg.sender)
+     * @param timestamp - Block timestamp in seconds (block.timestamp)
+     * @return Events emitted, or null if the call reverts
+     */
+    public List<Event> execute(String data, String sender, long timestamp) {
+        AbiFunction function = function(data);
+        if (function == null || !function.mutating) {
+            return null;
+        }
+        List<Type<?>> args = function.decode(data);
+        Address from = new Address(sender);
+        Uint256 now = new Uint256(timestamp);
+
+        switch (function.name) {
+            case "createRide":
+                rideCount++;
+                rides.put(uint(args, 0), Arrays.asList(args.get(0), from, args.get(1), args.get(2),
+                        args.get(3), args.get(4), now));
+                return List.of(event("RideCreated", args.get(0), from, args.get(1), args.get(2)));
+            case "bookRide":
+                bookingCount++;
+                bookings.put(uint(args, 0), Arrays.asList(args.get(0), args.get(1), from, args.get(2),
+                        args.get(3), now));
+                return List.of(event("RideBooked", args.get(0), args.get(1), from, args.get(3)));
+            case "cancelBooking":
+                cancellationCount++;
+                cancellations.put(uint(args, 0), Arrays.asList(args.get(0), from, args.get(1), args.get(2), now));
+                return List.of(event("BookingCancelled", args.get(0), from, args.get(2)));
+            case "anchorImport":
+                importCount++;
+                imports.put(uint(args, 0), Arrays.asList(args.get(0), from, args.get(1), args.get(2), now));
+                return List.of(event("RidesImported", args.get(0), from, args.get(1), args.get(2)));
+            case "anchorTemplate":
+                templateCount++;
+                templates.put(uint(args, 0), Arrays.asList(args.get(0), from, args.get(1), args.get(2),
+                        args.get(3), args.get(4), now));
+                return List.of(event("TemplateAnchored", args.get(0), from, args.get(1), args.get(2)));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Answer a read-only call (eth_call)
+     * @param data - Call data
+     * @return ABI-encoded return values, or null if the call reverts
+     */
+    public String call(String data) {
+        AbiFunction function = function(data);
+        if (function == null) {
+            return null;
+        }
+        if (function.mutating) {
+            return "0x"; // Simulating a transaction returns nothing; it changes no state
+        }
+        List<Type<?>> args = function.decode(data);
+
+        List<Type<?>> result;
+        switch (function.name) {
+            case "rideCount":
+                result = List.of(new Uint256(rideCount));
+                break;
+            case "bookingCount":
+                result = List.of(new Uint256(bookingCount));
+                break;
+            case "cancellationCount":
+                result = List.of(new Uint256(cancellationCount));
+                break;
+            case "importCount":
+                result = List.of(new Uint256(importCount));
+                break;
+            case "templateCount":
+                result = List.of(new Uint256(templateCount));
+                break;
+            case "rides":
+            case "getRide":
+                result = rides.get(uint(args, 0));
+                break;
+            case "bookings":
+            case "getBooking":
+                result = bookings.get(uint(args, 0));
+                break;
+            case "cancellations":
+                result = cancellations.get(uint(args, 0));
+                break;
+            case "imports":
+                result = imports.get(uint(args, 0));
+                break;
+            case "templates":
+                result = templates.get(uint(args, 0));
+                break;
+            default:
+                return null;
+        }
+        return "0x" + encode(result != null ? result : function.zeroOutputs());
+    }
+
+    private AbiFunction function(String data) {
+        return data == null || data.length() < 10 ? null : functions.get(data.substring(0, 10).toLowerCase());
+    }
+
+    private Event event(String name, Type<?>... values) {
+        return new Event(eventTopics.get(name), "0x" + encode(Arrays.asList(values)));
+    }
+
+    private static String encode(List<Type<?>> values) {
+        return FunctionEncoder.encodeConstructor(List.copyOf(values));
+    }
+
+    private static BigInteger uint(List<Type<?>> args, int index) {
+        return ((Uint256) args.get(index)).getValue();
+    }
+
+    private static List<String> types(JsonNode params) {
+        List<String> types = new ArrayList<>();
+        for (JsonNode param : params) {
+            types.add(param.path("type").asText());
+        }
+        return types;
+    }
+
+    /**
+     * A log entry: event signature topic and ABI-encoded (non-indexed) values
+     */
+    public static final class Event {
+
+        private final String topic;
+        private final String data;
+
+        Event(String topic, String data) {
+            this.topic = topic;
+            this.data = data;
+        }
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public String getData() {
+            return data;
+        }
+    }
+
+    // A function from the ABI
+    private static final class AbiFunction {
+
+        private final String name;
+        private final List<TypeReference<?>> inputs = new ArrayList<>();
+        private final List<String> outputs;
+        private final boolean mutating;
+
+        private AbiFunction(String name, List<String> inputTypes, List<String> outputs, boolean mutating)
+                throws IOException {
+            this.name = name;
+            this.outputs = outputs;
+            this.mutating = mutating;
+            try {
+                for (String type : inputTypes) {
+                    inputs.add(TypeReference.makeTypeReference(type));
+                }
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Unsupported ABI type in " + name + ": " + e.getMessage(), e);
+            }
+        }
+
+        private List<Type<?>> decode(String data) {
+            return FunctionReturnDecoder.decode(data.substring(10), Utils.convert(inputs)).stream()
+                    .<Type<?>>map(value -> value)
+                    .toList();
+        }
+
+        // Solidity returns zero values for a mapping key that was never written
+        private List<Type<?>> zeroOutputs() {
+            List<Type<?>> zeros = new ArrayList<>();
+            for (String type : outputs) {
+                switch (type) {
+                    case "address":
+                        zeros.add(Address.DEFAULT);
+                        break;
+                    case "string":
+                        zeros.add(Utf8String.DEFAULT);
+                        break;
+                    case "bytes32":
+                        zeros.add(Bytes32.DEFAULT);
+                        break;
+                    default:
+                        zeros.add(Uint256.DEFAULT);
+                }
+            }
+            return zeros;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.carpooling.securecarpooling.blockchain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.SignedRawTransaction;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.protocol.Service;
+import org.web3j.utils.Numeric;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ethereum node inside the JVM, for tests, benchmarks and load tests that should not
+ * depend on Ganache.
+ *
+ * It plugs into web3j below the JSON-RPC layer, so BlockchainService signs and sends
+ * transactions exactly as it does against a real node. Signed transactions are decoded,
+ * their sender and nonce are checked, and each one is mined into its own block at once.
+ * Calls to the contract address go to a CarPoolingContractEmulator; the receipt carries
+ * its events, and eth_call reads its storage.
+ *
+ * Latency (fixed plus random jitter) and failures (a share of calls throwing an
+ * IOException, as when the node is unreachable) can be injected, also while running.
+ */
+public class InProcessEthereumService extends Service {
+
+    private static final String CLIENT_VERSION = "SecureCarpooling/InProcessEthereum";
+    private static final long CHAIN_ID = 1337;
+    private static final BigInteger GAS_PRICE = BigInteger.valueOf(20_000_000_000L);
+    private static final BigInteger GAS_USED = BigInteger.valueOf(100_000);
+
+    private final CarPoolingContractEmulator contract;
+    private final String contractAddress;
+
+    private volatile long latencyMillis;
+    private volatile long jitterMillis;
+    private volatile double failureRate;
+
+    // Chain state, guarded by this
+    private final Map<String, BigInteger> nonces = new HashMap<>();
+    private final Map<String, ObjectNode> transactions = new HashMap<>();
+    private final Map<String, ObjectNode> receipts = new HashMap<>();
+    private long blockNumber;
+
+    /**
+     * @param contract - Contract to serve
+     * @param contractAddress - Address the contract is deployed at
+     */
+    public InProcessEthereumService(CarPoolingContractEmulator contract, String contractAddress) {
+        super(false);
+        this.contract = contract;
+        this.contractAddress = contractAddress.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Delay every call by a fixed time plus a random share of the jitter
+     * @param latencyMillis - Fixed delay
+     * @param jitterMillis - Largest extra random delay
+     */
+    public void setLatency(long latencyMillis, long jitterMillis) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+    }
+
+    /**
+     * Fail a share of calls with an IOException
+     * @param failureRate - Probability from 0 (never) to 1 (always)
+     */
+    public void setFailureRate(double failureRate) {
+        if (failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("Failure rate must be between 0 and 1!");
+        }
+        this.failureRate = failureRate;
+    }
+
+    public synchronized long getBlockNumber() {
+        return blockNumber;
+    }
+
+    @Override
+    protected InputStream performIO(String payload) throws IOException {
+        simulateNetwork();
+        JsonNode request = objectMapper.readTree(payload);
+        JsonNode response;
+        if (request.isArray()) {
+            ArrayNode batch = objectMapper.createArrayNode();
+            for (JsonNode call : request) {
+                batch.add(answer(call));
+            }
+            response = batch;
+        } else {
+            response = answer(request);
+        }
+        return new ByteArrayInputStream(objectMapper.writeValueAsBytes(response));
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+    private void simulateNetwork() throws IOException {
+        long delay = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while simulating node latency", e);
+            }
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new IOException("Injected failure: node unreachable");
+        }
+    }
+
+    /**
+     * Answer one JSON-RPC call
+     * @param call - Request object with id, method and params
+     * @return Response object with a result or an error
+     */
+    private synchronized ObjectNode answer(JsonNode call) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.set("id", call.get("id"));
+        JsonNode params = call.path("params");
+
+        switch (call.path("method").asText()) {
+            case "web3_clientVersion":
+                response.put("result", CLIENT_VERSION);
+                break;
+            case "net_version":
+                response.put("result", String.valueOf(CHAIN_ID));
+                break;
+            case "eth_chainId":
+                response.put("result", Numeric.toHexStringWithPrefix(BigInteger.valueOf(CHAIN_ID)));
+                break;
+            case "eth_blockNumber":
+                response.put("result", Numeric.toHexStringWithPrefix(BigInteger.valueOf(blockNumber)));
+                break;
+            case "eth_gasPrice":
+                response.put("result", Numeric.toHexStringWithPrefix(GAS_PRICE));
+                break;
+            case "eth_estimateGas":
+                response.put("result", Numeric.toHexStringWithPrefix(GAS_USED));
+                break;
+            case "eth_accounts":
+                response.putArray("result");
+                break;
+            case "eth_getTransactionCount":
+                response.put("result", Numeric.toHexStringWithPrefix(nonce(params.path(0).asText())));
+                break;
+            case "eth_getCode":
+                response.put("result", contractAddress.equals(params.path(0).asText().toLowerCase(Locale.ROOT))
+                        ? contract.getDeployedBytecode() : "0x");
+                break;
+            case "eth_sendRawTransaction":
+                return sendRawTransaction(response, params.path(0).asText());
+            case "eth_getTransactionReceipt":
+                response.set("result", receipts.get(params.path(0).asText().toLowerCase(Locale.ROOT)));
+                break;
+            case "eth_getTransactionByHash":
+                response.set("result", transactions.get(params.path(0).asText().toLowerCase(Locale.ROOT)));
+                break;
+            case "eth_call":
+                return ethCall(response, params.path(0));
+            default:
+                return error(response, -32601, "Method not supported: " + call.path("method").asText());
+        }
+        return response;
+    }
+
+    /**
+     * Check, execute and mine a signed transaction
+     */
+    private ObjectNode sendRawTransaction(ObjectNode response, String signed) {
+        RawTransaction transaction;
+        String from;
+        try {
+            transaction = TransactionDecoder.decode(signed);
+            if (!(transaction instanceof SignedRawTransaction)) {
+                return error(response, -32000, "transaction is not signed");
+            }
+            from = ((SignedRawTransaction) transaction).getFrom().toLowerCase(Locale.ROOT);
+        } catch (Exception e) {
+            return error(response, -32000, "invalid transaction: " + e.getMessage());
+        }
+
+        BigInteger expected = nonce(from);
+        if (transaction.getNonce().compareTo(expected) != 0) {
+            return error(response, -32000, "the tx doesn't have the correct nonce. account has nonce of: "
+                    + expected + " tx has nonce of: " + transaction.getNonce());
+        }
+        nonces.put(from, expected.add(BigInteger.ONE));
+
+        String hash = Hash.sha3(signed).toLowerCase(Locale.ROOT);
+        String to = transaction.getTo() == null ? null : Numeric.prependHexPrefix(transaction.getTo()).toLowerCase(Locale.ROOT);
+        long block = ++blockNumber;
+        String blockHash = Hash.sha3(Numeric.toHexStringWithPrefix(BigInteger.valueOf(block)));
+
+        // Mine at once: one transaction per block
+        List<CarPoolingContractEmulator.Event> events = contractAddress.equals(to)
+                ? contract.execute(transaction.getData() == null ? null : Numeric.prependHexPrefix(transaction.getData()),
+                        from, System.currentTimeMillis() / 1000)
+                : List.of();
+
+        ObjectNode receipt = objectMapper.createObjectNode();
+        receipt.put("transactionHash", hash);
+        receipt.put("transactionIndex", "0x0");
+        receipt.put("blockHash", blockHash);
+        receipt.put("blockNumber", Numeric.toHexStringWithPrefix(BigInteger.valueOf(block)));
+        receipt.put("from", from);
+        receipt.put("to", to);
+        receipt.put("cumulativeGasUsed", Numeric.toHexStringWithPrefix(GAS_USED));
+        receipt.put("gasUsed", Numeric.toHexStringWithPrefix(GAS_USED));
+        receipt.put("status", events == null ? "0x0" : "0x1");
+        ArrayNode logs = receipt.putArray("logs");
+        if (events != null) {
+            for (int i = 0; i < events.size(); i++) {
+                ObjectNode log = logs.addObject();
+                log.put("address", contractAddress);
+                log.putArray("topics").add(events.get(i).getTopic());
+                log.put("data", events.get(i).getData());
+                log.put("logIndex", Numeric.toHexStringWithPrefix(BigInteger.valueOf(i)));
+                log.put("transactionHash", hash);
+                log.put("blockHash", blockHash);
+                log.put("blockNumber", receipt.get("blockNumber").asText());
+            }
+        }
+        receipts.put(hash, receipt);
+
+        ObjectNode mined = objectMapper.createObjectNode();
+        mined.put("hash", hash);
+        mined.put("nonce", Numeric.toHexStringWithPrefix(transaction.getNonce()));
+        mined.put("blockHash", blockHash);
+        mined.put("blockNumber", receipt.get("blockNumber").asText());
+        mined.put("transactionIndex", "0x0");
+        mined.put("from", from);
+        mined.put("to", to);
+        mined.put("value", Numeric.toHexStringWithPrefix(transaction.getValue()));
+        mined.put("gas", Numeric.toHexStringWithPrefix(transaction.getGasLimit()));
+        mined.put("gasPrice", Numeric.toHexStringWithPrefix(transaction.getGasPrice()));
+        mined.put("input", transaction.getData() == null ? "0x" : Numeric.prependHexPrefix(transaction.getData()));
+        transactions.put(hash, mined);
+
+        response.put("result", hash);
+        return response;
+    }
+
+    private ObjectNode ethCall(ObjectNode response, JsonNode call) {
+        String to = call.path("to").asText().toLowerCase(Locale.ROOT);
+        if (!contractAddress.equals(to)) {
+            response.put("result", "0x");
+            return response;
+        }
+        String result = contract.call(call.path("data").asText(call.path("input").asText()));
+        if (result == null) {
+            return error(response, -32000, "execution reverted");
+        }
+        response.put("result", result);
+        return response;
+    }
+
+    private BigInteger nonce(String address) {
+        return nonces.getOrDefault(address.toLowerCase(Locale.ROOT), BigInteger.ZERO);
+    }
+
+    private static ObjectNode error(ObjectNode response, int code, String message) {
+        ObjectNode error = response.putObject("error");
+        error.put("code", code);
+        error.put("message", message);
+        return response;
+    }
+}
@@ -1,25 +1,67 @@
 package com.carpooling.securecarpooling.config;
 
+import com.carpooling.securecarpooling.blockchain.CarPoolingContractEmulator;
+import com.carpooling.securecarpooling.blockchain.InProcessEthereumService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.web3j.crypto.Credentials;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.http.HttpService;
 import org.web3j.tx.gas.DefaultGasProvider;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 @Configuration
 public class BlockchainConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(BlockchainConfig.class);
+
     @Value("${blockchain.rpc.url}")
     private String rpcUrl;
 
     @Value("${blockchain.private.key}")
     private String privateKey;
 
+    /**
+     * Node connection: HTTP JSON-RPC (Ganache or any node) by default, or the in-process
+     * node when blockchain.backend=in-process
+     */
+    @Bean
+    public Web3j web3j(ObjectProvider<InProcessEthereumService> inProcessEthereum) {
+        InProcessEthereumService inProcess = inProcessEthereum.getIfAvailable();
+        return Web3j.build(inProcess != null ? inProcess : new HttpService(rpcUrl));
+    }
+
+    /**
+     * In-process node serving CarPooling.sol from its Truffle artifact at the configured contract address
+     */
     @Bean
-    public Web3j web3j() {
-        return Web3j.build(new HttpService(rpcUrl));
+    @ConditionalOnProperty(name = "blockchain.backend", havingValue = "in-process")
+    public InProcessEthereumService inProcessEthereumService(
+            ResourceLoader resourceLoader,
+            @Value("${blockchain.in-process.artifact:file:../blockchain/build/contracts/CarPooling.json}") String artifact,
+            @Value("${blockchain.contract.address}") String contractAddress,
+            @Value("${blockchain.in-process.latency-ms:0}") long latencyMillis,
+            @Value("${blockchain.in-process.jitter-ms:0}") long jitterMillis,
+            @Value("${blockchain.in-process.failure-rate:0.0}") double failureRate) throws IOException {
+
+        Resource resource = resourceLoader.getResource(artifact);
+        try (InputStream in = resource.getInputStream()) {
+            InProcessEthereumService service = new InProcessEthereumService(
+                    CarPoolingContractEmulator.load(in), contractAddress);
+            service.setLatency(latencyMillis, jitterMillis);
+            service.setFailureRate(failureRate);
+            log.info("In-process blockchain serving {} at {}", resource.getDescription(), contractAddress);
+            return service;
+        }
     }
 
     @Bean
@@ -31,4 +73,4 @@ public class BlockchainConfig {
     public DefaultGasProvider gasProvider() {
         return new DefaultGasProvider();
     }
-}
\ No newline at end of file
+}
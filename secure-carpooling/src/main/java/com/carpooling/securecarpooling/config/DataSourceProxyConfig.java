@@ -0,0 +1,35 @@
+package com.carpooling.securecarpooling.config;
+
+import com.carpooling.securecarpooling.metrics.QueryCounter;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceProxyConfig {
+
+    /**
+     * Wrap the DataSource so QueryCounter sees every statement executed through it.
+     * Static, so the post-processor is registered before the DataSource is created. Only the
+     * application's DataSource is wrapped, not the pools behind it when a read replica is
+     * configured, so no statement is counted twice.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof ProxyDataSource) && "dataSource".equals(beanName)) {
+                    return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                            .listener(new QueryCounter())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
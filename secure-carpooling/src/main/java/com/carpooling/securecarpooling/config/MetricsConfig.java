@@ -0,0 +1,43 @@
+package com.carpooling.securecarpooling.config;
+
+import com.carpooling.securecarpooling.metrics.QueryBudgetInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${query.budget.max-statements:25}")
+    private int maxStatements;
+
+    @Value("${query.budget.max-db-time-ms:500}")
+    private long maxDbMillis;
+
+    // log: record and warn about requests over budget; reject: also refuse their next statement
+    @Value("${query.budget.mode:log}")
+    private String mode;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Statements and database time per request, counted by QueryCounter on the DataSource proxy
+        if (!"log".equals(mode) && !"reject".equals(mode)) {
+            throw new IllegalStateException("query.budget.mode must be log or reject, not " + mode);
+        }
+        // Zero would read as no budget at all, so every request would pass unchecked
+        if (maxStatements < 1) {
+            throw new IllegalStateException("query.budget.max-statements must be at least 1, not " + maxStatements);
+        }
+        if (maxDbMillis < 1) {
+            throw new IllegalStateException("query.budget.max-db-time-ms must be at least 1, not " + maxDbMillis);
+        }
+        registry.addInterceptor(new QueryBudgetInterceptor(meterRegistry, maxStatements, maxDbMillis,
+                "reject".equals(mode))).addPathPatterns("/api/**");
+    }
+}
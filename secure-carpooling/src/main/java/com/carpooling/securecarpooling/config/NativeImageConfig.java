@@ -0,0 +1,110 @@
+package com.carpooling.securecarpooling.config;
+
+import com.carpooling.securecarpooling.dto.BookRideRequest;
+import com.carpooling.securecarpooling.dto.BookingResponse;
+import com.carpooling.securecarpooling.dto.CorridorRideResponse;
+import com.carpooling.securecarpooling.dto.CreateRideRequest;
+import com.carpooling.securecarpooling.dto.CreateRideTemplateRequest;
+import com.carpooling.securecarpooling.dto.LoginRequest;
+import com.carpooling.securecarpooling.dto.LoginResponse;
+import com.carpooling.securecarpooling.dto.MessageResponse;
+import com.carpooling.securecarpooling.dto.RegisterRequest;
+import com.carpooling.securecarpooling.dto.RequestRideRequest;
+import com.carpooling.securecarpooling.dto.RideDelta;
+import com.carpooling.securecarpooling.dto.RideRequestResponse;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.dto.RideTemplateResponse;
+import com.carpooling.securecarpooling.model.Booking;
+import com.carpooling.securecarpooling.model.BookingStatusConverter;
+import com.carpooling.securecarpooling.model.Ride;
+import com.carpooling.securecarpooling.model.RideRequest;
+import com.carpooling.securecarpooling.model.RideRequestStatusConverter;
+import com.carpooling.securecarpooling.model.RideStatusConverter;
+import com.carpooling.securecarpooling.model.RideStop;
+import com.carpooling.securecarpooling.model.RideTemplate;
+import com.carpooling.securecarpooling.model.User;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Bool;
+import org.web3j.abi.datatypes.Utf8String;
+import org.web3j.abi.datatypes.generated.Uint160;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.core.methods.response.Web3ClientVersion;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * GraalVM native image hints (mvn -Pnative native:compile) for what Spring AOT cannot see.
+ *
+ * Controllers return ResponseEntity<?>, so the DTOs are registered for Jackson binding here
+ * rather than inferred from handler signatures. web3j creates ABI types reflectively when it
+ * decodes and binds JSON-RPC messages with Jackson; datasource-proxy wraps JDBC objects in JDK
+ * proxies; Flyway migrations, the Ehcache configuration and the road network are loaded as
+ * classpath resources. On the JVM these hints are unused.
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.Hints.class)
+@RegisterReflectionForBinding({
+        BookRideRequest.class, BookingResponse.class, CorridorRideResponse.class, CreateRideRequest.class,
+        CreateRideTemplateRequest.class, LoginRequest.class, LoginResponse.class, MessageResponse.class,
+        RegisterRequest.class, RequestRideRequest.class, RideDelta.class, RideRequestResponse.class,
+        RideResponse.class, RideTemplateResponse.class})
+public class NativeImageConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Entities and attribute converters; Hibernate reads and sets fields and calls the no-arg constructors
+            for (Class<?> type : new Class<?>[] {Ride.class, Booking.class, User.class, RideRequest.class,
+                    RideTemplate.class, RideStop.class, RideStatusConverter.class, BookingStatusConverter.class,
+                    RideRequestStatusConverter.class}) {
+                hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+
+            // ABI types: TypeReference resolves them by name, TypeDecoder calls their constructors
+            for (Class<?> type : new Class<?>[] {Uint256.class, Uint160.class, Address.class, Utf8String.class,
+                    Bool.class}) {
+                hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+
+            // JSON-RPC requests and the responses BlockchainService, RawTransactionManager and the health check read
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), Request.class,
+                    Response.class, Response.Error.class, Web3ClientVersion.class, EthGetTransactionCount.class,
+                    EthSendTransaction.class, EthGetTransactionReceipt.class, TransactionReceipt.class, Log.class);
+
+            // datasource-proxy (JdkJdbcProxyFactory): ProxyJdbcObject first, then the proxied JDBC interface
+            for (Class<?> jdbcInterface : new Class<?>[] {DataSource.class, Connection.class, Statement.class,
+                    PreparedStatement.class, CallableStatement.class, ResultSet.class}) {
+                hints.proxies().registerJdkProxy(TypeReference.of(ProxyJdbcObject.class),
+                        TypeReference.of(jdbcInterface));
+            }
+
+            hints.resources().registerPattern("db/migration/*/*.sql");
+            hints.resources().registerPattern("ehcache.xml");
+            hints.resources().registerPattern("road-network.csv");
+        }
+    }
+}
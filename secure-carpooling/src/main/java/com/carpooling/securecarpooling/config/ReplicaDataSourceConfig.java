@@ -0,0 +1,92 @@
+package com.carpooling.securecarpooling.config;
+
+import com.carpooling.securecarpooling.datasource.PrimaryPinningFilter;
+import com.carpooling.securecarpooling.datasource.ReadOnlyServiceAspect;
+import com.carpooling.securecarpooling.datasource.ReplicaRouting;
+import com.carpooling.securecarpooling.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import javax.sql.DataSource;
+
+/**
+ * Read replica, enabled by spring.datasource.replica.jdbc-url. Replaces Spring Boot's DataSource
+ * with two Hikari pools, "primary" (spring.datasource.*) and "replica" (spring.datasource.replica.*),
+ * each with its own hikaricp.* metrics.
+ *
+ * Connections are taken lazily, at the first statement, when the transaction has been set up and
+ * ReplicaRoutingDataSource can tell whether it is read-only. Hibernate gives the connection back
+ * after each transaction instead of holding it for the request (open session in view), so every
+ * transaction is routed on its own.
+ *
+ * The transaction advice is ordered ahead of ReadOnlyServiceAspect, so the aspect finds the session
+ * of the transaction it marks; other settings are Spring Boot's defaults.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "jdbc-url")
+@EnableTransactionManagement(proxyTargetClass = true, order = 0)
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRouting replicaRouting(@Value("${datasource.routing.pin-ms:5000}") long pinMillis) {
+        return new ReplicaRouting(pinMillis);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaRouting routing, MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource routed = new ReplicaRoutingDataSource(routing, primary, replica, meterRegistry);
+        routed.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routed);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+
+    @Bean
+    public ReadOnlyServiceAspect readOnlyServiceAspect(ReplicaRouting routing,
+                                                       ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return new ReadOnlyServiceAspect(routing, entityManagerFactory);
+    }
+
+    @Bean
+    public PrimaryPinningFilter primaryPinningFilter(ReplicaRouting routing) {
+        return new PrimaryPinningFilter(routing);
+    }
+}
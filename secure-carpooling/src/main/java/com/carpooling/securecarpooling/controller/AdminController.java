@@ -1,6 +1,7 @@
 package com.carpooling.securecarpooling.controller;
 
 import com.carpooling.securecarpooling.dto.MessageResponse;
+import com.carpooling.securecarpooling.metrics.QueryBudgetExceededException;
 import com.carpooling.securecarpooling.model.Booking;
 import com.carpooling.securecarpooling.model.Ride;
 import com.carpooling.securecarpooling.model.User;
@@ -40,6 +41,8 @@ public class AdminController {
             Map<String, Object> stats = adminService.getDashboardStats();
             return ResponseEntity.ok(stats);
 
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new MessageResponse("Failed to fetch dashboard stats: " + e.getMessage()));
@@ -65,6 +68,8 @@ public class AdminController {
             List<User> users = adminService.getAllUsers();
             return ResponseEntity.ok(users);
 
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new MessageResponse("Failed to fetch users: " + e.getMessage()));
@@ -90,6 +95,8 @@ public class AdminController {
             List<Map<String, Object>> usersWithStats = adminService.getUsersWithStats();
             return ResponseEntity.ok(usersWithStats);
 
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new MessageResponse("Failed to fetch user stats: " + e.getMessage()));
@@ -115,6 +122,8 @@ public class AdminController {
             List<Ride> rides = adminService.getAllRides();
             return ResponseEntity.ok(rides);
 
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new MessageResponse("Failed to fetch rides: " + e.getMessage()));
@@ -144,6 +153,8 @@ public class AdminController {
             List<Ride> rides = adminService.getRidesByStatus(status.toUpperCase());
             return ResponseEntity.ok(rides);
 
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new MessageResponse("Failed to fetch rides: " + e.getMessage()));
@@ -169,6 +180,8 @@ public class AdminController {
             List<Booking> bookings = adminService.getAllBookings();
             return ResponseEntity.ok(bookings);
 
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new MessageResponse("Failed to fetch bookings: " + e.getMessage()));
@@ -198,6 +211,8 @@ public class AdminController {
             List<Booking> bookings = adminService.getBookingsByStatus(status.toUpperCase());
             return ResponseEntity.ok(bookings);
 
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new MessageResponse("Failed to fetch bookings: " + e.getMessage()));
@@ -227,6 +242,8 @@ public class AdminController {
             String message = adminService.deleteUser(id);
             return ResponseEntity.ok(new MessageResponse(message));
 
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new MessageResponse(e.getMessage()));
@@ -268,6 +285,8 @@ public class AdminController {
             User updatedUser = adminService.updateUserRole(id, newRole.toUpperCase());
             return ResponseEntity.ok(updatedUser);
 
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new MessageResponse(e.getMessage()));
@@ -300,6 +319,8 @@ public class AdminController {
             String message = adminService.deleteRide(id);
             return ResponseEntity.ok(new MessageResponse(message));
 
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new MessageResponse(e.getMessage()));
@@ -309,6 +330,33 @@ public class AdminController {
         }
     }
 
+    /**
+     * Get second-level cache statistics
+     * GET: http://localhost:8080/api/admin/cache-stats
+     * Header: userId (Long)
+     * @param userId - Admin user ID from header
+     * @return Hit/miss counts and hit ratio per cache region
+     */
+    @GetMapping("/cache-stats")
+    public ResponseEntity<?> getCacheStats(@RequestHeader("userId") Long userId) {
+        try {
+            // Check if user is admin
+            if (!adminService.isAdmin(userId)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(new MessageResponse("Access denied! Admin only."));
+            }
+
+            Map<String, Object> stats = adminService.getCacheStats();
+            return ResponseEntity.ok(stats);
+
+        } catch (QueryBudgetExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Failed to fetch cache stats: " + e.getMessage()));
+        }
+    }
+
     /**
      * Test endpoint to check if Admin API is working
      * GET: http://localhost:8080/api/admin/test
@@ -4,6 +4,7 @@ import com.carpooling.securecarpooling.dto.LoginRequest;
 import com.carpooling.securecarpooling.dto.LoginResponse;
 import com.carpooling.securecarpooling.dto.MessageResponse;
 import com.carpooling.securecarpooling.dto.RegisterRequest;
+import com.carpooling.securecarpooling.metrics.QueryBudgetExceededException;
 import com.carpooling.securecarpooling.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -48,6 +49,8 @@ public class AuthController {
             String message = authService.registerUser(registerRequest);
             return ResponseEntity.ok(new MessageResponse(message));
 
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new MessageResponse(e.getMessage()));
@@ -78,6 +81,8 @@ public class AuthController {
             LoginResponse loginResponse = authService.loginUser(loginRequest);
             return ResponseEntity.ok(loginResponse);
 
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new MessageResponse(e.getMessage()));
@@ -3,11 +3,13 @@ package com.carpooling.securecarpooling.controller;
 import com.carpooling.securecarpooling.dto.BookRideRequest;
 import com.carpooling.securecarpooling.dto.BookingResponse;
 import com.carpooling.securecarpooling.dto.MessageResponse;
+import com.carpooling.securecarpooling.metrics.QueryBudgetExceededException;
 import com.carpooling.securecarpooling.service.BookingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -45,6 +47,8 @@ public class BookingController {
             BookingResponse bookingResponse = bookingService.bookRide(bookRideRequest, userId);
             return ResponseEntity.ok(bookingResponse);
 
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new MessageResponse(e.getMessage()));
@@ -58,14 +62,23 @@ public class BookingController {
      * Get all bookings made by logged-in user (as passenger)
      * GET: http://localhost:8080/api/bookings/my-bookings
      * Header: userId (Long)
+     * Header: If-None-Match (optional) - ETag of a previous response; answered with 304 if unchanged
      * @param userId - User ID from header
+     * @param webRequest - Current request, used for the conditional check
      * @return List of user's bookings
      */
     @GetMapping("/my-bookings")
-    public ResponseEntity<?> getMyBookings(@RequestHeader("userId") Long userId) {
+    public ResponseEntity<?> getMyBookings(@RequestHeader("userId") Long userId, WebRequest webRequest) {
         try {
+            // The ETag is computed before the list, so the body is never older than its ETag
+            String etag = bookingService.getMyBookingsETag(userId);
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             List<BookingResponse> bookings = bookingService.getMyBookings(userId);
-            return ResponseEntity.ok(bookings);
+            return ResponseEntity.ok().eTag(etag).body(bookings);
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new MessageResponse("Failed to fetch bookings: " + e.getMessage()));
@@ -84,6 +97,8 @@ public class BookingController {
         try {
             List<BookingResponse> bookings = bookingService.getBookingsForDriver(userId);
             return ResponseEntity.ok(bookings);
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new MessageResponse("Failed to fetch passengers: " + e.getMessage()));
@@ -101,6 +116,8 @@ public class BookingController {
         try {
             List<BookingResponse> bookings = bookingService.getBookingsForRide(rideId);
             return ResponseEntity.ok(bookings);
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new MessageResponse("Failed to fetch bookings: " + e.getMessage()));
@@ -118,6 +135,8 @@ public class BookingController {
         try {
             BookingResponse booking = bookingService.getBookingById(id);
             return ResponseEntity.ok(booking);
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new MessageResponse(e.getMessage()));
@@ -143,6 +162,8 @@ public class BookingController {
         try {
             String message = bookingService.cancelBooking(bookingId, userId);
             return ResponseEntity.ok(new MessageResponse(message));
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new MessageResponse(e.getMessage()));
@@ -168,6 +189,8 @@ public class BookingController {
         try {
             String message = bookingService.completeBooking(bookingId, userId);
             return ResponseEntity.ok(new MessageResponse(message));
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new MessageResponse(e.getMessage()));
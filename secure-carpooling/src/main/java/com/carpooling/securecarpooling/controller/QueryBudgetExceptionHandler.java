@@ -0,0 +1,24 @@
+package com.carpooling.securecarpooling.controller;
+
+import com.carpooling.securecarpooling.dto.MessageResponse;
+import com.carpooling.securecarpooling.metrics.QueryBudgetExceededException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers a request refused by the query budget (query.budget.mode=reject) with 503 and a generic
+ * message. The controllers rethrow QueryBudgetExceededException rather than reporting it as a bad
+ * request; its message, with the statement counts and limits, is logged by QueryBudgetInterceptor
+ * and stays out of the response.
+ */
+@RestControllerAdvice
+public class QueryBudgetExceptionHandler {
+
+    @ExceptionHandler(QueryBudgetExceededException.class)
+    public ResponseEntity<?> queryBudgetExceeded() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new MessageResponse("Service is busy, please try again later"));
+    }
+}
@@ -1,14 +1,30 @@
 package com.carpooling.securecarpooling.controller;
 
+import com.carpooling.securecarpooling.dto.CorridorRideResponse;
 import com.carpooling.securecarpooling.dto.CreateRideRequest;
 import com.carpooling.securecarpooling.dto.MessageResponse;
 import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.metrics.QueryBudgetExceededException;
+import com.carpooling.securecarpooling.service.CorridorSearchService;
+import com.carpooling.securecarpooling.service.PricingService;
 import com.carpooling.securecarpooling.service.RideService;
+import com.carpooling.securecarpooling.service.RideSnapshotService;
+import com.carpooling.securecarpooling.service.RideStreamService;
+import com.carpooling.securecarpooling.service.RideTemplateService;
+import com.carpooling.securecarpooling.service.RideTimeIndex;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 @RestController
@@ -19,6 +35,27 @@ public class RideController {
     @Autowired
     private RideService rideService;
 
+    @Autowired
+    private RideSnapshotService rideSnapshotService;
+
+    @Autowired
+    private RideStreamService rideStreamService;
+
+    @Autowired
+    private RideTimeIndex rideTimeIndex;
+
+    @Autowired
+    private RideTemplateService rideTemplateService;
+
+    @Autowired
+    private CorridorSearchService corridorSearchService;
+
+    @Autowired
+    private PricingService pricingService;
+
+    // Upper bound on rides a single stream may watch
+    private static final int MAX_STREAM_RIDES = 50;
+
     /**
      * Create a new ride
      * POST: http://localhost:8080/api/rides/create
@@ -60,6 +97,8 @@ public class RideController {
             RideResponse rideResponse = rideService.createRide(createRideRequest, userId);
             return ResponseEntity.ok(rideResponse);
 
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new MessageResponse(e.getMessage()));
@@ -70,15 +109,50 @@ public class RideController {
     }
 
     /**
-     * Get all available rides
+     * Import a schedule of rides in bulk
+     * POST: http://localhost:8080/api/rides/import
+     * Header: userId (Long)
+     * @param createRideRequests - List of ride details
+     * @param userId - Driver's user ID from header
+     * @return Number of imported rides
+     */
+    @PostMapping("/import")
+    public ResponseEntity<?> importRides(
+            @RequestBody List<CreateRideRequest> createRideRequests,
+            @RequestHeader("userId") Long userId) {
+
+        try {
+            if (createRideRequests == null || createRideRequests.isEmpty()) {
+                return ResponseEntity.badRequest().body(new MessageResponse("At least 1 ride is required!"));
+            }
+
+            int imported = rideService.importRides(createRideRequests, userId);
+            return ResponseEntity.ok(new MessageResponse(imported + " ride(s) imported successfully!"));
+
+        } catch (QueryBudgetExceededException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Failed to import rides: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Get all available rides (served from the in-memory snapshot)
      * GET: http://localhost:8080/api/rides/available
+     * Header: If-None-Match (optional) - ETag of a previous response; answered with 304 if unchanged
+     * @param webRequest - Current request, used for the conditional check
      * @return List of available rides
      */
     @GetMapping("/available")
-    public ResponseEntity<?> getAvailableRides() {
+    public ResponseEntity<?> getAvailableRides(WebRequest webRequest) {
         try {
-            List<RideResponse> rides = rideService.getAvailableRides();
-            return ResponseEntity.ok(rides);
+            return availableRidesResponse(webRequest);
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new MessageResponse("Failed to fetch rides: " + e.getMessage()));
@@ -86,18 +160,58 @@ public class RideController {
     }
 
     /**
-     * Search rides by source and destination
+     * Search rides by source and destination, optionally inside a departure window
      * GET: http://localhost:8080/api/rides/search?source=Chennai&destination=Bangalore
+     * GET: http://localhost:8080/api/rides/search?source=Chennai&destination=Bangalore&departAfter=2025-01-10T06:00&departBefore=2025-01-10T09:00
      * @param source - Starting location
      * @param destination - Ending location
-     * @return List of matching rides
+     * @param departAfter - Earliest departure, ISO date-time (optional)
+     * @param departBefore - Latest departure, ISO date-time (optional)
+     * @param userId - Searching user's ID from header (optional), to count their searches once
+     * @param request - Current request; its remote address stands in for an anonymous user
+     * @param webRequest - Current request, used for the conditional check
+     * @return List of matching rides; recurring rides past the horizon have no ID until written
      */
     @GetMapping("/search")
     public ResponseEntity<?> searchRides(
             @RequestParam(required = false) String source,
-            @RequestParam(required = false) String destination) {
+            @RequestParam(required = false) String destination,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime departAfter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime departBefore,
+            @RequestHeader(value = "userId", required = false) Long userId,
+            HttpServletRequest request,
+            WebRequest webRequest) {
 
         try {
+            // Route searches feed the demand side of dynamic pricing, once per client and minute
+            if (source != null && !source.trim().isEmpty() && destination != null && !destination.trim().isEmpty()) {
+                pricingService.recordSearch(source, destination, userId != null ? "user:" + userId : request.getRemoteAddr());
+            }
+
+            // A departure window is answered from the in-memory time index, with or without a route
+            if (departAfter != null || departBefore != null) {
+                if (departAfter != null && departBefore != null && departBefore.isBefore(departAfter)) {
+                    return ResponseEntity.badRequest().body(new MessageResponse("departBefore must not be before departAfter!"));
+                }
+                boolean byRoute = source != null && !source.trim().isEmpty() &&
+                        destination != null && !destination.trim().isEmpty();
+                List<RideResponse> rides = byRoute
+                        ? rideTimeIndex.search(source, destination, departAfter, departBefore)
+                        : rideTimeIndex.search(null, null, departAfter, departBefore);
+                // Recurring rides past the horizon are shown from their templates, without a ride ID
+                // until they have been written in the background
+                if (departBefore != null) {
+                    List<RideResponse> occurrences = rideTemplateService.previewOccurrences(
+                            byRoute ? source : null, byRoute ? destination : null, departAfter, departBefore);
+                    if (!occurrences.isEmpty()) {
+                        rides = new ArrayList<>(rides);
+                        rides.addAll(occurrences);
+                        rides.sort(Comparator.comparing(RideResponse::getDateTime));
+                    }
+                }
+                return ResponseEntity.ok(rides);
+            }
+
             // If both source and destination provided, search by route
             if (source != null && !source.trim().isEmpty() &&
                     destination != null && !destination.trim().isEmpty()) {
@@ -105,9 +219,47 @@ public class RideController {
                 return ResponseEntity.ok(rides);
             } else {
                 // Otherwise return all available rides
-                List<RideResponse> rides = rideService.getAvailableRides();
-                return ResponseEntity.ok(rides);
+                return availableRidesResponse(webRequest);
             }
+        } catch (QueryBudgetExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Failed to search rides: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Search rides that can pick up and drop off off their own route, within the driver's detour limit
+     * GET: http://localhost:8080/api/rides/corridor?pickup=Vellore&dropOff=Hosur
+     * GET: http://localhost:8080/api/rides/corridor?pickup=Vellore&dropOff=Hosur&departAfter=2025-01-10T06:00&departBefore=2025-01-10T09:00
+     * @param pickup - Passenger's pickup place
+     * @param dropOff - Passenger's drop-off place
+     * @param departAfter - Earliest departure, ISO date-time (optional)
+     * @param departBefore - Latest departure, ISO date-time (optional)
+     * @return Matching rides with their detour and the stops to book between, smallest detour first
+     */
+    @GetMapping("/corridor")
+    public ResponseEntity<?> searchCorridor(
+            @RequestParam String pickup,
+            @RequestParam String dropOff,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime departAfter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime departBefore) {
+
+        try {
+            if (pickup.trim().equalsIgnoreCase(dropOff.trim())) {
+                return ResponseEntity.badRequest().body(new MessageResponse("Pickup and drop-off must differ!"));
+            }
+            if (departAfter != null && departBefore != null && departBefore.isBefore(departAfter)) {
+                return ResponseEntity.badRequest().body(new MessageResponse("departBefore must not be before departAfter!"));
+            }
+            List<CorridorRideResponse> rides = corridorSearchService.search(pickup, dropOff, departAfter, departBefore);
+            return ResponseEntity.ok(rides);
+        } catch (QueryBudgetExceededException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new MessageResponse("Failed to search rides: " + e.getMessage()));
@@ -126,23 +278,50 @@ public class RideController {
         try {
             List<RideResponse> rides = rideService.getMyRides(userId);
             return ResponseEntity.ok(rides);
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new MessageResponse("Failed to fetch your rides: " + e.getMessage()));
         }
     }
 
+    /**
+     * Stream seat-count and status changes of the given rides (Server-Sent Events)
+     * GET: http://localhost:8080/api/rides/stream?rideIds=1,2,3
+     * Each change arrives as an event named "ride" with a RideDelta as JSON data;
+     * the current state of every ride is sent first. A deleted ride is reported with status DELETED.
+     * @param rideIds - Rides to watch (1 to 50)
+     * @return Event stream, or 400 if the ride list is empty or too long
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamRides(@RequestParam List<Long> rideIds) {
+        if (rideIds.isEmpty() || rideIds.size() > MAX_STREAM_RIDES) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(rideStreamService.subscribe(rideIds));
+    }
+
     /**
      * Get ride details by ID
      * GET: http://localhost:8080/api/rides/{id}
+     * Header: If-None-Match (optional) - ETag of a previous response; answered with 304 if unchanged
      * @param id - Ride ID
+     * @param webRequest - Current request, used for the conditional check
      * @return RideResponse with ride details
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getRideById(@PathVariable Long id) {
+    public ResponseEntity<?> getRideById(@PathVariable Long id, WebRequest webRequest) {
         try {
+            // The version is read before the ride, so the body is never older than its ETag
+            String etag = rideService.getRideETag(id);
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             RideResponse ride = rideService.getRideById(id);
-            return ResponseEntity.ok(ride);
+            return ResponseEntity.ok().eTag(etag).body(ride);
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new MessageResponse(e.getMessage()));
@@ -168,6 +347,8 @@ public class RideController {
         try {
             String message = rideService.completeRide(id, userId);
             return ResponseEntity.ok(new MessageResponse(message));
+        } catch (QueryBudgetExceededException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new MessageResponse(e.getMessage()));
@@ -177,6 +358,49 @@ public class RideController {
         }
     }
 
+    /**
+     * Cancel a ride
+     * PUT: http://localhost:8080/api/rides/cancel/{id}
+     * Header: userId (Long)
+     * @param id - Ride ID to cancel
+     * @param userId - Driver's user ID from header
+     * @return Success message
+     */
+    @PutMapping("/cancel/{id}")
+    public ResponseEntity<?> cancelRide(
+            @PathVariable Long id,
+            @RequestHeader("userId") Long userId) {
+
+        try {
+            String message = rideService.cancelRide(id, userId);
+            return ResponseEntity.ok(new MessageResponse(message));
+        } catch (QueryBudgetExceededException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Failed to cancel ride: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Answer from the snapshot: 304 if the client's ETag is current, the cached body otherwise
+     * @param webRequest - Current request
+     * @return Available rides response
+     */
+    private ResponseEntity<?> availableRidesResponse(WebRequest webRequest) {
+        RideSnapshotService.Snapshot snapshot = rideSnapshotService.getAvailableRides();
+        if (webRequest.checkNotModified(snapshot.getETag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getETag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getETag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getBody());
+    }
+
     /**
      * Test endpoint to check if Ride API is working
      * GET: http://localhost:8080/api/rides/test
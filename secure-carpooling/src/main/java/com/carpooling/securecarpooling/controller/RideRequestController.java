@@ -0,0 +1,111 @@
+package com.carpooling.securecarpooling.controller;
+
+import com.carpooling.securecarpooling.dto.MessageResponse;
+import com.carpooling.securecarpooling.dto.RequestRideRequest;
+import com.carpooling.securecarpooling.dto.RideRequestResponse;
+import com.carpooling.securecarpooling.metrics.QueryBudgetExceededException;
+import com.carpooling.securecarpooling.service.RideRequestService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/ride-requests")
+@CrossOrigin(origins = "http://localhost:3000")
+public class RideRequestController {
+
+    @Autowired
+    private RideRequestService rideRequestService;
+
+    /**
+     * Ask to be matched to a ride; the matching engine books a seat when a ride fits
+     * POST: http://localhost:8080/api/ride-requests/create
+     * Header: userId (Long)
+     * @param requestRideRequest - Route, departure window, seats and optional budget per seat
+     * @param userId - Passenger's user ID from header
+     * @return RideRequestResponse with the open request
+     */
+    @PostMapping("/create")
+    public ResponseEntity<?> createRequest(
+            @RequestBody RequestRideRequest requestRideRequest,
+            @RequestHeader("userId") Long userId) {
+
+        try {
+            // Validate input
+            if (requestRideRequest.getSource() == null || requestRideRequest.getSource().trim().isEmpty()) {
+                return ResponseEntity.badRequest().body(new MessageResponse("Source location is required!"));
+            }
+            if (requestRideRequest.getDestination() == null || requestRideRequest.getDestination().trim().isEmpty()) {
+                return ResponseEntity.badRequest().body(new MessageResponse("Destination location is required!"));
+            }
+            if (requestRideRequest.getEarliestDeparture() == null || requestRideRequest.getLatestDeparture() == null) {
+                return ResponseEntity.badRequest().body(new MessageResponse("Departure window is required!"));
+            }
+            if (requestRideRequest.getSeatsNeeded() == null || requestRideRequest.getSeatsNeeded() < 1) {
+                return ResponseEntity.badRequest().body(new MessageResponse("At least 1 seat is required!"));
+            }
+
+            RideRequestResponse response = rideRequestService.createRequest(requestRideRequest, userId);
+            return ResponseEntity.ok(response);
+
+        } catch (QueryBudgetExceededException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Failed to create ride request: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Get ride requests of logged-in user
+     * GET: http://localhost:8080/api/ride-requests/my-requests
+     * Header: userId (Long)
+     * @param userId - User ID from header
+     * @return List of user's ride requests
+     */
+    @GetMapping("/my-requests")
+    public ResponseEntity<?> getMyRequests(@RequestHeader("userId") Long userId) {
+        try {
+            List<RideRequestResponse> requests = rideRequestService.getMyRequests(userId);
+            return ResponseEntity.ok(requests);
+        } catch (QueryBudgetExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Failed to fetch ride requests: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Cancel an open ride request
+     * PUT: http://localhost:8080/api/ride-requests/cancel/{id}
+     * Header: userId (Long)
+     * @param id - Ride request ID
+     * @param userId - Passenger's user ID from header
+     * @return Success message
+     */
+    @PutMapping("/cancel/{id}")
+    public ResponseEntity<?> cancelRequest(
+            @PathVariable Long id,
+            @RequestHeader("userId") Long userId) {
+
+        try {
+            String message = rideRequestService.cancelRequest(id, userId);
+            return ResponseEntity.ok(new MessageResponse(message));
+        } catch (QueryBudgetExceededException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Failed to cancel ride request: " + e.getMessage()));
+        }
+    }
+}
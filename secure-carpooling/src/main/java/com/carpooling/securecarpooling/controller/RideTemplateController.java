@@ -0,0 +1,112 @@
+package com.carpooling.securecarpooling.controller;
+
+import com.carpooling.securecarpooling.dto.CreateRideTemplateRequest;
+import com.carpooling.securecarpooling.dto.MessageResponse;
+import com.carpooling.securecarpooling.dto.RideTemplateResponse;
+import com.carpooling.securecarpooling.metrics.QueryBudgetExceededException;
+import com.carpooling.securecarpooling.service.RideTemplateService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/ride-templates")
+@CrossOrigin(origins = "http://localhost:3000")
+public class RideTemplateController {
+
+    @Autowired
+    private RideTemplateService rideTemplateService;
+
+    /**
+     * Offer a ride on a recurring schedule, e.g. "0 30 8 * * MON-FRI" (08:30 every weekday)
+     * POST: http://localhost:8080/api/ride-templates/create
+     * Header: userId (Long)
+     * @param createRideTemplateRequest - Route, cron schedule, seats, car details and optional start/end dates
+     * @param userId - Driver's user ID from header
+     * @return RideTemplateResponse with the saved template
+     */
+    @PostMapping("/create")
+    public ResponseEntity<?> createTemplate(
+            @RequestBody CreateRideTemplateRequest createRideTemplateRequest,
+            @RequestHeader("userId") Long userId) {
+
+        try {
+            // Validate input
+            if (createRideTemplateRequest.getSource() == null || createRideTemplateRequest.getSource().trim().isEmpty()) {
+                return ResponseEntity.badRequest().body(new MessageResponse("Source location is required!"));
+            }
+            if (createRideTemplateRequest.getDestination() == null || createRideTemplateRequest.getDestination().trim().isEmpty()) {
+                return ResponseEntity.badRequest().body(new MessageResponse("Destination location is required!"));
+            }
+            if (createRideTemplateRequest.getSeatsAvailable() == null) {
+                return ResponseEntity.badRequest().body(new MessageResponse("Number of seats is required!"));
+            }
+            if (createRideTemplateRequest.getCarModel() == null || createRideTemplateRequest.getCarNumber() == null
+                    || createRideTemplateRequest.getCarColor() == null) {
+                return ResponseEntity.badRequest().body(new MessageResponse("Car details are required!"));
+            }
+
+            RideTemplateResponse response = rideTemplateService.createTemplate(createRideTemplateRequest, userId);
+            return ResponseEntity.ok(response);
+
+        } catch (QueryBudgetExceededException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Failed to create ride template: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Get ride templates of logged-in user
+     * GET: http://localhost:8080/api/ride-templates/my-templates
+     * Header: userId (Long)
+     * @param userId - User ID from header
+     * @return List of user's ride templates
+     */
+    @GetMapping("/my-templates")
+    public ResponseEntity<?> getMyTemplates(@RequestHeader("userId") Long userId) {
+        try {
+            List<RideTemplateResponse> templates = rideTemplateService.getMyTemplates(userId);
+            return ResponseEntity.ok(templates);
+        } catch (QueryBudgetExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Failed to fetch ride templates: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Stop a ride template; upcoming rides without bookings are cancelled
+     * PUT: http://localhost:8080/api/ride-templates/cancel/{id}
+     * Header: userId (Long)
+     * @param id - Ride template ID
+     * @param userId - Driver's user ID from header
+     * @return Success message
+     */
+    @PutMapping("/cancel/{id}")
+    public ResponseEntity<?> cancelTemplate(
+            @PathVariable Long id,
+            @RequestHeader("userId") Long userId) {
+
+        try {
+            String message = rideTemplateService.cancelTemplate(id, userId);
+            return ResponseEntity.ok(new MessageResponse(message));
+        } catch (QueryBudgetExceededException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new MessageResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new MessageResponse("Failed to cancel ride template: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.carpooling.securecarpooling.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Read-your-writes for the replica: a write request by a user (userId header) pins them to the
+ * primary for a while, and requests of a pinned user read only from the primary. The pin is set
+ * when the write starts, so no later request can miss it, and renewed when it has committed.
+ */
+public class PrimaryPinningFilter extends OncePerRequestFilter {
+
+    public static final String USER_HEADER = "userId";
+
+    private final ReplicaRouting routing;
+
+    /**
+     * @param routing - Routing decision to pin users in
+     */
+    public PrimaryPinningFilter(ReplicaRouting routing) {
+        this.routing = routing;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String userId = request.getHeader(USER_HEADER);
+        if (userId == null || userId.isBlank()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean write = isWrite(request.getMethod());
+        if (write) {
+            routing.pin(userId);
+        }
+        routing.setPrimaryOnly(routing.isPinned(userId));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            routing.setPrimaryOnly(false);
+            if (write) {
+                routing.pin(userId);
+            }
+        }
+    }
+
+    private static boolean isWrite(String method) {
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+}
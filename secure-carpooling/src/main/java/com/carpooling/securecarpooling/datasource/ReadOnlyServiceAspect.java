@@ -0,0 +1,69 @@
+package com.carpooling.securecarpooling.datasource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Marks calls of service methods annotated @Transactional(readOnly = true) as replica candidates
+ * for ReplicaRouting. The connection is only taken at the first statement, inside the method.
+ *
+ * A transaction that does read the replica switches its session to CacheMode.GET for the call:
+ * it still reads the second-level and query caches, but never fills them, so rows the replica has
+ * not caught up on cannot be served from the caches to users pinned to the primary or to writes.
+ * This needs the session of the transaction, so the aspect runs inside the transaction advice
+ * (see ReplicaDataSourceConfig).
+ */
+@Aspect
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class ReadOnlyServiceAspect {
+
+    private final ReplicaRouting routing;
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    /**
+     * @param routing - Routing decision to mark the calls in
+     * @param entityManagerFactory - Factory whose transactional session reads the replica
+     */
+    public ReadOnlyServiceAspect(ReplicaRouting routing, ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.routing = routing;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Around("execution(public * com.carpooling.securecarpooling.service..*(..)) && @annotation(transactional)")
+    public Object markReadOnly(ProceedingJoinPoint joinPoint, Transactional transactional) throws Throwable {
+        if (!transactional.readOnly()) {
+            return joinPoint.proceed();
+        }
+        routing.enterReadOnly();
+        Session session = null;
+        CacheMode previous = null;
+        try {
+            if (routing.useReplica() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                EntityManager entityManager =
+                        EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory.getObject());
+                if (entityManager != null) {
+                    session = entityManager.unwrap(Session.class);
+                    previous = session.getCacheMode();
+                    session.setCacheMode(CacheMode.GET);
+                }
+            }
+            return joinPoint.proceed();
+        } finally {
+            if (session != null) {
+                session.setCacheMode(previous);
+            }
+            routing.exitReadOnly();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.carpooling.securecarpooling.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether a read may go to the replica.
+ *
+ * Only read-only service transactions (marked by ReadOnlyServiceAspect) are candidates; reads
+ * Spring Data runs in its own read-only transactions, such as the lookup at login, stay on the
+ * primary. A user who has just written is pinned to the primary for a short window so they read
+ * their own writes despite replication lag. Whether the current request is pinned is decided once,
+ * when it starts, so all its reads (an ETag and the list it describes) come from the same database.
+ */
+public class ReplicaRouting {
+
+    // Nesting depth of read-only service calls on this thread
+    private static final ThreadLocal<int[]> READ_ONLY_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    // Pinned users are dropped once expired; past this size a write also sweeps the expired ones
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final long pinNanos;
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    /**
+     * @param pinMillis - How long a user reads from the primary after a write of theirs
+     */
+    public ReplicaRouting(long pinMillis) {
+        this.pinNanos = TimeUnit.MILLISECONDS.toNanos(pinMillis);
+    }
+
+    public boolean useReplica() {
+        return READ_ONLY_DEPTH.get()[0] > 0 && !Boolean.TRUE.equals(PRIMARY_ONLY.get());
+    }
+
+    void enterReadOnly() {
+        READ_ONLY_DEPTH.get()[0]++;
+    }
+
+    void exitReadOnly() {
+        READ_ONLY_DEPTH.get()[0]--;
+    }
+
+    /**
+     * Keep every read of the current request on the primary (or not)
+     * @param primaryOnly - true for a pinned user
+     */
+    void setPrimaryOnly(boolean primaryOnly) {
+        if (primaryOnly) {
+            PRIMARY_ONLY.set(Boolean.TRUE);
+        } else {
+            PRIMARY_ONLY.remove();
+        }
+    }
+
+    /**
+     * @param userId - User who just wrote
+     */
+    void pin(String userId) {
+        long now = System.nanoTime();
+        if (pinnedUntil.size() > SWEEP_THRESHOLD) {
+            pinnedUntil.values().removeIf(until -> until - now < 0);
+        }
+        pinnedUntil.put(userId, now + pinNanos);
+    }
+
+    boolean isPinned(String userId) {
+        Long until = pinnedUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() < 0) {
+            pinnedUntil.remove(userId, until);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,55 @@
+package com.carpooling.securecarpooling.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Connections of read-only transactions come from the replica pool when ReplicaRouting allows it,
+ * all others from the primary. Each connection is counted (carpooling.db.connections, tagged target).
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final ReplicaRouting routing;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    /**
+     * @param routing - Routing decision of the current thread
+     * @param primary - Primary pool
+     * @param replica - Replica pool
+     * @param meterRegistry - Registry for the routed connection counts
+     */
+    public ReplicaRoutingDataSource(ReplicaRouting routing, DataSource primary, DataSource replica,
+                                    MeterRegistry meterRegistry) {
+        this.routing = routing;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.primaryConnections = connectionCounter(meterRegistry, PRIMARY);
+        this.replicaConnections = connectionCounter(meterRegistry, REPLICA);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (routing.useReplica() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            replicaConnections.increment();
+            return REPLICA;
+        }
+        primaryConnections.increment();
+        return PRIMARY;
+    }
+
+    private static Counter connectionCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("carpooling.db.connections")
+                .description("Connections by the database they were routed to")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
@@ -5,6 +5,13 @@ public class BookRideRequest {
     private Long rideId;
     private Integer seatsBooked;
 
+    // Optional part of the route; default is source to destination
+    private String fromStop;
+    private String toStop;
+
+    // Optional quotedPricePerSeat of the ride as shown; the booking is refused if the price has gone up since
+    private Double quotedPricePerSeat;
+
     // Default Constructor
     public BookRideRequest() {
     }
@@ -33,6 +40,30 @@ public class BookRideRequest {
         this.seatsBooked = seatsBooked;
     }
 
+    public String getFromStop() {
+        return fromStop;
+    }
+
+    public void setFromStop(String fromStop) {
+        this.fromStop = fromStop;
+    }
+
+    public String getToStop() {
+        return toStop;
+    }
+
+    public void setToStop(String toStop) {
+        this.toStop = toStop;
+    }
+
+    public Double getQuotedPricePerSeat() {
+        return quotedPricePerSeat;
+    }
+
+    public void setQuotedPricePerSeat(Double quotedPricePerSeat) {
+        this.quotedPricePerSeat = quotedPricePerSeat;
+    }
+
     @Override
     public String toString() {
         return "BookRideRequest{" +
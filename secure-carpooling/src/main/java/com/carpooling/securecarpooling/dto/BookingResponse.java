@@ -19,6 +19,8 @@ public class BookingResponse {
     private String carNumber;
     private String carColor;
     private Integer seatsBooked;
+    private String fromStop;
+    private String toStop;
     private Double pricePerSeat;
     private Double totalAmount;
     private String status;
@@ -182,6 +184,22 @@ public class BookingResponse {
         this.bookedAt = bookedAt;
     }
 
+    public String getFromStop() {
+        return fromStop;
+    }
+
+    public void setFromStop(String fromStop) {
+        this.fromStop = fromStop;
+    }
+
+    public String getToStop() {
+        return toStop;
+    }
+
+    public void setToStop(String toStop) {
+        this.toStop = toStop;
+    }
+
     @Override
     public String toString() {
         return "BookingResponse{" +
@@ -0,0 +1,66 @@
+package com.carpooling.securecarpooling.dto;
+
+public class CorridorRideResponse {
+
+    private RideResponse ride;
+    private Double detourKm;
+    // Ride stops to book between; the passenger is picked up and dropped off on the way
+    private String fromStop;
+    private String toStop;
+
+    // Default Constructor
+    public CorridorRideResponse() {
+    }
+
+    // Constructor with parameters
+    public CorridorRideResponse(RideResponse ride, Double detourKm, String fromStop, String toStop) {
+        this.ride = ride;
+        this.detourKm = detourKm;
+        this.fromStop = fromStop;
+        this.toStop = toStop;
+    }
+
+    // Getters and Setters
+
+    public RideResponse getRide() {
+        return ride;
+    }
+
+    public void setRide(RideResponse ride) {
+        this.ride = ride;
+    }
+
+    public Double getDetourKm() {
+        return detourKm;
+    }
+
+    public void setDetourKm(Double detourKm) {
+        this.detourKm = detourKm;
+    }
+
+    public String getFromStop() {
+        return fromStop;
+    }
+
+    public void setFromStop(String fromStop) {
+        this.fromStop = fromStop;
+    }
+
+    public String getToStop() {
+        return toStop;
+    }
+
+    public void setToStop(String toStop) {
+        this.toStop = toStop;
+    }
+
+    @Override
+    public String toString() {
+        return "CorridorRideResponse{" +
+                "ride=" + ride +
+                ", detourKm=" + detourKm +
+                ", fromStop='" + fromStop + '\'' +
+                ", toStop='" + toStop + '\'' +
+                '}';
+    }
+}
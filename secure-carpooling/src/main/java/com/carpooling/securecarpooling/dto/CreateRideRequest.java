@@ -1,6 +1,7 @@
 package com.carpooling.securecarpooling.dto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class CreateRideRequest {
 
@@ -12,6 +13,12 @@ public class CreateRideRequest {
     private String carNumber;
     private String carColor;
 
+    // Optional intermediate stops, in route order
+    private List<String> stops;
+
+    // Optional extra kilometres the driver accepts for off-route passengers
+    private Double maxDetourKm;
+
     // Default Constructor
     public CreateRideRequest() {
     }
@@ -86,6 +93,22 @@ public class CreateRideRequest {
         this.carColor = carColor;
     }
 
+    public List<String> getStops() {
+        return stops;
+    }
+
+    public void setStops(List<String> stops) {
+        this.stops = stops;
+    }
+
+    public Double getMaxDetourKm() {
+        return maxDetourKm;
+    }
+
+    public void setMaxDetourKm(Double maxDetourKm) {
+        this.maxDetourKm = maxDetourKm;
+    }
+
     @Override
     public String toString() {
         return "CreateRideRequest{" +
@@ -0,0 +1,117 @@
+package com.carpooling.securecarpooling.dto;
+
+import java.time.LocalDate;
+
+public class CreateRideTemplateRequest {
+
+    private String source;
+    private String destination;
+    private String schedule;
+    private Integer seatsAvailable;
+    private String carModel;
+    private String carNumber;
+    private String carColor;
+    private LocalDate startsOn;
+    private LocalDate endsOn;
+
+    // Default Constructor
+    public CreateRideTemplateRequest() {
+    }
+
+    // Constructor with parameters
+    public CreateRideTemplateRequest(String source, String destination, String schedule, Integer seatsAvailable, String carModel, String carNumber, String carColor) {
+        this.source = source;
+        this.destination = destination;
+        this.schedule = schedule;
+        this.seatsAvailable = seatsAvailable;
+        this.carModel = carModel;
+        this.carNumber = carNumber;
+        this.carColor = carColor;
+    }
+
+    // Getters and Setters
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+
+    public String getSchedule() {
+        return schedule;
+    }
+
+    public void setSchedule(String schedule) {
+        this.schedule = schedule;
+    }
+
+    public Integer getSeatsAvailable() {
+        return seatsAvailable;
+    }
+
+    public void setSeatsAvailable(Integer seatsAvailable) {
+        this.seatsAvailable = seatsAvailable;
+    }
+
+    public String getCarModel() {
+        return carModel;
+    }
+
+    public void setCarModel(String carModel) {
+        this.carModel = carModel;
+    }
+
+    public String getCarNumber() {
+        return carNumber;
+    }
+
+    public void setCarNumber(String carNumber) {
+        this.carNumber = carNumber;
+    }
+
+    public String getCarColor() {
+        return carColor;
+    }
+
+    public void setCarColor(String carColor) {
+        this.carColor = carColor;
+    }
+
+    public LocalDate getStartsOn() {
+        return startsOn;
+    }
+
+    public void setStartsOn(LocalDate startsOn) {
+        this.startsOn = startsOn;
+    }
+
+    public LocalDate getEndsOn() {
+        return endsOn;
+    }
+
+    public void setEndsOn(LocalDate endsOn) {
+        this.endsOn = endsOn;
+    }
+
+    @Override
+    public String toString() {
+        return "CreateRideTemplateRequest{" +
+                "source='" + source + '\'' +
+                ", destination='" + destination + '\'' +
+                ", schedule='" + schedule + '\'' +
+                ", seatsAvailable=" + seatsAvailable +
+                ", startsOn=" + startsOn +
+                ", endsOn=" + endsOn +
+                '}';
+    }
+}
@@ -0,0 +1,89 @@
+package com.carpooling.securecarpooling.dto;
+
+import java.time.LocalDateTime;
+
+public class RequestRideRequest {
+
+    private String source;
+    private String destination;
+    private LocalDateTime earliestDeparture;
+    private LocalDateTime latestDeparture;
+    private Integer seatsNeeded;
+    private Double maxPricePerSeat;
+
+    // Default Constructor
+    public RequestRideRequest() {
+    }
+
+    // Constructor with parameters
+    public RequestRideRequest(String source, String destination, LocalDateTime earliestDeparture, LocalDateTime latestDeparture, Integer seatsNeeded, Double maxPricePerSeat) {
+        this.source = source;
+        this.destination = destination;
+        this.earliestDeparture = earliestDeparture;
+        this.latestDeparture = latestDeparture;
+        this.seatsNeeded = seatsNeeded;
+        this.maxPricePerSeat = maxPricePerSeat;
+    }
+
+    // Getters and Setters
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+
+    public LocalDateTime getEarliestDeparture() {
+        return earliestDeparture;
+    }
+
+    public void setEarliestDeparture(LocalDateTime earliestDeparture) {
+        this.earliestDeparture = earliestDeparture;
+    }
+
+    public LocalDateTime getLatestDeparture() {
+        return latestDeparture;
+    }
+
+    public void setLatestDeparture(LocalDateTime latestDeparture) {
+        this.latestDeparture = latestDeparture;
+    }
+
+    public Integer getSeatsNeeded() {
+        return seatsNeeded;
+    }
+
+    public void setSeatsNeeded(Integer seatsNeeded) {
+        this.seatsNeeded = seatsNeeded;
+    }
+
+    public Double getMaxPricePerSeat() {
+        return maxPricePerSeat;
+    }
+
+    public void setMaxPricePerSeat(Double maxPricePerSeat) {
+        this.maxPricePerSeat = maxPricePerSeat;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestRideRequest{" +
+                "source='" + source + '\'' +
+                ", destination='" + destination + '\'' +
+                ", earliestDeparture=" + earliestDeparture +
+                ", latestDeparture=" + latestDeparture +
+                ", seatsNeeded=" + seatsNeeded +
+                ", maxPricePerSeat=" + maxPricePerSeat +
+                '}';
+    }
+}
@@ -0,0 +1,69 @@
+package com.carpooling.securecarpooling.dto;
+
+/**
+ * Seat count and status of one ride, pushed to /api/rides/stream subscribers.
+ * The version orders deltas: a subscriber never receives an older version after a newer one.
+ */
+public class RideDelta {
+
+    private Long rideId;
+    private Integer seatsAvailable;
+    private String status;
+    private Long version;
+
+    // Default Constructor
+    public RideDelta() {
+    }
+
+    // Constructor with parameters
+    public RideDelta(Long rideId, Integer seatsAvailable, String status, Long version) {
+        this.rideId = rideId;
+        this.seatsAvailable = seatsAvailable;
+        this.status = status;
+        this.version = version;
+    }
+
+    // Getters and Setters
+
+    public Long getRideId() {
+        return rideId;
+    }
+
+    public void setRideId(Long rideId) {
+        this.rideId = rideId;
+    }
+
+    public Integer getSeatsAvailable() {
+        return seatsAvailable;
+    }
+
+    public void setSeatsAvailable(Integer seatsAvailable) {
+        this.seatsAvailable = seatsAvailable;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public String toString() {
+        return "RideDelta{" +
+                "rideId=" + rideId +
+                ", seatsAvailable=" + seatsAvailable +
+                ", status='" + status + '\'' +
+                ", version=" + version +
+                '}';
+    }
+}
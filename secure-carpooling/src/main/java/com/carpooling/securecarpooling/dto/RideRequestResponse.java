@@ -0,0 +1,139 @@
+package com.carpooling.securecarpooling.dto;
+
+import java.time.LocalDateTime;
+
+public class RideRequestResponse {
+
+    private Long id;
+    private Long passengerId;
+    private String source;
+    private String destination;
+    private LocalDateTime earliestDeparture;
+    private LocalDateTime latestDeparture;
+    private Integer seatsNeeded;
+    private Double maxPricePerSeat;
+    private String status;
+    private Long bookingId;
+    private Long rideId;
+    private LocalDateTime createdAt;
+
+    // Default Constructor
+    public RideRequestResponse() {
+    }
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getPassengerId() {
+        return passengerId;
+    }
+
+    public void setPassengerId(Long passengerId) {
+        this.passengerId = passengerId;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+
+    public LocalDateTime getEarliestDeparture() {
+        return earliestDeparture;
+    }
+
+    public void setEarliestDeparture(LocalDateTime earliestDeparture) {
+        this.earliestDeparture = earliestDeparture;
+    }
+
+    public LocalDateTime getLatestDeparture() {
+        return latestDeparture;
+    }
+
+    public void setLatestDeparture(LocalDateTime latestDeparture) {
+        this.latestDeparture = latestDeparture;
+    }
+
+    public Integer getSeatsNeeded() {
+        return seatsNeeded;
+    }
+
+    public void setSeatsNeeded(Integer seatsNeeded) {
+        this.seatsNeeded = seatsNeeded;
+    }
+
+    public Double getMaxPricePerSeat() {
+        return maxPricePerSeat;
+    }
+
+    public void setMaxPricePerSeat(Double maxPricePerSeat) {
+        this.maxPricePerSeat = maxPricePerSeat;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public Long getRideId() {
+        return rideId;
+    }
+
+    public void setRideId(Long rideId) {
+        this.rideId = rideId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "RideRequestResponse{" +
+                "id=" + id +
+                ", passengerId=" + passengerId +
+                ", source='" + source + '\'' +
+                ", destination='" + destination + '\'' +
+                ", earliestDeparture=" + earliestDeparture +
+                ", latestDeparture=" + latestDeparture +
+                ", seatsNeeded=" + seatsNeeded +
+                ", maxPricePerSeat=" + maxPricePerSeat +
+                ", status='" + status + '\'' +
+                ", bookingId=" + bookingId +
+                ", rideId=" + rideId +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
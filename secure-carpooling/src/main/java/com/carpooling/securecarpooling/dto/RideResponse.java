@@ -1,6 +1,8 @@
 package com.carpooling.securecarpooling.dto;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
 
 public class RideResponse {
 
@@ -19,6 +21,12 @@ public class RideResponse {
     private String carColor;
     private Double distanceKm;
     private Double pricePerSeat;
+    // pricePerSeat at the route's demand multiplier when this response was built; pass it back when booking
+    private Double quotedPricePerSeat;
+    private List<String> stops;
+    private List<Integer> segmentSeats;
+    private Long templateId;
+    private Double maxDetourKm;
     private String status;
 
     // Default Constructor
@@ -178,6 +186,70 @@ public class RideResponse {
         this.status = status;
     }
 
+    public Double getQuotedPricePerSeat() {
+        return quotedPricePerSeat;
+    }
+
+    public void setQuotedPricePerSeat(Double quotedPricePerSeat) {
+        this.quotedPricePerSeat = quotedPricePerSeat;
+    }
+
+    public List<String> getStops() {
+        return stops;
+    }
+
+    public void setStops(List<String> stops) {
+        this.stops = stops;
+    }
+
+    public List<Integer> getSegmentSeats() {
+        return segmentSeats;
+    }
+
+    public void setSegmentSeats(List<Integer> segmentSeats) {
+        this.segmentSeats = segmentSeats;
+    }
+
+    public Long getTemplateId() {
+        return templateId;
+    }
+
+    public void setTemplateId(Long templateId) {
+        this.templateId = templateId;
+    }
+
+    public Double getMaxDetourKm() {
+        return maxDetourKm;
+    }
+
+    public void setMaxDetourKm(Double maxDetourKm) {
+        this.maxDetourKm = maxDetourKm;
+    }
+
+    /**
+     * Whether a seat is free on every segment between two stops, the check RideService.searchRides
+     * makes; seatsAvailable is the roomiest segment, so the part asked for may still be taken
+     * @param from - Boarding stop name
+     * @param to - Alighting stop name
+     * @return true if the ride passes both stops in this order with a seat free all the way
+     */
+    public boolean hasFreeSeats(String from, String to) {
+        List<String> names = stops != null ? stops : List.of(source, destination);
+        for (int fromStop = 0; fromStop < names.size(); fromStop++) {
+            if (!names.get(fromStop).equals(from)) {
+                continue;
+            }
+            for (int toStop = fromStop + 1; toStop < names.size(); toStop++) {
+                if (names.get(toStop).equals(to) && (segmentSeats == null
+                        ? seatsAvailable > 0
+                        : Collections.min(segmentSeats.subList(fromStop, toStop)) > 0)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     @Override
     public String toString() {
         return "RideResponse{" +
@@ -0,0 +1,35 @@
+package com.carpooling.securecarpooling.event;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Published after bookings were cancelled in bulk, e.g. because the driver cancelled the ride.
+ * Carries what the blockchain record of each cancellation needs.
+ */
+public class BookingsCancelledEvent {
+
+    private final Collection<Long> bookingIds;
+    private final String reason;
+
+    public BookingsCancelledEvent(Collection<Long> bookingIds, String reason) {
+        this.bookingIds = Collections.unmodifiableCollection(bookingIds);
+        this.reason = reason;
+    }
+
+    public Collection<Long> getBookingIds() {
+        return bookingIds;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingsCancelledEvent{" +
+                "bookingIds=" + bookingIds +
+                ", reason='" + reason + '\'' +
+                '}';
+    }
+}
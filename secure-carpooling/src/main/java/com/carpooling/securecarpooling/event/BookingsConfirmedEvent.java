@@ -0,0 +1,28 @@
+package com.carpooling.securecarpooling.event;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Published after bookings were created, one by BookingService or in bulk by the matching engine.
+ * The bookings are recorded on the blockchain once the transaction has committed.
+ */
+public class BookingsConfirmedEvent {
+
+    private final Collection<Long> bookingIds;
+
+    public BookingsConfirmedEvent(Collection<Long> bookingIds) {
+        this.bookingIds = Collections.unmodifiableCollection(bookingIds);
+    }
+
+    public Collection<Long> getBookingIds() {
+        return bookingIds;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingsConfirmedEvent{" +
+                "bookingIds=" + bookingIds +
+                '}';
+    }
+}
@@ -0,0 +1,46 @@
+package com.carpooling.securecarpooling.event;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Published after a write that may change a ride's seats or status
+ * (create, book, cancel, complete, expire, delete).
+ * An event without ride IDs means "many rides changed, reload everything".
+ */
+public class RideChangedEvent {
+
+    private final Collection<Long> rideIds;
+
+    public RideChangedEvent(Collection<Long> rideIds) {
+        this.rideIds = Collections.unmodifiableCollection(rideIds);
+    }
+
+    public RideChangedEvent(Long rideId) {
+        this(List.of(rideId));
+    }
+
+    /**
+     * Event for bulk changes where listing every ride is not worth it
+     * @return Event that asks listeners to reload all rides
+     */
+    public static RideChangedEvent all() {
+        return new RideChangedEvent(Collections.emptyList());
+    }
+
+    public Collection<Long> getRideIds() {
+        return rideIds;
+    }
+
+    public boolean isAll() {
+        return rideIds.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "RideChangedEvent{" +
+                "rideIds=" + (isAll() ? "ALL" : rideIds) +
+                '}';
+    }
+}
@@ -0,0 +1,84 @@
+package com.carpooling.securecarpooling.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps only a share of the routine (below WARN) log lines of chatty categories, e.g.
+ * per-transaction blockchain lines or per-tick scheduler summaries. Configured from
+ * logging.sampling.categories as "category=rate" pairs, where the category is a logger name
+ * or a prefix of one and the rate is the share kept (0.1 = one line in ten); the longest
+ * matching category wins. WARN and ERROR lines are always kept.
+ *
+ * Runs as a turbo filter, before the event is built, so dropped lines cost no formatting.
+ */
+public class CategorySamplingFilter extends TurboFilter {
+
+    // Sentinel for loggers no category applies to
+    private static final Double UNSAMPLED = 1.0;
+
+    private final Map<String, Double> rates = new HashMap<>();
+
+    // Rate per logger name, resolved once
+    private final Map<String, Double> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * @param categories - comma separated category=rate pairs
+     */
+    public void setCategories(String categories) {
+        rates.clear();
+        resolved.clear();
+        if (categories == null) {
+            return;
+        }
+        for (String pair : categories.split(",")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            if (eq <= 0) {
+                addError("Sampling category needs the form category=rate: " + pair.trim());
+                continue;
+            }
+            try {
+                double rate = Double.parseDouble(pair.substring(eq + 1).trim());
+                rates.put(pair.substring(0, eq).trim(), Math.max(0.0, Math.min(1.0, rate)));
+            } catch (NumberFormatException e) {
+                addError("Sampling rate is not a number: " + pair.trim());
+            }
+        }
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isXxxEnabled() checks, which must keep reporting the configured level
+        if (format == null || level.isGreaterOrEqual(Level.WARN) || rates.isEmpty()) {
+            return FilterReply.NEUTRAL;
+        }
+        double rate = resolved.computeIfAbsent(logger.getName(), this::rateFor);
+        if (rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+
+    private Double rateFor(String loggerName) {
+        for (String category = loggerName; ; category = category.substring(0, category.lastIndexOf('.'))) {
+            Double rate = rates.get(category);
+            if (rate != null) {
+                return rate;
+            }
+            if (category.lastIndexOf('.') < 0) {
+                return UNSAMPLED;
+            }
+        }
+    }
+}
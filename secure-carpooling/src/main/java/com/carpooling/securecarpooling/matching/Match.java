@@ -0,0 +1,45 @@
+package com.carpooling.securecarpooling.matching;
+
+/**
+ * One assignment produced by the matching engine: the request gets its seats on the ride.
+ */
+public final class Match {
+
+    private final long requestId;
+    private final long rideId;
+    private final int seats;
+    private final long cost;
+
+    public Match(long requestId, long rideId, int seats, long cost) {
+        this.requestId = requestId;
+        this.rideId = rideId;
+        this.seats = seats;
+        this.cost = cost;
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    public long getRideId() {
+        return rideId;
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    public long getCost() {
+        return cost;
+    }
+
+    @Override
+    public String toString() {
+        return "Match{" +
+                "requestId=" + requestId +
+                ", rideId=" + rideId +
+                ", seats=" + seats +
+                ", cost=" + cost +
+                '}';
+    }
+}
@@ -0,0 +1,63 @@
+package com.carpooling.securecarpooling.matching;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of an OPEN ride request, as seen by one matching cycle.
+ */
+public final class MatchableRequest {
+
+    private final long requestId;
+    private final long passengerId;
+    private final String source;
+    private final String destination;
+    private final long earliestMinute;
+    private final long latestMinute;
+    private final int seatsNeeded;
+    private final Double maxPricePerSeat;
+
+    public MatchableRequest(long requestId, long passengerId, String source, String destination,
+                            LocalDateTime earliestDeparture, LocalDateTime latestDeparture,
+                            int seatsNeeded, Double maxPricePerSeat) {
+        this.requestId = requestId;
+        this.passengerId = passengerId;
+        this.source = source;
+        this.destination = destination;
+        this.earliestMinute = MatchableRide.toMinute(earliestDeparture);
+        this.latestMinute = MatchableRide.toMinute(latestDeparture);
+        this.seatsNeeded = seatsNeeded;
+        this.maxPricePerSeat = maxPricePerSeat;
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    public long getPassengerId() {
+        return passengerId;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public long getEarliestMinute() {
+        return earliestMinute;
+    }
+
+    public long getLatestMinute() {
+        return latestMinute;
+    }
+
+    public int getSeatsNeeded() {
+        return seatsNeeded;
+    }
+
+    public Double getMaxPricePerSeat() {
+        return maxPricePerSeat;
+    }
+}
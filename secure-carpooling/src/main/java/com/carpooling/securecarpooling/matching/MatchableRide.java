@@ -0,0 +1,61 @@
+package com.carpooling.securecarpooling.matching;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Read-only view of an ACTIVE ride with spare seats, as seen by one matching cycle.
+ */
+public final class MatchableRide {
+
+    private final long rideId;
+    private final long driverId;
+    private final String source;
+    private final String destination;
+    private final long departureMinute;
+    private final int seatsAvailable;
+    private final double pricePerSeat;
+
+    public MatchableRide(long rideId, long driverId, String source, String destination,
+                         LocalDateTime departure, int seatsAvailable, double pricePerSeat) {
+        this.rideId = rideId;
+        this.driverId = driverId;
+        this.source = source;
+        this.destination = destination;
+        this.departureMinute = toMinute(departure);
+        this.seatsAvailable = seatsAvailable;
+        this.pricePerSeat = pricePerSeat;
+    }
+
+    static long toMinute(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    public long getRideId() {
+        return rideId;
+    }
+
+    public long getDriverId() {
+        return driverId;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public long getDepartureMinute() {
+        return departureMinute;
+    }
+
+    public int getSeatsAvailable() {
+        return seatsAvailable;
+    }
+
+    public double getPricePerSeat() {
+        return pricePerSeat;
+    }
+}
@@ -0,0 +1,253 @@
+package com.carpooling.securecarpooling.matching;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Assigns open ride requests to rides with spare seats.
+ *
+ * Requests and rides are partitioned by route (source, destination); partitions share
+ * nothing and are solved in parallel. Within a partition a request may take a ride that
+ * departs inside its window, has enough seats, is not driven by the passenger and costs
+ * no more than the passenger's budget. Each such pair costs
+ * TIME_WEIGHT x minutes away from the middle of the window + PRICE_WEIGHT x price per seat,
+ * and the partition is solved as a min-cost assignment (see MinCostFlow): as many
+ * requests as possible are matched, as cheaply as possible. Requests are augmented in
+ * arrival order, so when seats run out the earlier requests keep theirs.
+ *
+ * Requests needing several seats cannot be split across rides, so a partition is solved
+ * in passes from the largest seat count down; each pass is a min-cost assignment over
+ * the seats the previous passes left.
+ */
+public class MatchingEngine {
+
+    // Cost of departing one minute away from the passenger's preferred time
+    static final long TIME_WEIGHT = 10;
+
+    // Cost of one rupee of seat price
+    static final long PRICE_WEIGHT = 1;
+
+    // Cheapest rides kept per request; bounds the graph on dense routes
+    static final int MAX_CANDIDATES = 24;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * @param pool - Pool that solves the route partitions
+     */
+    public MatchingEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Run one matching cycle
+     * @param rides - ACTIVE rides with spare seats
+     * @param requests - OPEN ride requests
+     * @return Assignments; each request appears at most once and no ride is over-booked
+     */
+    public List<Match> match(List<MatchableRide> rides, List<MatchableRequest> requests) {
+        Map<String, Partition> partitions = new HashMap<>();
+        for (MatchableRequest request : requests) {
+            partitions.computeIfAbsent(routeKey(request.getSource(), request.getDestination()), key -> new Partition())
+                    .requests.add(request);
+        }
+        for (MatchableRide ride : rides) {
+            Partition partition = partitions.get(routeKey(ride.getSource(), ride.getDestination()));
+            if (partition != null) {
+                partition.rides.add(ride);
+            }
+        }
+
+        // Largest partitions first, so one big route does not finish last on its own
+        List<Partition> work = new ArrayList<>();
+        for (Partition partition : partitions.values()) {
+            if (!partition.rides.isEmpty()) {
+                work.add(partition);
+            }
+        }
+        work.sort(Comparator.comparingLong(Partition::size).reversed());
+
+        List<Callable<List<Match>>> tasks = new ArrayList<>(work.size());
+        for (Partition partition : work) {
+            tasks.add(partition::solve);
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (Future<List<Match>> result : pool.invokeAll(tasks)) {
+            try {
+                matches.addAll(result.get());
+            } catch (Exception e) {
+                throw new RuntimeException("Matching failed: " + e.getMessage(), e);
+            }
+        }
+        return matches;
+    }
+
+    static String routeKey(String source, String destination) {
+        return source.trim().toLowerCase(Locale.ROOT) + "\u0000" + destination.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Cost of putting a request on a ride, or -1 if the ride does not fit the request
+     */
+    static long cost(MatchableRequest request, MatchableRide ride, int seatsLeft) {
+        if (seatsLeft < request.getSeatsNeeded()
+                || ride.getDriverId() == request.getPassengerId()
+                || ride.getDepartureMinute() < request.getEarliestMinute()
+                || ride.getDepartureMinute() > request.getLatestMinute()
+                || (request.getMaxPricePerSeat() != null && ride.getPricePerSeat() > request.getMaxPricePerSeat())) {
+            return -1;
+        }
+        // Doubled so the middle of an odd-length window stays an integer
+        long preferredTwice = request.getEarliestMinute() + request.getLatestMinute();
+        long offMinutes = Math.abs(2 * ride.getDepartureMinute() - preferredTwice) / 2;
+        return TIME_WEIGHT * offMinutes + PRICE_WEIGHT * Math.round(ride.getPricePerSeat());
+    }
+
+    // Requests and rides of one route
+    private static final class Partition {
+
+        private final List<MatchableRequest> requests = new ArrayList<>();
+        private final List<MatchableRide> rides = new ArrayList<>();
+
+        private long size() {
+            return (long) requests.size() + rides.size();
+        }
+
+        private List<Match> solve() {
+            rides.sort(Comparator.comparingLong(MatchableRide::getDepartureMinute));
+            long[] departures = new long[rides.size()];
+            int[] seatsLeft = new int[rides.size()];
+            for (int i = 0; i < rides.size(); i++) {
+                departures[i] = rides.get(i).getDepartureMinute();
+                seatsLeft[i] = rides.get(i).getSeatsAvailable();
+            }
+
+            // Group requests by seat count, largest first
+            TreeMap<Integer, List<MatchableRequest>> bySeats = new TreeMap<>(Comparator.reverseOrder());
+            requests.sort(Comparator.comparingLong(MatchableRequest::getRequestId));
+            for (MatchableRequest request : requests) {
+                bySeats.computeIfAbsent(request.getSeatsNeeded(), seats -> new ArrayList<>()).add(request);
+            }
+
+            List<Match> matches = new ArrayList<>();
+            for (Map.Entry<Integer, List<MatchableRequest>> group : bySeats.entrySet()) {
+                solvePass(group.getKey(), group.getValue(), departures, seatsLeft, matches);
+            }
+            return matches;
+        }
+
+        /**
+         * Min-cost assignment of requests that all need the same number of seats
+         */
+        private void solvePass(int seats, List<MatchableRequest> passRequests, long[] departures,
+                               int[] seatsLeft, List<Match> matches) {
+            int requestCount = passRequests.size();
+            int rideCount = rides.size();
+            int sink = requestCount + rideCount;
+
+            // Candidate rides per request: inside the window, cheapest MAX_CANDIDATES kept
+            int[][] candidateRides = new int[requestCount][];
+            long[][] candidateCosts = new long[requestCount][];
+            int edges = 0;
+            for (int r = 0; r < requestCount; r++) {
+                MatchableRequest request = passRequests.get(r);
+                int from = lowerBound(departures, request.getEarliestMinute());
+                int[] found = new int[8];
+                long[] costs = new long[8];
+                int count = 0;
+                for (int i = from; i < rideCount && departures[i] <= request.getLatestMinute(); i++) {
+                    long cost = cost(request, rides.get(i), seatsLeft[i]);
+                    if (cost < 0) {
+                        continue;
+                    }
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, count * 2);
+                        costs = Arrays.copyOf(costs, count * 2);
+                    }
+                    found[count] = i;
+                    costs[count++] = cost;
+                }
+                keepCheapest(found, costs, count, r, candidateRides, candidateCosts);
+                edges += candidateRides[r].length;
+            }
+
+            MinCostFlow flow = new MinCostFlow(sink + 1, edges + rideCount);
+            int[][] edgeIds = new int[requestCount][];
+            for (int r = 0; r < requestCount; r++) {
+                edgeIds[r] = new int[candidateRides[r].length];
+                for (int c = 0; c < candidateRides[r].length; c++) {
+                    edgeIds[r][c] = flow.addEdge(r, requestCount + candidateRides[r][c], 1, candidateCosts[r][c]);
+                }
+            }
+            for (int i = 0; i < rideCount; i++) {
+                int places = seatsLeft[i] / seats;
+                if (places > 0) {
+                    flow.addEdge(requestCount + i, sink, places, 0);
+                }
+            }
+
+            for (int r = 0; r < requestCount; r++) {
+                if (edgeIds[r].length > 0) {
+                    flow.augment(r, sink);
+                }
+            }
+
+            for (int r = 0; r < requestCount; r++) {
+                for (int c = 0; c < edgeIds[r].length; c++) {
+                    if (flow.isUsed(edgeIds[r][c])) {
+                        int ride = candidateRides[r][c];
+                        seatsLeft[ride] -= seats;
+                        matches.add(new Match(passRequests.get(r).getRequestId(), rides.get(ride).getRideId(),
+                                seats, candidateCosts[r][c]));
+                        break;
+                    }
+                }
+            }
+        }
+
+        private static void keepCheapest(int[] found, long[] costs, int count, int r,
+                                         int[][] candidateRides, long[][] candidateCosts) {
+            if (count <= MAX_CANDIDATES) {
+                candidateRides[r] = Arrays.copyOf(found, count);
+                candidateCosts[r] = Arrays.copyOf(costs, count);
+                return;
+            }
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(i -> costs[i]));
+            candidateRides[r] = new int[MAX_CANDIDATES];
+            candidateCosts[r] = new long[MAX_CANDIDATES];
+            for (int i = 0; i < MAX_CANDIDATES; i++) {
+                candidateRides[r][i] = found[order[i]];
+                candidateCosts[r][i] = costs[order[i]];
+            }
+        }
+
+        // First index whose departure is at or after the given minute
+        private static int lowerBound(long[] departures, long minute) {
+            int low = 0;
+            int high = departures.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (departures[mid] < minute) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.carpooling.securecarpooling.matching;
+
+import java.util.Arrays;
+
+/**
+ * Min-cost assignment on the bipartite graphs the matching engine builds
+ * (request -> ride -> sink), solved like the Hungarian algorithm: requests are
+ * augmented one at a time along a shortest path in the residual graph.
+ * Dijkstra runs on reduced costs with Johnson potentials and stops at the sink, so it
+ * only explores the rides and requests that could actually give way; its bookkeeping
+ * is reset through a list of touched nodes instead of whole arrays.
+ * The result is a maximum matching, and no other assignment serving the same requests
+ * is cheaper; when capacity runs out, requests augmented earlier keep their place.
+ * Edges live in flat arrays to keep large graphs compact.
+ */
+final class MinCostFlow {
+
+    private static final long INFINITY = Long.MAX_VALUE / 4;
+
+    private final int[] head;
+    private int[] next;
+    private int[] to;
+    private int[] capacity;
+    private long[] cost;
+    private int edgeCount;
+
+    private final long[] potential;
+    private final long[] distance;
+    private final int[] previousEdge;
+    private final boolean[] settled;
+    private final int[] touched;
+    private int touchedCount;
+    private final NodeHeap heap;
+
+    MinCostFlow(int nodeCount, int expectedEdges) {
+        this.head = new int[nodeCount];
+        Arrays.fill(head, -1);
+        int slots = Math.max(2, expectedEdges * 2);
+        this.next = new int[slots];
+        this.to = new int[slots];
+        this.capacity = new int[slots];
+        this.cost = new long[slots];
+        this.potential = new long[nodeCount];
+        this.distance = new long[nodeCount];
+        Arrays.fill(distance, INFINITY);
+        this.previousEdge = new int[nodeCount];
+        this.settled = new boolean[nodeCount];
+        this.touched = new int[nodeCount];
+        this.heap = new NodeHeap(nodeCount);
+    }
+
+    /**
+     * Add a directed edge and its residual twin; costs must be non-negative
+     * @return Index of the forward edge, for reading its flow later
+     */
+    int addEdge(int from, int target, int edgeCapacity, long edgeCost) {
+        if (edgeCount + 2 > to.length) {
+            int grown = to.length * 2;
+            next = Arrays.copyOf(next, grown);
+            to = Arrays.copyOf(to, grown);
+            capacity = Arrays.copyOf(capacity, grown);
+            cost = Arrays.copyOf(cost, grown);
+        }
+        int forward = edgeCount;
+        link(from, target, edgeCapacity, edgeCost);
+        link(target, from, 0, -edgeCost);
+        return forward;
+    }
+
+    private void link(int from, int target, int edgeCapacity, long edgeCost) {
+        to[edgeCount] = target;
+        capacity[edgeCount] = edgeCapacity;
+        cost[edgeCount] = edgeCost;
+        next[edgeCount] = head[from];
+        head[from] = edgeCount++;
+    }
+
+    /**
+     * Whether an edge returned by addEdge carries flow
+     */
+    boolean isUsed(int edge) {
+        return capacity[edge] == 0 && capacity[edge ^ 1] > 0;
+    }
+
+    /**
+     * Route one unit from a request node to the sink along a shortest residual path
+     * @param start - Request node, not yet assigned
+     * @param sink - Sink node
+     * @return false if the request cannot be assigned without unassigning another
+     */
+    boolean augment(int start, int sink) {
+        boolean found = shortestPath(start, sink);
+        if (found) {
+            for (int node = sink; node != start; node = to[previousEdge[node] ^ 1]) {
+                int edge = previousEdge[node];
+                capacity[edge]--;
+                capacity[edge ^ 1]++;
+            }
+        }
+        for (int i = 0; i < touchedCount; i++) {
+            distance[touched[i]] = INFINITY;
+            settled[touched[i]] = false;
+        }
+        touchedCount = 0;
+        return found;
+    }
+
+    /**
+     * Dijkstra on reduced costs, stopping as soon as the sink is settled.
+     * Every node should advance its potential by min(distance, sink distance); adding the
+     * sink distance to all nodes changes no reduced cost, so only settled nodes are
+     * adjusted, by their distance minus the sink distance.
+     */
+    private boolean shortestPath(int start, int sink) {
+        heap.clear();
+        distance[start] = 0;
+        touched[touchedCount++] = start;
+        heap.push(start, 0);
+
+        while (!heap.isEmpty()) {
+            int node = heap.pop();
+            if (settled[node]) {
+                continue;
+            }
+            settled[node] = true;
+            if (node == sink) {
+                break;
+            }
+            for (int edge = head[node]; edge != -1; edge = next[edge]) {
+                if (capacity[edge] == 0) {
+                    continue;
+                }
+                int target = to[edge];
+                long candidate = distance[node] + cost[edge] + potential[node] - potential[target];
+                if (candidate < distance[target]) {
+                    if (distance[target] == INFINITY) {
+                        touched[touchedCount++] = target;
+                    }
+                    distance[target] = candidate;
+                    previousEdge[target] = edge;
+                    heap.push(target, candidate);
+                }
+            }
+        }
+
+        if (!settled[sink]) {
+            return false;
+        }
+        long sinkDistance = distance[sink];
+        for (int i = 0; i < touchedCount; i++) {
+            int node = touched[i];
+            if (settled[node]) {
+                potential[node] += distance[node] - sinkDistance;
+            }
+        }
+        return true;
+    }
+
+    // Binary min-heap of (node, priority) with lazy deletion of stale entries
+    private static final class NodeHeap {
+
+        private int[] nodes;
+        private long[] priorities;
+        private int size;
+
+        private NodeHeap(int capacity) {
+            this.nodes = new int[Math.max(16, capacity)];
+            this.priorities = new long[nodes.length];
+        }
+
+        private void clear() {
+            size = 0;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void push(int node, long priority) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                priorities = Arrays.copyOf(priorities, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (priorities[parent] <= priority) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                priorities[i] = priorities[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            priorities[i] = priority;
+        }
+
+        private int pop() {
+            int top = nodes[0];
+            int lastNode = nodes[--size];
+            long lastPriority = priorities[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+                    child++;
+                }
+                if (priorities[child] >= lastPriority) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                priorities[i] = priorities[child];
+                i = child;
+            }
+            nodes[i] = lastNode;
+            priorities[i] = lastPriority;
+            return top;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.carpooling.securecarpooling.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Keeps /actuator/prometheus and /actuator/metrics to the scraper: with Spring Security excluded
+ * nothing else guards them, and they name every endpoint, query count and blockchain failure.
+ * Requests from addresses outside metrics.scrape.allowed-addresses get 403; health and info
+ * stay open for the load balancer's probes.
+ */
+@Component
+public class MetricsEndpointFilter extends OncePerRequestFilter {
+
+    @Value("${metrics.scrape.allowed-addresses:127.0.0.1,0:0:0:0:0:0:0:1}")
+    private Set<String> allowedAddresses;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/actuator/prometheus") && !path.startsWith("/actuator/metrics");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!allowedAddresses.contains(request.getRemoteAddr())) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
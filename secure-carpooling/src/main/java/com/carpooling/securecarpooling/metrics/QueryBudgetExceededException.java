@@ -0,0 +1,14 @@
+package com.carpooling.securecarpooling.metrics;
+
+/**
+ * Thrown instead of running a statement once the current request has used up its query budget
+ * (query.budget.mode=reject). The statement is not sent, so the transaction rolls back.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
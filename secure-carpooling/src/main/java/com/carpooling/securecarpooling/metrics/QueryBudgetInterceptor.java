@@ -0,0 +1,95 @@
+package com.carpooling.securecarpooling.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.v;
+
+/**
+ * Measures the statements and database time of each request (counted by QueryCounter) and
+ * holds them against the query budget.
+ *
+ * Every request is recorded per endpoint (URI pattern and HTTP method) as the histograms
+ * carpooling.db.statements and carpooling.db.time. A request over budget is logged and counted
+ * (carpooling.db.budget.exceeded); with mode reject its next statement is refused instead.
+ * With open-in-view the figures include lazy loads made while the response is written.
+ * An async request (e.g. /api/rides/stream) is measured per dispatch.
+ */
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetInterceptor.class);
+
+    private static final String START = QueryBudgetInterceptor.class.getName() + ".start";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final long maxDbMillis;
+    private final boolean reject;
+
+    /**
+     * @param meterRegistry - Registry for the per-endpoint meters
+     * @param maxStatements - Statements a request may execute
+     * @param maxDbMillis - Database time a request may spend
+     * @param reject - Refuse statements over budget rather than only logging the request
+     */
+    public QueryBudgetInterceptor(MeterRegistry meterRegistry, int maxStatements, long maxDbMillis, boolean reject) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.maxDbMillis = maxDbMillis;
+        this.reject = reject;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START, QueryCounter.snapshot());
+        if (reject) {
+            QueryCounter.setBudget(maxStatements, maxDbMillis);
+        }
+        return true;
+    }
+
+    /**
+     * The request thread goes back to the pool while an async request goes on; afterCompletion
+     * only runs for the later dispatch, so the budget is cleared here or the next request on
+     * this thread would inherit it
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        if (reject) {
+            QueryCounter.clearBudget();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        boolean refused = reject && QueryCounter.clearBudget();
+        Object start = request.getAttribute(START);
+        if (!(start instanceof QueryStats)) {
+            return;
+        }
+        QueryStats stats = QueryCounter.snapshot().since((QueryStats) start);
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        Tags tags = Tags.of("uri", uri, "method", request.getMethod());
+        meterRegistry.summary("carpooling.db.statements", tags).record(stats.getStatements());
+        meterRegistry.timer("carpooling.db.time", tags).record(stats.getDbMillis(), TimeUnit.MILLISECONDS);
+
+        if (refused || stats.getStatements() > maxStatements || stats.getDbMillis() > maxDbMillis) {
+            meterRegistry.counter("carpooling.db.budget.exceeded", tags).increment();
+            log.warn("Query budget exceeded by {} {}: {} statement(s) in {} ms (limit {} statement(s), {} ms)",
+                    request.getMethod(), v("uri", uri), v("statements", stats.getStatements()),
+                    v("dbMillis", stats.getDbMillis()), maxStatements, maxDbMillis);
+        }
+    }
+}
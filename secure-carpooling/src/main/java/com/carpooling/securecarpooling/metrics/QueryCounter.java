@@ -0,0 +1,94 @@
+package com.carpooling.securecarpooling.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Counts the JDBC executions and database time of the current thread. Installed on the
+ * DataSource proxy (see DataSourceProxyConfig), so it sees every statement whoever sends it:
+ * Hibernate queries, lazy loads, flushes and batches (a batch is one execution).
+ *
+ * Totals only grow; callers take a snapshot() before and use QueryStats.since() after, so
+ * nested measurements (a test around a MockMvc request) do not disturb each other.
+ * While a budget is set on the thread, a statement that would go over it is refused with
+ * QueryBudgetExceededException.
+ */
+public class QueryCounter implements QueryExecutionListener {
+
+    private static final ThreadLocal<Tally> TALLY = ThreadLocal.withInitial(Tally::new);
+
+    private static final class Tally {
+        long statements;
+        long dbMillis;
+
+        // Budget in force on this thread; maxStatements 0 = none
+        long budgetStatements;
+        long budgetMillis;
+        int maxStatements;
+        long maxDbMillis;
+        boolean refused;
+    }
+
+    /**
+     * Totals of the current thread so far
+     */
+    public static QueryStats snapshot() {
+        Tally tally = TALLY.get();
+        return new QueryStats(tally.statements, tally.dbMillis);
+    }
+
+    /**
+     * Refuse statements on the current thread once these limits are reached, until clearBudget
+     * @param maxStatements - Statements allowed from now on, at least 1
+     * @param maxDbMillis - Database time allowed from now on
+     */
+    public static void setBudget(int maxStatements, long maxDbMillis) {
+        if (maxStatements < 1) {
+            throw new IllegalArgumentException("A query budget allows at least 1 statement, not " + maxStatements);
+        }
+        Tally tally = TALLY.get();
+        tally.budgetStatements = tally.statements;
+        tally.budgetMillis = tally.dbMillis;
+        tally.maxStatements = maxStatements;
+        tally.maxDbMillis = maxDbMillis;
+        tally.refused = false;
+    }
+
+    /**
+     * Lift the budget of the current thread
+     * @return Whether a statement was refused under it
+     */
+    public static boolean clearBudget() {
+        Tally tally = TALLY.get();
+        tally.maxStatements = 0;
+        return tally.refused;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Tally tally = TALLY.get();
+        if (tally.maxStatements == 0) {
+            return;
+        }
+        long statements = tally.statements - tally.budgetStatements;
+        long dbMillis = tally.dbMillis - tally.budgetMillis;
+        if (statements >= tally.maxStatements || dbMillis >= tally.maxDbMillis) {
+            String message = "Query budget exceeded: " + statements + " statement(s) in " + dbMillis
+                    + " ms (limit " + tally.maxStatements + " statement(s), " + tally.maxDbMillis + " ms)";
+            // Refuse once; the rollback and error handling that follow must still reach the database
+            tally.maxStatements = 0;
+            tally.refused = true;
+            throw new QueryBudgetExceededException(message);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Tally tally = TALLY.get();
+        tally.statements++;
+        tally.dbMillis += execInfo.getElapsedTime();
+    }
+}
@@ -0,0 +1,37 @@
+package com.carpooling.securecarpooling.metrics;
+
+/**
+ * Statements executed and database time spent, as counted by QueryCounter
+ */
+public final class QueryStats {
+
+    private final long statements;
+    private final long dbMillis;
+
+    public QueryStats(long statements, long dbMillis) {
+        this.statements = statements;
+        this.dbMillis = dbMillis;
+    }
+
+    /**
+     * @param earlier - Stats taken before on the same thread
+     * @return What was executed in between
+     */
+    public QueryStats since(QueryStats earlier) {
+        return new QueryStats(statements - earlier.statements, dbMillis - earlier.dbMillis);
+    }
+
+    // Getters
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getDbMillis() {
+        return dbMillis;
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statement(s) in " + dbMillis + " ms";
+    }
+}
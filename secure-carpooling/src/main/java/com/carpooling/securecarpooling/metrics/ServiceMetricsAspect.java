@@ -0,0 +1,90 @@
+package com.carpooling.securecarpooling.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.OptimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.hibernate.StaleStateException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of the service beans (carpooling.service, tagged with class,
+ * method and exception).
+ *
+ * Runs outside the transaction advice, so the time includes the commit, and version
+ * conflicts raised at commit are seen here. Those are counted as seat-inventory contention
+ * (carpooling.seats.contention, type=optimistic_lock): in this application the versioned
+ * rows that concurrent requests fight over are rides and their seat counts.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    // Nesting depth of timed calls on this thread; contention is counted once, at the outermost call
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Timers of successful calls, the common case, so they are not looked up by tags every time
+    private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.carpooling.securecarpooling.service..*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        int[] depth = DEPTH.get();
+        depth[0]++;
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            successTimers.computeIfAbsent(method, key -> timer(key, "none"))
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            timer(method, e.getClass().getSimpleName())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (depth[0] == 1 && isVersionConflict(e)) {
+                meterRegistry.counter("carpooling.seats.contention",
+                        "type", "optimistic_lock", "operation", method.getName()).increment();
+            }
+            throw e;
+        } finally {
+            depth[0]--;
+        }
+    }
+
+    private Timer timer(Method method, String exception) {
+        return Timer.builder("carpooling.service")
+                .description("Service method calls")
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+
+    private static boolean isVersionConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException || cause instanceof OptimisticLockException
+                    || cause instanceof StaleStateException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+}
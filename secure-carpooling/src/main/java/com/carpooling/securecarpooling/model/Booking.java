@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -25,19 +26,31 @@ public class Booking {
     @Column(name = "total_amount", nullable = false)
     private Double totalAmount;
 
+    // Stop indexes on the ride's route; null means the whole route
+    @Column(name = "from_stop")
+    private Integer fromStop;
+
+    @Column(name = "to_stop")
+    private Integer toStop;
+
     @Column(nullable = false)
-    private String status = "CONFIRMED"; // CONFIRMED, COMPLETED, CANCELLED
+    private BookingStatus status = BookingStatus.CONFIRMED;
 
     @Column(name = "blockchain_tx_hash")
     private String blockchainTxHash;
 
+    // Bumped on every change; used for optimistic locking and ETags
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(name = "booked_at")
     private LocalDateTime bookedAt;
 
     // Default Constructor
     public Booking() {
         this.bookedAt = LocalDateTime.now();
-        this.status = "CONFIRMED";
+        this.status = BookingStatus.CONFIRMED;
     }
 
     // Constructor with parameters
@@ -47,7 +60,7 @@ public class Booking {
         this.seatsBooked = seatsBooked;
         this.totalAmount = totalAmount;
         this.bookedAt = LocalDateTime.now();
-        this.status = "CONFIRMED";
+        this.status = BookingStatus.CONFIRMED;
     }
 
     // Getters and Setters
@@ -92,11 +105,11 @@ public class Booking {
         this.totalAmount = totalAmount;
     }
 
-    public String getStatus() {
+    public BookingStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(BookingStatus status) {
         this.status = status;
     }
 
@@ -116,6 +129,44 @@ public class Booking {
         this.bookedAt = bookedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Integer getFromStop() {
+        return fromStop;
+    }
+
+    public void setFromStop(Integer fromStop) {
+        this.fromStop = fromStop;
+    }
+
+    public Integer getToStop() {
+        return toStop;
+    }
+
+    public void setToStop(Integer toStop) {
+        this.toStop = toStop;
+    }
+
+    /**
+     * Boarding stop index, resolving "whole route"
+     */
+    public int boardingStop() {
+        return fromStop != null ? fromStop : 0;
+    }
+
+    /**
+     * Alighting stop index, resolving "whole route"
+     */
+    public int alightingStop() {
+        return toStop != null ? toStop : ride.getStopCount() - 1;
+    }
+
     @Override
     public String toString() {
         return "Booking{" +
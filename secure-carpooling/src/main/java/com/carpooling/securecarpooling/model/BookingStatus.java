@@ -0,0 +1,74 @@
+package com.carpooling.securecarpooling.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Lifecycle states of a booking, stored as a SMALLINT code (see BookingStatusConverter).
+ * Codes are persisted and must never be renumbered.
+ */
+public enum BookingStatus {
+
+    CONFIRMED((short) 0),
+    COMPLETED((short) 1),
+    CANCELLED((short) 2);
+
+    private static final BookingStatus[] BY_CODE = new BookingStatus[values().length];
+
+    static {
+        for (BookingStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+        // Allowed transitions: completed and cancelled bookings are final
+        CONFIRMED.next = EnumSet.of(COMPLETED, CANCELLED);
+        COMPLETED.next = EnumSet.noneOf(BookingStatus.class);
+        CANCELLED.next = EnumSet.noneOf(BookingStatus.class);
+    }
+
+    private final short code;
+    private Set<BookingStatus> next;
+
+    BookingStatus(short code) {
+        this.code = code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    /**
+     * Check the transition table
+     * @param target - Status the booking should move to
+     * @return true if a booking in this status may move to target
+     */
+    public boolean canTransitionTo(BookingStatus target) {
+        return next.contains(target);
+    }
+
+    /**
+     * Look up a status by its stored code
+     * @param code - SMALLINT value from the database
+     * @return Matching status
+     * @throws IllegalArgumentException if the code is unknown
+     */
+    public static BookingStatus fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown booking status code: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * Parse a status name coming from a request
+     * @param name - Status name, any case
+     * @return Matching status
+     * @throws RuntimeException if the name is not a booking status
+     */
+    public static BookingStatus fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid booking status: " + name);
+        }
+    }
+}
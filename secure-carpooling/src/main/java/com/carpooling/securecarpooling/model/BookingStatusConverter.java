@@ -0,0 +1,21 @@
+package com.carpooling.securecarpooling.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores BookingStatus as its SMALLINT code instead of the enum name.
+ */
+@Converter(autoApply = true)
+public class BookingStatusConverter implements AttributeConverter<BookingStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(BookingStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public BookingStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : BookingStatus.fromCode(code);
+    }
+}
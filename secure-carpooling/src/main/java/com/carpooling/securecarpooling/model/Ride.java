@@ -1,14 +1,22 @@
 package com.carpooling.securecarpooling.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "rides")
 @Table(name = "rides")
 public class Ride {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ride_seq")
+    @SequenceGenerator(name = "ride_seq", sequenceName = "rides_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -40,6 +48,27 @@ public class Ride {
     @Column(name = "car_color", nullable = false)
     private String carColor;
 
+    // Stops including source and destination; 2 means no waypoints and no stops rows
+    @Column(name = "stop_count", nullable = false)
+    private Integer stopCount = 2;
+
+    // Only filled for rides with waypoints; read through the stop methods below.
+    // Loaded on first use (batched, and usually from the cache), so seat changes never touch it
+    @ElementCollection
+    @CollectionTable(name = "ride_stops", joinColumns = @JoinColumn(name = "ride_id"))
+    @OrderColumn(name = "stop_index")
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "ride-stops")
+    private List<RideStop> stops = new ArrayList<>();
+
+    // Free seats per segment (segment i runs from stop i to stop i + 1); only for rides with waypoints
+    @Column(name = "segment_seats")
+    private int[] segmentSeats;
+
+    // Built from segmentSeats on first use after the ride is loaded, then kept in step with it
+    @Transient
+    private SegmentSeatTree seatTree;
+
     // Pricing
     @Column(name = "distance_km")
     private Double distanceKm;
@@ -47,20 +76,34 @@ public class Ride {
     @Column(name = "price_per_seat")
     private Double pricePerSeat;
 
+    // Extra kilometres the driver accepts for off-route passengers; null means none
+    @Column(name = "max_detour_km")
+    private Double maxDetourKm;
+
     // Status
     @Column(nullable = false)
-    private String status = "ACTIVE"; // ACTIVE, IN_PROGRESS, COMPLETED, CANCELLED
+    private RideStatus status = RideStatus.ACTIVE;
 
     @Column(name = "blockchain_tx_hash")
     private String blockchainTxHash;
 
+    // Recurring template this ride was materialized from; null for one-off rides
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "template_id")
+    private RideTemplate template;
+
+    // Bumped on every change; used for optimistic locking and ETags
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     // Default Constructor
     public Ride() {
         this.createdAt = LocalDateTime.now();
-        this.status = "ACTIVE";
+        this.status = RideStatus.ACTIVE;
     }
 
     // Constructor with parameters
@@ -76,7 +119,7 @@ public class Ride {
         this.carNumber = carNumber;
         this.carColor = carColor;
         this.createdAt = LocalDateTime.now();
-        this.status = "ACTIVE";
+        this.status = RideStatus.ACTIVE;
     }
 
     // Getters and Setters
@@ -177,11 +220,11 @@ public class Ride {
         this.pricePerSeat = pricePerSeat;
     }
 
-    public String getStatus() {
+    public RideStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(RideStatus status) {
         this.status = status;
     }
 
@@ -201,6 +244,149 @@ public class Ride {
         this.createdAt = createdAt;
     }
 
+    public Double getMaxDetourKm() {
+        return maxDetourKm;
+    }
+
+    public void setMaxDetourKm(Double maxDetourKm) {
+        this.maxDetourKm = maxDetourKm;
+    }
+
+    public RideTemplate getTemplate() {
+        return template;
+    }
+
+    public void setTemplate(RideTemplate template) {
+        this.template = template;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Integer getStopCount() {
+        return stopCount;
+    }
+
+    public List<RideStop> getStops() {
+        return stops;
+    }
+
+    /**
+     * Replace the route with the given stops; every segment starts with all seats free
+     * @param names - Stop names from source to destination (at least 2)
+     * @param distancesKm - Distance of each stop from the source
+     */
+    public void setRoute(List<String> names, double[] distancesKm) {
+        stops.clear();
+        stopCount = names.size();
+        if (stopCount > 2) {
+            for (int i = 0; i < stopCount; i++) {
+                stops.add(new RideStop(names.get(i), distancesKm[i]));
+            }
+            segmentSeats = new int[stopCount - 1];
+            Arrays.fill(segmentSeats, seatsAvailable);
+        } else {
+            segmentSeats = null;
+        }
+        seatTree = null;
+        distanceKm = distancesKm[stopCount - 1];
+    }
+
+    /**
+     * Stop names from source to destination, without loading stops for plain rides
+     * @return At least source and destination
+     */
+    public List<String> getStopNames() {
+        List<String> names = new ArrayList<>();
+        if (stopCount <= 2) {
+            names.add(source);
+            names.add(destination);
+        } else {
+            for (RideStop stop : stops) {
+                names.add(stop.getName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Position of a stop on the route
+     * @param name - Stop name, any case
+     * @return Stop index, or -1 if the ride does not pass it
+     */
+    public int findStop(String name) {
+        List<String> names = getStopNames();
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).trim().equalsIgnoreCase(name.trim())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Distance between two stops
+     * @param fromStop - Boarding stop index
+     * @param toStop - Alighting stop index
+     * @return Kilometres travelled
+     */
+    public Double getSegmentDistanceKm(int fromStop, int toStop) {
+        if (stopCount <= 2) {
+            return distanceKm;
+        }
+        return stops.get(toStop).getDistanceKm() - stops.get(fromStop).getDistanceKm();
+    }
+
+    /**
+     * Seats free on every segment between two stops
+     * @param fromStop - Boarding stop index
+     * @param toStop - Alighting stop index, greater than fromStop
+     * @return Seats that can be booked for that part of the route
+     */
+    public int getFreeSeats(int fromStop, int toStop) {
+        return stopCount <= 2 ? seatsAvailable : seatTree().freeSeats(fromStop, toStop);
+    }
+
+    /**
+     * Free seats per segment, in route order
+     * @return Copy of the segment seats, or null for rides without waypoints
+     */
+    public int[] getSegmentSeats() {
+        return segmentSeats == null ? null : segmentSeats.clone();
+    }
+
+    /**
+     * Book (negative delta) or release (positive delta) seats between two stops.
+     * seatsAvailable follows the roomiest segment, so a ride stays listed while any part of it can be booked.
+     * @param fromStop - Boarding stop index
+     * @param toStop - Alighting stop index, greater than fromStop
+     * @param delta - Seats added per segment
+     */
+    public void changeSeats(int fromStop, int toStop, int delta) {
+        if (stopCount <= 2) {
+            seatsAvailable += delta;
+            return;
+        }
+        SegmentSeatTree tree = seatTree();
+        tree.addSeats(fromStop, toStop, delta);
+        for (int i = fromStop; i < toStop; i++) {
+            segmentSeats[i] += delta;
+        }
+        seatsAvailable = tree.mostFreeSeats();
+    }
+
+    private SegmentSeatTree seatTree() {
+        if (seatTree == null) {
+            seatTree = new SegmentSeatTree(segmentSeats);
+        }
+        return seatTree;
+    }
+
     @Override
     public String toString() {
         return "Ride{" +
@@ -0,0 +1,188 @@
+package com.carpooling.securecarpooling.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A passenger's wish to travel a route within a departure window.
+ * Open requests are assigned to rides by the matching engine, which books the seats.
+ */
+@Entity
+@Table(name = "ride_requests")
+public class RideRequest {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ride_request_seq")
+    @SequenceGenerator(name = "ride_request_seq", sequenceName = "ride_requests_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "passenger_id", nullable = false)
+    private User passenger;
+
+    @Column(nullable = false)
+    private String source;
+
+    @Column(nullable = false)
+    private String destination;
+
+    @Column(name = "earliest_departure", nullable = false)
+    private LocalDateTime earliestDeparture;
+
+    @Column(name = "latest_departure", nullable = false)
+    private LocalDateTime latestDeparture;
+
+    @Column(name = "seats_needed", nullable = false)
+    private Integer seatsNeeded;
+
+    // Optional budget; rides priced above it are never matched
+    @Column(name = "max_price_per_seat")
+    private Double maxPricePerSeat;
+
+    @Column(nullable = false)
+    private RideRequestStatus status = RideRequestStatus.OPEN;
+
+    // Booking created when the request was matched
+    @OneToOne
+    @JoinColumn(name = "booking_id")
+    private Booking booking;
+
+    // Bumped on every change; used for optimistic locking
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Default Constructor
+    public RideRequest() {
+        this.createdAt = LocalDateTime.now();
+        this.status = RideRequestStatus.OPEN;
+    }
+
+    // Constructor with parameters
+    public RideRequest(User passenger, String source, String destination, LocalDateTime earliestDeparture,
+                       LocalDateTime latestDeparture, Integer seatsNeeded, Double maxPricePerSeat) {
+        this.passenger = passenger;
+        this.source = source;
+        this.destination = destination;
+        this.earliestDeparture = earliestDeparture;
+        this.latestDeparture = latestDeparture;
+        this.seatsNeeded = seatsNeeded;
+        this.maxPricePerSeat = maxPricePerSeat;
+        this.createdAt = LocalDateTime.now();
+        this.status = RideRequestStatus.OPEN;
+    }
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getPassenger() {
+        return passenger;
+    }
+
+    public void setPassenger(User passenger) {
+        this.passenger = passenger;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+
+    public LocalDateTime getEarliestDeparture() {
+        return earliestDeparture;
+    }
+
+    public void setEarliestDeparture(LocalDateTime earliestDeparture) {
+        this.earliestDeparture = earliestDeparture;
+    }
+
+    public LocalDateTime getLatestDeparture() {
+        return latestDeparture;
+    }
+
+    public void setLatestDeparture(LocalDateTime latestDeparture) {
+        this.latestDeparture = latestDeparture;
+    }
+
+    public Integer getSeatsNeeded() {
+        return seatsNeeded;
+    }
+
+    public void setSeatsNeeded(Integer seatsNeeded) {
+        this.seatsNeeded = seatsNeeded;
+    }
+
+    public Double getMaxPricePerSeat() {
+        return maxPricePerSeat;
+    }
+
+    public void setMaxPricePerSeat(Double maxPricePerSeat) {
+        this.maxPricePerSeat = maxPricePerSeat;
+    }
+
+    public RideRequestStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(RideRequestStatus status) {
+        this.status = status;
+    }
+
+    public Booking getBooking() {
+        return booking;
+    }
+
+    public void setBooking(Booking booking) {
+        this.booking = booking;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "RideRequest{" +
+                "id=" + id +
+                ", source='" + source + '\'' +
+                ", destination='" + destination + '\'' +
+                ", earliestDeparture=" + earliestDeparture +
+                ", latestDeparture=" + latestDeparture +
+                ", seatsNeeded=" + seatsNeeded +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,62 @@
+package com.carpooling.securecarpooling.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Lifecycle states of a passenger's ride request, stored as a SMALLINT code (see RideRequestStatusConverter).
+ * Codes are persisted and must never be renumbered.
+ */
+public enum RideRequestStatus {
+
+    OPEN((short) 0),
+    MATCHED((short) 1),
+    CANCELLED((short) 2),
+    EXPIRED((short) 3);
+
+    private static final RideRequestStatus[] BY_CODE = new RideRequestStatus[values().length];
+
+    static {
+        for (RideRequestStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+        // Allowed transitions: only open requests can change
+        OPEN.next = EnumSet.of(MATCHED, CANCELLED, EXPIRED);
+        MATCHED.next = EnumSet.noneOf(RideRequestStatus.class);
+        CANCELLED.next = EnumSet.noneOf(RideRequestStatus.class);
+        EXPIRED.next = EnumSet.noneOf(RideRequestStatus.class);
+    }
+
+    private final short code;
+    private Set<RideRequestStatus> next;
+
+    RideRequestStatus(short code) {
+        this.code = code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    /**
+     * Check the transition table
+     * @param target - Status the request should move to
+     * @return true if a request in this status may move to target
+     */
+    public boolean canTransitionTo(RideRequestStatus target) {
+        return next.contains(target);
+    }
+
+    /**
+     * Look up a status by its stored code
+     * @param code - SMALLINT value from the database
+     * @return Matching status
+     * @throws IllegalArgumentException if the code is unknown
+     */
+    public static RideRequestStatus fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown ride request status code: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
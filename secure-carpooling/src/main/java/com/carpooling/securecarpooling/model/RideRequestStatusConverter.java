@@ -0,0 +1,21 @@
+package com.carpooling.securecarpooling.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores RideRequestStatus as its SMALLINT code instead of the enum name.
+ */
+@Converter(autoApply = true)
+public class RideRequestStatusConverter implements AttributeConverter<RideRequestStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(RideRequestStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public RideRequestStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : RideRequestStatus.fromCode(code);
+    }
+}
@@ -0,0 +1,78 @@
+package com.carpooling.securecarpooling.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Lifecycle states of a ride, stored as a SMALLINT code (see RideStatusConverter).
+ * Codes are persisted and must never be renumbered.
+ */
+public enum RideStatus {
+
+    ACTIVE((short) 0),
+    IN_PROGRESS((short) 1),
+    COMPLETED((short) 2),
+    CANCELLED((short) 3),
+    EXPIRED((short) 4);
+
+    private static final RideStatus[] BY_CODE = new RideStatus[values().length];
+
+    static {
+        for (RideStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
+        // Allowed transitions: who may move a ride where
+        ACTIVE.next = EnumSet.of(IN_PROGRESS, COMPLETED, CANCELLED, EXPIRED);
+        IN_PROGRESS.next = EnumSet.of(COMPLETED);
+        COMPLETED.next = EnumSet.noneOf(RideStatus.class);
+        CANCELLED.next = EnumSet.noneOf(RideStatus.class);
+        EXPIRED.next = EnumSet.noneOf(RideStatus.class);
+    }
+
+    private final short code;
+    private Set<RideStatus> next;
+
+    RideStatus(short code) {
+        this.code = code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    /**
+     * Check the transition table
+     * @param target - Status the ride should move to
+     * @return true if a ride in this status may move to target
+     */
+    public boolean canTransitionTo(RideStatus target) {
+        return next.contains(target);
+    }
+
+    /**
+     * Look up a status by its stored code
+     * @param code - SMALLINT value from the database
+     * @return Matching status
+     * @throws IllegalArgumentException if the code is unknown
+     */
+    public static RideStatus fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown ride status code: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * Parse a status name coming from a request
+     * @param name - Status name, any case
+     * @return Matching status
+     * @throws RuntimeException if the name is not a ride status
+     */
+    public static RideStatus fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid ride status: " + name);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.carpooling.securecarpooling.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores RideStatus as its SMALLINT code instead of the enum name.
+ */
+@Converter(autoApply = true)
+public class RideStatusConverter implements AttributeConverter<RideStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(RideStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public RideStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : RideStatus.fromCode(code);
+    }
+}
@@ -0,0 +1,46 @@
+package com.carpooling.securecarpooling.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * One stop on a ride with waypoints.
+ */
+@Embeddable
+public class RideStop {
+
+    @Column(nullable = false)
+    private String name;
+
+    // Distance from the ride's source
+    @Column(name = "distance_km", nullable = false)
+    private Double distanceKm;
+
+    // Default Constructor
+    public RideStop() {
+    }
+
+    // Constructor with parameters
+    public RideStop(String name, Double distanceKm) {
+        this.name = name;
+        this.distanceKm = distanceKm;
+    }
+
+    // Getters and Setters
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(Double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+}
@@ -0,0 +1,262 @@
+package com.carpooling.securecarpooling.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A ride a driver repeats on a schedule, e.g. every weekday at 08:30.
+ * The schedule is a Spring cron expression. Concrete rides are materialized from it only
+ * up to a rolling horizon; materializedUntil records how far that has gone.
+ * Distance and price are calculated once and copied to every occurrence.
+ */
+@Entity
+@Table(name = "ride_templates")
+public class RideTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ride_template_seq")
+    @SequenceGenerator(name = "ride_template_seq", sequenceName = "ride_templates_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "driver_id", nullable = false)
+    private User driver;
+
+    @Column(nullable = false)
+    private String source;
+
+    @Column(nullable = false)
+    private String destination;
+
+    // Cron expression (second minute hour day-of-month month day-of-week)
+    @Column(nullable = false, length = 120)
+    private String schedule;
+
+    @Column(nullable = false)
+    private Integer seats;
+
+    // Car Details
+    @Column(name = "car_model", nullable = false)
+    private String carModel;
+
+    @Column(name = "car_number", nullable = false)
+    private String carNumber;
+
+    @Column(name = "car_color", nullable = false)
+    private String carColor;
+
+    // Pricing, shared by all occurrences
+    @Column(name = "distance_km", nullable = false)
+    private Double distanceKm;
+
+    @Column(name = "price_per_seat", nullable = false)
+    private Double pricePerSeat;
+
+    @Column(name = "starts_on", nullable = false)
+    private LocalDate startsOn;
+
+    // Last day an occurrence may fall on; null means no end
+    @Column(name = "ends_on")
+    private LocalDate endsOn;
+
+    // Every occurrence up to this time exists as a ride
+    @Column(name = "materialized_until", nullable = false)
+    private LocalDateTime materializedUntil;
+
+    @Column(nullable = false)
+    private Boolean active = true;
+
+    // One anchor for the whole template; occurrences carry the same hash
+    @Column(name = "blockchain_tx_hash")
+    private String blockchainTxHash;
+
+    // Bumped on every change; used for optimistic locking
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Default Constructor
+    public RideTemplate() {
+        this.createdAt = LocalDateTime.now();
+        this.active = true;
+    }
+
+    // Constructor with parameters
+    public RideTemplate(User driver, String source, String destination, String schedule, Integer seats,
+                        String carModel, String carNumber, String carColor, LocalDate startsOn, LocalDate endsOn) {
+        this.driver = driver;
+        this.source = source;
+        this.destination = destination;
+        this.schedule = schedule;
+        this.seats = seats;
+        this.carModel = carModel;
+        this.carNumber = carNumber;
+        this.carColor = carColor;
+        this.startsOn = startsOn;
+        this.endsOn = endsOn;
+        this.materializedUntil = startsOn.atStartOfDay().minusSeconds(1);
+        this.createdAt = LocalDateTime.now();
+        this.active = true;
+    }
+
+    /**
+     * Build the ride for one occurrence of this template
+     * @param departure - Departure time of the occurrence
+     * @return New, unsaved ride
+     */
+    public Ride newOccurrence(LocalDateTime departure) {
+        Ride ride = new Ride(driver, source, destination, departure, seats, carModel, carNumber, carColor);
+        ride.setRoute(List.of(source, destination), new double[]{0, distanceKm});
+        ride.setPricePerSeat(pricePerSeat);
+        ride.setBlockchainTxHash(blockchainTxHash);
+        ride.setTemplate(this);
+        return ride;
+    }
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getDriver() {
+        return driver;
+    }
+
+    public void setDriver(User driver) {
+        this.driver = driver;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+
+    public String getSchedule() {
+        return schedule;
+    }
+
+    public void setSchedule(String schedule) {
+        this.schedule = schedule;
+    }
+
+    public Integer getSeats() {
+        return seats;
+    }
+
+    public void setSeats(Integer seats) {
+        this.seats = seats;
+    }
+
+    public String getCarModel() {
+        return carModel;
+    }
+
+    public void setCarModel(String carModel) {
+        this.carModel = carModel;
+    }
+
+    public String getCarNumber() {
+        return carNumber;
+    }
+
+    public void setCarNumber(String carNumber) {
+        this.carNumber = carNumber;
+    }
+
+    public String getCarColor() {
+        return carColor;
+    }
+
+    public void setCarColor(String carColor) {
+        this.carColor = carColor;
+    }
+
+    public Double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(Double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    public Double getPricePerSeat() {
+        return pricePerSeat;
+    }
+
+    public void setPricePerSeat(Double pricePerSeat) {
+        this.pricePerSeat = pricePerSeat;
+    }
+
+    public LocalDate getStartsOn() {
+        return startsOn;
+    }
+
+    public void setStartsOn(LocalDate startsOn) {
+        this.startsOn = startsOn;
+    }
+
+    public LocalDate getEndsOn() {
+        return endsOn;
+    }
+
+    public void setEndsOn(LocalDate endsOn) {
+        this.endsOn = endsOn;
+    }
+
+    public LocalDateTime getMaterializedUntil() {
+        return materializedUntil;
+    }
+
+    public void setMaterializedUntil(LocalDateTime materializedUntil) {
+        this.materializedUntil = materializedUntil;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+
+    public String getBlockchainTxHash() {
+        return blockchainTxHash;
+    }
+
+    public void setBlockchainTxHash(String blockchainTxHash) {
+        this.blockchainTxHash = blockchainTxHash;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,100 @@
+package com.carpooling.securecarpooling.model;
+
+/**
+ * Free seats per segment of a ride (segment i runs from stop i to stop i + 1),
+ * held in a primitive array laid out as a segment tree with lazy range updates.
+ * Both "fewest free seats between two stops" and "book/release seats between two stops"
+ * take O(log n) for n segments; the most free seats on any segment is kept at the root.
+ */
+public final class SegmentSeatTree {
+
+    private final int segments;
+    private final int[] min;
+    private final int[] max;
+    private final int[] pending;
+
+    /**
+     * @param seatsPerSegment - Free seats on each segment, in route order
+     */
+    public SegmentSeatTree(int[] seatsPerSegment) {
+        this.segments = seatsPerSegment.length;
+        this.min = new int[4 * Math.max(1, segments)];
+        this.max = new int[min.length];
+        this.pending = new int[min.length];
+        build(1, 0, segments - 1, seatsPerSegment);
+    }
+
+    /**
+     * Fewest free seats on any segment between two stops
+     * @param fromStop - Boarding stop index
+     * @param toStop - Alighting stop index, greater than fromStop
+     * @return Seats that can be booked for the whole trip
+     */
+    public int freeSeats(int fromStop, int toStop) {
+        return query(1, 0, segments - 1, fromStop, toStop - 1);
+    }
+
+    /**
+     * Add (or, with a negative delta, take) seats on every segment between two stops
+     * @param fromStop - Boarding stop index
+     * @param toStop - Alighting stop index, greater than fromStop
+     * @param delta - Seats to add per segment
+     */
+    public void addSeats(int fromStop, int toStop, int delta) {
+        update(1, 0, segments - 1, fromStop, toStop - 1, delta);
+    }
+
+    /**
+     * Most free seats on any single segment
+     * @return Seats that can be booked for at least one part of the route
+     */
+    public int mostFreeSeats() {
+        return max[1];
+    }
+
+    private void build(int node, int low, int high, int[] seats) {
+        if (low == high) {
+            min[node] = seats[low];
+            max[node] = seats[low];
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        build(2 * node, low, mid, seats);
+        build(2 * node + 1, mid + 1, high, seats);
+        min[node] = Math.min(min[2 * node], min[2 * node + 1]);
+        max[node] = Math.max(max[2 * node], max[2 * node + 1]);
+    }
+
+    private int query(int node, int low, int high, int from, int to) {
+        if (from <= low && high <= to) {
+            return min[node];
+        }
+        int mid = (low + high) >>> 1;
+        int result = Integer.MAX_VALUE;
+        if (from <= mid) {
+            result = Math.min(result, query(2 * node, low, mid, from, to));
+        }
+        if (to > mid) {
+            result = Math.min(result, query(2 * node + 1, mid + 1, high, from, to));
+        }
+        return result + pending[node];
+    }
+
+    private void update(int node, int low, int high, int from, int to, int delta) {
+        if (from <= low && high <= to) {
+            min[node] += delta;
+            max[node] += delta;
+            pending[node] += delta;
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        if (from <= mid) {
+            update(2 * node, low, mid, from, to, delta);
+        }
+        if (to > mid) {
+            update(2 * node + 1, mid + 1, high, from, to, delta);
+        }
+        min[node] = Math.min(min[2 * node], min[2 * node + 1]) + pending[node];
+        max[node] = Math.max(max[2 * node], max[2 * node + 1]) + pending[node];
+    }
+}
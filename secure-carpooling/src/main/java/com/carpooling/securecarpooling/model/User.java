@@ -1,14 +1,18 @@
 package com.carpooling.securecarpooling.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Table(name = "users")
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -38,6 +42,11 @@ public class User {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Bumped on every change; part of the ETags of the rides and bookings showing this user
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // Default Constructor
     public User() {
         this.createdAt = LocalDateTime.now();
@@ -150,4 +159,12 @@ public class User {
                 ", totalRides=" + totalRides +
                 '}';
     }
-}
\ No newline at end of file
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,59 @@
+package com.carpooling.securecarpooling.pricing;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Event count over the last N minutes, kept in a ring of one-minute buckets.
+ * Each bucket is a single long holding (minute << COUNT_BITS) | count, so recording an
+ * event is one compare-and-set: a bucket still stamped with an older minute is
+ * restarted at 1 in the same CAS. No locks, and no count is lost to a reset race.
+ */
+public final class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray buckets;
+
+    /**
+     * @param minutes - Window length; one bucket per minute
+     */
+    public SlidingWindowCounter(int minutes) {
+        this.buckets = new AtomicLongArray(minutes);
+    }
+
+    /**
+     * Record events
+     * @param minute - Current minute (e.g. epoch millis / 60000)
+     * @param amount - Events to add
+     */
+    public void add(long minute, int amount) {
+        int slot = (int) (minute % buckets.length());
+        while (true) {
+            long bucket = buckets.get(slot);
+            long next = bucket >>> COUNT_BITS == minute
+                    ? (minute << COUNT_BITS) | Math.min(COUNT_MASK, (bucket & COUNT_MASK) + amount)
+                    : (minute << COUNT_BITS) | Math.min(COUNT_MASK, amount);
+            if (bucket >>> COUNT_BITS > minute || buckets.compareAndSet(slot, bucket, next)) {
+                return; // A newer minute already owns the bucket; this event is outside its window
+            }
+        }
+    }
+
+    /**
+     * Events recorded in the window ending at the given minute
+     * @param minute - Current minute
+     * @return Sum over buckets stamped within the last N minutes
+     */
+    public long sum(long minute) {
+        long total = 0;
+        for (int slot = 0; slot < buckets.length(); slot++) {
+            long bucket = buckets.get(slot);
+            long stamp = bucket >>> COUNT_BITS;
+            if (stamp <= minute && stamp > minute - buckets.length()) {
+                total += bucket & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+}
@@ -1,11 +1,15 @@
 package com.carpooling.securecarpooling.repository;
 
 import com.carpooling.securecarpooling.model.Booking;
+import com.carpooling.securecarpooling.model.BookingStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -18,10 +22,10 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByRideId(Long rideId);
 
     // Find bookings by status
-    List<Booking> findByStatus(String status);
+    List<Booking> findByStatus(BookingStatus status);
 
     // Find passenger's confirmed bookings
-    @Query("SELECT b FROM Booking b WHERE b.passenger.id = :passengerId AND b.status = 'CONFIRMED'")
+    @Query("SELECT b FROM Booking b WHERE b.passenger.id = :passengerId AND b.status = CONFIRMED")
     List<Booking> findConfirmedBookingsByPassenger(@Param("passengerId") Long passengerId);
 
     // Find all bookings for a specific driver's rides
@@ -29,6 +33,43 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findBookingsByDriver(@Param("driverId") Long driverId);
 
     // Check if user already booked a specific ride
-    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.ride.id = :rideId AND b.passenger.id = :passengerId AND b.status = 'CONFIRMED'")
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.ride.id = :rideId AND b.passenger.id = :passengerId AND b.status = CONFIRMED")
     boolean existsByRideIdAndPassengerId(@Param("rideId") Long rideId, @Param("passengerId") Long passengerId);
-}
\ No newline at end of file
+
+    // Complete all confirmed bookings of a ride in one statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = COMPLETED, b.version = b.version + 1 WHERE b.ride.id = :rideId AND b.status = CONFIRMED")
+    int completeConfirmedBookingsByRide(@Param("rideId") Long rideId);
+
+    // IDs of a ride's confirmed bookings
+    @Query("SELECT b.id FROM Booking b WHERE b.ride.id = :rideId AND b.status = CONFIRMED")
+    List<Long> findConfirmedIdsByRide(@Param("rideId") Long rideId);
+
+    // Cancel all confirmed bookings of a ride in one statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = CANCELLED, b.version = b.version + 1 WHERE b.ride.id = :rideId AND b.status = CONFIRMED")
+    int cancelConfirmedBookingsByRide(@Param("rideId") Long rideId);
+
+    // Complete confirmed bookings of several in-progress rides in one statement
+    @Modifying
+    @Transactional
+    @Query("UPDATE Booking b SET b.status = COMPLETED, b.version = b.version + 1 WHERE b.ride.id IN :rideIds AND b.status = CONFIRMED " +
+            "AND b.ride.id IN (SELECT r.id FROM Ride r WHERE r.status = IN_PROGRESS)")
+    int completeConfirmedBookingsForRides(@Param("rideIds") Collection<Long> rideIds);
+
+    // Count and version sums of a passenger's bookings, their rides and the rides' drivers, plus the
+    // passenger's own version; changes whenever any of them changes
+    @Query("SELECT COUNT(b), COALESCE(SUM(b.version), 0), COALESCE(SUM(b.ride.version), 0), " +
+            "COALESCE(SUM(b.ride.driver.version), 0), (SELECT p.version FROM User p WHERE p.id = :passengerId) " +
+            "FROM Booking b WHERE b.passenger.id = :passengerId")
+    List<Object[]> findVersionSummaryByPassenger(@Param("passengerId") Long passengerId);
+
+    // (rideId, passengerId) of the confirmed bookings on the given rides
+    @Query("SELECT b.ride.id, b.passenger.id FROM Booking b WHERE b.ride.id IN :rideIds AND b.status = CONFIRMED")
+    List<Object[]> findConfirmedRidePassengerPairs(@Param("rideIds") Collection<Long> rideIds);
+
+    // Link a booking to its blockchain record
+    @Modifying
+    @Query("UPDATE Booking b SET b.blockchainTxHash = :txHash WHERE b.id = :bookingId")
+    int setBlockchainTxHash(@Param("bookingId") Long bookingId, @Param("txHash") String txHash);
+}
@@ -1,19 +1,26 @@
 package com.carpooling.securecarpooling.repository;
 
 import com.carpooling.securecarpooling.model.Ride;
+import com.carpooling.securecarpooling.model.RideStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface RideRepository extends JpaRepository<Ride, Long> {
 
     // Find all active rides with available seats
-    List<Ride> findByStatusAndSeatsAvailableGreaterThan(String status, Integer seats);
+    List<Ride> findByStatusAndSeatsAvailableGreaterThan(RideStatus status, Integer seats);
 
     // Find rides by driver ID
     List<Ride> findByDriverId(Long driverId);
@@ -22,17 +29,86 @@ public interface RideRepository extends JpaRepository<Ride, Long> {
     List<Ride> findBySourceAndDestination(String source, String destination);
 
     // Find active rides by source and destination
-    @Query("SELECT r FROM Ride r WHERE r.source = :source AND r.destination = :destination AND r.status = 'ACTIVE' AND r.seatsAvailable > 0")
+    @Query("SELECT r FROM Ride r WHERE r.source = :source AND r.destination = :destination AND r.status = ACTIVE AND r.seatsAvailable > 0")
     List<Ride> findActiveRidesByRoute(@Param("source") String source, @Param("destination") String destination);
 
+    // Find active rides passing both stops in order, with the boarding and alighting stop indexes:
+    // (ride, fromStop, toStop); seats on those segments are for the caller to check
+    @Query("SELECT r, INDEX(a), INDEX(b) FROM Ride r JOIN r.stops a JOIN r.stops b " +
+            "WHERE a.name = :source AND b.name = :destination AND INDEX(a) < INDEX(b) " +
+            "AND r.status = ACTIVE AND r.seatsAvailable > 0")
+    List<Object[]> findActiveRidesPassing(@Param("source") String source, @Param("destination") String destination);
+
     // Find rides by status
-    List<Ride> findByStatus(String status);
+    List<Ride> findByStatus(RideStatus status);
 
-    // Find upcoming rides (future date/time and active)
-    @Query("SELECT r FROM Ride r WHERE r.dateTime > :currentTime AND r.status = 'ACTIVE' AND r.seatsAvailable > 0 ORDER BY r.dateTime ASC")
+    // Find upcoming rides (future date/time and active); cached, so callers should pass a rounded time
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "upcoming-rides")
+    })
+    @Query("SELECT r FROM Ride r WHERE r.dateTime > :currentTime AND r.status = ACTIVE AND r.seatsAvailable > 0 ORDER BY r.dateTime ASC")
     List<Ride> findUpcomingRides(@Param("currentTime") LocalDateTime currentTime);
 
     // Find driver's active rides
-    @Query("SELECT r FROM Ride r WHERE r.driver.id = :driverId AND r.status = 'ACTIVE'")
+    @Query("SELECT r FROM Ride r WHERE r.driver.id = :driverId AND r.status = ACTIVE")
     List<Ride> findActiveRidesByDriver(@Param("driverId") Long driverId);
-}
\ No newline at end of file
+
+    // Find id, departure time and status of rides the lifecycle scheduler still has to advance
+    @Query("SELECT r.id, r.dateTime, r.status FROM Ride r WHERE r.status IN (ACTIVE, IN_PROGRESS)")
+    List<Object[]> findLifecycleSchedule();
+
+    // Expire departed rides that never got a confirmed booking
+    @Modifying
+    @Transactional
+    @Query("UPDATE Ride r SET r.status = EXPIRED, r.version = r.version + 1 WHERE r.id IN :rideIds AND r.status = ACTIVE " +
+            "AND NOT EXISTS (SELECT b.id FROM Booking b WHERE b.ride.id = r.id AND b.status = CONFIRMED)")
+    int expireUnbookedRides(@Param("rideIds") Collection<Long> rideIds);
+
+    // Move departed rides that still have passengers to IN_PROGRESS
+    @Modifying
+    @Transactional
+    @Query("UPDATE Ride r SET r.status = IN_PROGRESS, r.version = r.version + 1 WHERE r.id IN :rideIds AND r.status = ACTIVE")
+    int startRides(@Param("rideIds") Collection<Long> rideIds);
+
+    // Of the given rides, those now in progress
+    @Query("SELECT r.id FROM Ride r WHERE r.id IN :rideIds AND r.status = IN_PROGRESS")
+    List<Long> findInProgressIds(@Param("rideIds") Collection<Long> rideIds);
+
+    // Complete in-progress rides the driver never closed
+    @Modifying
+    @Transactional
+    @Query("UPDATE Ride r SET r.status = COMPLETED, r.version = r.version + 1 WHERE r.id IN :rideIds AND r.status = IN_PROGRESS")
+    int completeInProgressRides(@Param("rideIds") Collection<Long> rideIds);
+
+    // Current version of a ride and of its driver, without loading either entity
+    @Query("SELECT r.version, r.driver.version FROM Ride r WHERE r.id = :rideId")
+    List<Object[]> findVersionsById(@Param("rideId") Long rideId);
+
+    // Seat count, status and version of the given rides, for the live stream
+    @Query("SELECT r.id, r.seatsAvailable, r.status, r.version FROM Ride r WHERE r.id IN :rideIds")
+    List<Object[]> findSeatStates(@Param("rideIds") Collection<Long> rideIds);
+
+    // Bookable rides as matching-engine rows:
+    // (id, driverId, source, destination, dateTime, seatsAvailable, pricePerSeat)
+    @Query("SELECT r.id, r.driver.id, r.source, r.destination, r.dateTime, r.seatsAvailable, r.pricePerSeat " +
+            "FROM Ride r WHERE r.status = ACTIVE AND r.seatsAvailable > 0 AND r.dateTime > :now")
+    List<Object[]> findOpenForMatching(@Param("now") LocalDateTime now);
+
+    // Future rides of a template that nobody has booked yet
+    @Query("SELECT r.id FROM Ride r WHERE r.template.id = :templateId AND r.status = ACTIVE AND r.dateTime > :now " +
+            "AND NOT EXISTS (SELECT b.id FROM Booking b WHERE b.ride.id = r.id AND b.status = CONFIRMED)")
+    List<Long> findUnbookedTemplateRides(@Param("templateId") Long templateId, @Param("now") LocalDateTime now);
+
+    // Cancel rides that are still active
+    @Modifying
+    @Transactional
+    @Query("UPDATE Ride r SET r.status = CANCELLED, r.version = r.version + 1 WHERE r.id IN :rideIds AND r.status = ACTIVE")
+    int cancelActiveRides(@Param("rideIds") Collection<Long> rideIds);
+
+    // Link freshly imported rides to their import's blockchain record
+    @Modifying
+    @Transactional
+    @Query("UPDATE Ride r SET r.blockchainTxHash = :txHash WHERE r.id IN :rideIds")
+    int setBlockchainTxHash(@Param("rideIds") Collection<Long> rideIds, @Param("txHash") String txHash);
+}
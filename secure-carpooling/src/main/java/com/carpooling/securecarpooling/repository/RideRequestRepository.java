@@ -0,0 +1,32 @@
+package com.carpooling.securecarpooling.repository;
+
+import com.carpooling.securecarpooling.model.RideRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RideRequestRepository extends JpaRepository<RideRequest, Long> {
+
+    // Find ride requests by passenger ID
+    List<RideRequest> findByPassengerId(Long passengerId);
+
+    // Open requests that can still depart, as matching-engine rows:
+    // (id, passengerId, source, destination, earliestDeparture, latestDeparture, seatsNeeded, maxPricePerSeat)
+    @Query("SELECT q.id, q.passenger.id, q.source, q.destination, q.earliestDeparture, q.latestDeparture, " +
+            "q.seatsNeeded, q.maxPricePerSeat FROM RideRequest q WHERE q.status = OPEN AND q.latestDeparture > :now")
+    List<Object[]> findOpenForMatching(@Param("now") LocalDateTime now);
+
+    // Expire open requests whose window has closed
+    @Modifying
+    @Transactional
+    @Query("UPDATE RideRequest q SET q.status = EXPIRED, q.version = q.version + 1 " +
+            "WHERE q.status = OPEN AND q.latestDeparture <= :now")
+    int expireOpenRequests(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,41 @@
+package com.carpooling.securecarpooling.repository;
+
+import com.carpooling.securecarpooling.model.RideTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RideTemplateRepository extends JpaRepository<RideTemplate, Long> {
+
+    // Find templates by driver ID
+    List<RideTemplate> findByDriverId(Long driverId);
+
+    // Active templates not yet materialized up to the given time
+    @Query("SELECT t.id FROM RideTemplate t WHERE t.active = true AND t.materializedUntil < :until")
+    List<Long> findIdsToMaterialize(@Param("until") LocalDateTime until);
+
+    // Same, as entities, for showing their occurrences before they exist as rides
+    @Query("SELECT t FROM RideTemplate t WHERE t.active = true AND t.materializedUntil < :until")
+    List<RideTemplate> findToMaterialize(@Param("until") LocalDateTime until);
+
+    // Same, for one route (exact match, like RideRepository.findActiveRidesByRoute)
+    @Query("SELECT t FROM RideTemplate t WHERE t.active = true AND t.materializedUntil < :until " +
+            "AND t.source = :source AND t.destination = :destination")
+    List<RideTemplate> findToMaterializeOnRoute(@Param("until") LocalDateTime until,
+                                                @Param("source") String source,
+                                                @Param("destination") String destination);
+
+    // Stop templates whose last day has passed
+    @Modifying
+    @Transactional
+    @Query("UPDATE RideTemplate t SET t.active = false, t.version = t.version + 1 WHERE t.active = true AND t.endsOn < :today")
+    int deactivateEnded(@Param("today") LocalDate today);
+}
@@ -0,0 +1,331 @@
+package com.carpooling.securecarpooling.routing;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Weighted road graph between named places, with ALT (A*, landmarks, triangle
+ * inequality) distance queries.
+ *
+ * A few landmarks are picked far apart and their shortest distance to every place is
+ * computed once. For any two places a and b, |d(L, a) - d(L, b)| <= d(a, b) for every
+ * landmark L, so the largest of these differences is a lower bound that costs a handful
+ * of array reads. It prunes candidates before any search runs, and guides the A* search
+ * that computes exact distances for the candidates that remain.
+ * Roads are two-way; adjacency lives in flat arrays (compressed sparse rows).
+ */
+public final class RoadNetwork {
+
+    private final Map<String, Integer> nodes;
+    private final String[] names;
+    private final int[] firstRoad;
+    private final int[] roadTarget;
+    private final double[] roadKm;
+
+    // Shortest distance from each landmark to every node: landmarkKm[landmark][node]
+    private final double[][] landmarkKm;
+
+    /**
+     * @param roads - Two-way roads
+     * @param landmarkCount - Landmarks to precompute; more give tighter bounds
+     */
+    public RoadNetwork(List<Road> roads, int landmarkCount) {
+        this.nodes = new HashMap<>();
+        List<String> placeNames = new ArrayList<>();
+        int[] degree = new int[roads.size() * 2];
+        int[][] ends = new int[roads.size()][2];
+        for (int i = 0; i < roads.size(); i++) {
+            Road road = roads.get(i);
+            if (road.getKm() < 0) {
+                throw new IllegalArgumentException("Negative road length: " + road);
+            }
+            for (int end = 0; end < 2; end++) {
+                String place = end == 0 ? road.getFrom() : road.getTo();
+                Integer node = nodes.get(key(place));
+                if (node == null) {
+                    node = placeNames.size();
+                    nodes.put(key(place), node);
+                    placeNames.add(place.trim());
+                }
+                ends[i][end] = node;
+                degree[node]++;
+            }
+        }
+
+        int nodeCount = placeNames.size();
+        this.names = placeNames.toArray(new String[0]);
+        this.firstRoad = new int[nodeCount + 1];
+        for (int node = 0; node < nodeCount; node++) {
+            firstRoad[node + 1] = firstRoad[node] + degree[node];
+        }
+        this.roadTarget = new int[firstRoad[nodeCount]];
+        this.roadKm = new double[firstRoad[nodeCount]];
+        int[] fill = Arrays.copyOf(firstRoad, nodeCount);
+        for (int i = 0; i < roads.size(); i++) {
+            int a = ends[i][0];
+            int b = ends[i][1];
+            roadTarget[fill[a]] = b;
+            roadKm[fill[a]++] = roads.get(i).getKm();
+            roadTarget[fill[b]] = a;
+            roadKm[fill[b]++] = roads.get(i).getKm();
+        }
+
+        this.landmarkKm = pickLandmarks(Math.min(landmarkCount, nodeCount));
+    }
+
+    /**
+     * Read roads from "from,to,km" lines; blank lines and lines starting with # are skipped
+     * @param in - CSV content
+     * @param landmarkCount - Landmarks to precompute
+     * @return Road network
+     * @throws IOException if the input cannot be read
+     */
+    public static RoadNetwork load(InputStream in, int landmarkCount) throws IOException {
+        List<Road> roads = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length != 3) {
+                    throw new IOException("Expected from,to,km but got: " + line);
+                }
+                roads.add(new Road(fields[0], fields[1], Double.parseDouble(fields[2].trim())));
+            }
+        }
+        return new RoadNetwork(roads, landmarkCount);
+    }
+
+    /**
+     * Node of a place, matched case-insensitively
+     * @param place - Place name
+     * @return Node index, or -1 if the place is not on the network
+     */
+    public int node(String place) {
+        Integer node = place == null ? null : nodes.get(key(place));
+        return node == null ? -1 : node;
+    }
+
+    public String name(int node) {
+        return names[node];
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Lower bound on the road distance between two nodes; never more than distance(from, to)
+     */
+    public double lowerBound(int from, int to) {
+        double bound = 0;
+        for (double[] km : landmarkKm) {
+            double a = km[from];
+            double b = km[to];
+            if (a == Double.POSITIVE_INFINITY || b == Double.POSITIVE_INFINITY) {
+                if (a != b) {
+                    return Double.POSITIVE_INFINITY; // One side reaches the landmark, the other does not
+                }
+                continue;
+            }
+            bound = Math.max(bound, Math.abs(a - b));
+        }
+        return bound;
+    }
+
+    /**
+     * Shortest road distance, by A* guided by the landmark lower bounds
+     * @return Kilometres, or POSITIVE_INFINITY if the nodes are not connected
+     */
+    public double distance(int from, int to) {
+        if (from == to) {
+            return 0;
+        }
+        double[] km = new double[names.length];
+        Arrays.fill(km, Double.POSITIVE_INFINITY);
+        boolean[] settled = new boolean[names.length];
+        NodeHeap open = new NodeHeap(names.length);
+        km[from] = 0;
+        open.push(from, lowerBound(from, to));
+
+        while (!open.isEmpty()) {
+            int node = open.pop();
+            if (settled[node]) {
+                continue;
+            }
+            if (node == to) {
+                return km[to];
+            }
+            settled[node] = true;
+            for (int road = firstRoad[node]; road < firstRoad[node + 1]; road++) {
+                int next = roadTarget[road];
+                double candidate = km[node] + roadKm[road];
+                if (candidate < km[next]) {
+                    km[next] = candidate;
+                    open.push(next, candidate + lowerBound(next, to));
+                }
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Farthest-point landmark selection: each landmark is the node farthest from those already
+     * picked, so the landmarks sit on the edges of the map where their bounds are tightest
+     */
+    private double[][] pickLandmarks(int count) {
+        double[][] tables = new double[count][];
+        double[] nearest = new double[names.length];
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+        int landmark = 0;
+        for (int i = 0; i < count; i++) {
+            tables[i] = shortestFrom(landmark);
+            int farthest = landmark;
+            for (int node = 0; node < names.length; node++) {
+                nearest[node] = Math.min(nearest[node], tables[i][node]);
+                // Unreachable nodes count as farthest, so every component gets a landmark
+                if (nearest[node] > nearest[farthest]) {
+                    farthest = node;
+                }
+            }
+            landmark = farthest;
+        }
+        return tables;
+    }
+
+    // Plain Dijkstra to every node
+    private double[] shortestFrom(int source) {
+        double[] km = new double[names.length];
+        Arrays.fill(km, Double.POSITIVE_INFINITY);
+        boolean[] settled = new boolean[names.length];
+        NodeHeap open = new NodeHeap(names.length);
+        km[source] = 0;
+        open.push(source, 0);
+        while (!open.isEmpty()) {
+            int node = open.pop();
+            if (settled[node]) {
+                continue;
+            }
+            settled[node] = true;
+            for (int road = firstRoad[node]; road < firstRoad[node + 1]; road++) {
+                int next = roadTarget[road];
+                double candidate = km[node] + roadKm[road];
+                if (candidate < km[next]) {
+                    km[next] = candidate;
+                    open.push(next, candidate);
+                }
+            }
+        }
+        return km;
+    }
+
+    private static String key(String place) {
+        return place.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A two-way road between two places
+     */
+    public static final class Road {
+
+        private final String from;
+        private final String to;
+        private final double km;
+
+        public Road(String from, String to, double km) {
+            this.from = from;
+            this.to = to;
+            this.km = km;
+        }
+
+        public String getFrom() {
+            return from;
+        }
+
+        public String getTo() {
+            return to;
+        }
+
+        public double getKm() {
+            return km;
+        }
+
+        @Override
+        public String toString() {
+            return from + " - " + to + " (" + km + " km)";
+        }
+    }
+
+    // Binary min-heap of (node, priority) with lazy deletion of stale entries
+    private static final class NodeHeap {
+
+        private int[] nodes;
+        private double[] priorities;
+        private int size;
+
+        private NodeHeap(int capacity) {
+            this.nodes = new int[Math.max(16, capacity)];
+            this.priorities = new double[nodes.length];
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void push(int node, double priority) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                priorities = Arrays.copyOf(priorities, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (priorities[parent] <= priority) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                priorities[i] = priorities[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            priorities[i] = priority;
+        }
+
+        private int pop() {
+            int top = nodes[0];
+            int lastNode = nodes[--size];
+            double lastPriority = priorities[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+                    child++;
+                }
+                if (priorities[child] >= lastPriority) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                priorities[i] = priorities[child];
+                i = child;
+            }
+            nodes[i] = lastNode;
+            priorities[i] = lastPriority;
+            return top;
+        }
+    }
+}
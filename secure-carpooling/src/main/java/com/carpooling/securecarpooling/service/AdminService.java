@@ -2,14 +2,23 @@ package com.carpooling.securecarpooling.service;
 
 import com.carpooling.securecarpooling.dto.BookingResponse;
 import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.event.RideChangedEvent;
 import com.carpooling.securecarpooling.model.Booking;
+import com.carpooling.securecarpooling.model.BookingStatus;
 import com.carpooling.securecarpooling.model.Ride;
+import com.carpooling.securecarpooling.model.RideStatus;
 import com.carpooling.securecarpooling.model.User;
 import com.carpooling.securecarpooling.repository.BookingRepository;
 import com.carpooling.securecarpooling.repository.RideRepository;
 import com.carpooling.securecarpooling.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -28,6 +37,12 @@ public class AdminService {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Check if user is admin
      * @param userId - User ID to check
@@ -43,6 +58,7 @@ public class AdminService {
      * Get all users
      * @return List of all users
      */
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
@@ -51,6 +67,7 @@ public class AdminService {
      * Get all rides
      * @return List of all rides
      */
+    @Transactional(readOnly = true)
     public List<Ride> getAllRides() {
         return rideRepository.findAll();
     }
@@ -59,6 +76,7 @@ public class AdminService {
      * Get all bookings
      * @return List of all bookings
      */
+    @Transactional(readOnly = true)
     public List<Booking> getAllBookings() {
         return bookingRepository.findAll();
     }
@@ -67,6 +85,7 @@ public class AdminService {
      * Get dashboard statistics
      * @return Map with statistics
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getDashboardStats() {
         Map<String, Object> stats = new HashMap<>();
 
@@ -76,19 +95,19 @@ public class AdminService {
         long totalBookings = bookingRepository.count();
 
         // Active rides
-        List<Ride> activeRides = rideRepository.findByStatus("ACTIVE");
+        List<Ride> activeRides = rideRepository.findByStatus(RideStatus.ACTIVE);
         long activeRidesCount = activeRides.size();
 
         // Confirmed bookings
-        List<Booking> confirmedBookings = bookingRepository.findByStatus("CONFIRMED");
+        List<Booking> confirmedBookings = bookingRepository.findByStatus(BookingStatus.CONFIRMED);
         long confirmedBookingsCount = confirmedBookings.size();
 
         // Completed bookings
-        List<Booking> completedBookings = bookingRepository.findByStatus("COMPLETED");
+        List<Booking> completedBookings = bookingRepository.findByStatus(BookingStatus.COMPLETED);
         long completedBookingsCount = completedBookings.size();
 
         // Cancelled bookings
-        List<Booking> cancelledBookings = bookingRepository.findByStatus("CANCELLED");
+        List<Booking> cancelledBookings = bookingRepository.findByStatus(BookingStatus.CANCELLED);
         long cancelledBookingsCount = cancelledBookings.size();
 
         // Total revenue (sum of all completed bookings)
@@ -158,11 +177,12 @@ public class AdminService {
 
     /**
      * Get rides by status
-     * @param status - Ride status (ACTIVE, IN_PROGRESS, COMPLETED, CANCELLED)
+     * @param status - Ride status (ACTIVE, IN_PROGRESS, COMPLETED, CANCELLED, EXPIRED)
      * @return List of rides with given status
      */
+    @Transactional(readOnly = true)
     public List<Ride> getRidesByStatus(String status) {
-        return rideRepository.findByStatus(status);
+        return rideRepository.findByStatus(RideStatus.fromName(status));
     }
 
     /**
@@ -170,8 +190,9 @@ public class AdminService {
      * @param status - Booking status (CONFIRMED, COMPLETED, CANCELLED)
      * @return List of bookings with given status
      */
+    @Transactional(readOnly = true)
     public List<Booking> getBookingsByStatus(String status) {
-        return bookingRepository.findByStatus(status);
+        return bookingRepository.findByStatus(BookingStatus.fromName(status));
     }
 
     /**
@@ -186,12 +207,13 @@ public class AdminService {
         // Check if ride has active bookings
         List<Booking> bookings = bookingRepository.findByRideId(rideId);
         for (Booking booking : bookings) {
-            if (booking.getStatus().equals("CONFIRMED")) {
+            if (booking.getStatus() == BookingStatus.CONFIRMED) {
                 throw new RuntimeException("Cannot delete ride with active bookings!");
             }
         }
 
         rideRepository.deleteById(rideId);
+        eventPublisher.publishEvent(new RideChangedEvent(rideId));
         return "Ride deleted successfully!";
     }
 
@@ -199,6 +221,7 @@ public class AdminService {
      * Get all users with their statistics
      * @return List of user stats
      */
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getUsersWithStats() {
         List<User> users = userRepository.findAll();
         List<Map<String, Object>> userStatsList = new ArrayList<>();
@@ -227,4 +250,47 @@ public class AdminService {
 
         return userStatsList;
     }
+
+    /**
+     * Get second-level and query cache statistics
+     * @return Map with hit/miss counts and hit ratio per cache region
+     */
+    public Map<String, Object> getCacheStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> stats = new HashMap<>();
+
+        Map<String, Object> regions = new HashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            regions.put(regionName, regionStats(region.getHitCount(), region.getMissCount(), region.getPutCount()));
+        }
+        for (String regionName : new String[]{"upcoming-rides", "default-query-results-region"}) {
+            CacheRegionStatistics region = statistics.getQueryRegionStatistics(regionName);
+            if (region != null) {
+                regions.put(regionName, regionStats(region.getHitCount(), region.getMissCount(), region.getPutCount()));
+            }
+        }
+
+        stats.put("regions", regions);
+        stats.put("secondLevelCache", regionStats(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        stats.put("queryCache", regionStats(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+        stats.put("statementsPrepared", statistics.getPrepareStatementCount());
+
+        return stats;
+    }
+
+    /**
+     * Build hit/miss/put counts and hit ratio for one cache
+     */
+    private Map<String, Object> regionStats(long hits, long misses, long puts) {
+        Map<String, Object> region = new HashMap<>();
+        region.put("hits", hits);
+        region.put("misses", misses);
+        region.put("puts", puts);
+        long lookups = hits + misses;
+        region.put("hitRatio", lookups == 0 ? 0.0 : Math.round(hits * 10000.0 / lookups) / 10000.0);
+        return region;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.event.BookingsCancelledEvent;
+import com.carpooling.securecarpooling.event.BookingsConfirmedEvent;
+import com.carpooling.securecarpooling.model.Booking;
+import com.carpooling.securecarpooling.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records booking changes on the blockchain once their transaction has committed,
+ * so no database transaction waits on the node and rolled-back changes are never recorded.
+ */
+@Service
+public class BlockchainAnchorListener {
+
+    private static final Logger log = LoggerFactory.getLogger(BlockchainAnchorListener.class);
+
+    @Autowired
+    private BlockchainService blockchainService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Record every new booking and store its transaction hash.
+     * The hashes are written in one new transaction once all calls to the node are done; a new one,
+     * because the committed transaction's resources are still bound while after-commit listeners run.
+     * @param event - IDs of the confirmed bookings
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingsConfirmed(BookingsConfirmedEvent event) {
+        Map<Long, String> txHashes = new HashMap<>();
+        int failed = 0;
+        for (Booking booking : bookingRepository.findAllById(event.getBookingIds())) {
+            String txHash = blockchainService.recordBooking(booking.getId(), booking.getRide().getId(),
+                    booking.getSeatsBooked(), booking.getTotalAmount());
+            if ("BLOCKCHAIN_ERROR".equals(txHash)) {
+                failed++;
+            }
+            txHashes.put(booking.getId(), txHash);
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.executeWithoutResult(status -> txHashes.forEach(bookingRepository::setBlockchainTxHash));
+        log.debug("{} booking(s) anchored on blockchain, {} failed", txHashes.size() - failed, failed);
+    }
+
+    /**
+     * Record every cancelled booking; the contract has no batch call
+     * @param event - IDs of the cancelled bookings and the reason
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingsCancelled(BookingsCancelledEvent event) {
+        int failed = 0;
+        for (Long bookingId : event.getBookingIds()) {
+            // No penalty when the driver cancels
+            if ("BLOCKCHAIN_ERROR".equals(blockchainService.recordCancellation(bookingId, event.getReason(), 0.0))) {
+                failed++;
+            }
+        }
+        log.debug("{} cancellation(s) anchored on blockchain, {} failed", event.getBookingIds().size() - failed, failed);
+    }
+}
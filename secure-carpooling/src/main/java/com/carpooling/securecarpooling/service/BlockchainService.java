@@ -1,5 +1,12 @@
 package com.carpooling.securecarpooling.service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -7,6 +14,7 @@ import org.web3j.abi.FunctionEncoder;
 import org.web3j.abi.datatypes.Function;
 import org.web3j.abi.datatypes.Type;
 import org.web3j.abi.datatypes.Utf8String;
+import org.web3j.abi.datatypes.generated.Bytes32;
 import org.web3j.abi.datatypes.generated.Uint256;
 import org.web3j.crypto.Credentials;
 import org.web3j.protocol.Web3j;
@@ -15,15 +23,23 @@ import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.tx.RawTransactionManager;
 import org.web3j.tx.TransactionManager;
 import org.web3j.tx.gas.DefaultGasProvider;
-import jakarta.annotation.PostConstruct;
+import org.web3j.utils.Numeric;
 
 import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.v;
 
 @Service
 public class BlockchainService {
 
+    private static final Logger log = LoggerFactory.getLogger(BlockchainService.class);
+
     @Autowired
     private Web3j web3j;
 
@@ -33,9 +49,34 @@ public class BlockchainService {
     @Autowired
     private DefaultGasProvider gasProvider;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${blockchain.contract.address}")
     private String contractAddress;
 
+    @Value("${blockchain.receipt.poll-ms:1000}")
+    private long receiptPollMillis;
+
+    @Value("${blockchain.receipt.attempts:60}")
+    private int receiptAttempts;
+
+    // Polls receipts of sent transactions for their gas used, off the request threads
+    private ScheduledExecutorService receiptPoller;
+
+    @PostConstruct
+    void startReceiptPolling() {
+        receiptPoller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "blockchain-receipts");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopReceiptPolling() {
+        receiptPoller.shutdownNow();
+    }
 
 
     /**
@@ -44,13 +85,54 @@ public class BlockchainService {
     public String recordRideCreation(Long rideId, String source, String destination,
                                      Integer seats, Double pricePerSeat) {
         try {
-            System.out.println("Recording ride on blockchain: " + rideId);
+            log.debug("Recording ride {} on blockchain", v("rideId", rideId));
 
             // Prepare function call
+            Function function = createRideFunction(BigInteger.valueOf(rideId), source, destination, seats, pricePerSeat);
+
+            // Send transaction
+            String txHash = sendTransaction(function);
+
+            log.info("Ride {} recorded on blockchain, tx {}", v("rideId", rideId), v("txHash", txHash));
+            return txHash;
+
+        } catch (Exception e) {
+            log.warn("Recording ride {} on blockchain failed", v("rideId", rideId), e);
+            return "BLOCKCHAIN_ERROR";
+        }
+    }
+
+    /**
+     * Contract call that records a ride; package-private so the benchmarks module can encode it
+     */
+    static Function createRideFunction(BigInteger rideId, String source, String destination,
+                                       Integer seats, Double pricePerSeat) {
+        return new Function(
+                "createRide",
+                Arrays.asList(
+                        new Uint256(rideId),
+                        new Utf8String(source),
+                        new Utf8String(destination),
+                        new Uint256(seats),
+                        new Uint256(pricePerSeat.longValue())
+                ),
+                Collections.emptyList()
+        );
+    }
+
+    /**
+     * Record a recurring ride template on blockchain, once for all its occurrences,
+     * among the contract's template records rather than its rides
+     */
+    public String recordRideTemplate(Long templateId, String source, String destination,
+                                     Integer seats, Double pricePerSeat) {
+        try {
+            log.debug("Recording ride template {} on blockchain", v("templateId", templateId));
+
             Function function = new Function(
-                    "createRide",
+                    "anchorTemplate",
                     Arrays.asList(
-                            new Uint256(rideId),
+                            new Uint256(templateId),
                             new Utf8String(source),
                             new Utf8String(destination),
                             new Uint256(seats),
@@ -59,15 +141,44 @@ public class BlockchainService {
                     Collections.emptyList()
             );
 
-            // Send transaction
             String txHash = sendTransaction(function);
 
-            System.out.println("Ride recorded on blockchain. TX Hash: " + txHash);
+            log.info("Ride template {} recorded on blockchain, tx {}", v("templateId", templateId), v("txHash", txHash));
+            return txHash;
+
+        } catch (Exception e) {
+            log.warn("Recording ride template {} on blockchain failed", v("templateId", templateId), e);
+            return "BLOCKCHAIN_ERROR";
+        }
+    }
+
+    /**
+     * Record a bulk ride import on blockchain as one entry: the digest of the imported
+     * rides and their count, under the ID of the first ride. The contract keeps imports
+     * apart from its ride records, so an import adds no bookable ride on chain
+     */
+    public String recordRideImport(Long firstRideId, Integer rideCount, String digest) {
+        try {
+            log.debug("Recording import of {} ride(s) from ride {} on blockchain", rideCount, v("rideId", firstRideId));
+
+            Function function = new Function(
+                    "anchorImport",
+                    Arrays.asList(
+                            new Uint256(firstRideId),
+                            new Uint256(rideCount),
+                            new Bytes32(Numeric.hexStringToByteArray(digest))
+                    ),
+                    Collections.emptyList()
+            );
+
+            String txHash = sendTransaction(function);
+
+            log.info("Import of {} ride(s) from ride {} recorded on blockchain, tx {}",
+                    rideCount, v("rideId", firstRideId), v("txHash", txHash));
             return txHash;
 
         } catch (Exception e) {
-            System.err.println("Blockchain error: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Recording import from ride {} on blockchain failed", v("rideId", firstRideId), e);
             return "BLOCKCHAIN_ERROR";
         }
     }
@@ -78,7 +189,7 @@ public class BlockchainService {
     public String recordBooking(Long bookingId, Long rideId,
                                 Integer seatsBooked, Double amount) {
         try {
-            System.out.println("Recording booking on blockchain: " + bookingId);
+            log.debug("Recording booking {} on blockchain", v("bookingId", bookingId));
 
             Function function = new Function(
                     "bookRide",
@@ -93,12 +204,11 @@ public class BlockchainService {
 
             String txHash = sendTransaction(function);
 
-            System.out.println("Booking recorded on blockchain. TX Hash: " + txHash);
+            log.info("Booking {} recorded on blockchain, tx {}", v("bookingId", bookingId), v("txHash", txHash));
             return txHash;
 
         } catch (Exception e) {
-            System.err.println("Blockchain error: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Recording booking {} on blockchain failed", v("bookingId", bookingId), e);
             return "BLOCKCHAIN_ERROR";
         }
     }
@@ -108,7 +218,7 @@ public class BlockchainService {
      */
     public String recordCancellation(Long bookingId, String reason, Double penalty) {
         try {
-            System.out.println("Recording cancellation on blockchain: " + bookingId);
+            log.debug("Recording cancellation {} on blockchain", v("bookingId", bookingId));
 
             Function function = new Function(
                     "cancelBooking",
@@ -122,83 +232,120 @@ public class BlockchainService {
 
             String txHash = sendTransaction(function);
 
-            System.out.println("Cancellation recorded on blockchain. TX Hash: " + txHash);
+            log.info("Cancellation {} recorded on blockchain, tx {}", v("bookingId", bookingId), v("txHash", txHash));
             return txHash;
 
         } catch (Exception e) {
-            System.err.println("Blockchain error: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Recording cancellation {} on blockchain failed", v("bookingId", bookingId), e);
             return "BLOCKCHAIN_ERROR";
         }
     }
 
     /**
      * Helper method to send transaction to blockchain
+     * Records send latency and failures per contract function, and gas used once the receipt is available
      */
     private String sendTransaction(Function function) throws Exception {
-        // Encode function
-        String encodedFunction = FunctionEncoder.encode(function);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        EthSendTransaction ethSendTransaction;
+        try {
+            // Encode function
+            String encodedFunction = FunctionEncoder.encode(function);
 
-        // Create transaction manager
-        TransactionManager transactionManager = new RawTransactionManager(
-                web3j,
-                credentials
-        );
+            // Create transaction manager
+            TransactionManager transactionManager = new RawTransactionManager(
+                    web3j,
+                    credentials
+            );
 
-        // Send transaction
-        EthSendTransaction ethSendTransaction = transactionManager.sendTransaction(
-                gasProvider.getGasPrice(),
-                gasProvider.getGasLimit(),
-                contractAddress,
-                encodedFunction,
-                BigInteger.ZERO
-        );
+            // Send transaction
+            ethSendTransaction = transactionManager.sendTransaction(
+                    gasProvider.getGasPrice(),
+                    gasProvider.getGasLimit(),
+                    contractAddress,
+                    encodedFunction,
+                    BigInteger.ZERO
+            );
+        } catch (Exception e) {
+            sample.stop(sendTimer(function, "failure"));
+            countFailure(function, e.getClass().getSimpleName());
+            throw e;
+        }
 
         // Get transaction hash
         String transactionHash = ethSendTransaction.getTransactionHash();
 
         if (transactionHash == null) {
+            sample.stop(sendTimer(function, "rejected"));
+            countFailure(function, "rejected");
             throw new Exception("Transaction failed: " + ethSendTransaction.getError().getMessage());
         }
 
+        sample.stop(sendTimer(function, "success"));
+        recordGasUsed(function, transactionHash);
         return transactionHash;
     }
 
+    private Timer sendTimer(Function function, String outcome) {
+        return Timer.builder("carpooling.blockchain.send")
+                .description("Blockchain transaction submission")
+                .tag("function", function.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
     /**
-     * Test blockchain connection
+     * Gas used by a sent transaction, read from its receipt off the request thread; the receipt
+     * is polled every blockchain.receipt.poll-ms until the transaction is mined, at most
+     * blockchain.receipt.attempts times. Reverted transactions count as failures
      */
-    public boolean testConnection() {
+    private void recordGasUsed(Function function, String transactionHash) {
+        receiptPoller.schedule(() -> pollReceipt(function, transactionHash, receiptAttempts),
+                receiptPollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void pollReceipt(Function function, String transactionHash, int attemptsLeft) {
+        Optional<TransactionReceipt> receipt;
         try {
-            String clientVersion = web3j.web3ClientVersion().send().getWeb3ClientVersion();
-            System.out.println("Connected to blockchain: " + clientVersion);
-            return true;
+            receipt = web3j.ethGetTransactionReceipt(transactionHash).send().getTransactionReceipt();
         } catch (Exception e) {
-            System.err.println("Blockchain connection failed: " + e.getMessage());
-            return false;
+            log.debug("Reading receipt of {} failed: {}", v("txHash", transactionHash), e.getMessage());
+            receipt = Optional.empty();
+        }
+
+        if (receipt.isPresent()) {
+            DistributionSummary.builder("carpooling.blockchain.gas.used")
+                    .baseUnit("gas")
+                    .tag("function", function.getName())
+                    .register(meterRegistry)
+                    .record(receipt.get().getGasUsed().doubleValue());
+            if (!receipt.get().isStatusOK()) {
+                countFailure(function, "reverted");
+            }
+        } else if (attemptsLeft > 1) {
+            receiptPoller.schedule(() -> pollReceipt(function, transactionHash, attemptsLeft - 1),
+                    receiptPollMillis, TimeUnit.MILLISECONDS);
+        } else {
+            log.warn("No receipt for {} after {} polls, gas used not recorded",
+                    v("txHash", transactionHash), v("attempts", receiptAttempts));
         }
     }
 
+    private void countFailure(Function function, String reason) {
+        meterRegistry.counter("carpooling.blockchain.failures", "function", function.getName(), "reason", reason).increment();
+    }
+
     /**
-     * Test connection when application starts
+     * Test blockchain connection
      */
-    @PostConstruct
-    public void init() {
+    public boolean testConnection() {
         try {
-            System.out.println("========================================");
-            System.out.println("🔗 Testing Blockchain Connection...");
-            System.out.println("========================================");
-
             String clientVersion = web3j.web3ClientVersion().send().getWeb3ClientVersion();
-            System.out.println("✅ Connected to blockchain: " + clientVersion);
-            System.out.println("📍 Contract Address: " + contractAddress);
-            System.out.println("🔑 Account Address: " + credentials.getAddress());
-            System.out.println("========================================");
+            log.info("Connected to blockchain {}", v("clientVersion", clientVersion));
+            return true;
         } catch (Exception e) {
-            System.err.println("========================================");
-            System.err.println("❌ Blockchain connection FAILED!");
-            System.err.println("Error: " + e.getMessage());
-            System.err.println("⚠️  Make sure Ganache is running on http://127.0.0.1:7545");
-            System.err.println("========================================");
+            log.warn("Blockchain connection failed: {}", e.getMessage());
+            return false;
         }
     }
 }
\ No newline at end of file
@@ -2,22 +2,34 @@ package com.carpooling.securecarpooling.service;
 
 import com.carpooling.securecarpooling.dto.BookRideRequest;
 import com.carpooling.securecarpooling.dto.BookingResponse;
+import com.carpooling.securecarpooling.event.BookingsConfirmedEvent;
+import com.carpooling.securecarpooling.event.RideChangedEvent;
 import com.carpooling.securecarpooling.model.Booking;
+import com.carpooling.securecarpooling.model.BookingStatus;
 import com.carpooling.securecarpooling.model.Ride;
+import com.carpooling.securecarpooling.model.RideStatus;
 import com.carpooling.securecarpooling.model.User;
 import com.carpooling.securecarpooling.repository.BookingRepository;
 import com.carpooling.securecarpooling.repository.RideRepository;
 import com.carpooling.securecarpooling.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import static net.logstash.logback.argument.StructuredArguments.v;
+
 @Service
 public class BookingService {
 
+    private static final Logger log = LoggerFactory.getLogger(BookingService.class);
+
     @Autowired
     private BookingRepository bookingRepository;
 
@@ -30,6 +42,18 @@ public class BookingService {
     @Autowired
     private BlockchainService blockchainService;
 
+    @Autowired
+    private DistanceService distanceService;
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     /**
      * Book a ride
      * @param bookRideRequest - Contains rideId and seatsBooked
@@ -54,7 +78,7 @@ public class BookingService {
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + passengerId));
 
         // Validation 1: Check if ride is active
-        if (!ride.getStatus().equals("ACTIVE")) {
+        if (ride.getStatus() != RideStatus.ACTIVE) {
             throw new RuntimeException("This ride is not available for booking!");
         }
 
@@ -70,13 +94,41 @@ public class BookingService {
             throw new RuntimeException("You have already booked this ride!");
         }
 
-        // Validation 4: Check if enough seats are available
-        if (ride.getSeatsAvailable() < bookRideRequest.getSeatsBooked()) {
-            throw new RuntimeException("Only " + ride.getSeatsAvailable() + " seat(s) available!");
+        // Validation 4: Resolve the part of the route being booked (default: all of it)
+        int fromStop = bookRideRequest.getFromStop() == null ? 0 : ride.findStop(bookRideRequest.getFromStop());
+        int toStop = bookRideRequest.getToStop() == null ? ride.getStopCount() - 1 : ride.findStop(bookRideRequest.getToStop());
+        if (fromStop < 0 || toStop < 0) {
+            throw new RuntimeException("This ride does not stop at " +
+                    (fromStop < 0 ? bookRideRequest.getFromStop() : bookRideRequest.getToStop()) + "!");
+        }
+        if (fromStop >= toStop) {
+            throw new RuntimeException("Drop-off stop must come after the pick-up stop!");
+        }
+
+        // Validation 5: Check if enough seats are free on every segment of that part
+        int freeSeats = ride.getFreeSeats(fromStop, toStop);
+        if (freeSeats < bookRideRequest.getSeatsBooked()) {
+            // Contention only if the seats asked for could have been free, i.e. other bookings hold them;
+            // asking for more seats than the car has is a bad request
+            if (bookRideRequest.getSeatsBooked() <= ride.getTotalSeats()) {
+                meterRegistry.counter("carpooling.seats.contention", "type", "sold_out", "operation", "bookRide").increment();
+            }
+            throw new RuntimeException("Only " + freeSeats + " seat(s) available!");
+        }
+
+        // Validation 6: The price must not have gone up since it was quoted to the passenger
+        double multiplier = pricingService.multiplier(ride.getSource(), ride.getDestination());
+        Double quoted = bookRideRequest.getQuotedPricePerSeat();
+        if (quoted != null && ride.getPricePerSeat() != null) {
+            double current = PricingService.quote(ride.getPricePerSeat(), multiplier);
+            if (current > quoted) {
+                throw new RuntimeException("The price has changed to " + current + " per seat, please review it!");
+            }
         }
 
-        // Calculate total amount
-        Double totalAmount = ride.getPricePerSeat() * bookRideRequest.getSeatsBooked();
+        // Calculate total amount at the route's current demand multiplier, the one quoted
+        Double totalAmount = distanceService.calculateSegmentPrice(ride, fromStop, toStop) * bookRideRequest.getSeatsBooked()
+                * multiplier;
         totalAmount = Math.round(totalAmount * 100.0) / 100.0; // Round to 2 decimal places
 
         // Create booking
@@ -85,29 +137,23 @@ public class BookingService {
         booking.setPassenger(passenger);
         booking.setSeatsBooked(bookRideRequest.getSeatsBooked());
         booking.setTotalAmount(totalAmount);
-        booking.setStatus("CONFIRMED");
+        booking.setStatus(BookingStatus.CONFIRMED);
+        if (fromStop != 0 || toStop != ride.getStopCount() - 1) {
+            booking.setFromStop(fromStop);
+            booking.setToStop(toStop);
+        }
 
         // Save booking
         Booking savedBooking = bookingRepository.save(booking);
 
-        // Update ride seats
-        ride.setSeatsAvailable(ride.getSeatsAvailable() - bookRideRequest.getSeatsBooked());
+        // Update ride seats on the booked segments
+        ride.changeSeats(fromStop, toStop, -bookRideRequest.getSeatsBooked());
         rideRepository.save(ride);
-        try {
-            String txHash = blockchainService.recordBooking(
-                    savedBooking.getId(),
-                    savedBooking.getRide().getId(),
-                    savedBooking.getSeatsBooked(),
-                    savedBooking.getTotalAmount()
-            );
-            savedBooking.setBlockchainTxHash(txHash);
-            bookingRepository.save(savedBooking); // Update with blockchain hash
-
-            System.out.println("✅ Booking " + savedBooking.getId() + " recorded on blockchain: " + txHash);
-        } catch (Exception e) {
-            System.err.println("⚠️ Blockchain recording failed (booking still saved in DB): " + e.getMessage());
-        }
-        // ============================================
+        eventPublisher.publishEvent(new RideChangedEvent(ride.getId()));
+        pricingService.recordBooking(ride.getSource(), ride.getDestination(), bookRideRequest.getSeatsBooked());
+        // Recorded on blockchain by BlockchainAnchorListener once the booking has committed,
+        // so a booking that loses a concurrent update is never anchored
+        eventPublisher.publishEvent(new BookingsConfirmedEvent(List.of(savedBooking.getId())));
 
         // Convert to response and return
         return convertToBookingResponse(savedBooking);
@@ -118,16 +164,32 @@ public class BookingService {
      * @param passengerId - Passenger's user ID
      * @return List of bookings
      */
+    @Transactional(readOnly = true)
     public List<BookingResponse> getMyBookings(Long passengerId) {
         List<Booking> bookings = bookingRepository.findByPassengerId(passengerId);
         return convertToBookingResponseList(bookings);
     }
 
+    /**
+     * Get the ETag of a passenger's booking list without loading it.
+     * Versions only grow, so the count and version sums change whenever a booking
+     * is added or any listed booking, its ride, the ride's driver or the passenger changes.
+     * @param passengerId - Passenger's user ID
+     * @return Strong ETag value (quoted)
+     */
+    @Transactional(readOnly = true)
+    public String getMyBookingsETag(Long passengerId) {
+        Object[] summary = bookingRepository.findVersionSummaryByPassenger(passengerId).get(0);
+        return "\"b" + passengerId + "-" + summary[0] + "-" + summary[1] + "-" + summary[2]
+                + "-" + summary[3] + "-" + summary[4] + "\"";
+    }
+
     /**
      * Get all bookings for a specific ride
      * @param rideId - Ride ID
      * @return List of bookings for the ride
      */
+    @Transactional(readOnly = true)
     public List<BookingResponse> getBookingsForRide(Long rideId) {
         List<Booking> bookings = bookingRepository.findByRideId(rideId);
         return convertToBookingResponseList(bookings);
@@ -138,6 +200,7 @@ public class BookingService {
      * @param driverId - Driver's user ID
      * @return List of bookings
      */
+    @Transactional(readOnly = true)
     public List<BookingResponse> getBookingsForDriver(Long driverId) {
         List<Booking> bookings = bookingRepository.findBookingsByDriver(driverId);
         return convertToBookingResponseList(bookings);
@@ -175,21 +238,21 @@ public class BookingService {
         }
 
         // Check if booking is already cancelled or completed
-        if (booking.getStatus().equals("CANCELLED")) {
-            throw new RuntimeException("Booking is already cancelled!");
-        }
-        if (booking.getStatus().equals("COMPLETED")) {
-            throw new RuntimeException("Cannot cancel a completed booking!");
+        if (!booking.getStatus().canTransitionTo(BookingStatus.CANCELLED)) {
+            throw new RuntimeException(booking.getStatus() == BookingStatus.CANCELLED
+                    ? "Booking is already cancelled!"
+                    : "Cannot cancel a completed booking!");
         }
 
         // Update booking status
-        booking.setStatus("CANCELLED");
+        booking.setStatus(BookingStatus.CANCELLED);
         bookingRepository.save(booking);
 
         // Return seats to ride
         Ride ride = booking.getRide();
-        ride.setSeatsAvailable(ride.getSeatsAvailable() + booking.getSeatsBooked());
+        ride.changeSeats(booking.boardingStop(), booking.alightingStop(), booking.getSeatsBooked());
         rideRepository.save(ride);
+        eventPublisher.publishEvent(new RideChangedEvent(ride.getId()));
         // ========== BLOCKCHAIN INTEGRATION ==========
         // Record cancellation on blockchain
         try {
@@ -199,9 +262,9 @@ public class BookingService {
                     0.0  // No penalty for now
             );
 
-            System.out.println("✅ Cancellation " + booking.getId() + " recorded on blockchain: " + txHash);
+            log.debug("Cancellation {} anchored on blockchain: {}", v("bookingId", booking.getId()), txHash);
         } catch (Exception e) {
-            System.err.println("⚠️ Blockchain recording failed (cancellation still processed): " + e.getMessage());
+            log.warn("Blockchain recording failed (cancellation {} still processed): {}", v("bookingId", booking.getId()), e.getMessage());
         }
         // ============================================
 
@@ -231,12 +294,12 @@ public class BookingService {
         }
 
         // Check if booking is confirmed
-        if (!booking.getStatus().equals("CONFIRMED")) {
+        if (!booking.getStatus().canTransitionTo(BookingStatus.COMPLETED)) {
             throw new RuntimeException("Only confirmed bookings can be marked as completed!");
         }
 
         // Update booking status
-        booking.setStatus("COMPLETED");
+        booking.setStatus(BookingStatus.COMPLETED);
         bookingRepository.save(booking);
 
         return "Booking marked as completed successfully!";
@@ -244,10 +307,11 @@ public class BookingService {
 
     /**
      * Convert Booking entity to BookingResponse DTO
+     * (package-private so the benchmarks module can measure it)
      * @param booking - Booking entity
      * @return BookingResponse DTO
      */
-    private BookingResponse convertToBookingResponse(Booking booking) {
+    BookingResponse convertToBookingResponse(Booking booking) {
         BookingResponse response = new BookingResponse();
 
         response.setId(booking.getId());
@@ -269,9 +333,13 @@ public class BookingService {
         response.setCarColor(booking.getRide().getCarColor());
 
         response.setSeatsBooked(booking.getSeatsBooked());
-        response.setPricePerSeat(booking.getRide().getPricePerSeat());
+        List<String> stops = booking.getRide().getStopNames();
+        response.setFromStop(stops.get(booking.boardingStop()));
+        response.setToStop(stops.get(booking.alightingStop()));
+        // What this booking was charged per seat: the segment's share of the route, as priced at booking time
+        response.setPricePerSeat(Math.round(booking.getTotalAmount() * 100.0 / booking.getSeatsBooked()) / 100.0);
         response.setTotalAmount(booking.getTotalAmount());
-        response.setStatus(booking.getStatus());
+        response.setStatus(booking.getStatus().name());
         response.setBookedAt(booking.getBookedAt());
 
         return response;
@@ -0,0 +1,180 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.dto.CorridorRideResponse;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.routing.RoadNetwork;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Finds rides a passenger can join although their pickup and drop-off are not the ride's
+ * own stops. The driver follows the ride's stops in order; the pickup P is inserted into
+ * one leg and the drop-off Q into the same or a later leg. For a ride S -> D without
+ * waypoints the detour is d(S, P) + d(P, Q) + d(Q, D) - d(S, D), and it must stay within
+ * the driver's detour limit.
+ *
+ * Each match names the stops to book between: the start of the pickup's leg and the end
+ * of the drop-off's leg, so the seat is held on every segment the passenger is on board.
+ *
+ * Candidates come from the in-memory RideTimeIndex. Rides without waypoints are first
+ * checked with the road network's landmark lower bounds, which cost a few array reads;
+ * only rides that survive get exact distances, and those are shared by every ride
+ * through the same stops.
+ */
+@Service
+public class CorridorSearchService {
+
+    @Autowired
+    private DistanceService distanceService;
+
+    @Autowired
+    private RideTimeIndex rideTimeIndex;
+
+    /**
+     * Rides that can pick up at one place and drop off at another within their detour limit
+     * @param pickup - Passenger's pickup place
+     * @param dropOff - Passenger's drop-off place
+     * @param departAfter - Earliest departure, or null for now
+     * @param departBefore - Latest departure, or null for no limit
+     * @return Matching rides, smallest detour first
+     * @throws RuntimeException if a place is not on the road network
+     */
+    public List<CorridorRideResponse> search(String pickup, String dropOff,
+                                             LocalDateTime departAfter, LocalDateTime departBefore) {
+        RoadNetwork network = distanceService.getRoadNetwork();
+        if (network == null) {
+            throw new RuntimeException("Corridor search is not available without a road network!");
+        }
+        int pickupNode = network.node(pickup);
+        if (pickupNode < 0) {
+            throw new RuntimeException("Unknown place: " + pickup + "!");
+        }
+        int dropOffNode = network.node(dropOff);
+        if (dropOffNode < 0) {
+            throw new RuntimeException("Unknown place: " + dropOff + "!");
+        }
+
+        return findWithinDetour(network, pickupNode, dropOffNode,
+                rideTimeIndex.search(null, null, departAfter, departBefore));
+    }
+
+    /**
+     * Detour check over a list of candidate rides
+     * @param network - Road network
+     * @param pickup - Pickup node
+     * @param dropOff - Drop-off node
+     * @param candidates - Available rides; those without a detour limit or off the network are skipped
+     * @return Rides within their detour limit, smallest detour first
+     */
+    static List<CorridorRideResponse> findWithinDetour(RoadNetwork network, int pickup, int dropOff,
+                                                       List<RideResponse> candidates) {
+        double passengerKm = network.distance(pickup, dropOff);
+        List<CorridorRideResponse> result = new ArrayList<>();
+        if (passengerKm == Double.POSITIVE_INFINITY) {
+            return result;
+        }
+
+        // Exact distances, computed once per stop / leg
+        StopDistances toPickup = new StopDistances(network.size(), stop -> network.distance(stop, pickup));
+        StopDistances fromPickup = new StopDistances(network.size(), stop -> network.distance(pickup, stop));
+        StopDistances toDropOff = new StopDistances(network.size(), stop -> network.distance(stop, dropOff));
+        StopDistances fromDropOff = new StopDistances(network.size(), stop -> network.distance(dropOff, stop));
+        Map<Long, Double> legKm = new HashMap<>();
+
+        for (RideResponse ride : candidates) {
+            Double limit = ride.getMaxDetourKm();
+            if (limit == null) {
+                continue;
+            }
+            List<String> names = ride.getStops() != null ? ride.getStops() : List.of(ride.getSource(), ride.getDestination());
+            int[] stops = new int[names.size()];
+            for (int i = 0; i < stops.length; i++) {
+                stops[i] = network.node(names.get(i));
+            }
+            if (Arrays.stream(stops).anyMatch(stop -> stop < 0)) {
+                continue;
+            }
+
+            double[] legs = new double[stops.length - 1];
+            for (int i = 0; i < legs.length; i++) {
+                int from = stops[i];
+                int to = stops[i + 1];
+                legs[i] = legKm.computeIfAbsent((long) from * network.size() + to, leg -> network.distance(from, to));
+            }
+            if (Arrays.stream(legs).anyMatch(km -> km == Double.POSITIVE_INFINITY)) {
+                continue;
+            }
+
+            // Prune with lower bounds before any search runs
+            if (legs.length == 1) {
+                double bound = network.lowerBound(stops[0], pickup) + passengerKm
+                        + network.lowerBound(dropOff, stops[1]) - legs[0];
+                if (bound > limit + 1e-9) {
+                    continue;
+                }
+            }
+
+            // Pickup in leg i, drop-off in leg j >= i, with a seat free on legs i..j
+            List<Integer> seats = ride.getSegmentSeats();
+            double bestKm = Double.POSITIVE_INFINITY;
+            int bestFrom = -1;
+            int bestTo = -1;
+            for (int i = 0; i < legs.length; i++) {
+                for (int j = i; j < legs.length; j++) {
+                    if (seats != null && seats.get(j) < 1) {
+                        break;
+                    }
+                    double detourKm = i == j
+                            ? toPickup.get(stops[i]) + passengerKm + fromDropOff.get(stops[j + 1]) - legs[i]
+                            : toPickup.get(stops[i]) + fromPickup.get(stops[i + 1]) - legs[i]
+                                    + toDropOff.get(stops[j]) + fromDropOff.get(stops[j + 1]) - legs[j];
+                    // On a tie, hold the seat over fewer legs (a pickup or drop-off right at a stop)
+                    if (detourKm < bestKm - 1e-9 || (detourKm <= bestKm + 1e-9 && j + 1 - i < bestTo - bestFrom)) {
+                        bestKm = detourKm;
+                        bestFrom = i;
+                        bestTo = j + 1;
+                    }
+                }
+            }
+            if (bestKm <= limit + 1e-9) {
+                result.add(new CorridorRideResponse(ride, Math.round(bestKm * 100.0) / 100.0,
+                        names.get(bestFrom), names.get(bestTo)));
+            }
+        }
+
+        result.sort(Comparator.comparingDouble(CorridorRideResponse::getDetourKm)
+                .thenComparing(match -> match.getRide().getDateTime()));
+        return result;
+    }
+
+    /**
+     * Road distances between every stop node and one fixed place, each computed on first use
+     */
+    private static final class StopDistances {
+
+        private final double[] km;
+        private final IntToDoubleFunction distance;
+
+        StopDistances(int nodes, IntToDoubleFunction distance) {
+            this.km = new double[nodes];
+            this.distance = distance;
+            Arrays.fill(km, Double.NaN);
+        }
+
+        double get(int stop) {
+            if (Double.isNaN(km[stop])) {
+                km[stop] = distance.applyAsDouble(stop);
+            }
+            return km[stop];
+        }
+    }
+}
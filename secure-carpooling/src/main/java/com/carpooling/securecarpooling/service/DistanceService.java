@@ -1,12 +1,49 @@
 package com.carpooling.securecarpooling.service;
 
+import com.carpooling.securecarpooling.model.Ride;
+import com.carpooling.securecarpooling.routing.RoadNetwork;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
+import java.io.InputStream;
+import java.util.List;
+
 @Service
 public class DistanceService {
 
-    // Rate per kilometer in rupees
-    private static final Double RATE_PER_KM = 8.0;
+    private static final Logger log = LoggerFactory.getLogger(DistanceService.class);
+
+    // Base rate per kilometer in rupees; PricingService scales it by demand at booking time
+    @Value("${pricing.rate-per-km:8.0}")
+    private double ratePerKm = 8.0;
+
+    // Landmarks precomputed for road-network distance bounds
+    private static final int LANDMARKS = 4;
+
+    // Known places and the roads between them
+    private RoadNetwork roadNetwork;
+
+    @PostConstruct
+    public void loadRoadNetwork() {
+        try (InputStream in = new ClassPathResource("road-network.csv").getInputStream()) {
+            roadNetwork = RoadNetwork.load(in, LANDMARKS);
+            log.info("Road network loaded: {} place(s)", roadNetwork.size());
+        } catch (Exception e) {
+            log.warn("Road network could not be loaded (falling back to mock distances): {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Road network behind calculateDistance
+     * @return Network, or null if it could not be loaded
+     */
+    public RoadNetwork getRoadNetwork() {
+        return roadNetwork;
+    }
 
     /**
      * Calculate distance between source and destination
@@ -54,6 +91,18 @@ public class DistanceService {
             return 170.0;
         }
 
+        // Places on the road network: shortest road distance
+        if (roadNetwork != null) {
+            int from = roadNetwork.node(src);
+            int to = roadNetwork.node(dest);
+            if (from >= 0 && to >= 0 && from != to) {
+                double km = roadNetwork.distance(from, to);
+                if (km != Double.POSITIVE_INFINITY) {
+                    return km;
+                }
+            }
+        }
+
         // Default: Random distance between 50-500 km for other routes
         return 100.0 + (Math.random() * 400);
     }
@@ -67,7 +116,7 @@ public class DistanceService {
      */
     public Double calculatePrice(Double distanceKm, Integer totalSeats) {
         // Total cost = distance × rate per km
-        Double totalCost = distanceKm * RATE_PER_KM;
+        Double totalCost = distanceKm * ratePerKm;
 
         // Price per seat = total cost ÷ total seats
         Double pricePerSeat = totalCost / totalSeats;
@@ -76,6 +125,37 @@ public class DistanceService {
         return Math.round(pricePerSeat * 100.0) / 100.0;
     }
 
+    /**
+     * Calculate the distance of every stop from the first one, leg by leg
+     *
+     * @param stops - Stop names from source to destination
+     * @return Cumulative distance in kilometres, one entry per stop (first is 0)
+     */
+    public double[] calculateStopDistances(List<String> stops) {
+        double[] distances = new double[stops.size()];
+        for (int i = 1; i < stops.size(); i++) {
+            distances[i] = distances[i - 1] + calculateDistance(stops.get(i - 1), stops.get(i));
+        }
+        return distances;
+    }
+
+    /**
+     * Calculate price per seat for part of a ride.
+     * The whole route keeps the ride's own price; a part of it pays for its share of
+     * the distance at the same rate, split over the same number of seats.
+     *
+     * @param ride - Ride being booked
+     * @param fromStop - Boarding stop index
+     * @param toStop - Alighting stop index
+     * @return Price per seat in rupees
+     */
+    public Double calculateSegmentPrice(Ride ride, int fromStop, int toStop) {
+        if (fromStop == 0 && toStop == ride.getStopCount() - 1) {
+            return ride.getPricePerSeat();
+        }
+        return calculatePrice(ride.getSegmentDistanceKm(fromStop, toStop), ride.getTotalSeats());
+    }
+
     /**
      * Calculate total cost for the entire trip
      *
@@ -83,6 +163,6 @@ public class DistanceService {
      * @return Total cost in rupees
      */
     public Double calculateTotalCost(Double distanceKm) {
-        return Math.round(distanceKm * RATE_PER_KM * 100.0) / 100.0;
+        return Math.round(distanceKm * ratePerKm * 100.0) / 100.0;
     }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.matching.Match;
+import com.carpooling.securecarpooling.matching.MatchableRequest;
+import com.carpooling.securecarpooling.matching.MatchableRide;
+import com.carpooling.securecarpooling.matching.MatchingEngine;
+import com.carpooling.securecarpooling.repository.RideRepository;
+import com.carpooling.securecarpooling.repository.RideRequestRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs the matching engine every few seconds: expires stale requests, reads open
+ * requests and bookable rides as plain rows, assigns them in memory and books the result.
+ */
+@Service
+public class MatchingService {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchingService.class);
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private RideRequestRepository rideRequestRepository;
+
+    @Autowired
+    private RideRequestService rideRequestService;
+
+    @Autowired
+    private PricingService pricingService;
+
+    // Threads that solve route partitions; 0 means one per available processor
+    @Value("${ride.matching.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private MatchingEngine engine;
+
+    @PostConstruct
+    public void startEngine() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        engine = new MatchingEngine(pool);
+    }
+
+    @PreDestroy
+    public void stopEngine() {
+        pool.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${ride.matching.tick-ms:5000}")
+    public void runCycle() {
+        try {
+            matchOpenRequests();
+        } catch (Exception e) {
+            // Nothing is booked unless applyMatches commits, so the next cycle simply retries
+            log.warn("Ride matching cycle failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Run one matching cycle
+     * @return Number of bookings created
+     */
+    public int matchOpenRequests() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = rideRequestRepository.expireOpenRequests(now);
+
+        List<MatchableRequest> requests = new ArrayList<>();
+        for (Object[] row : rideRequestRepository.findOpenForMatching(now)) {
+            requests.add(new MatchableRequest((Long) row[0], (Long) row[1], (String) row[2], (String) row[3],
+                    (LocalDateTime) row[4], (LocalDateTime) row[5], (Integer) row[6], (Double) row[7]));
+        }
+        if (requests.isEmpty()) {
+            return 0;
+        }
+
+        List<MatchableRide> rides = new ArrayList<>();
+        for (Object[] row : rideRepository.findOpenForMatching(now)) {
+            if (row[6] == null) {
+                continue; // Unpriced rides cannot be charged for
+            }
+            // Budgets are checked against the price a direct booking would be charged
+            rides.add(new MatchableRide((Long) row[0], (Long) row[1], (String) row[2], (String) row[3],
+                    (LocalDateTime) row[4], (Integer) row[5],
+                    pricingService.quote((String) row[2], (String) row[3], (Double) row[6])));
+        }
+
+        long start = System.nanoTime();
+        List<Match> matches = engine.match(rides, requests);
+        long matchMillis = (System.nanoTime() - start) / 1_000_000;
+        int booked = rideRequestService.applyMatches(matches);
+
+        if (booked > 0 || expired > 0) {
+            log.info("Ride matching: {} open request(s), {} ride(s), {} booked in {} ms, {} expired",
+                    requests.size(), rides.size(), booked, matchMillis, expired);
+        }
+        return booked;
+    }
+}
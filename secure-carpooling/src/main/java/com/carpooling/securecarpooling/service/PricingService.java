@@ -0,0 +1,260 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.pricing.SlidingWindowCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Demand-based price multipliers per route.
+ *
+ * Searches, booked seats and offered seats are counted per route in lock-free sliding
+ * windows (see SlidingWindowCounter). A background tick turns the counts into one
+ * multiplier per route and publishes them as a fresh array, so the booking path only
+ * looks up the route's slot and reads one array element; it never sees a half-updated set.
+ *
+ * Only routes that rides are offered on get a slot; searches and bookings on other routes
+ * are not counted. A slot whose window has emptied is given back on the next tick. Repeated
+ * searches for a route by the same client within a minute count once.
+ */
+@Service
+public class PricingService {
+
+    // Routes tracked; further routes are priced at the base rate
+    static final int MAX_ROUTES = 65_536;
+
+    // Recent searchers remembered per route for de-duplication (a power of two)
+    static final int RECENT_SEARCHERS = 64;
+
+    // Searches that count as much demand as one booked seat
+    static final double SEARCHES_PER_SEAT = 5.0;
+
+    // Seats added to both sides of the ratio, so quiet routes stay near the base price
+    static final double SMOOTHING_SEATS = 4.0;
+
+    @Value("${pricing.window-minutes:60}")
+    private int windowMinutes;
+
+    @Value("${pricing.min-multiplier:0.8}")
+    private double minMultiplier;
+
+    @Value("${pricing.max-multiplier:2.0}")
+    private double maxMultiplier;
+
+    // Route key -> slot in counters and multipliers
+    private final Map<String, Integer> routeSlots = new ConcurrentHashMap<>();
+    private final AtomicInteger routeCount = new AtomicInteger();
+    private final RouteCounters[] counters = new RouteCounters[MAX_ROUTES];
+
+    // Slots of evicted routes, reused before new ones are taken
+    private final Queue<Integer> freeSlots = new ConcurrentLinkedQueue<>();
+
+    // Published by the tick; slots beyond its length have not been priced yet
+    private volatile double[] multipliers = new double[0];
+
+    /**
+     * Current multiplier of a route
+     * @param source - Starting location
+     * @param destination - Ending location
+     * @return Factor to apply to the base price (1.0 for unknown routes)
+     */
+    public double multiplier(String source, String destination) {
+        Integer slot = routeSlots.get(routeKey(source, destination));
+        double[] current = multipliers;
+        return slot == null || slot < 0 || slot >= current.length ? 1.0 : current[slot];
+    }
+
+    /**
+     * Price per seat at a route's current multiplier, as shown to passengers and charged at booking
+     * @param source - Starting location
+     * @param destination - Ending location
+     * @param basePrice - Base price per seat (may be null)
+     * @return Effective price per seat, or null without a base price
+     */
+    public Double quote(String source, String destination, Double basePrice) {
+        return basePrice == null ? null : quote(basePrice, multiplier(source, destination));
+    }
+
+    /**
+     * @param basePrice - Base price
+     * @param multiplier - Demand multiplier
+     * @return Effective price, rounded to 2 decimal places
+     */
+    static double quote(double basePrice, double multiplier) {
+        return Math.round(basePrice * multiplier * 100.0) / 100.0;
+    }
+
+    /**
+     * Record a search for a route that rides are offered on; other routes are ignored
+     * @param source - Starting location
+     * @param destination - Ending location
+     * @param client - Who searched (user or address), or null if unknown
+     */
+    public void recordSearch(String source, String destination, String client) {
+        RouteCounters route = existingRoute(source, destination);
+        long minute = currentMinute();
+        if (route != null && (client == null || route.firstSearch(client, minute))) {
+            route.searches.add(minute, 1);
+        }
+    }
+
+    /**
+     * Record seats booked on a route
+     * @param source - Starting location
+     * @param destination - Ending location
+     * @param seats - Seats booked
+     */
+    public void recordBooking(String source, String destination, int seats) {
+        RouteCounters route = existingRoute(source, destination);
+        if (route != null) {
+            route.bookedSeats.add(currentMinute(), seats);
+        }
+    }
+
+    /**
+     * Record seats offered on a route by a new ride
+     * @param source - Starting location
+     * @param destination - Ending location
+     * @param seats - Seats offered
+     */
+    public void recordOffer(String source, String destination, int seats) {
+        RouteCounters route = route(source, destination);
+        if (route != null) {
+            route.offeredSeats.add(currentMinute(), seats);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pricing.tick-ms:10000}")
+    public void recomputeMultipliers() {
+        recomputeMultipliers(currentMinute());
+    }
+
+    /**
+     * Publish multipliers for the window ending at the given minute and evict idle routes
+     * @param minute - Current minute
+     */
+    void recomputeMultipliers(long minute) {
+        int routes = Math.min(routeCount.get(), MAX_ROUTES);
+        double[] next = Arrays.copyOf(multipliers, routes);
+        List<Integer> evicted = new ArrayList<>();
+        for (int slot = 0; slot < routes; slot++) {
+            RouteCounters route = counters[slot];
+            if (route == null) {
+                next[slot] = 1.0;
+                continue;
+            }
+            long searches = route.searches.sum(minute);
+            long bookedSeats = route.bookedSeats.sum(minute);
+            long offeredSeats = route.offeredSeats.sum(minute);
+            if (searches == 0 && bookedSeats == 0 && offeredSeats == 0) {
+                // Idle for a whole window, so it would be priced at 1.0 anyway; an event recorded
+                // concurrently by a caller still holding the counters is lost
+                counters[slot] = null;
+                routeSlots.remove(route.key, slot);
+                evicted.add(slot);
+                next[slot] = 1.0;
+                continue;
+            }
+            next[slot] = multiplier(searches, bookedSeats, offeredSeats, minMultiplier, maxMultiplier);
+        }
+        multipliers = next;
+        // Reused only once the published multipliers no longer carry the old route's value
+        freeSlots.addAll(evicted);
+    }
+
+    /**
+     * Routes currently holding a slot (package-private for tests)
+     * @return Number of tracked routes
+     */
+    int trackedRoutes() {
+        return routeSlots.size();
+    }
+
+    /**
+     * Demand/supply multiplier: square root of (demand + s) / (supply + s), clamped and rounded.
+     * Demand is booked seats plus searches converted to seats; supply is seats offered.
+     */
+    static double multiplier(long searches, long bookedSeats, long offeredSeats, double min, double max) {
+        double demand = bookedSeats + searches / SEARCHES_PER_SEAT;
+        double ratio = (demand + SMOOTHING_SEATS) / (offeredSeats + SMOOTHING_SEATS);
+        double multiplier = Math.max(min, Math.min(max, Math.sqrt(ratio)));
+        return Math.round(multiplier * 100.0) / 100.0;
+    }
+
+    private RouteCounters route(String source, String destination) {
+        if (source == null || destination == null) {
+            return null;
+        }
+        Integer slot = routeSlots.computeIfAbsent(routeKey(source, destination), key -> {
+            Integer free = freeSlots.poll();
+            int next = free != null ? free : routeCount.getAndIncrement();
+            if (next >= MAX_ROUTES) {
+                return -1;
+            }
+            counters[next] = new RouteCounters(key, windowMinutes);
+            return next;
+        });
+        return slot < 0 ? null : counters[slot];
+    }
+
+    private RouteCounters existingRoute(String source, String destination) {
+        if (source == null || destination == null) {
+            return null;
+        }
+        Integer slot = routeSlots.get(routeKey(source, destination));
+        return slot == null || slot < 0 ? null : counters[slot];
+    }
+
+    static long currentMinute() {
+        return System.currentTimeMillis() / 60_000;
+    }
+
+    private static String routeKey(String source, String destination) {
+        return source.trim().toLowerCase(Locale.ROOT) + "\u0000" + destination.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Sliding-window counters of one route
+    private static final class RouteCounters {
+
+        private final String key;
+        private final SlidingWindowCounter searches;
+        private final SlidingWindowCounter bookedSeats;
+        private final SlidingWindowCounter offeredSeats;
+
+        // Ring of (client hash, minute) keys of recent searches
+        private final AtomicLongArray recentSearchers = new AtomicLongArray(RECENT_SEARCHERS);
+        private final AtomicInteger nextSearcher = new AtomicInteger();
+
+        private RouteCounters(String key, int minutes) {
+            this.key = key;
+            this.searches = new SlidingWindowCounter(minutes);
+            this.bookedSeats = new SlidingWindowCounter(minutes);
+            this.offeredSeats = new SlidingWindowCounter(minutes);
+        }
+
+        /**
+         * Whether this is the client's first search for the route this minute (among the recent searchers)
+         */
+        private boolean firstSearch(String client, long minute) {
+            long searcher = ((long) client.hashCode() << 32) | (minute & 0xFFFF_FFFFL);
+            for (int i = 0; i < RECENT_SEARCHERS; i++) {
+                if (recentSearchers.get(i) == searcher) {
+                    return false;
+                }
+            }
+            recentSearchers.set(nextSearcher.getAndIncrement() & (RECENT_SEARCHERS - 1), searcher);
+            return true;
+        }
+    }
+}
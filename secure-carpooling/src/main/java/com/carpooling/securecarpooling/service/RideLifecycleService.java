@@ -0,0 +1,204 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.event.RideChangedEvent;
+import com.carpooling.securecarpooling.model.Ride;
+import com.carpooling.securecarpooling.model.RideStatus;
+import com.carpooling.securecarpooling.repository.BookingRepository;
+import com.carpooling.securecarpooling.repository.RideRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+
+@Service
+public class RideLifecycleService {
+
+    private static final Logger log = LoggerFactory.getLogger(RideLifecycleService.class);
+
+    // Upper bound on ride IDs sent in a single bulk UPDATE
+    private static final int MAX_BATCH_SIZE = 500;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Hours after departure before an IN_PROGRESS ride is settled automatically
+    @Value("${ride.lifecycle.settle-after-hours:12}")
+    private long settleAfterHours;
+
+    // Pending transitions ordered by the time they become due
+    private final PriorityBlockingQueue<Transition> queue = new PriorityBlockingQueue<>();
+
+    /**
+     * Load the transitions of all rides that are still ACTIVE or IN_PROGRESS.
+     * This is the only full read; afterwards rides enter the queue as they are created.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSchedule() {
+        try {
+            List<Object[]> rows = rideRepository.findLifecycleSchedule();
+            for (Object[] row : rows) {
+                Long rideId = (Long) row[0];
+                LocalDateTime departure = (LocalDateTime) row[1];
+                if (row[2] == RideStatus.ACTIVE) {
+                    queue.add(new Transition(rideId, departure, Phase.DEPART));
+                } else {
+                    queue.add(new Transition(rideId, departure.plusHours(settleAfterHours), Phase.SETTLE));
+                }
+            }
+            log.info("Ride lifecycle scheduler loaded {} ride(s)", rows.size());
+        } catch (Exception e) {
+            log.error("Ride lifecycle scheduler could not load rides: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Start tracking a newly created ride
+     * @param ride - Saved ride entity
+     */
+    public void track(Ride ride) {
+        queue.add(new Transition(ride.getId(), ride.getDateTime(), Phase.DEPART));
+    }
+
+    /**
+     * Number of transitions waiting in the queue
+     * @return Queue size
+     */
+    public int pendingTransitions() {
+        return queue.size();
+    }
+
+    /**
+     * Advance every ride whose transition is due.
+     * Only due entries are touched, so the cost follows the number of departing rides.
+     */
+    @Scheduled(fixedDelayString = "${ride.lifecycle.tick-ms:30000}")
+    public void advanceDueRides() {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Transition> due = drainDue(now);
+        while (!due.isEmpty()) {
+            List<Long> departing = new ArrayList<>();
+            List<Long> settling = new ArrayList<>();
+            for (Transition transition : due) {
+                if (transition.phase == Phase.DEPART) {
+                    departing.add(transition.rideId);
+                } else {
+                    settling.add(transition.rideId);
+                }
+            }
+
+            try {
+                if (!departing.isEmpty()) {
+                    departRides(departing);
+                }
+                if (!settling.isEmpty()) {
+                    settleRides(settling);
+                }
+            } catch (Exception e) {
+                // Every update is guarded by status, so retrying the whole batch later is safe
+                log.warn("Ride lifecycle update failed, retrying next tick: {}", e.getMessage());
+                queue.addAll(due);
+                return;
+            }
+
+            due = drainDue(now);
+        }
+    }
+
+    /**
+     * Expire departed rides without passengers and start the rest
+     * @param rideIds - IDs of rides whose departure time has passed
+     */
+    private void departRides(List<Long> rideIds) {
+        int expired = rideRepository.expireUnbookedRides(rideIds);
+        int started = rideRepository.startRides(rideIds);
+        eventPublisher.publishEvent(new RideChangedEvent(rideIds));
+
+        // Only started rides come back, once the settle window has passed
+        if (started > 0) {
+            LocalDateTime settleAt = LocalDateTime.now().plusHours(settleAfterHours);
+            for (Long rideId : rideRepository.findInProgressIds(rideIds)) {
+                queue.add(new Transition(rideId, settleAt, Phase.SETTLE));
+            }
+        }
+
+        log.info("Ride lifecycle: {} ride(s) expired, {} ride(s) in progress", expired, started);
+    }
+
+    /**
+     * Complete in-progress rides the driver never closed, together with their bookings
+     * @param rideIds - IDs of rides whose settle window has passed
+     */
+    private void settleRides(List<Long> rideIds) {
+        int bookings = bookingRepository.completeConfirmedBookingsForRides(rideIds);
+        int rides = rideRepository.completeInProgressRides(rideIds);
+        eventPublisher.publishEvent(new RideChangedEvent(rideIds));
+
+        log.info("Ride lifecycle: {} ride(s) settled, {} booking(s) completed", rides, bookings);
+    }
+
+    /**
+     * Remove up to MAX_BATCH_SIZE transitions that are due at the given time
+     * @param now - Current time
+     * @return Due transitions, earliest first
+     */
+    private List<Transition> drainDue(LocalDateTime now) {
+        List<Transition> due = new ArrayList<>();
+        while (due.size() < MAX_BATCH_SIZE) {
+            Transition head = queue.peek();
+            if (head == null || head.dueAt.isAfter(now)) {
+                break;
+            }
+            Transition polled = queue.poll();
+            if (polled == null) {
+                break;
+            }
+            if (polled.dueAt.isAfter(now)) {
+                // Another thread replaced the head between peek and poll
+                queue.add(polled);
+                break;
+            }
+            due.add(polled);
+        }
+        return due;
+    }
+
+    private enum Phase {
+        DEPART, // ACTIVE -> IN_PROGRESS or EXPIRED at departure time
+        SETTLE  // IN_PROGRESS -> COMPLETED after the settle window
+    }
+
+    private static final class Transition implements Comparable<Transition> {
+
+        private final Long rideId;
+        private final LocalDateTime dueAt;
+        private final Phase phase;
+
+        private Transition(Long rideId, LocalDateTime dueAt, Phase phase) {
+            this.rideId = rideId;
+            this.dueAt = dueAt;
+            this.phase = phase;
+        }
+
+        @Override
+        public int compareTo(Transition other) {
+            return dueAt.compareTo(other.dueAt);
+        }
+    }
+}
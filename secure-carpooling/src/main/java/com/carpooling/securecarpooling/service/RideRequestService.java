@@ -0,0 +1,230 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.dto.RequestRideRequest;
+import com.carpooling.securecarpooling.dto.RideRequestResponse;
+import com.carpooling.securecarpooling.event.BookingsConfirmedEvent;
+import com.carpooling.securecarpooling.event.RideChangedEvent;
+import com.carpooling.securecarpooling.matching.Match;
+import com.carpooling.securecarpooling.model.Booking;
+import com.carpooling.securecarpooling.model.Ride;
+import com.carpooling.securecarpooling.model.RideRequest;
+import com.carpooling.securecarpooling.model.RideRequestStatus;
+import com.carpooling.securecarpooling.model.RideStatus;
+import com.carpooling.securecarpooling.model.User;
+import com.carpooling.securecarpooling.repository.BookingRepository;
+import com.carpooling.securecarpooling.repository.RideRepository;
+import com.carpooling.securecarpooling.repository.RideRequestRepository;
+import com.carpooling.securecarpooling.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class RideRequestService {
+
+    // Upper bound on IDs sent in a single IN list
+    private static final int MAX_IN_LIST = 1000;
+
+    @Autowired
+    private RideRequestRepository rideRequestRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Open a ride request; the matching engine picks it up on its next cycle
+     * @param requestRideRequest - Route, departure window, seats and optional budget
+     * @param passengerId - ID of the requesting user
+     * @return RideRequestResponse with the open request
+     * @throws RuntimeException if validation fails
+     */
+    public RideRequestResponse createRequest(RequestRideRequest requestRideRequest, Long passengerId) {
+        User passenger = userRepository.findById(passengerId)
+                .orElseThrow(() -> new RuntimeException("User not found with ID: " + passengerId));
+
+        if (!requestRideRequest.getLatestDeparture().isAfter(LocalDateTime.now())) {
+            throw new RuntimeException("Departure window must end in the future!");
+        }
+        if (requestRideRequest.getLatestDeparture().isBefore(requestRideRequest.getEarliestDeparture())) {
+            throw new RuntimeException("Latest departure must not be before earliest departure!");
+        }
+
+        RideRequest request = new RideRequest(
+                passenger,
+                requestRideRequest.getSource().trim(),
+                requestRideRequest.getDestination().trim(),
+                requestRideRequest.getEarliestDeparture(),
+                requestRideRequest.getLatestDeparture(),
+                requestRideRequest.getSeatsNeeded(),
+                requestRideRequest.getMaxPricePerSeat()
+        );
+        return convertToRideRequestResponse(rideRequestRepository.save(request));
+    }
+
+    /**
+     * Get all ride requests of a passenger
+     * @param passengerId - Passenger's user ID
+     * @return List of ride requests
+     */
+    public List<RideRequestResponse> getMyRequests(Long passengerId) {
+        List<RideRequestResponse> responses = new ArrayList<>();
+        for (RideRequest request : rideRequestRepository.findByPassengerId(passengerId)) {
+            responses.add(convertToRideRequestResponse(request));
+        }
+        return responses;
+    }
+
+    /**
+     * Cancel an open ride request
+     * @param requestId - Ride request ID
+     * @param passengerId - ID of the user cancelling
+     * @return Success message
+     * @throws RuntimeException if the request is not the user's or no longer open
+     */
+    @Transactional
+    public String cancelRequest(Long requestId, Long passengerId) {
+        RideRequest request = rideRequestRepository.findById(requestId)
+                .orElseThrow(() -> new RuntimeException("Ride request not found with ID: " + requestId));
+
+        if (!request.getPassenger().getId().equals(passengerId)) {
+            throw new RuntimeException("You can only cancel your own ride requests!");
+        }
+        if (!request.getStatus().canTransitionTo(RideRequestStatus.CANCELLED)) {
+            throw new RuntimeException("Ride request is already " + request.getStatus() + "!");
+        }
+
+        request.setStatus(RideRequestStatus.CANCELLED);
+        rideRequestRepository.save(request);
+        return "Ride request cancelled successfully!";
+    }
+
+    /**
+     * Book the seats the matching engine assigned, in one transaction.
+     * The engine worked on a snapshot, so every match is re-checked against the current
+     * rows; matches that no longer fit are skipped and their requests stay open.
+     * Concurrent seat changes on the same rides fail the version check and roll the
+     * cycle back; the next cycle retries. Bookings are priced as direct bookings are
+     * (the route's demand multiplier applies, within the request's budget) and are
+     * recorded on the blockchain after the transaction commits.
+     * @param matches - Assignments from MatchingEngine
+     * @return Number of bookings created
+     */
+    @Transactional
+    public int applyMatches(List<Match> matches) {
+        if (matches.isEmpty()) {
+            return 0;
+        }
+        List<Long> requestIds = new ArrayList<>();
+        Set<Long> rideIdSet = new HashSet<>();
+        for (Match match : matches) {
+            requestIds.add(match.getRequestId());
+            rideIdSet.add(match.getRideId());
+        }
+        List<Long> rideIds = new ArrayList<>(rideIdSet);
+
+        Map<Long, RideRequest> requests = new HashMap<>();
+        Map<Long, Ride> rides = new HashMap<>();
+        Set<String> bookedPairs = new HashSet<>();
+        for (int from = 0; from < requestIds.size(); from += MAX_IN_LIST) {
+            for (RideRequest request : rideRequestRepository.findAllById(
+                    requestIds.subList(from, Math.min(from + MAX_IN_LIST, requestIds.size())))) {
+                requests.put(request.getId(), request);
+            }
+        }
+        for (int from = 0; from < rideIds.size(); from += MAX_IN_LIST) {
+            List<Long> chunk = rideIds.subList(from, Math.min(from + MAX_IN_LIST, rideIds.size()));
+            for (Ride ride : rideRepository.findAllById(chunk)) {
+                rides.put(ride.getId(), ride);
+            }
+            for (Object[] pair : bookingRepository.findConfirmedRidePassengerPairs(chunk)) {
+                bookedPairs.add(pair[0] + ":" + pair[1]);
+            }
+        }
+
+        List<Booking> bookings = new ArrayList<>();
+        Set<Long> changedRides = new HashSet<>();
+        for (Match match : matches) {
+            RideRequest request = requests.get(match.getRequestId());
+            Ride ride = rides.get(match.getRideId());
+            if (request == null || ride == null
+                    || request.getStatus() != RideRequestStatus.OPEN
+                    || ride.getStatus() != RideStatus.ACTIVE
+                    || ride.getFreeSeats(0, ride.getStopCount() - 1) < match.getSeats()
+                    || !bookedPairs.add(ride.getId() + ":" + request.getPassenger().getId())) {
+                continue;
+            }
+
+            // Charged like a direct booking, at the route's current multiplier; the engine checked the
+            // budget against a price that may since have moved
+            double pricePerSeat = pricingService.quote(ride.getSource(), ride.getDestination(), ride.getPricePerSeat());
+            if (request.getMaxPricePerSeat() != null && pricePerSeat > request.getMaxPricePerSeat()) {
+                continue;
+            }
+            Double totalAmount = Math.round(pricePerSeat * match.getSeats() * 100.0) / 100.0;
+            Booking booking = new Booking(ride, request.getPassenger(), match.getSeats(), totalAmount);
+            bookings.add(booking);
+
+            ride.changeSeats(0, ride.getStopCount() - 1, -match.getSeats());
+            request.setStatus(RideRequestStatus.MATCHED);
+            request.setBooking(booking);
+            changedRides.add(ride.getId());
+            pricingService.recordBooking(ride.getSource(), ride.getDestination(), match.getSeats());
+        }
+
+        bookingRepository.saveAll(bookings);
+        if (!changedRides.isEmpty()) {
+            eventPublisher.publishEvent(new RideChangedEvent(changedRides));
+            List<Long> bookingIds = new ArrayList<>();
+            for (Booking booking : bookings) {
+                bookingIds.add(booking.getId());
+            }
+            eventPublisher.publishEvent(new BookingsConfirmedEvent(bookingIds));
+        }
+        return bookings.size();
+    }
+
+    /**
+     * Convert RideRequest entity to RideRequestResponse DTO
+     * @param request - RideRequest entity
+     * @return RideRequestResponse DTO
+     */
+    private RideRequestResponse convertToRideRequestResponse(RideRequest request) {
+        RideRequestResponse response = new RideRequestResponse();
+        response.setId(request.getId());
+        response.setPassengerId(request.getPassenger().getId());
+        response.setSource(request.getSource());
+        response.setDestination(request.getDestination());
+        response.setEarliestDeparture(request.getEarliestDeparture());
+        response.setLatestDeparture(request.getLatestDeparture());
+        response.setSeatsNeeded(request.getSeatsNeeded());
+        response.setMaxPricePerSeat(request.getMaxPricePerSeat());
+        response.setStatus(request.getStatus().name());
+        if (request.getBooking() != null) {
+            response.setBookingId(request.getBooking().getId());
+            response.setRideId(request.getBooking().getRide().getId());
+        }
+        response.setCreatedAt(request.getCreatedAt());
+        return response;
+    }
+}
@@ -2,24 +2,47 @@ package com.carpooling.securecarpooling.service;
 
 import com.carpooling.securecarpooling.dto.CreateRideRequest;
 import com.carpooling.securecarpooling.dto.RideResponse;
-import com.carpooling.securecarpooling.model.Booking;
+import com.carpooling.securecarpooling.event.BookingsCancelledEvent;
+import com.carpooling.securecarpooling.event.RideChangedEvent;
 import com.carpooling.securecarpooling.model.Ride;
+import com.carpooling.securecarpooling.model.RideStatus;
 import com.carpooling.securecarpooling.model.User;
 import com.carpooling.securecarpooling.repository.RideRepository;
 import com.carpooling.securecarpooling.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.carpooling.securecarpooling.repository.BookingRepository;
 import org.springframework.transaction.annotation.Transactional;
 
+import static net.logstash.logback.argument.StructuredArguments.v;
+
 @Service
 public class RideService {
 
+    private static final Logger log = LoggerFactory.getLogger(RideService.class);
+
     @Autowired
     private RideRepository rideRepository;
 
@@ -34,6 +57,26 @@ public class RideService {
 
     @Autowired
     private BlockchainService blockchainService;
+
+    @Autowired
+    private RideLifecycleService rideLifecycleService;
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Ride IDs per UPDATE when linking imported rides to their blockchain record
+    private static final int IMPORT_ANCHOR_CHUNK = 1000;
+
+    // Rides written per flush during bulk import; matches hibernate.jdbc.batch_size
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int importBatchSize;
+
     /**
      * Create a new ride
      * @param createRideRequest - Ride details from frontend
@@ -68,13 +111,15 @@ public class RideService {
         ride.setCarModel(createRideRequest.getCarModel());
         ride.setCarNumber(createRideRequest.getCarNumber());
         ride.setCarColor(createRideRequest.getCarColor());
+        ride.setMaxDetourKm(validDetourLimit(createRideRequest.getMaxDetourKm()));
 
-        // Calculate distance
-        Double distance = distanceService.calculateDistance(
-                createRideRequest.getSource(),
-                createRideRequest.getDestination()
-        );
-        ride.setDistanceKm(distance);
+        // Calculate distance, leg by leg when the ride has intermediate stops
+        List<String> stops = routeStops(createRideRequest);
+        double[] stopDistances = stops.size() > 2
+                ? distanceService.calculateStopDistances(stops)
+                : new double[]{0, distanceService.calculateDistance(createRideRequest.getSource(), createRideRequest.getDestination())};
+        ride.setRoute(stops, stopDistances);
+        Double distance = ride.getDistanceKm();
 
         // Calculate price per seat
         Double pricePerSeat = distanceService.calculatePrice(distance, createRideRequest.getSeatsAvailable());
@@ -83,6 +128,9 @@ public class RideService {
         // Save ride to database
         Ride savedRide = rideRepository.save(ride);
 
+        // Expire or start the ride automatically once it departs
+        rideLifecycleService.track(savedRide);
+
         // ========== BLOCKCHAIN INTEGRATION ==========
         // Record ride creation on blockchain
         try {
@@ -96,34 +144,195 @@ public class RideService {
             savedRide.setBlockchainTxHash(txHash);
             rideRepository.save(savedRide); // Update with blockchain hash
 
-            System.out.println("✅ Ride " + savedRide.getId() + " recorded on blockchain: " + txHash);
+            log.debug("Ride {} anchored on blockchain: {}", v("rideId", savedRide.getId()), txHash);
         } catch (Exception e) {
-            System.err.println("⚠️ Blockchain recording failed (ride still saved in DB): " + e.getMessage());
+            log.warn("Blockchain recording failed (ride {} still saved in DB): {}", v("rideId", savedRide.getId()), e.getMessage());
             // Ride is still saved in database even if blockchain fails
         }
         // ============================================
 
+        eventPublisher.publishEvent(new RideChangedEvent(savedRide.getId()));
+        pricingService.recordOffer(savedRide.getSource(), savedRide.getDestination(), savedRide.getTotalSeats());
+
         // Convert to RideResponse and return
         return convertToRideResponse(savedRide);
     }
 
     /**
-     * Get all available rides
+     * Import many rides for one driver, e.g. a corporate shuttle schedule.
+     * Rides are inserted in JDBC batches and the persistence context is cleared
+     * after every batch. The import is recorded on the blockchain as one entry holding
+     * a digest of all imported rides, and every ride carries that entry's transaction.
+     * @param createRideRequests - Ride details
+     * @param driverId - ID of the user offering the rides
+     * @return Number of rides imported
+     * @throws RuntimeException if user not found or any ride fails validation
+     */
+    @Transactional
+    public int importRides(List<CreateRideRequest> createRideRequests, Long driverId) {
+
+        // Find the driver
+        User driver = userRepository.findById(driverId)
+                .orElseThrow(() -> new RuntimeException("User not found with ID: " + driverId));
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, double[]> stopDistancesByRoute = new HashMap<>();
+        List<Ride> batch = new ArrayList<>(importBatchSize);
+        List<Long> rideIds = new ArrayList<>(createRideRequests.size());
+        MessageDigest digest = newImportDigest();
+
+        for (int i = 0; i < createRideRequests.size(); i++) {
+            CreateRideRequest request = createRideRequests.get(i);
+
+            if (request.getDateTime() == null || request.getDateTime().isBefore(now)) {
+                throw new RuntimeException("Ride #" + (i + 1) + ": date/time must be in the future!");
+            }
+            if (request.getSeatsAvailable() == null
+                    || request.getSeatsAvailable() < 1 || request.getSeatsAvailable() > 7) {
+                throw new RuntimeException("Ride #" + (i + 1) + ": seats should be between 1 and 7!");
+            }
+            if (request.getSource() == null || request.getDestination() == null) {
+                throw new RuntimeException("Ride #" + (i + 1) + ": source and destination are required!");
+            }
+
+            Ride ride = new Ride(driver, request.getSource(), request.getDestination(), request.getDateTime(),
+                    request.getSeatsAvailable(), request.getCarModel(), request.getCarNumber(), request.getCarColor());
+            ride.setMaxDetourKm(validDetourLimit(request.getMaxDetourKm()));
+
+            // Shuttle schedules repeat the same few routes, so look each one up once
+            List<String> stops = routeStops(request);
+            double[] stopDistances = stopDistancesByRoute.computeIfAbsent(String.join("|", stops),
+                    route -> distanceService.calculateStopDistances(stops));
+            ride.setRoute(stops, stopDistances);
+            ride.setPricePerSeat(distanceService.calculatePrice(ride.getDistanceKm(), request.getSeatsAvailable()));
+
+            entityManager.persist(ride);
+            batch.add(ride);
+            rideIds.add(ride.getId());
+            digest.update((ride.getId() + "|" + ride.getSource() + "|" + ride.getDestination() + "|" + ride.getDateTime()
+                    + "|" + ride.getTotalSeats() + "|" + ride.getPricePerSeat() + "\n").getBytes(StandardCharsets.UTF_8));
+            pricingService.recordOffer(ride.getSource(), ride.getDestination(), ride.getTotalSeats());
+
+            if (batch.size() == importBatchSize) {
+                flushImportBatch(batch);
+            }
+        }
+        flushImportBatch(batch);
+        anchorImport(rideIds, HexFormat.of().formatHex(digest.digest()));
+
+        eventPublisher.publishEvent(RideChangedEvent.all());
+
+        return createRideRequests.size();
+    }
+
+    /**
+     * Full stop list of a new ride: source, intermediate stops, destination
+     * @param request - Ride details
+     * @return Stop names in route order
+     * @throws RuntimeException if a stop is blank
+     */
+    private List<String> routeStops(CreateRideRequest request) {
+        List<String> stops = new ArrayList<>();
+        stops.add(request.getSource());
+        if (request.getStops() != null) {
+            for (String stop : request.getStops()) {
+                if (stop == null || stop.trim().isEmpty()) {
+                    throw new RuntimeException("Stop names must not be empty!");
+                }
+                stops.add(stop.trim());
+            }
+        }
+        stops.add(request.getDestination());
+        return stops;
+    }
+
+    /**
+     * Check a driver's detour limit
+     * @param maxDetourKm - Extra kilometres accepted, or null
+     * @return The same limit
+     * @throws RuntimeException if the limit is negative
+     */
+    private Double validDetourLimit(Double maxDetourKm) {
+        if (maxDetourKm != null && maxDetourKm < 0) {
+            throw new RuntimeException("Detour limit must not be negative!");
+        }
+        return maxDetourKm;
+    }
+
+    /**
+     * Write pending imported rides, hand them to the lifecycle scheduler and detach them
+     * @param batch - Rides persisted since the last flush
+     */
+    private void flushImportBatch(List<Ride> batch) {
+        entityManager.flush();
+        for (Ride ride : batch) {
+            rideLifecycleService.track(ride);
+        }
+        entityManager.clear();
+        batch.clear();
+    }
+
+    /**
+     * Record an import on blockchain and link the imported rides to the record
+     * @param rideIds - IDs of the imported rides, in import order
+     * @param digest - SHA-256 over the imported rides, hex encoded
+     */
+    private void anchorImport(List<Long> rideIds, String digest) {
+        if (rideIds.isEmpty()) {
+            return;
+        }
+        String txHash = blockchainService.recordRideImport(rideIds.get(0), rideIds.size(), digest);
+        for (int from = 0; from < rideIds.size(); from += IMPORT_ANCHOR_CHUNK) {
+            rideRepository.setBlockchainTxHash(rideIds.subList(from, Math.min(from + IMPORT_ANCHOR_CHUNK, rideIds.size())), txHash);
+        }
+        log.debug("Import of {} ride(s) anchored on blockchain: {}", rideIds.size(), txHash);
+    }
+
+    private static MessageDigest newImportDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Get all available rides (active, seats left, not yet departed)
      * @return List of available rides
      */
+    // Not read-only: this fills the query cache and the shared listing snapshot and time index, which
+    // every user reads, so it must see the primary
+    @Transactional
     public List<RideResponse> getAvailableRides() {
-        List<Ride> rides = rideRepository.findByStatusAndSeatsAvailableGreaterThan("ACTIVE", 0);
+        // Rounded to the minute so the cached query result is shared by all calls in that minute
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        List<Ride> rides = rideRepository.findUpcomingRides(now);
         return convertToRideResponseList(rides);
     }
 
     /**
-     * Search rides by source and destination
+     * Search rides by source and destination, including rides that pass both as waypoints
+     * (source first) and still have a seat free on every segment between them
      * @param source - Starting location
      * @param destination - Ending location
-     * @return List of matching rides
+     * @return List of matching rides, those starting and ending there first
      */
+    @Transactional(readOnly = true)
     public List<RideResponse> searchRides(String source, String destination) {
-        List<Ride> rides = rideRepository.findActiveRidesByRoute(source, destination);
+        List<Ride> rides = new ArrayList<>();
+        Set<Long> found = new HashSet<>();
+        for (Ride ride : rideRepository.findActiveRidesByRoute(source, destination)) {
+            // seatsAvailable is the roomiest segment; the whole route may still be taken
+            if (ride.getFreeSeats(0, ride.getStopCount() - 1) > 0 && found.add(ride.getId())) {
+                rides.add(ride);
+            }
+        }
+        for (Object[] row : rideRepository.findActiveRidesPassing(source, destination)) {
+            Ride ride = (Ride) row[0];
+            if (ride.getFreeSeats((Integer) row[1], (Integer) row[2]) > 0 && found.add(ride.getId())) {
+                rides.add(ride);
+            }
+        }
         return convertToRideResponseList(rides);
     }
 
@@ -132,6 +341,7 @@ public class RideService {
      * @param driverId - Driver's user ID
      * @return List of driver's rides
      */
+    @Transactional(readOnly = true)
     public List<RideResponse> getMyRides(Long driverId) {
         List<Ride> rides = rideRepository.findByDriverId(driverId);
         return convertToRideResponseList(rides);
@@ -143,12 +353,40 @@ public class RideService {
      * @return RideResponse with ride details
      * @throws RuntimeException if ride not found
      */
+    // Not read-only: the ride is read right after it changes (listing updates, the driver's own view),
+    // so it stays on the primary; the transaction keeps the stops loadable while the response is built
+    @Transactional
     public RideResponse getRideById(Long rideId) {
         Ride ride = rideRepository.findById(rideId)
                 .orElseThrow(() -> new RuntimeException("Ride not found with ID: " + rideId));
         return convertToRideResponse(ride);
     }
 
+    /**
+     * Get several rides at once; IDs that do not exist are skipped
+     * @param rideIds - Ride IDs
+     * @return RideResponse objects, in no particular order
+     */
+    // Not read-only, for the same reason as getRideById
+    @Transactional
+    public List<RideResponse> getRidesByIds(Collection<Long> rideIds) {
+        return convertToRideResponseList(rideRepository.findAllById(rideIds));
+    }
+
+    /**
+     * Get the ETag of a ride without loading it; changes whenever the ride row or its driver's row changes
+     * @param rideId - Ride ID
+     * @return Strong ETag value (quoted)
+     * @throws RuntimeException if ride not found
+     */
+    public String getRideETag(Long rideId) {
+        List<Object[]> versions = rideRepository.findVersionsById(rideId);
+        if (versions.isEmpty()) {
+            throw new RuntimeException("Ride not found with ID: " + rideId);
+        }
+        return "\"r" + rideId + "-" + versions.get(0)[0] + "-" + versions.get(0)[1] + "\"";
+    }
+
     /**
      * Convert Ride entity to RideResponse DTO
      * @param ride - Ride entity
@@ -171,16 +409,23 @@ public class RideService {
         response.setCarColor(ride.getCarColor());
         response.setDistanceKm(ride.getDistanceKm());
         response.setPricePerSeat(ride.getPricePerSeat());
-        response.setStatus(ride.getStatus());
+        response.setQuotedPricePerSeat(pricingService.quote(ride.getSource(), ride.getDestination(), ride.getPricePerSeat()));
+        response.setStops(ride.getStopNames());
+        int[] segmentSeats = ride.getSegmentSeats();
+        response.setSegmentSeats(segmentSeats == null ? null : Arrays.stream(segmentSeats).boxed().toList());
+        response.setMaxDetourKm(ride.getMaxDetourKm());
+        response.setTemplateId(ride.getTemplate() == null ? null : ride.getTemplate().getId());
+        response.setStatus(ride.getStatus().name());
         return response;
     }
 
     /**
      * Convert list of Ride entities to list of RideResponse DTOs
+     * (package-private so the benchmarks module can measure it)
      * @param rides - List of Ride entities
      * @return List of RideResponse DTOs
      */
-    private List<RideResponse> convertToRideResponseList(List<Ride> rides) {
+    List<RideResponse> convertToRideResponseList(List<Ride> rides) {
         List<RideResponse> responseList = new ArrayList<>();
         for (Ride ride : rides) {
             responseList.add(convertToRideResponse(ride));
@@ -207,24 +452,61 @@ public class RideService {
             throw new RuntimeException("Only the driver can complete this ride!");
         }
 
-        // Check if ride is active
-        if (!ride.getStatus().equals("ACTIVE")) {
-            throw new RuntimeException("Only active rides can be marked as completed!");
+        // Check if ride is active or already under way
+        if (!ride.getStatus().canTransitionTo(RideStatus.COMPLETED)) {
+            throw new RuntimeException("Only active or in-progress rides can be marked as completed!");
         }
 
         // Update ride status
-        ride.setStatus("COMPLETED");
+        ride.setStatus(RideStatus.COMPLETED);
         rideRepository.save(ride);
 
-        // Mark all confirmed bookings for this ride as completed
-        List<Booking> bookings = bookingRepository.findByRideId(rideId);
-        for (Booking booking : bookings) {
-            if (booking.getStatus().equals("CONFIRMED")) {
-                booking.setStatus("COMPLETED");
-                bookingRepository.save(booking);
-            }
-        }
+        // Mark all confirmed bookings for this ride as completed in a single statement
+        bookingRepository.completeConfirmedBookingsByRide(rideId);
+
+        eventPublisher.publishEvent(new RideChangedEvent(rideId));
 
         return "Ride completed successfully! All bookings have been marked as completed.";
     }
+
+    /**
+     * Cancel a ride (driver cancellation)
+     * @param rideId - Ride ID to cancel
+     * @param driverId - Driver's user ID
+     * @return Success message
+     * @throws RuntimeException if validation fails
+     */
+    @Transactional
+    public String cancelRide(Long rideId, Long driverId) {
+
+        // Find the ride
+        Ride ride = rideRepository.findById(rideId)
+                .orElseThrow(() -> new RuntimeException("Ride not found with ID: " + rideId));
+
+        // Check if user is the driver
+        if (!ride.getDriver().getId().equals(driverId)) {
+            throw new RuntimeException("Only the driver can cancel this ride!");
+        }
+
+        // Check if ride has not started yet
+        if (!ride.getStatus().canTransitionTo(RideStatus.CANCELLED)) {
+            throw new RuntimeException("Only active rides can be cancelled!");
+        }
+
+        // Update ride status; written at once, so bookings racing this cancellation fail their version check
+        ride.setStatus(RideStatus.CANCELLED);
+        rideRepository.saveAndFlush(ride);
+
+        // Cancel all confirmed bookings for this ride in a single statement
+        List<Long> bookingIds = bookingRepository.findConfirmedIdsByRide(rideId);
+        int cancelled = bookingRepository.cancelConfirmedBookingsByRide(rideId);
+
+        eventPublisher.publishEvent(new RideChangedEvent(rideId));
+        // Each cancellation is recorded on the blockchain after commit
+        if (!bookingIds.isEmpty()) {
+            eventPublisher.publishEvent(new BookingsCancelledEvent(bookingIds, "Driver cancelled ride"));
+        }
+
+        return "Ride cancelled successfully! " + cancelled + " booking(s) have been cancelled.";
+    }
 }
\ No newline at end of file
@@ -0,0 +1,224 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.event.RideChangedEvent;
+import com.carpooling.securecarpooling.model.RideStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Keeps GET /api/rides/available as a pre-serialized JSON body in memory.
+ * Each ride is serialized once into its own fragment; a change re-serializes only the
+ * changed rides and swaps in a new immutable snapshot (copy-on-write), so readers never
+ * lock, query the database or build RideResponse objects.
+ * Staleness is bounded by the delay between a commit and its RideChangedEvent.
+ * Every snapshot carries its own ETag, so conditional requests are answered without touching the body.
+ */
+@Service
+public class RideSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(RideSnapshotService.class);
+
+    private static final byte[] EMPTY_BODY = "[]".getBytes();
+
+    // Distinguishes ETags of this process from those handed out before a restart
+    private static final String BOOT_ID = Long.toString(System.currentTimeMillis(), 36);
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Only advanced inside the synchronized writers
+    private long generation;
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyNavigableMap(), Collections.emptyMap(), EMPTY_BODY, etag(0));
+
+    /**
+     * Get the current available-rides body
+     * @return JSON array of RideResponse objects, ordered by departure time; must not be modified
+     */
+    public byte[] getAvailableRidesJson() {
+        return snapshot.body;
+    }
+
+    /**
+     * Get the current available-rides body together with its ETag
+     * @return Snapshot whose body and ETag always belong together
+     */
+    public Snapshot getAvailableRides() {
+        return snapshot;
+    }
+
+    /**
+     * Build the first snapshot once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSnapshot() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Ride snapshot could not be built: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply a ride change after its transaction has committed
+     * @param event - IDs of the rides that changed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRideChanged(RideChangedEvent event) {
+        try {
+            if (event.isAll()) {
+                rebuild();
+            } else {
+                apply(event.getRideIds());
+            }
+        } catch (Exception e) {
+            log.warn("Ride snapshot update failed for {}: {}", event, e.getMessage());
+        }
+    }
+
+    /**
+     * Replace the snapshot with all currently available rides
+     */
+    private synchronized void rebuild() throws JsonProcessingException {
+        NavigableMap<SnapshotKey, byte[]> fragments = new TreeMap<>();
+        Map<Long, SnapshotKey> keys = new HashMap<>();
+        for (RideResponse ride : rideService.getAvailableRides()) {
+            SnapshotKey key = new SnapshotKey(ride);
+            fragments.put(key, objectMapper.writeValueAsBytes(ride));
+            keys.put(ride.getId(), key);
+        }
+        snapshot = new Snapshot(fragments, keys, join(fragments), etag(++generation));
+    }
+
+    /**
+     * Copy the current snapshot, re-serialize the given rides and publish the copy
+     * @param rideIds - Rides whose seats or status changed
+     */
+    private synchronized void apply(Iterable<Long> rideIds) throws JsonProcessingException {
+        NavigableMap<SnapshotKey, byte[]> fragments = new TreeMap<>(snapshot.fragments);
+        Map<Long, SnapshotKey> keys = new HashMap<>(snapshot.keys);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Long rideId : rideIds) {
+            SnapshotKey previous = keys.remove(rideId);
+            if (previous != null) {
+                fragments.remove(previous);
+            }
+
+            RideResponse ride;
+            try {
+                ride = rideService.getRideById(rideId);
+            } catch (RuntimeException e) {
+                continue; // Ride was deleted
+            }
+            if (isAvailable(ride, now)) {
+                SnapshotKey key = new SnapshotKey(ride);
+                fragments.put(key, objectMapper.writeValueAsBytes(ride));
+                keys.put(rideId, key);
+            }
+        }
+
+        snapshot = new Snapshot(fragments, keys, join(fragments), etag(++generation));
+    }
+
+    /**
+     * Same rule as RideRepository.findUpcomingRides
+     */
+    private boolean isAvailable(RideResponse ride, LocalDateTime now) {
+        return RideStatus.ACTIVE.name().equals(ride.getStatus())
+                && ride.getSeatsAvailable() > 0
+                && ride.getDateTime().isAfter(now);
+    }
+
+    private static String etag(long generation) {
+        return "\"a" + BOOT_ID + "-" + generation + "\"";
+    }
+
+    /**
+     * Concatenate fragments into one JSON array
+     */
+    private byte[] join(NavigableMap<SnapshotKey, byte[]> fragments) {
+        if (fragments.isEmpty()) {
+            return EMPTY_BODY;
+        }
+        int size = 1 + fragments.size();
+        for (byte[] fragment : fragments.values()) {
+            size += fragment.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        out.write('[');
+        boolean first = true;
+        for (byte[] fragment : fragments.values()) {
+            if (!first) {
+                out.write(',');
+            }
+            out.writeBytes(fragment);
+            first = false;
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    // Never modified after construction; writers build a new one
+    public static final class Snapshot {
+
+        private final NavigableMap<SnapshotKey, byte[]> fragments;
+        private final Map<Long, SnapshotKey> keys;
+        private final byte[] body;
+        private final String etag;
+
+        private Snapshot(NavigableMap<SnapshotKey, byte[]> fragments, Map<Long, SnapshotKey> keys, byte[] body, String etag) {
+            this.fragments = fragments;
+            this.keys = keys;
+            this.body = body;
+            this.etag = etag;
+        }
+
+        // JSON array of RideResponse objects; must not be modified
+        public byte[] getBody() {
+            return body;
+        }
+
+        // Strong ETag (quoted), unique per snapshot
+        public String getETag() {
+            return etag;
+        }
+    }
+
+    // Orders fragments like findUpcomingRides: by departure time, then by ID
+    private static final class SnapshotKey implements Comparable<SnapshotKey> {
+
+        private final LocalDateTime dateTime;
+        private final Long rideId;
+
+        private SnapshotKey(RideResponse ride) {
+            this.dateTime = ride.getDateTime();
+            this.rideId = ride.getId();
+        }
+
+        @Override
+        public int compareTo(SnapshotKey other) {
+            int byTime = dateTime.compareTo(other.dateTime);
+            return byTime != 0 ? byTime : rideId.compareTo(other.rideId);
+        }
+    }
+}
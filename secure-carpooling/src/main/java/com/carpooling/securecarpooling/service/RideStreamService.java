@@ -0,0 +1,216 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.dto.RideDelta;
+import com.carpooling.securecarpooling.event.RideChangedEvent;
+import com.carpooling.securecarpooling.model.RideStatus;
+import com.carpooling.securecarpooling.repository.RideRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes seat-count and status changes of subscribed rides over Server-Sent Events.
+ * An idle subscriber is only an async servlet response plus a small entry in the
+ * ride -> subscribers index; no thread is held while nothing changes.
+ * Each subscriber keeps at most one pending delta per ride: a newer state replaces
+ * one that has not been sent yet, so a slow client skips intermediate states
+ * instead of buffering every event.
+ */
+@Service
+public class RideStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(RideStreamService.class);
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    // How long a stream stays open before the client has to reconnect
+    @Value("${ride.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    // Threads that write pending deltas to subscribers
+    @Value("${ride.stream.sender-threads:4}")
+    private int senderThreads;
+
+    // Ride ID -> subscribers watching it
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private ExecutorService senders;
+
+    @PostConstruct
+    public void startSenders() {
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ride-stream-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stopSenders() {
+        senders.shutdownNow();
+    }
+
+    /**
+     * Open a stream for the given rides; their current state is sent first
+     * @param rideIds - Rides to watch
+     * @return Emitter for the async response
+     */
+    public SseEmitter subscribe(Collection<Long> rideIds) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(rideIds));
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        for (Long rideId : subscriber.rideIds) {
+            subscribers.computeIfAbsent(rideId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+        for (RideDelta delta : loadDeltas(subscriber.rideIds).values()) {
+            subscriber.offer(delta);
+        }
+        return emitter;
+    }
+
+    /**
+     * Number of open streams watching a ride
+     * @param rideId - Ride ID
+     * @return Subscriber count
+     */
+    public int subscriberCount(Long rideId) {
+        Set<Subscriber> watching = subscribers.get(rideId);
+        return watching == null ? 0 : watching.size();
+    }
+
+    /**
+     * Fan a committed ride change out to the streams watching it.
+     * The state of all changed rides is read with one query, and only if someone is watching.
+     * @param event - IDs of the rides that changed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRideChanged(RideChangedEvent event) {
+        if (event.isAll()) {
+            return; // Bulk imports only create rides nobody can have subscribed to yet
+        }
+        List<Long> watched = new ArrayList<>();
+        for (Long rideId : event.getRideIds()) {
+            if (subscriberCount(rideId) > 0) {
+                watched.add(rideId);
+            }
+        }
+        if (watched.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<Long, RideDelta> deltas = loadDeltas(watched);
+            for (Long rideId : watched) {
+                // A ride missing from the result was deleted
+                RideDelta delta = deltas.getOrDefault(rideId, new RideDelta(rideId, 0, "DELETED", Long.MAX_VALUE));
+                Set<Subscriber> watching = subscribers.get(rideId);
+                if (watching != null) {
+                    for (Subscriber subscriber : watching) {
+                        subscriber.offer(delta);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Ride stream update failed for {}: {}", event, e.getMessage());
+        }
+    }
+
+    private Map<Long, RideDelta> loadDeltas(Collection<Long> rideIds) {
+        Map<Long, RideDelta> deltas = new HashMap<>();
+        for (Object[] row : rideRepository.findSeatStates(rideIds)) {
+            Long rideId = (Long) row[0];
+            deltas.put(rideId, new RideDelta(rideId, (Integer) row[1], ((RideStatus) row[2]).name(), (Long) row[3]));
+        }
+        return deltas;
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<Long> rideIds;
+
+        // Latest unsent delta per ride, and the last version sent per ride
+        private final Map<Long, RideDelta> pending = new ConcurrentHashMap<>();
+        private final Map<Long, Long> sentVersions = new ConcurrentHashMap<>();
+
+        // True while a sender is scheduled or running for this subscriber
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, Set<Long> rideIds) {
+            this.emitter = emitter;
+            this.rideIds = rideIds;
+        }
+
+        private void offer(RideDelta delta) {
+            if (closed) {
+                return;
+            }
+            pending.merge(delta.getRideId(), delta,
+                    (queued, latest) -> latest.getVersion() >= queued.getVersion() ? latest : queued);
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!closed) {
+                    for (Long rideId : pending.keySet()) {
+                        RideDelta delta = pending.remove(rideId);
+                        Long sent = sentVersions.get(rideId);
+                        if (delta != null && (sent == null || delta.getVersion() > sent)) {
+                            emitter.send(SseEmitter.event()
+                                    .name("ride")
+                                    .data(delta, MediaType.APPLICATION_JSON));
+                            sentVersions.put(rideId, delta.getVersion());
+                        }
+                    }
+                    draining.set(false);
+                    // Pick up deltas offered after the loop above, unless their offer already scheduled a sender
+                    if (pending.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the servlet container completes the emitter
+                close();
+            }
+        }
+
+        private void close() {
+            closed = true;
+            pending.clear();
+            for (Long rideId : rideIds) {
+                subscribers.computeIfPresent(rideId, (id, watching) -> {
+                    watching.remove(this);
+                    return watching.isEmpty() ? null : watching;
+                });
+            }
+        }
+    }
+}
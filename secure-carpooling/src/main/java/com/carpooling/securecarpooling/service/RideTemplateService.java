@@ -0,0 +1,478 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.dto.CreateRideTemplateRequest;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.dto.RideTemplateResponse;
+import com.carpooling.securecarpooling.event.RideChangedEvent;
+import com.carpooling.securecarpooling.model.Ride;
+import com.carpooling.securecarpooling.model.RideStatus;
+import com.carpooling.securecarpooling.model.RideTemplate;
+import com.carpooling.securecarpooling.model.User;
+import com.carpooling.securecarpooling.repository.RideRepository;
+import com.carpooling.securecarpooling.repository.RideTemplateRepository;
+import com.carpooling.securecarpooling.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.logstash.logback.argument.StructuredArguments.v;
+
+/**
+ * Recurring rides. A template is priced and anchored on the blockchain once; its
+ * occurrences become ordinary rides only when they fall inside the rolling horizon.
+ * A search looking further ahead is shown the missing occurrences straight from the
+ * templates, and those templates are materialized in the background. Bookings, search
+ * and the lifecycle scheduler then treat them like any other ride.
+ */
+@Service
+public class RideTemplateService {
+
+    private static final Logger log = LoggerFactory.getLogger(RideTemplateService.class);
+
+    // Closest two occurrences of one template may be
+    private static final Duration MIN_INTERVAL = Duration.ofHours(1);
+
+    // Occurrences written per template per run; the rest follow on the next run
+    private static final int MAX_OCCURRENCES_PER_RUN = 500;
+
+    @Autowired
+    private RideTemplateRepository rideTemplateRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DistanceService distanceService;
+
+    @Autowired
+    private BlockchainService blockchainService;
+
+    @Autowired
+    private RideLifecycleService rideLifecycleService;
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // How far ahead occurrences always exist as rides
+    @Value("${ride.templates.horizon-days:14}")
+    private int horizonDays;
+
+    // How far ahead a search may make occurrences exist
+    @Value("${ride.templates.max-search-days:90}")
+    private int maxSearchDays;
+
+    // Rides written per flush; matches hibernate.jdbc.batch_size
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    // Serializes materialization inside this instance; the unique index covers other instances
+    private final Object materializeLock = new Object();
+
+    // Template ID -> latest departure a search asked for; drained by materializeRequested.
+    // One entry per template however often it is searched, so searches cannot queue up work
+    private final Map<Long, LocalDateTime> requested = new ConcurrentHashMap<>();
+
+    /**
+     * Create a recurring ride template and materialize its occurrences inside the horizon
+     * @param request - Route, schedule, seats and car details
+     * @param driverId - ID of the user offering the rides
+     * @return RideTemplateResponse with the saved template
+     * @throws RuntimeException if user not found or validation fails
+     */
+    public RideTemplateResponse createTemplate(CreateRideTemplateRequest request, Long driverId) {
+
+        // Find the driver
+        User driver = userRepository.findById(driverId)
+                .orElseThrow(() -> new RuntimeException("User not found with ID: " + driverId));
+
+        // Validate seats
+        if (request.getSeatsAvailable() < 1 || request.getSeatsAvailable() > 7) {
+            throw new RuntimeException("Seats should be between 1 and 7!");
+        }
+
+        // Validate schedule and dates
+        String schedule = normalizeSchedule(request.getSchedule());
+        LocalDate startsOn = request.getStartsOn() != null ? request.getStartsOn() : LocalDate.now();
+        if (startsOn.isBefore(LocalDate.now())) {
+            throw new RuntimeException("Start date must not be in the past!");
+        }
+        if (request.getEndsOn() != null && request.getEndsOn().isBefore(startsOn)) {
+            throw new RuntimeException("End date must not be before the start date!");
+        }
+
+        RideTemplate template = new RideTemplate(driver, request.getSource(), request.getDestination(), schedule,
+                request.getSeatsAvailable(), request.getCarModel(), request.getCarNumber(), request.getCarColor(),
+                startsOn, request.getEndsOn());
+
+        // Distance and price are shared by every occurrence
+        Double distance = distanceService.calculateDistance(request.getSource(), request.getDestination());
+        template.setDistanceKm(distance);
+        template.setPricePerSeat(distanceService.calculatePrice(distance, request.getSeatsAvailable()));
+
+        RideTemplate savedTemplate = rideTemplateRepository.save(template);
+
+        // ========== BLOCKCHAIN INTEGRATION ==========
+        // One anchor for the template instead of one transaction per occurrence
+        try {
+            String txHash = blockchainService.recordRideTemplate(
+                    savedTemplate.getId(),
+                    savedTemplate.getSource(),
+                    savedTemplate.getDestination(),
+                    savedTemplate.getSeats(),
+                    savedTemplate.getPricePerSeat()
+            );
+            savedTemplate.setBlockchainTxHash(txHash);
+            savedTemplate = rideTemplateRepository.save(savedTemplate);
+
+            log.debug("Ride template {} anchored on blockchain: {}", v("templateId", savedTemplate.getId()), txHash);
+        } catch (Exception e) {
+            log.warn("Blockchain recording failed (template {} still saved in DB): {}", v("templateId", savedTemplate.getId()), e.getMessage());
+        }
+        // ============================================
+
+        Long templateId = savedTemplate.getId();
+        synchronized (materializeLock) {
+            transactionTemplate.executeWithoutResult(status -> materialize(templateId, horizonEnd()));
+        }
+
+        return convertToTemplateResponse(rideTemplateRepository.findById(templateId).orElseThrow());
+    }
+
+    /**
+     * Get templates created by a specific driver
+     * @param driverId - Driver's user ID
+     * @return List of driver's templates
+     */
+    public List<RideTemplateResponse> getMyTemplates(Long driverId) {
+        List<RideTemplateResponse> responseList = new ArrayList<>();
+        for (RideTemplate template : rideTemplateRepository.findByDriverId(driverId)) {
+            responseList.add(convertToTemplateResponse(template));
+        }
+        return responseList;
+    }
+
+    /**
+     * Stop a template; future occurrences nobody has booked yet are cancelled
+     * @param templateId - Template ID
+     * @param driverId - Driver's user ID
+     * @return Success message
+     * @throws RuntimeException if validation fails
+     */
+    @Transactional
+    public String cancelTemplate(Long templateId, Long driverId) {
+        RideTemplate template = rideTemplateRepository.findById(templateId)
+                .orElseThrow(() -> new RuntimeException("Ride template not found with ID: " + templateId));
+
+        if (!template.getDriver().getId().equals(driverId)) {
+            throw new RuntimeException("Only the driver can cancel this ride template!");
+        }
+        if (!template.getActive()) {
+            throw new RuntimeException("Ride template is already cancelled!");
+        }
+
+        template.setActive(false);
+        rideTemplateRepository.save(template);
+
+        List<Long> rideIds = rideRepository.findUnbookedTemplateRides(templateId, LocalDateTime.now());
+        int cancelled = rideIds.isEmpty() ? 0 : rideRepository.cancelActiveRides(rideIds);
+        if (!rideIds.isEmpty()) {
+            eventPublisher.publishEvent(new RideChangedEvent(rideIds));
+        }
+
+        return "Ride template cancelled successfully! " + cancelled + " upcoming ride(s) have been cancelled.";
+    }
+
+    @Scheduled(fixedDelayString = "${ride.templates.tick-ms:3600000}")
+    public void extendHorizon() {
+        try {
+            int ended = rideTemplateRepository.deactivateEnded(LocalDate.now());
+            if (ended > 0) {
+                log.info("Deactivated {} ride template(s) past their end date", v("templates", ended));
+            }
+            materializeUntil(horizonEnd());
+        } catch (Exception e) {
+            log.warn("Ride template horizon extension failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Occurrences in a departure window that do not exist as rides yet, built from their templates
+     * without writing anything. They have no ride ID; the templates are queued for materialization,
+     * so a later search returns them as bookable rides.
+     * @param source - Route source, or null for all routes
+     * @param destination - Route destination, or null for all routes
+     * @param departAfter - Earliest departure, or null for now
+     * @param departBefore - Latest departure; capped at ride.templates.max-search-days
+     * @return Occurrences ordered by template, then departure
+     */
+    @Transactional(readOnly = true)
+    public List<RideResponse> previewOccurrences(String source, String destination,
+                                                 LocalDateTime departAfter, LocalDateTime departBefore) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime limit = now.plusDays(maxSearchDays);
+        LocalDateTime end = departBefore.isAfter(limit) ? limit : departBefore;
+        List<RideTemplate> templates = source == null || destination == null
+                ? rideTemplateRepository.findToMaterialize(end)
+                : rideTemplateRepository.findToMaterializeOnRoute(end, source, destination);
+
+        List<RideResponse> occurrences = new ArrayList<>();
+        for (RideTemplate template : templates) {
+            LocalDateTime from = template.getMaterializedUntil();
+            if (departAfter != null && departAfter.isAfter(from)) {
+                from = departAfter.minusNanos(1);
+            }
+            if (now.isAfter(from)) {
+                from = now;
+            }
+            CronExpression cron = CronExpression.parse(template.getSchedule());
+            LocalDateTime last = departureLimit(template, end);
+            for (LocalDateTime departure = cron.next(from); departure != null && departure.isBefore(last);
+                 departure = cron.next(departure)) {
+                occurrences.add(convertToOccurrenceResponse(template, departure));
+            }
+            requested.merge(template.getId(), end, (a, b) -> a.isAfter(b) ? a : b);
+        }
+        return occurrences;
+    }
+
+    /**
+     * Materialize the templates searches have asked for, each at most once per run
+     */
+    @Scheduled(fixedDelayString = "${ride.templates.request-tick-ms:5000}")
+    public void materializeRequested() {
+        for (Long templateId : new ArrayList<>(requested.keySet())) {
+            LocalDateTime until = requested.remove(templateId);
+            if (until != null) {
+                synchronized (materializeLock) {
+                    materializeOne(templateId, until);
+                }
+            }
+        }
+    }
+
+    /**
+     * Make sure every template occurrence up to the given time exists as a ride
+     * @param until - Latest departure needed
+     */
+    private void materializeUntil(LocalDateTime until) {
+        synchronized (materializeLock) {
+            for (Long templateId : rideTemplateRepository.findIdsToMaterialize(until)) {
+                materializeOne(templateId, until);
+            }
+        }
+    }
+
+    /**
+     * Materialize one template in its own transaction; the caller holds materializeLock
+     * @param templateId - Template ID
+     * @param until - Latest departure to create
+     */
+    private void materializeOne(Long templateId, LocalDateTime until) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> materialize(templateId, until));
+        } catch (Exception e) {
+            // Another instance got there first; its rides are already in the table
+            log.info("Ride template {} could not be materialized: {}", v("templateId", templateId), e.getMessage());
+        }
+    }
+
+    /**
+     * Create the rides of one template between where it stopped last time and the given time
+     * @param templateId - Template ID
+     * @param until - Latest departure to create
+     * @return Number of rides created
+     */
+    private int materialize(Long templateId, LocalDateTime until) {
+        RideTemplate template = rideTemplateRepository.findById(templateId).orElse(null);
+        if (template == null || !template.getActive() || !template.getMaterializedUntil().isBefore(until)) {
+            return 0;
+        }
+
+        CronExpression cron = CronExpression.parse(template.getSchedule());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = template.getMaterializedUntil().isAfter(now) ? template.getMaterializedUntil() : now;
+        LocalDateTime last = departureLimit(template, until);
+
+        List<Ride> batch = new ArrayList<>(batchSize);
+        List<Long> rideIds = new ArrayList<>();
+        LocalDateTime reached = until;
+        for (LocalDateTime departure = cron.next(from); departure != null && departure.isBefore(last);
+             departure = cron.next(departure)) {
+            if (rideIds.size() + batch.size() == MAX_OCCURRENCES_PER_RUN) {
+                reached = departure.minusSeconds(1);
+                break;
+            }
+            Ride ride = template.newOccurrence(departure);
+            entityManager.persist(ride);
+            batch.add(ride);
+            if (batch.size() == batchSize) {
+                flushOccurrences(batch, rideIds);
+            }
+        }
+        flushOccurrences(batch, rideIds);
+
+        template.setMaterializedUntil(reached);
+        rideTemplateRepository.save(template);
+
+        if (!rideIds.isEmpty()) {
+            eventPublisher.publishEvent(new RideChangedEvent(rideIds));
+            pricingService.recordOffer(template.getSource(), template.getDestination(), rideIds.size() * template.getSeats());
+        }
+        return rideIds.size();
+    }
+
+    /**
+     * Write pending occurrences and hand them to the lifecycle scheduler
+     * @param batch - Rides persisted since the last flush
+     * @param rideIds - Collects the IDs of written rides
+     */
+    private void flushOccurrences(List<Ride> batch, List<Long> rideIds) {
+        entityManager.flush();
+        for (Ride ride : batch) {
+            rideLifecycleService.track(ride);
+            rideIds.add(ride.getId());
+        }
+        batch.clear();
+    }
+
+    /**
+     * Departures of a template must come before this, given its end date
+     * @param template - Ride template
+     * @param until - Departure bound wanted (exclusive)
+     * @return The earlier of until and the start of the day after the template ends
+     */
+    private static LocalDateTime departureLimit(RideTemplate template, LocalDateTime until) {
+        if (template.getEndsOn() != null && template.getEndsOn().plusDays(1).atStartOfDay().isBefore(until)) {
+            return template.getEndsOn().plusDays(1).atStartOfDay();
+        }
+        return until;
+    }
+
+    private LocalDateTime horizonEnd() {
+        return LocalDateTime.now().plusDays(horizonDays);
+    }
+
+    /**
+     * Validate a schedule; a 5-field Unix cron line is accepted and gets seconds = 0
+     * @param schedule - Cron expression from the request
+     * @return Schedule in Spring's 6-field form
+     * @throws RuntimeException if the expression is invalid, never fires or fires too often
+     */
+    static String normalizeSchedule(String schedule) {
+        if (schedule == null || schedule.trim().isEmpty()) {
+            throw new RuntimeException("Schedule is required!");
+        }
+        String normalized = schedule.trim().replaceAll("\\s+", " ");
+        if (normalized.split(" ").length == 5) {
+            normalized = "0 " + normalized;
+        }
+
+        CronExpression cron;
+        try {
+            cron = CronExpression.parse(normalized);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid schedule: " + e.getMessage());
+        }
+
+        LocalDateTime previous = cron.next(LocalDateTime.now());
+        if (previous == null) {
+            throw new RuntimeException("Schedule never fires!");
+        }
+        for (int i = 0; i < 24; i++) {
+            LocalDateTime next = cron.next(previous);
+            if (next == null) {
+                break;
+            }
+            if (Duration.between(previous, next).compareTo(MIN_INTERVAL) < 0) {
+                throw new RuntimeException("Rides must be at least one hour apart!");
+            }
+            previous = next;
+        }
+        return normalized;
+    }
+
+    /**
+     * Describe an occurrence of a template that is not a ride yet
+     * @param template - RideTemplate entity
+     * @param departure - Departure of the occurrence
+     * @return RideResponse without a ride ID
+     */
+    private RideResponse convertToOccurrenceResponse(RideTemplate template, LocalDateTime departure) {
+        RideResponse response = new RideResponse();
+        response.setDriverId(template.getDriver().getId());
+        response.setDriverName(template.getDriver().getName());
+        response.setDriverPhone(template.getDriver().getPhone());
+        response.setDriverRating(template.getDriver().getRating());
+        response.setSource(template.getSource());
+        response.setDestination(template.getDestination());
+        response.setDateTime(departure);
+        response.setSeatsAvailable(template.getSeats());
+        response.setTotalSeats(template.getSeats());
+        response.setCarModel(template.getCarModel());
+        response.setCarNumber(template.getCarNumber());
+        response.setCarColor(template.getCarColor());
+        response.setDistanceKm(template.getDistanceKm());
+        response.setPricePerSeat(template.getPricePerSeat());
+        response.setQuotedPricePerSeat(pricingService.quote(template.getSource(), template.getDestination(),
+                template.getPricePerSeat()));
+        response.setStops(List.of(template.getSource(), template.getDestination()));
+        response.setTemplateId(template.getId());
+        response.setStatus(RideStatus.ACTIVE.name());
+        return response;
+    }
+
+    /**
+     * Convert RideTemplate entity to RideTemplateResponse DTO
+     * @param template - RideTemplate entity
+     * @return RideTemplateResponse DTO
+     */
+    private RideTemplateResponse convertToTemplateResponse(RideTemplate template) {
+        RideTemplateResponse response = new RideTemplateResponse();
+        response.setId(template.getId());
+        response.setDriverId(template.getDriver().getId());
+        response.setSource(template.getSource());
+        response.setDestination(template.getDestination());
+        response.setSchedule(template.getSchedule());
+        response.setSeats(template.getSeats());
+        response.setCarModel(template.getCarModel());
+        response.setCarNumber(template.getCarNumber());
+        response.setCarColor(template.getCarColor());
+        response.setDistanceKm(template.getDistanceKm());
+        response.setPricePerSeat(template.getPricePerSeat());
+        response.setStartsOn(template.getStartsOn());
+        response.setEndsOn(template.getEndsOn());
+        response.setMaterializedUntil(template.getMaterializedUntil());
+        response.setActive(template.getActive());
+        response.setBlockchainTxHash(template.getBlockchainTxHash());
+        return response;
+    }
+}
@@ -0,0 +1,218 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.event.RideChangedEvent;
+import com.carpooling.securecarpooling.model.RideStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory index of available rides ordered by departure time, one skip list per
+ * route plus one over all routes, so a departure-window search is a range scan:
+ * O(log n + k) for k results, without touching the database. A ride with waypoints is
+ * listed under every ordered pair of its stops, so a route search finds the same rides
+ * as RideService.searchRides.
+ * Kept current from RideChangedEvent like RideSnapshotService; readers never lock.
+ */
+@Service
+public class RideTimeIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RideTimeIndex.class);
+
+    @Autowired
+    private RideService rideService;
+
+    // Route key (any two stops of a ride, in route order) -> rides passing them by departure
+    private final Map<String, NavigableMap<TimeKey, RideResponse>> byRoute = new ConcurrentHashMap<>();
+
+    // All routes by departure
+    private final NavigableMap<TimeKey, RideResponse> allRoutes = new ConcurrentSkipListMap<>();
+
+    // Ride ID -> indexed entry, for removal
+    private final Map<Long, RideResponse> indexed = new ConcurrentHashMap<>();
+
+    /**
+     * Available rides departing inside a window, earliest first
+     * @param source - Starting location, or null for any route
+     * @param destination - Ending location, or null for any route
+     * @param departAfter - Earliest departure (inclusive), or null for now
+     * @param departBefore - Latest departure (inclusive), or null for no limit
+     * @return Matching rides ordered by departure time
+     */
+    public List<RideResponse> search(String source, String destination,
+                                     LocalDateTime departAfter, LocalDateTime departBefore) {
+        NavigableMap<TimeKey, RideResponse> rides = source != null && destination != null
+                ? byRoute.get(routeKey(source, destination))
+                : allRoutes;
+        List<RideResponse> result = new ArrayList<>();
+        if (rides == null) {
+            return result;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = departAfter == null || departAfter.isBefore(now) ? now : departAfter;
+        NavigableMap<TimeKey, RideResponse> window = departBefore == null
+                ? rides.tailMap(new TimeKey(from, Long.MIN_VALUE), true)
+                : rides.subMap(new TimeKey(from, Long.MIN_VALUE), true, new TimeKey(departBefore, Long.MAX_VALUE), true);
+        for (RideResponse ride : window.values()) {
+            if (ride.getDateTime().isAfter(now)
+                    && (rides == allRoutes || ride.hasFreeSeats(source, destination))) {
+                result.add(ride);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fill the index once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Ride time index could not be built: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-index the changed rides after their transaction has committed
+     * @param event - IDs of the rides that changed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRideChanged(RideChangedEvent event) {
+        try {
+            if (event.isAll()) {
+                rebuild();
+            } else {
+                apply(event);
+            }
+        } catch (Exception e) {
+            log.warn("Ride time index update failed for {}: {}", event, e.getMessage());
+        }
+    }
+
+    private synchronized void rebuild() {
+        Map<Long, RideResponse> available = new HashMap<>();
+        for (RideResponse ride : rideService.getAvailableRides()) {
+            available.put(ride.getId(), ride);
+        }
+        for (RideResponse ride : new ArrayList<>(indexed.values())) {
+            if (!available.containsKey(ride.getId())) {
+                remove(ride);
+            }
+        }
+        available.values().forEach(this::upsert);
+    }
+
+    private synchronized void apply(RideChangedEvent event) {
+        Map<Long, RideResponse> changed = new HashMap<>();
+        for (RideResponse ride : rideService.getRidesByIds(event.getRideIds())) {
+            changed.put(ride.getId(), ride);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Long rideId : event.getRideIds()) {
+            RideResponse ride = changed.get(rideId);
+            if (ride != null
+                    && RideStatus.ACTIVE.name().equals(ride.getStatus())
+                    && ride.getSeatsAvailable() > 0
+                    && ride.getDateTime().isAfter(now)) {
+                upsert(ride);
+            } else if (indexed.containsKey(rideId)) {
+                remove(indexed.get(rideId)); // Deleted, full, departed or no longer active
+            }
+        }
+    }
+
+    /**
+     * Insert or replace a ride; the new entry is visible before the old one goes away,
+     * so concurrent searches never miss it
+     */
+    private void upsert(RideResponse ride) {
+        RideResponse previous = indexed.get(ride.getId());
+        TimeKey key = new TimeKey(ride.getDateTime(), ride.getId());
+        Set<String> routes = routeKeys(ride);
+        for (String route : routes) {
+            byRoute.computeIfAbsent(route, any -> new ConcurrentSkipListMap<>()).put(key, ride);
+        }
+        allRoutes.put(key, ride);
+        indexed.put(ride.getId(), ride);
+
+        if (previous != null) {
+            TimeKey previousKey = new TimeKey(previous.getDateTime(), previous.getId());
+            boolean moved = previousKey.compareTo(key) != 0;
+            for (String route : routeKeys(previous)) {
+                // Same key on a route the ride still passes: the entry was just replaced
+                if (moved || !routes.contains(route)) {
+                    byRoute.get(route).remove(previousKey);
+                }
+            }
+            if (moved) {
+                allRoutes.remove(previousKey);
+            }
+        }
+    }
+
+    private void remove(RideResponse ride) {
+        TimeKey key = new TimeKey(ride.getDateTime(), ride.getId());
+        for (String route : routeKeys(ride)) {
+            NavigableMap<TimeKey, RideResponse> rides = byRoute.get(route);
+            if (rides != null) {
+                rides.remove(key);
+            }
+        }
+        allRoutes.remove(key);
+        indexed.remove(ride.getId());
+    }
+
+    // Every ordered pair of stops, source and destination included
+    private static Set<String> routeKeys(RideResponse ride) {
+        List<String> stops = ride.getStops() != null ? ride.getStops() : List.of(ride.getSource(), ride.getDestination());
+        Set<String> keys = new HashSet<>();
+        for (int from = 0; from < stops.size(); from++) {
+            for (int to = from + 1; to < stops.size(); to++) {
+                keys.add(routeKey(stops.get(from), stops.get(to)));
+            }
+        }
+        return keys;
+    }
+
+    // Exact match, like RideRepository.findActiveRidesByRoute and findActiveRidesPassing
+    private static String routeKey(String source, String destination) {
+        return source + "\u0000" + destination;
+    }
+
+    // Orders rides by departure time, then by ID
+    private static final class TimeKey implements Comparable<TimeKey> {
+
+        private final LocalDateTime dateTime;
+        private final long rideId;
+
+        private TimeKey(LocalDateTime dateTime, long rideId) {
+            this.dateTime = dateTime;
+            this.rideId = rideId;
+        }
+
+        @Override
+        public int compareTo(TimeKey other) {
+            int byTime = dateTime.compareTo(other.dateTime);
+            return byTime != 0 ? byTime : Long.compare(rideId, other.rideId);
+        }
+    }
+}
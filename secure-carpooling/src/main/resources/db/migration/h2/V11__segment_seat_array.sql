@@ -0,0 +1,22 @@
+-- Per-segment seats move from ride_stops onto the ride as one array, so booking a segment
+-- updates a single row and leaves the stops (and their cache entries) untouched.
+-- seats_available of a ride with waypoints becomes the most free seats on any segment,
+-- so the ride stays listed while part of its route can still be booked.
+
+ALTER TABLE rides ADD COLUMN segment_seats INTEGER ARRAY;
+
+UPDATE rides SET segment_seats = (
+    SELECT ARRAY_AGG(s.seats_to_next ORDER BY s.stop_index)
+    FROM ride_stops s
+    WHERE s.ride_id = rides.id AND s.seats_to_next IS NOT NULL
+) WHERE stop_count > 2;
+
+UPDATE rides SET seats_available = (
+    SELECT MAX(s.seats_to_next) FROM ride_stops s WHERE s.ride_id = rides.id
+) WHERE stop_count > 2;
+
+ALTER TABLE ride_stops DROP COLUMN seats_to_next;
+
+-- Waypoint search: rides passing both stops, boarding before alighting
+CREATE INDEX IF NOT EXISTS idx_ride_stops_name
+    ON ride_stops (name, ride_id, stop_index);
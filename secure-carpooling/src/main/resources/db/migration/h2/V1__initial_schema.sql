@@ -0,0 +1,44 @@
+-- Initial schema, matching what ddl-auto=update produced for the entities.
+-- Databases created before migrations were introduced are baselined at this version.
+
+CREATE TABLE users (
+    id          BIGINT       NOT NULL PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL,
+    email       VARCHAR(255) NOT NULL UNIQUE,
+    phone       VARCHAR(255) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    id_proof    VARCHAR(255),
+    role        VARCHAR(255) NOT NULL,
+    rating      FLOAT(53)    NOT NULL,
+    total_rides INTEGER,
+    created_at  TIMESTAMP(6)
+);
+
+CREATE TABLE rides (
+    id                 BIGINT       NOT NULL PRIMARY KEY,
+    driver_id          BIGINT       NOT NULL REFERENCES users (id),
+    source             VARCHAR(255) NOT NULL,
+    destination        VARCHAR(255) NOT NULL,
+    date_time          TIMESTAMP(6) NOT NULL,
+    seats_available    INTEGER      NOT NULL,
+    total_seats        INTEGER      NOT NULL,
+    car_model          VARCHAR(255) NOT NULL,
+    car_number         VARCHAR(255) NOT NULL,
+    car_color          VARCHAR(255) NOT NULL,
+    distance_km        FLOAT(53),
+    price_per_seat     FLOAT(53),
+    status             VARCHAR(255) NOT NULL,
+    blockchain_tx_hash VARCHAR(255),
+    created_at         TIMESTAMP(6)
+);
+
+CREATE TABLE bookings (
+    id                 BIGINT       NOT NULL PRIMARY KEY,
+    ride_id            BIGINT       NOT NULL REFERENCES rides (id),
+    passenger_id       BIGINT       NOT NULL REFERENCES users (id),
+    seats_booked       INTEGER      NOT NULL,
+    total_amount       FLOAT(53)    NOT NULL,
+    status             VARCHAR(255) NOT NULL,
+    blockchain_tx_hash VARCHAR(255),
+    booked_at          TIMESTAMP(6)
+);
@@ -0,0 +1,27 @@
+-- Indexes for the RideRepository and BookingRepository queries.
+-- H2 has no partial or INCLUDE indexes, so the PostgreSQL partial indexes become
+-- plain composite indexes over the same columns and keep the same names.
+
+CREATE INDEX IF NOT EXISTS idx_rides_status_seats
+    ON rides (status, seats_available);
+
+CREATE INDEX IF NOT EXISTS idx_rides_route
+    ON rides (source, destination, status);
+
+CREATE INDEX IF NOT EXISTS idx_rides_active_route
+    ON rides (source, destination, status, seats_available, date_time);
+
+CREATE INDEX IF NOT EXISTS idx_rides_upcoming
+    ON rides (status, date_time, seats_available);
+
+CREATE INDEX IF NOT EXISTS idx_rides_driver
+    ON rides (driver_id, status);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_ride_passenger_status
+    ON bookings (ride_id, passenger_id, status);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_passenger
+    ON bookings (passenger_id, status);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_status
+    ON bookings (status, total_amount);
@@ -0,0 +1,42 @@
+-- Store ride and booking status as SMALLINT codes (RideStatus / BookingStatus).
+-- H2 has no ALTER ... USING, so the codes go into a new column that replaces the old one.
+
+DROP INDEX IF EXISTS idx_rides_status_seats;
+DROP INDEX IF EXISTS idx_rides_route;
+DROP INDEX IF EXISTS idx_rides_active_route;
+DROP INDEX IF EXISTS idx_rides_upcoming;
+DROP INDEX IF EXISTS idx_rides_driver;
+DROP INDEX IF EXISTS idx_bookings_ride_passenger_status;
+DROP INDEX IF EXISTS idx_bookings_passenger;
+DROP INDEX IF EXISTS idx_bookings_status;
+
+ALTER TABLE rides ADD COLUMN status_code SMALLINT;
+UPDATE rides SET status_code = CASE status
+    WHEN 'ACTIVE' THEN 0
+    WHEN 'IN_PROGRESS' THEN 1
+    WHEN 'COMPLETED' THEN 2
+    WHEN 'CANCELLED' THEN 3
+    WHEN 'EXPIRED' THEN 4
+END;
+ALTER TABLE rides DROP COLUMN status;
+ALTER TABLE rides ALTER COLUMN status_code RENAME TO status;
+ALTER TABLE rides ALTER COLUMN status SET NOT NULL;
+
+ALTER TABLE bookings ADD COLUMN status_code SMALLINT;
+UPDATE bookings SET status_code = CASE status
+    WHEN 'CONFIRMED' THEN 0
+    WHEN 'COMPLETED' THEN 1
+    WHEN 'CANCELLED' THEN 2
+END;
+ALTER TABLE bookings DROP COLUMN status;
+ALTER TABLE bookings ALTER COLUMN status_code RENAME TO status;
+ALTER TABLE bookings ALTER COLUMN status SET NOT NULL;
+
+CREATE INDEX idx_rides_status_seats ON rides (status, seats_available);
+CREATE INDEX idx_rides_route ON rides (source, destination, status);
+CREATE INDEX idx_rides_active_route ON rides (source, destination, status, seats_available, date_time);
+CREATE INDEX idx_rides_upcoming ON rides (status, date_time, seats_available);
+CREATE INDEX idx_rides_driver ON rides (driver_id, status);
+CREATE INDEX idx_bookings_ride_passenger_status ON bookings (ride_id, passenger_id, status);
+CREATE INDEX idx_bookings_passenger ON bookings (passenger_id, status);
+CREATE INDEX idx_bookings_status ON bookings (status, total_amount);
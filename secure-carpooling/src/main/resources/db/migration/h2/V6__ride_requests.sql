@@ -0,0 +1,23 @@
+-- Passenger ride requests, assigned to rides by the matching engine.
+-- status: 0 = OPEN, 1 = MATCHED, 2 = CANCELLED, 3 = EXPIRED
+
+CREATE SEQUENCE IF NOT EXISTS ride_requests_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE ride_requests (
+    id                  BIGINT       NOT NULL PRIMARY KEY,
+    passenger_id        BIGINT       NOT NULL REFERENCES users (id),
+    source              VARCHAR(255) NOT NULL,
+    destination         VARCHAR(255) NOT NULL,
+    earliest_departure  TIMESTAMP(6) NOT NULL,
+    latest_departure    TIMESTAMP(6) NOT NULL,
+    seats_needed        INTEGER      NOT NULL,
+    max_price_per_seat  FLOAT(53),
+    status              SMALLINT     NOT NULL,
+    booking_id          BIGINT       REFERENCES bookings (id),
+    version             BIGINT       NOT NULL DEFAULT 0,
+    created_at          TIMESTAMP(6)
+);
+
+-- Matching cycle: open requests that can still depart
+CREATE INDEX idx_ride_requests_open ON ride_requests (status, latest_departure);
+CREATE INDEX idx_ride_requests_passenger ON ride_requests (passenger_id);
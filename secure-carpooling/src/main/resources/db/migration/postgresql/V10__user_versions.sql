@@ -0,0 +1,3 @@
+-- Row version for users, so ETags of rides and bookings change when the driver's details do.
+
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,10 @@
+-- Sequences backing the pooled-lo ID generators (allocationSize = 50).
+-- Each one starts after the highest ID already handed out by the old IDENTITY columns.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS rides_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+SELECT setval('rides_seq', COALESCE((SELECT MAX(id) FROM rides), 0) + 1, false);
+SELECT setval('bookings_seq', COALESCE((SELECT MAX(id) FROM bookings), 0) + 1, false);
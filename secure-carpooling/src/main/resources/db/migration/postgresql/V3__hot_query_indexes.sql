@@ -0,0 +1,37 @@
+-- Indexes for the RideRepository and BookingRepository queries.
+-- Partial indexes carry the literal predicates of the JPQL queries, so they stay small
+-- (only bookable rides) and the planner can match them without a recheck.
+
+-- findByStatusAndSeatsAvailableGreaterThan, findByStatus, findLifecycleSchedule (index-only)
+CREATE INDEX IF NOT EXISTS idx_rides_status_seats
+    ON rides (status, seats_available) INCLUDE (date_time);
+
+-- findBySourceAndDestination
+CREATE INDEX IF NOT EXISTS idx_rides_route
+    ON rides (source, destination, status);
+
+-- findActiveRidesByRoute
+CREATE INDEX IF NOT EXISTS idx_rides_active_route
+    ON rides (source, destination, date_time)
+    WHERE status = 'ACTIVE' AND seats_available > 0;
+
+-- findUpcomingRides (range on date_time, already in ORDER BY order)
+CREATE INDEX IF NOT EXISTS idx_rides_upcoming
+    ON rides (date_time)
+    WHERE status = 'ACTIVE' AND seats_available > 0;
+
+-- findByDriverId, findActiveRidesByDriver, findBookingsByDriver (join side)
+CREATE INDEX IF NOT EXISTS idx_rides_driver
+    ON rides (driver_id, status);
+
+-- existsByRideIdAndPassengerId (index-only), findByRideId, bulk status updates by ride
+CREATE INDEX IF NOT EXISTS idx_bookings_ride_passenger_status
+    ON bookings (ride_id, passenger_id, status);
+
+-- findByPassengerId, findConfirmedBookingsByPassenger
+CREATE INDEX IF NOT EXISTS idx_bookings_passenger
+    ON bookings (passenger_id, status);
+
+-- findByStatus (dashboard counts and revenue)
+CREATE INDEX IF NOT EXISTS idx_bookings_status
+    ON bookings (status) INCLUDE (total_amount);
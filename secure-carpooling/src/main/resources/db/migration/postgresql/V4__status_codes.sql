@@ -0,0 +1,34 @@
+-- Store ride and booking status as SMALLINT codes (RideStatus / BookingStatus).
+-- Partial indexes reference the old text literals, so they are dropped and rebuilt
+-- around the type change; plain indexes are rebuilt by ALTER TYPE itself.
+
+DROP INDEX IF EXISTS idx_rides_active_route;
+DROP INDEX IF EXISTS idx_rides_upcoming;
+
+ALTER TABLE rides
+    ALTER COLUMN status TYPE SMALLINT USING CASE status
+        WHEN 'ACTIVE' THEN 0
+        WHEN 'IN_PROGRESS' THEN 1
+        WHEN 'COMPLETED' THEN 2
+        WHEN 'CANCELLED' THEN 3
+        WHEN 'EXPIRED' THEN 4
+    END;
+
+ALTER TABLE bookings
+    ALTER COLUMN status TYPE SMALLINT USING CASE status
+        WHEN 'CONFIRMED' THEN 0
+        WHEN 'COMPLETED' THEN 1
+        WHEN 'CANCELLED' THEN 2
+    END;
+
+ALTER TABLE rides ADD CONSTRAINT ck_rides_status CHECK (status BETWEEN 0 AND 4);
+ALTER TABLE bookings ADD CONSTRAINT ck_bookings_status CHECK (status BETWEEN 0 AND 2);
+
+-- status 0 = ACTIVE
+CREATE INDEX idx_rides_active_route
+    ON rides (source, destination, date_time)
+    WHERE status = 0 AND seats_available > 0;
+
+CREATE INDEX idx_rides_upcoming
+    ON rides (date_time)
+    WHERE status = 0 AND seats_available > 0;
@@ -0,0 +1,4 @@
+-- Row versions for optimistic locking and ETags; bumped on every change to the row.
+
+ALTER TABLE rides ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE bookings ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,17 @@
+-- Intermediate stops and per-segment seat inventory.
+-- Rides keep stop_count = 2 (source and destination only) and no ride_stops rows unless
+-- the driver adds waypoints; bookings without from_stop/to_stop cover the whole route.
+
+ALTER TABLE rides ADD COLUMN stop_count INTEGER NOT NULL DEFAULT 2;
+
+CREATE TABLE ride_stops (
+    ride_id       BIGINT       NOT NULL REFERENCES rides (id),
+    stop_index    INTEGER      NOT NULL,
+    name          VARCHAR(255) NOT NULL,
+    distance_km   FLOAT(53)    NOT NULL,
+    seats_to_next INTEGER,
+    PRIMARY KEY (ride_id, stop_index)
+);
+
+ALTER TABLE bookings ADD COLUMN from_stop INTEGER;
+ALTER TABLE bookings ADD COLUMN to_stop INTEGER;
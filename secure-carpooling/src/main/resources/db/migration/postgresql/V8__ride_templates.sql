@@ -0,0 +1,35 @@
+-- Recurring ride templates. Concrete rides are materialized from the schedule only up to
+-- a rolling horizon (or further when a search asks for it); materialized_until records how
+-- far each template has been expanded. Occurrences share the template's distance, price
+-- and blockchain anchor.
+
+CREATE SEQUENCE IF NOT EXISTS ride_templates_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE ride_templates (
+    id                  BIGINT       NOT NULL PRIMARY KEY,
+    driver_id           BIGINT       NOT NULL REFERENCES users (id),
+    source              VARCHAR(255) NOT NULL,
+    destination         VARCHAR(255) NOT NULL,
+    schedule            VARCHAR(120) NOT NULL,
+    seats               INTEGER      NOT NULL,
+    car_model           VARCHAR(255) NOT NULL,
+    car_number          VARCHAR(255) NOT NULL,
+    car_color           VARCHAR(255) NOT NULL,
+    distance_km         FLOAT(53)    NOT NULL,
+    price_per_seat      FLOAT(53)    NOT NULL,
+    starts_on           DATE         NOT NULL,
+    ends_on             DATE,
+    materialized_until  TIMESTAMP(6) NOT NULL,
+    active              BOOLEAN      NOT NULL DEFAULT TRUE,
+    blockchain_tx_hash  VARCHAR(255),
+    version             BIGINT       NOT NULL DEFAULT 0,
+    created_at          TIMESTAMP(6)
+);
+
+-- Horizon extension: active templates not yet expanded far enough
+CREATE INDEX idx_ride_templates_horizon ON ride_templates (materialized_until) WHERE active;
+CREATE INDEX idx_ride_templates_driver ON ride_templates (driver_id);
+
+-- Each occurrence is materialized once, whoever gets there first
+ALTER TABLE rides ADD COLUMN template_id BIGINT REFERENCES ride_templates (id);
+CREATE UNIQUE INDEX uq_rides_template_departure ON rides (template_id, date_time) WHERE template_id IS NOT NULL;
@@ -0,0 +1,4 @@
+-- Extra kilometres a driver accepts to pick up and drop off passengers who are not on
+-- the route; NULL means the ride only serves its own route.
+
+ALTER TABLE rides ADD COLUMN max_detour_km FLOAT(53);
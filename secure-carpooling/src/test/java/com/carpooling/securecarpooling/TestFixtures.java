@@ -0,0 +1,83 @@
+package com.carpooling.securecarpooling;
+
+import com.carpooling.securecarpooling.dto.CreateRideRequest;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.model.User;
+import com.carpooling.securecarpooling.repository.UserRepository;
+import com.carpooling.securecarpooling.service.RideService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Users and rides for integration tests. Every call gets a fresh email, phone number and
+ * car number, so tests sharing a database never collide.
+ */
+@Component
+public class TestFixtures {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RideService rideService;
+
+    /**
+     * Save a user with the USER role
+     * @param name - Display name
+     * @return Saved user
+     */
+    public User user(String name) {
+        int n = SEQUENCE.incrementAndGet();
+        String email = name.toLowerCase().replace(' ', '-') + "-" + n + "@example.com";
+        return userRepository.save(new User(name, email, String.format("9%09d", n), "x", "ID-" + n));
+    }
+
+    /**
+     * Save a user with the ADMIN role
+     * @param name - Display name
+     * @return Saved user
+     */
+    public User admin(String name) {
+        User admin = user(name);
+        admin.setRole("ADMIN");
+        return userRepository.save(admin);
+    }
+
+    /**
+     * Offer a ride departing this time tomorrow
+     * @param driver - Saved driver
+     * @param source - Starting location
+     * @param destination - Ending location
+     * @param seats - Seats offered
+     * @return Created ride
+     */
+    public RideResponse ride(User driver, String source, String destination, int seats) {
+        return ride(driver, source, destination, seats, LocalDateTime.now().plusDays(1));
+    }
+
+    /**
+     * Offer a ride
+     * @param driver - Saved driver
+     * @param source - Starting location
+     * @param destination - Ending location
+     * @param seats - Seats offered
+     * @param departure - Departure time, in the future
+     * @param stops - Intermediate stops in route order
+     * @return Created ride
+     */
+    public RideResponse ride(User driver, String source, String destination, int seats,
+                             LocalDateTime departure, String... stops) {
+        CreateRideRequest request = new CreateRideRequest(source, destination, departure, seats,
+                "Swift", "FIX-" + SEQUENCE.incrementAndGet(), "Grey");
+        if (stops.length > 0) {
+            request.setStops(List.of(stops));
+        }
+        return rideService.createRide(request, driver.getId());
+    }
+}
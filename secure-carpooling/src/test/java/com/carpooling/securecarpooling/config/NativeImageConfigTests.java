@@ -0,0 +1,48 @@
+package com.carpooling.securecarpooling.config;
+
+import com.carpooling.securecarpooling.model.Ride;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.web3j.abi.datatypes.generated.Uint160;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.math.BigInteger;
+import java.sql.PreparedStatement;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeImageConfigTests {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeImageConfigTests() {
+        new NativeImageConfig.Hints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void entitiesAndAbiTypesAreReflective() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Ride.class)
+                .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                .test(hints));
+        // TypeDecoder builds numbers through their BigInteger constructor
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(Uint256.class.getConstructor(BigInteger.class)).invoke().test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onConstructor(Uint160.class.getConstructor(BigInteger.class)).invoke().test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(TransactionReceipt.class, "setTransactionHash").invoke().test(hints));
+    }
+
+    @Test
+    void jdbcProxiesAndResourcesAreRegistered() {
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(ProxyJdbcObject.class, PreparedStatement.class)
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/h2/V1__initial_schema.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("ehcache.xml").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("road-network.csv").test(hints));
+    }
+}
@@ -0,0 +1,82 @@
+package com.carpooling.securecarpooling.controller;
+
+import com.carpooling.securecarpooling.TestFixtures;
+import com.carpooling.securecarpooling.dto.CreateRideRequest;
+import com.carpooling.securecarpooling.model.User;
+import com.carpooling.securecarpooling.service.RideService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Bytes sent and request-thread CPU time for clients polling GET /api/rides/available,
+ * with and without If-None-Match, while nothing changes.
+ * Run with: mvn test -Pbenchmark -Dtest=ConditionalGetBenchmarkTests
+ */
+@Tag("benchmark")
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetBenchmarkTests {
+
+    private static final int POLLS = 2000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void pollingWithIfNoneMatchSavesBandwidthAndCpu() throws Exception {
+        User driver = fixtures.user("Poll Driver");
+        List<CreateRideRequest> schedule = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            schedule.add(new CreateRideRequest("Pollpur", "Etagnagar",
+                    LocalDateTime.now().plusDays(1).plusMinutes(i), 4, "Innova", "POLL-" + i, "White"));
+        }
+        rideService.importRides(schedule, driver.getId());
+        String etag = mockMvc.perform(get("/api/rides/available")).andReturn().getResponse().getHeader("ETag");
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long[] plain = poll(threads, null);
+        long[] conditional = poll(threads, etag);
+
+        assertEquals(0, conditional[0]);
+        // Every unconditional poll carries all 200 rides, at well over 100 bytes each
+        assertTrue(plain[0] / POLLS > 200 * 100, "unconditional: " + plain[0] / POLLS + " bytes/poll");
+        assertTrue(conditional[1] < plain[1], String.format("CPU/poll: %.1f us with If-None-Match, %.1f us without",
+                conditional[1] / 1000.0 / POLLS, plain[1] / 1000.0 / POLLS));
+    }
+
+    private long[] poll(ThreadMXBean threads, String etag) throws Exception {
+        long bytes = 0;
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < POLLS; i++) {
+            MockHttpServletRequestBuilder request = get("/api/rides/available");
+            if (etag != null) {
+                request.header("If-None-Match", etag);
+            }
+            bytes += mockMvc.perform(request).andReturn().getResponse().getContentAsByteArray().length;
+        }
+        return new long[]{bytes, threads.getCurrentThreadCpuTime() - cpuStart};
+    }
+}
@@ -0,0 +1,90 @@
+package com.carpooling.securecarpooling.controller;
+
+import com.carpooling.securecarpooling.TestFixtures;
+import com.carpooling.securecarpooling.dto.BookRideRequest;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.model.User;
+import com.carpooling.securecarpooling.service.AdminService;
+import com.carpooling.securecarpooling.service.BookingService;
+import com.carpooling.securecarpooling.service.RideService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void unchangedResourcesAnswer304AndChangesRotateTheETag() throws Exception {
+        User driver = fixtures.user("Etag Driver");
+        User passenger = fixtures.user("Etag Passenger");
+        RideResponse ride = fixtures.ride(driver, "Etagpur", "Cachenagar", 3);
+
+        String rideUrl = "/api/rides/" + ride.getId();
+        String rideTag = assertRevalidates(get(rideUrl));
+        String availableTag = assertRevalidates(get("/api/rides/available"));
+        String bookingsTag = assertRevalidates(get("/api/bookings/my-bookings").header("userId", passenger.getId()));
+
+        // A booking changes the seat count, the listing and the passenger's bookings
+        bookingService.bookRide(new BookRideRequest(ride.getId(), 1), passenger.getId());
+        assertNotEquals(rideTag, assertRevalidates(get(rideUrl)));
+        assertNotEquals(availableTag, assertRevalidates(get("/api/rides/available")));
+        String bookedTag = assertRevalidates(get("/api/bookings/my-bookings").header("userId", passenger.getId()));
+        assertNotEquals(bookingsTag, bookedTag);
+
+        // A change to the driver, whose details both responses show, rotates both ETags
+        String driverRideTag = assertRevalidates(get(rideUrl));
+        adminService.updateUserRole(driver.getId(), "ADMIN");
+        assertNotEquals(driverRideTag, assertRevalidates(get(rideUrl)));
+        String driverBookingsTag = assertRevalidates(get("/api/bookings/my-bookings").header("userId", passenger.getId()));
+        assertNotEquals(bookedTag, driverBookingsTag);
+
+        // A bulk update on the ride is visible through the bookings ETag too
+        rideService.completeRide(ride.getId(), driver.getId());
+        assertNotEquals(driverBookingsTag, assertRevalidates(get("/api/bookings/my-bookings").header("userId", passenger.getId())));
+    }
+
+    /**
+     * Fetch a resource, then repeat the request with its ETag and expect an empty 304
+     * @return The ETag of the resource
+     */
+    private String assertRevalidates(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult first = mockMvc.perform(request).andReturn();
+        assertEquals(200, first.getResponse().getStatus());
+        String etag = first.getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        MvcResult second = mockMvc.perform(request.header("If-None-Match", etag)).andReturn();
+        assertEquals(304, second.getResponse().getStatus());
+        assertEquals(etag, second.getResponse().getHeader("ETag"));
+        assertEquals(0, second.getResponse().getContentAsByteArray().length);
+        return etag;
+    }
+}
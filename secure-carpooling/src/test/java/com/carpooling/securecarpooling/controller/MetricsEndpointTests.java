@@ -0,0 +1,84 @@
+package com.carpooling.securecarpooling.controller;
+
+import com.carpooling.securecarpooling.TestFixtures;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.model.User;
+import com.carpooling.securecarpooling.service.RideService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void prometheusEndpointExposesServiceQueryChainAndContentionMeters() throws Exception {
+        User driver = fixtures.user("Metrics Driver");
+        User passenger = fixtures.user("Metrics Passenger");
+        RideResponse ride = fixtures.ride(driver, "Metricpur", "Gaugenagar", 2);
+
+        mockMvc.perform(get("/api/rides/search").param("source", "Metricpur").param("destination", "Gaugenagar"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/bookings/book").header("userId", passenger.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rideId\":" + ride.getId() + ",\"seatsBooked\":2}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/bookings/book").header("userId", fixtures.user("Metrics Late").getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rideId\":" + ride.getId() + ",\"seatsBooked\":1}"))
+                .andExpect(status().isBadRequest());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertMetric(scrape, "carpooling_service_seconds_count{", "class=\"RideService\"", "method=\"createRide\"");
+        assertMetric(scrape, "carpooling_db_statements_count{", "uri=\"/api/rides/search\"");
+        assertMetric(scrape, "carpooling_db_time_seconds_count{", "uri=\"/api/rides/search\"");
+        assertMetric(scrape, "carpooling_blockchain_send_seconds_count{", "function=\"createRide\"", "outcome=\"success\"");
+        assertMetric(scrape, "carpooling_seats_contention_total{", "operation=\"bookRide\"", "type=\"sold_out\"");
+    }
+
+    @Test
+    void metricsEndpointsRefuseClientsOutsideTheScrapeAddresses() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(fromAddress("10.20.30.40"))).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics/carpooling.service").with(fromAddress("10.20.30.40")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/health").with(fromAddress("10.20.30.40"))).andExpect(status().is(not(403)));
+    }
+
+    private static RequestPostProcessor fromAddress(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
+    private static void assertMetric(String scrape, String name, String... labels) {
+        boolean found = Arrays.stream(scrape.split("\n"))
+                .anyMatch(line -> line.startsWith(name) && Arrays.stream(labels).allMatch(line::contains));
+        assertTrue(found, name + " with " + Arrays.toString(labels) + " not in scrape");
+    }
+}
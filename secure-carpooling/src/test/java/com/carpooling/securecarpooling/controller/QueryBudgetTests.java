@@ -0,0 +1,125 @@
+package com.carpooling.securecarpooling.controller;
+
+import com.carpooling.securecarpooling.TestFixtures;
+import com.carpooling.securecarpooling.dto.BookRideRequest;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.metrics.QueryBudgetExceededException;
+import com.carpooling.securecarpooling.metrics.QueryBudgetInterceptor;
+import com.carpooling.securecarpooling.metrics.QueryCounter;
+import com.carpooling.securecarpooling.model.User;
+import com.carpooling.securecarpooling.repository.UserRepository;
+import com.carpooling.securecarpooling.service.BookingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.carpooling.securecarpooling.metrics.QueryCountAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class QueryBudgetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void endpointsExecuteTheirPinnedStatementCounts() throws Exception {
+        User driver = fixtures.user("Budget Driver");
+        User passenger = fixtures.user("Budget Passenger");
+        RideResponse ride = fixtures.ride(driver, "Budgetpur", "Quotanagar", 3);
+        bookingService.bookRide(new BookRideRequest(ride.getId(), 1), passenger.getId());
+
+        String rideUrl = "/api/rides/" + ride.getId();
+        // ETag version check; the ride itself comes from the second-level cache
+        assertStatementCount(1, () -> mockMvc.perform(get(rideUrl)).andExpect(status().isOk()));
+        // Rides starting and ending there, then rides passing both as waypoints
+        assertStatementCount(2, () -> mockMvc.perform(get("/api/rides/search")
+                .param("source", "Budgetpur").param("destination", "Quotanagar")).andExpect(status().isOk()));
+        assertStatementCount(2, () -> mockMvc.perform(get("/api/bookings/my-bookings")
+                .header("userId", passenger.getId())).andExpect(status().isOk()));
+
+        User second = fixtures.user("Budget Second");
+        // Booking, then after commit the anchor reloads it and stores the transaction hash
+        assertStatementCount(6, () -> mockMvc.perform(post("/api/bookings/book").header("userId", second.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"rideId\":" + ride.getId() + ",\"seatsBooked\":1}")).andExpect(status().isOk()));
+
+        // Known N+1: two counting queries per user, after the admin check and the user list; the admin
+        // is evicted from the second-level cache so the check is always one select
+        Long adminId = fixtures.admin("Budget Admin").getId();
+        long users = userRepository.count();
+        entityManagerFactory.getCache().evict(User.class, adminId);
+        assertStatementCount(2 + 2 * users, () -> mockMvc.perform(get("/api/admin/users/stats")
+                .header("userId", adminId)).andExpect(status().isOk()));
+    }
+
+    @Test
+    void requestsRefusedByTheBudgetAnswerServiceUnavailableWithoutTheDetails() throws Exception {
+        User passenger = fixtures.user("Budget Refused");
+        QueryCounter.setBudget(1, 10_000);
+        try {
+            String body = mockMvc.perform(get("/api/bookings/my-bookings").header("userId", passenger.getId()))
+                    .andExpect(status().isServiceUnavailable())
+                    .andReturn().getResponse().getContentAsString();
+            assertFalse(body.contains("statement"), body);
+        } finally {
+            QueryCounter.clearBudget();
+        }
+    }
+
+    @Test
+    void statementsOverBudgetAreRefused() {
+        long users = userRepository.count();
+        QueryCounter.setBudget(1, 10_000);
+        boolean refused;
+        try {
+            assertEquals(users, userRepository.count());
+            assertThrows(QueryBudgetExceededException.class, () -> userRepository.count());
+        } finally {
+            refused = QueryCounter.clearBudget();
+        }
+        assertTrue(refused);
+        assertEquals(users, userRepository.count());
+    }
+
+    @Test
+    void asyncRequestsLeaveNoBudgetOnTheRequestThread() {
+        QueryBudgetInterceptor interceptor = new QueryBudgetInterceptor(new SimpleMeterRegistry(), 1, 10_000, true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/rides/stream");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, null);
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+
+        // The thread serves its next request without the stream's budget
+        long users = userRepository.count();
+        assertEquals(users, userRepository.count());
+    }
+}
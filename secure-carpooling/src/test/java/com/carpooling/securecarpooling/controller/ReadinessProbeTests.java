@@ -0,0 +1,34 @@
+package com.carpooling.securecarpooling.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReadinessProbeTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void readinessFollowsTheBackgroundBlockchainCheck() throws Exception {
+        // The first check runs right after startup; until then the probe answers 503 at once
+        int status = 0;
+        for (int i = 0; i < 250 && status != 200; i++) {
+            status = mockMvc.perform(get("/actuator/health/readiness")).andReturn().getResponse().getStatus();
+            if (status != 200) {
+                assertEquals(503, status);
+                Thread.sleep(20);
+            }
+        }
+        assertEquals(200, status, "Readiness never came up");
+    }
+}
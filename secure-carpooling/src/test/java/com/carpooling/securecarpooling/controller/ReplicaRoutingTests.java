@@ -0,0 +1,171 @@
+package com.carpooling.securecarpooling.controller;
+
+import com.carpooling.securecarpooling.TestFixtures;
+import com.carpooling.securecarpooling.dto.BookRideRequest;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.model.Ride;
+import com.carpooling.securecarpooling.model.User;
+import com.carpooling.securecarpooling.service.BookingService;
+import com.carpooling.securecarpooling.service.RideService;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two in-memory H2 databases in PostgreSQL mode as primary and replica. The replica has the schema
+ * but never receives the primary's rows, i.e. it lags indefinitely, so where a read went shows in
+ * its result.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.replica.jdbc-url=" + ReplicaRoutingTests.REPLICA_URL,
+        "spring.datasource.replica.username=sa",
+        "spring.datasource.replica.password=",
+        "spring.datasource.replica.driver-class-name=org.h2.Driver",
+        "datasource.routing.pin-ms=60000"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingTests {
+
+    static final String REPLICA_URL =
+            "jdbc:h2:mem:carpooling_replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private RideService rideService;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/migration/h2").load().migrate();
+    }
+
+    @Test
+    void readOnlyServiceReadsGoToTheReplicaUntilTheUserWrites() throws Exception {
+        User driver = fixtures.user("Replica Driver");
+        User passenger = fixtures.user("Replica Passenger");
+        User other = fixtures.user("Replica Other");
+        RideResponse ride = fixtures.ride(driver, "Replicapur", "Laggaon", 3);
+
+        // Read-only service method: the replica, which has no rides yet
+        mockMvc.perform(get("/api/rides/my-rides").header("userId", driver.getId()))
+                .andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(0)));
+        // Not a read-only service transaction: the primary
+        mockMvc.perform(get("/api/rides/" + ride.getId())).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/bookings/book").header("userId", passenger.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rideId\":" + ride.getId() + ",\"seatsBooked\":1}"))
+                .andExpect(status().isOk());
+
+        // The passenger has written, so reads their booking from the primary; others still read the replica
+        mockMvc.perform(get("/api/bookings/my-bookings").header("userId", passenger.getId()))
+                .andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(get("/api/bookings/my-bookings").header("userId", other.getId()))
+                .andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(0)));
+
+        assertTrue(meterRegistry.counter("carpooling.db.connections", "target", "replica").count() >= 2);
+        assertTrue(meterRegistry.counter("carpooling.db.connections", "target", "primary").count() >= 1);
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", "primary").gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", "replica").gauge());
+    }
+
+    @Test
+    void driverSeesTheirRideInTheListingRightAfterCreatingIt() throws Exception {
+        User driver = fixtures.user("Replica Creator");
+        String body = "{\"source\":\"Freshpur\",\"destination\":\"Newnagar\",\"dateTime\":\""
+                + LocalDateTime.now().plusDays(1).withNano(0) + "\",\"seatsAvailable\":3,"
+                + "\"carModel\":\"Swift\",\"carNumber\":\"REP-1\",\"carColor\":\"Red\"}";
+        String created = mockMvc.perform(post("/api/rides/create").header("userId", driver.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        Number rideId = JsonPath.read(created, "$.id");
+
+        // The listing is shared by everyone, so it is built from the primary, never from the lagging replica
+        mockMvc.perform(get("/api/rides/available").header("userId", driver.getId()))
+                .andExpect(status().isOk()).andExpect(jsonPath("$[?(@.id == " + rideId + ")]", hasSize(1)));
+        mockMvc.perform(get("/api/rides/my-rides").header("userId", driver.getId()))
+                .andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void replicaReadsDoNotFillTheSecondLevelCache() throws Exception {
+        User driver = fixtures.user("Replica Stale Driver");
+        RideResponse ride = fixtures.ride(driver, "Stalepur", "Oldnagar", 3);
+        // The replica has caught up on the ride, then the first seat is booked on the primary only
+        JdbcTemplate primary = new JdbcTemplate(dataSource);
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        copy(primary, replica, "users", "id", driver.getId());
+        copy(primary, replica, "rides", "id", ride.getId());
+        copy(primary, replica, "ride_stops", "ride_id", ride.getId());
+        bookingService.bookRide(new BookRideRequest(ride.getId(), 1), fixtures.user("Replica Stale Passenger").getId());
+        entityManagerFactory.getCache().evictAll();
+
+        // Another user's search reads the old ride from the replica, but must not cache it
+        mockMvc.perform(get("/api/rides/search").param("source", "Stalepur").param("destination", "Oldnagar"))
+                .andExpect(status().isOk()).andExpect(jsonPath("$[0].seatsAvailable").value(3));
+        assertFalse(entityManagerFactory.getCache().contains(Ride.class, ride.getId()));
+        assertEquals(2, rideService.getRideById(ride.getId()).getSeatsAvailable());
+    }
+
+    @Test
+    void loginRightAfterRegistrationReadsThePrimary() throws Exception {
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Replica New\",\"email\":\"replica-new@example.com\",\"phone\":\"5400000004\","
+                                + "\"password\":\"secret1\",\"idProof\":\"N1\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"replica-new@example.com\",\"password\":\"secret1\"}"))
+                .andExpect(status().isOk());
+    }
+
+    private static void copy(JdbcTemplate from, JdbcTemplate to, String table, String key, Long id) {
+        for (Map<String, Object> row : from.queryForList("SELECT * FROM " + table + " WHERE " + key + " = ?", id)) {
+            String columns = String.join(", ", row.keySet());
+            String values = String.join(", ", Collections.nCopies(row.size(), "?"));
+            to.update("INSERT INTO " + table + " (" + columns + ") VALUES (" + values + ")", row.values().toArray());
+        }
+    }
+}
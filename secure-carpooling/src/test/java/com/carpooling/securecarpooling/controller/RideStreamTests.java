@@ -0,0 +1,78 @@
+package com.carpooling.securecarpooling.controller;
+
+import com.carpooling.securecarpooling.TestFixtures;
+import com.carpooling.securecarpooling.dto.BookRideRequest;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.model.User;
+import com.carpooling.securecarpooling.service.BookingService;
+import com.carpooling.securecarpooling.service.RideService;
+import com.carpooling.securecarpooling.service.RideStreamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+class RideStreamTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private RideStreamService rideStreamService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void streamPushesCurrentStateThenBookingAndCompletion() throws Exception {
+        User driver = fixtures.user("Stream Driver");
+        User passenger = fixtures.user("Stream Passenger");
+        RideResponse ride = fixtures.ride(driver, "Streamnagar", "Ssepur", 3);
+
+        MvcResult stream = mockMvc.perform(get("/api/rides/stream").param("rideIds", ride.getId().toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = stream.getResponse();
+        awaitContent(response, "\"seatsAvailable\":3");
+        assertEquals(1, rideStreamService.subscriberCount(ride.getId()));
+
+        bookingService.bookRide(new BookRideRequest(ride.getId(), 2), passenger.getId());
+        awaitContent(response, "\"seatsAvailable\":1");
+
+        rideService.completeRide(ride.getId(), driver.getId());
+        awaitContent(response, "\"status\":\"COMPLETED\"");
+        assertTrue(response.getContentAsString().startsWith("event:ride\ndata:{\"rideId\":" + ride.getId()));
+    }
+
+    @Test
+    void emptyRideListIsRejected() throws Exception {
+        mockMvc.perform(get("/api/rides/stream").param("rideIds", "")).andExpect(status().isBadRequest());
+    }
+
+    private void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!response.getContentAsString().contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(response.getContentAsString().contains(expected), response.getContentAsString());
+    }
+}
@@ -0,0 +1,43 @@
+package com.carpooling.securecarpooling.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CategorySamplingFilterTests {
+
+    private final LoggerContext context = new LoggerContext();
+
+    @Test
+    void longestCategoryDecidesAndWarningsAreAlwaysKept() {
+        CategorySamplingFilter filter = new CategorySamplingFilter();
+        filter.setCategories("com.example=0, com.example.chatty.Service=1.0 ,com.example.half=0.5");
+
+        Logger muted = context.getLogger("com.example.quiet.Job");
+        Logger kept = context.getLogger("com.example.chatty.Service");
+        Logger other = context.getLogger("org.example.Other");
+        Logger half = context.getLogger("com.example.half.Task");
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(FilterReply.DENY, filter.decide(null, muted, Level.INFO, "tick {}", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, muted, Level.WARN, "failed", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, kept, Level.INFO, "sent {}", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, other, Level.DEBUG, "x", null, null));
+        }
+        // Level checks (no message) are not sampled
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, muted, Level.INFO, null, null, null));
+
+        int passed = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.decide(null, half, Level.INFO, "x", null, null) == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+        assertTrue(passed > 4_000 && passed < 6_000, "kept " + passed + " of 10000 at rate 0.5");
+    }
+}
@@ -0,0 +1,83 @@
+package com.carpooling.securecarpooling.matching;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * One matching cycle over 50k open requests and 20k rides spread over 50 routes and a day.
+ * Run with: mvn test -Pbenchmark -Dtest=MatchingEngineBenchmarkTests
+ */
+@Tag("benchmark")
+class MatchingEngineBenchmarkTests {
+
+    private static final int REQUESTS = 50_000;
+    private static final int RIDES = 20_000;
+    private static final int ROUTES = 50;
+
+    // One cycle takes about a second on a single core
+    private static final long MAX_CYCLE_MILLIS = 10_000;
+
+    @Test
+    void fiftyThousandRequestsAgainstTwentyThousandRides() {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        List<MatchableRide> rides = new ArrayList<>(RIDES);
+        Map<Long, Integer> seats = new HashMap<>();
+        for (int i = 0; i < RIDES; i++) {
+            int route = i % ROUTES;
+            int seatCount = 1 + random.nextInt(4);
+            rides.add(new MatchableRide(i, 1_000_000 + i, "City" + route, "Town" + route,
+                    start.plusMinutes(random.nextInt(24 * 60)), seatCount, 200 + random.nextInt(600)));
+            seats.put((long) i, seatCount);
+        }
+        List<MatchableRequest> requests = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            int route = random.nextInt(ROUTES);
+            LocalDateTime earliest = start.plusMinutes(random.nextInt(24 * 60));
+            requests.add(new MatchableRequest(i, i, "City" + route, "Town" + route,
+                    earliest, earliest.plusMinutes(30 + random.nextInt(90)),
+                    random.nextInt(10) == 0 ? 2 : 1, random.nextInt(5) == 0 ? 400.0 : null));
+        }
+
+        int sequentialMatches = -1;
+        for (int parallelism : new int[]{1, Runtime.getRuntime().availableProcessors()}) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            MatchingEngine engine = new MatchingEngine(pool);
+            engine.match(rides, requests); // warm-up
+
+            long startNanos = System.nanoTime();
+            List<Match> matches = engine.match(rides, requests);
+            long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            pool.shutdown();
+
+            Set<Long> matchedRequests = new HashSet<>();
+            Map<Long, Integer> used = new HashMap<>();
+            for (Match match : matches) {
+                assertTrue(matchedRequests.add(match.getRequestId()));
+                used.merge(match.getRideId(), match.getSeats(), Integer::sum);
+            }
+            used.forEach((rideId, taken) -> assertTrue(taken <= seats.get(rideId)));
+
+            assertTrue(elapsedMillis <= MAX_CYCLE_MILLIS, "parallelism " + parallelism + ": " + elapsedMillis + " ms");
+            // Partitioning by route must not change the outcome
+            if (sequentialMatches < 0) {
+                sequentialMatches = matches.size();
+            }
+            assertEquals(sequentialMatches, matches.size(), "matches at parallelism " + parallelism);
+        }
+    }
+}
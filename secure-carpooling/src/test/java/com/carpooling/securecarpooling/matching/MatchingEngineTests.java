@@ -0,0 +1,70 @@
+package com.carpooling.securecarpooling.matching;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatchingEngineTests {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private final MatchingEngine engine = new MatchingEngine(ForkJoinPool.commonPool());
+
+    @Test
+    void prefersTheAssignmentThatServesEveryone() {
+        // Greedy would give the 12:00 ride to request 1 (its perfect fit) and leave request 2 unserved
+        List<MatchableRide> rides = List.of(
+                ride(10, NOON, 1),
+                ride(11, NOON.plusMinutes(30), 1));
+        List<MatchableRequest> requests = List.of(
+                request(1, NOON.minusMinutes(30), NOON.plusMinutes(30), 1, null),
+                request(2, NOON.minusMinutes(30), NOON.plusMinutes(5), 1, null));
+
+        Map<Long, Long> assigned = byRequest(engine.match(rides, requests));
+
+        assertEquals(Map.of(1L, 11L, 2L, 10L), assigned);
+    }
+
+    @Test
+    void respectsWindowSeatsBudgetAndRoute() {
+        List<MatchableRide> rides = List.of(
+                ride(10, NOON, 3),
+                new MatchableRide(11, 99, "Mumbai", "Pune", NOON, 4, 100.0));
+        List<MatchableRequest> requests = List.of(
+                request(1, NOON.plusMinutes(10), NOON.plusHours(1), 1, null), // window misses the ride
+                request(2, NOON.minusHours(1), NOON.plusHours(1), 2, null),
+                request(3, NOON.minusHours(1), NOON.plusHours(1), 2, null),   // only 1 seat left after request 2
+                request(4, NOON.minusHours(1), NOON.plusHours(1), 1, 100.0),  // over budget
+                request(5, NOON.minusHours(1), NOON.plusHours(1), 1, null));
+
+        Map<Long, Long> assigned = byRequest(engine.match(rides, requests));
+
+        assertEquals(2, assigned.size());
+        assertEquals(10L, assigned.get(5L));
+        assertTrue(assigned.containsKey(2L) || assigned.containsKey(3L));
+    }
+
+    private static MatchableRide ride(long id, LocalDateTime departure, int seats) {
+        return new MatchableRide(id, 99, "Chennai", "Bangalore", departure, seats, 700.0);
+    }
+
+    private static MatchableRequest request(long id, LocalDateTime earliest, LocalDateTime latest,
+                                            int seats, Double maxPrice) {
+        return new MatchableRequest(id, 1000 + id, " chennai", "BANGALORE ", earliest, latest, seats, maxPrice);
+    }
+
+    private static Map<Long, Long> byRequest(List<Match> matches) {
+        Map<Long, Long> assigned = new HashMap<>();
+        for (Match match : matches) {
+            assigned.put(match.getRequestId(), match.getRideId());
+        }
+        return assigned;
+    }
+}
@@ -0,0 +1,48 @@
+package com.carpooling.securecarpooling.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pins the number of JDBC statements a piece of code executes, e.g. one MockMvc request,
+ * so an N+1 slipping into an endpoint fails its test. Counts what QueryCounter sees on the
+ * calling thread, which is where MockMvc runs the request.
+ */
+public final class QueryCountAssertions {
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private QueryCountAssertions() {
+    }
+
+    /**
+     * @param expected - Statements the action must execute
+     * @param action - Code to measure
+     * @return Statements and database time of the action
+     */
+    public static QueryStats assertStatementCount(long expected, Action action) throws Exception {
+        QueryStats stats = measure(action);
+        assertEquals(expected, stats.getStatements(), "Statements executed (" + stats + ")");
+        return stats;
+    }
+
+    /**
+     * @param max - Statements the action may execute at most
+     * @param action - Code to measure
+     * @return Statements and database time of the action
+     */
+    public static QueryStats assertMaxStatementCount(long max, Action action) throws Exception {
+        QueryStats stats = measure(action);
+        assertTrue(stats.getStatements() <= max, "Expected at most " + max + " statement(s), got " + stats);
+        return stats;
+    }
+
+    public static QueryStats measure(Action action) throws Exception {
+        QueryStats before = QueryCounter.snapshot();
+        action.run();
+        return QueryCounter.snapshot().since(before);
+    }
+}
@@ -0,0 +1,43 @@
+package com.carpooling.securecarpooling.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SlidingWindowCounterTests {
+
+    @Test
+    void eventsLeaveTheWindowAfterItsLength() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(10);
+        counter.add(100, 3);
+        counter.add(105, 2);
+        assertEquals(5, counter.sum(105));
+        assertEquals(5, counter.sum(109));
+        assertEquals(2, counter.sum(110)); // Minute 100 is out of the window
+
+        counter.add(115, 1); // Reuses minute 105's bucket
+        assertEquals(1, counter.sum(115));
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws Exception {
+        SlidingWindowCounter counter = new SlidingWindowCounter(60);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    counter.add(1_000 + i % 3, 1);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(800_000, counter.sum(1_002));
+    }
+}
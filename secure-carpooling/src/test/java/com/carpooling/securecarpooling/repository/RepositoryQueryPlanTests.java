@@ -0,0 +1,155 @@
+package com.carpooling.securecarpooling.repository;
+
+import com.carpooling.securecarpooling.model.BookingStatus;
+import com.carpooling.securecarpooling.model.RideStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the SQL behind each hot repository query is answered from the index
+ * created for it in db/migration, using H2's EXPLAIN output as the plan.
+ * Status literals are the SMALLINT codes: ride 0 = ACTIVE, 1 = IN_PROGRESS;
+ * booking 0 = CONFIRMED, 1 = COMPLETED.
+ * The tables are filled with a skewed sample and analyzed first, because on empty
+ * tables every index costs the same and the optimizer picks arbitrarily.
+ * <p>
+ * The plans are H2's, over the H2 migrations, which keep the PostgreSQL index names but
+ * cannot express partial or INCLUDE indexes:
+ * <ul>
+ *     <li>idx_rides_status_seats INCLUDEs date_time on PostgreSQL and answers findLifecycleSchedule
+ *     index-only; on H2 it is (status, seats_available), and that query uses idx_rides_upcoming</li>
+ *     <li>idx_rides_active_route and idx_rides_upcoming are partial on PostgreSQL (status = 0 AND
+ *     seats_available &gt; 0); on H2 the predicate columns are leading key columns instead</li>
+ *     <li>idx_bookings_status INCLUDEs total_amount on PostgreSQL; on H2 it is a second key column</li>
+ * </ul>
+ * A passing plan here therefore does not prove the PostgreSQL plan; check that with EXPLAIN
+ * on PostgreSQL when changing the postgresql migrations.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTests {
+
+    private static final String[] CITIES = {
+            "Chennai", "Bangalore", "Mumbai", "Pune", "Delhi", "Agra", "Hyderabad", "Vijayawada", "Kolkata", "Durgapur"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void fillSample() {
+        List<Long> userIds = new ArrayList<>();
+        for (int u = 0; u < 50; u++) {
+            Long id = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR users_seq", Long.class);
+            jdbcTemplate.update("INSERT INTO users (id, name, email, phone, password, role, rating, total_rides) " +
+                    "VALUES (?, ?, ?, ?, 'x', 'USER', 5.0, 0)", id, "Plan User " + u, "plan" + u + "@example.com", "8" + u);
+            userIds.add(id);
+        }
+
+        // Many routes and mostly finished rides; only a few are still bookable, as in production
+        List<Object[]> rides = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().minusDays(60);
+        for (int i = 0; i < 2000; i++) {
+            Long id = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR rides_seq", Long.class);
+            short status = i % 50 == 0 ? RideStatus.ACTIVE.getCode() : RideStatus.COMPLETED.getCode();
+            rides.add(new Object[]{id, userIds.get(i % userIds.size()), CITIES[i % CITIES.length],
+                    CITIES[(i / CITIES.length) % CITIES.length], Timestamp.valueOf(start.plusHours(i)), i % 4, status});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO rides (id, driver_id, source, destination, date_time, seats_available, " +
+                "total_seats, car_model, car_number, car_color, status) VALUES (?, ?, ?, ?, ?, ?, 4, 'Car', 'TN', 'White', ?)", rides);
+
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 0; i < rides.size(); i++) {
+            Long id = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR bookings_seq", Long.class);
+            short status = i % 13 == 0 ? BookingStatus.CONFIRMED.getCode() : BookingStatus.COMPLETED.getCode();
+            bookings.add(new Object[]{id, rides.get(i)[0], userIds.get((i + 1) % userIds.size()), status});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, ride_id, passenger_id, seats_booked, total_amount, status) " +
+                "VALUES (?, ?, ?, 1, 100.0, ?)", bookings);
+
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    void clearSample() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE passenger_id IN (SELECT id FROM users WHERE email LIKE 'plan%')");
+        jdbcTemplate.update("DELETE FROM rides WHERE driver_id IN (SELECT id FROM users WHERE email LIKE 'plan%')");
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'plan%'");
+    }
+
+    @Test
+    void availableRidesUseStatusSeatsIndex() {
+        assertIndexUsed("idx_rides_status_seats",
+                "SELECT * FROM rides r WHERE r.status = 0 AND r.seats_available > 0");
+    }
+
+    @Test
+    void lifecycleScheduleUsesStatusLeadingIndex() {
+        // H2's covering index for this query; PostgreSQL uses idx_rides_status_seats (see class comment)
+        assertIndexUsed("idx_rides_upcoming",
+                "SELECT r.id, r.date_time, r.status FROM rides r WHERE r.status IN (0, 1)");
+    }
+
+    @Test
+    void routeSearchUsesRouteIndex() {
+        assertIndexUsed("idx_rides_route",
+                "SELECT * FROM rides r WHERE r.source = 'Chennai' AND r.destination = 'Bangalore'");
+    }
+
+    @Test
+    void activeRouteSearchUsesActiveRouteIndex() {
+        assertIndexUsed("idx_rides_active_route",
+                "SELECT * FROM rides r WHERE r.source = 'Chennai' AND r.destination = 'Bangalore' " +
+                        "AND r.status = 0 AND r.seats_available > 0 AND r.date_time > CURRENT_TIMESTAMP");
+    }
+
+    @Test
+    void upcomingRidesUseUpcomingIndex() {
+        assertIndexUsed("idx_rides_upcoming",
+                "SELECT * FROM rides r WHERE r.date_time > CURRENT_TIMESTAMP AND r.status = 0 " +
+                        "AND r.seats_available > 0 ORDER BY r.date_time ASC");
+    }
+
+    @Test
+    void driverRidesUseDriverIndex() {
+        assertIndexUsed("idx_rides_driver",
+                "SELECT * FROM rides r WHERE r.driver_id = 1 AND r.status = 0");
+    }
+
+    @Test
+    void duplicateBookingCheckUsesRidePassengerIndex() {
+        assertIndexUsed("idx_bookings_ride_passenger_status",
+                "SELECT COUNT(*) FROM bookings b WHERE b.ride_id = 1 AND b.passenger_id = 2 AND b.status = 0");
+    }
+
+    @Test
+    void passengerBookingsUsePassengerIndex() {
+        assertIndexUsed("idx_bookings_passenger",
+                "SELECT * FROM bookings b WHERE b.passenger_id = 2 AND b.status = 0");
+    }
+
+    @Test
+    void bookingsByStatusUseStatusIndex() {
+        assertIndexUsed("idx_bookings_status",
+                "SELECT b.total_amount FROM bookings b WHERE b.status = 1");
+    }
+
+    private void assertIndexUsed(String indexName, String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).toLowerCase();
+        assertTrue(plan.contains("/* public." + indexName + ":"), "Expected " + indexName + " in plan:\n" + plan);
+    }
+}
@@ -0,0 +1,42 @@
+package com.carpooling.securecarpooling.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoadNetworkTests {
+
+    private static RoadNetwork load(int landmarks) throws Exception {
+        try (InputStream in = RoadNetworkTests.class.getResourceAsStream("/road-network.csv")) {
+            return RoadNetwork.load(in, landmarks);
+        }
+    }
+
+    @Test
+    void landmarkSearchMatchesPlainDijkstraAndBoundsNeverOvershoot() throws Exception {
+        RoadNetwork alt = load(4);
+        RoadNetwork plain = load(0); // No landmarks: A* degenerates to Dijkstra
+
+        for (int from = 0; from < alt.size(); from++) {
+            for (int to = 0; to < alt.size(); to++) {
+                double exact = plain.distance(from, to);
+                assertEquals(exact, alt.distance(from, to), 1e-9, alt.name(from) + " -> " + alt.name(to));
+                assertTrue(alt.lowerBound(from, to) <= exact + 1e-9, alt.name(from) + " -> " + alt.name(to));
+            }
+        }
+    }
+
+    @Test
+    void legacyCityPairsKeepTheirDistances() throws Exception {
+        RoadNetwork network = load(4);
+        assertEquals(350, network.distance(network.node("chennai"), network.node("Bangalore")), 1e-9);
+        assertEquals(150, network.distance(network.node("Mumbai"), network.node("Pune")), 1e-9);
+        assertEquals(230, network.distance(network.node("Delhi"), network.node("Agra")), 1e-9);
+        assertEquals(270, network.distance(network.node("Hyderabad"), network.node("Vijayawada")), 1e-9);
+        assertEquals(170, network.distance(network.node("Kolkata"), network.node("Durgapur")), 1e-9);
+        assertEquals(-1, network.node("Atlantis"));
+    }
+}
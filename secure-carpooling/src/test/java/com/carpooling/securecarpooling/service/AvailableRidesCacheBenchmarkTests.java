@@ -0,0 +1,86 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.TestFixtures;
+import com.carpooling.securecarpooling.metrics.QueryStats;
+import com.carpooling.securecarpooling.model.Ride;
+import com.carpooling.securecarpooling.model.User;
+import com.carpooling.securecarpooling.repository.RideRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.carpooling.securecarpooling.metrics.QueryCountAssertions.measure;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Database statements per available-rides read, the query behind the GET /api/rides/available
+ * snapshot, with the second-level and query caches emptied before every read (cold) versus left warm.
+ * Run with: mvn test -Pbenchmark -Dtest=AvailableRidesCacheBenchmarkTests
+ */
+@Tag("benchmark")
+@ActiveProfiles("test")
+@SpringBootTest
+class AvailableRidesCacheBenchmarkTests {
+
+    private static final int DRIVERS = 50;
+    private static final int RIDES = 500;
+    private static final int READS = 200;
+
+    // A warm read may re-run the query once when the minute it is keyed on rolls over
+    private static final long MAX_WARM_STATEMENTS = 2;
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void repeatedAvailableRidesHitTheCache() throws Exception {
+        List<User> drivers = new ArrayList<>();
+        for (int i = 0; i < DRIVERS; i++) {
+            drivers.add(fixtures.user("Cache Driver " + i));
+        }
+        List<Ride> rides = new ArrayList<>();
+        for (int i = 0; i < RIDES; i++) {
+            rides.add(new Ride(drivers.get(i % DRIVERS), "Chennai", "Bangalore",
+                    LocalDateTime.now().plusDays(1).plusMinutes(i), 4, "Swift", "TN-09-" + i, "Red"));
+        }
+        rideRepository.saveAll(rides);
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+
+        // Cold: every read starts from empty caches, as without a second-level cache
+        QueryStats cold = measure(() -> {
+            for (int i = 0; i < READS; i++) {
+                sessionFactory.getCache().evictAllRegions();
+                rideService.getAvailableRides();
+            }
+        });
+
+        // Warm: caches filled by the first read are reused
+        rideService.getAvailableRides();
+        QueryStats warm = measure(() -> {
+            for (int i = 0; i < READS; i++) {
+                rideService.getAvailableRides();
+            }
+        });
+
+        assertTrue(cold.getStatements() >= READS, "cold: " + cold);
+        assertTrue(warm.getStatements() <= MAX_WARM_STATEMENTS, "warm: " + warm + ", cold: " + cold);
+    }
+}
@@ -0,0 +1,163 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.blockchain.CarPoolingContractEmulator;
+import com.carpooling.securecarpooling.blockchain.InProcessEthereumService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.web3j.abi.EventEncoder;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.FunctionReturnDecoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Event;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.Type;
+import org.web3j.abi.datatypes.Utf8String;
+import org.web3j.abi.datatypes.generated.Bytes32;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.tx.gas.DefaultGasProvider;
+import org.web3j.utils.Numeric;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BlockchainServiceTests {
+
+    private static final String CONTRACT = "0x0E4Be682efeB4eb945CfE0Fe75c167ba9bB06e9C";
+
+    private final Credentials credentials =
+            Credentials.create("0x47aa7c28a7ed92333b6333eec2577eb72c3e3ec90a89ecbaf384761647e8c14b");
+
+    private InProcessEthereumService node;
+    private Web3j web3j;
+    private BlockchainService blockchainService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (InputStream in = new FileInputStream("../blockchain/build/contracts/CarPooling.json")) {
+            node = new InProcessEthereumService(CarPoolingContractEmulator.load(in), CONTRACT);
+        }
+        web3j = Web3j.build(node);
+        blockchainService = new BlockchainService();
+        ReflectionTestUtils.setField(blockchainService, "web3j", web3j);
+        ReflectionTestUtils.setField(blockchainService, "credentials", credentials);
+        ReflectionTestUtils.setField(blockchainService, "gasProvider", new DefaultGasProvider());
+        ReflectionTestUtils.setField(blockchainService, "contractAddress", CONTRACT);
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(blockchainService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(blockchainService, "receiptPollMillis", 20L);
+        ReflectionTestUtils.setField(blockchainService, "receiptAttempts", 50);
+        blockchainService.startReceiptPolling();
+    }
+
+    @AfterEach
+    void tearDown() {
+        blockchainService.stopReceiptPolling();
+    }
+
+    @Test
+    void transactionsAreMinedAtOnceAndReadableFromTheContract() throws Exception {
+        String rideTx = blockchainService.recordRideCreation(7L, "Chennai", "Bangalore", 3, 700.0);
+        String bookingTx = blockchainService.recordBooking(11L, 7L, 2, 1400.0);
+        assertNotEquals("BLOCKCHAIN_ERROR", rideTx);
+        assertNotEquals("BLOCKCHAIN_ERROR", bookingTx);
+        assertEquals(2, node.getBlockNumber());
+
+        TransactionReceipt receipt = web3j.ethGetTransactionReceipt(rideTx).send().getTransactionReceipt().orElseThrow();
+        assertEquals("0x1", receipt.getStatus());
+        Event rideCreated = new Event("RideCreated", Arrays.asList(new TypeReference<Uint256>() {},
+                new TypeReference<Address>() {}, new TypeReference<Utf8String>() {}, new TypeReference<Utf8String>() {}));
+        assertEquals(EventEncoder.encode(rideCreated), receipt.getLogs().get(0).getTopics().get(0));
+
+        List<Type<?>> ride = call(new Function("getRide", List.of(new Uint256(7)), Arrays.asList(
+                new TypeReference<Uint256>() {}, new TypeReference<Address>() {}, new TypeReference<Utf8String>() {},
+                new TypeReference<Utf8String>() {}, new TypeReference<Uint256>() {}, new TypeReference<Uint256>() {},
+                new TypeReference<Uint256>() {})));
+        assertEquals(credentials.getAddress(), ride.get(1).getValue());
+        assertEquals("Chennai", ride.get(2).getValue());
+        assertEquals(BigInteger.valueOf(700), ride.get(5).getValue());
+
+        List<Type<?>> bookings = call(new Function("bookingCount", List.of(), List.of(new TypeReference<Uint256>() {})));
+        assertEquals(BigInteger.ONE, bookings.get(0).getValue());
+
+        assertEquals(1, meterRegistry.get("carpooling.blockchain.send")
+                .tags("function", "createRide", "outcome", "success").timer().count());
+        // Gas used is read from the receipt asynchronously
+        for (int i = 0; i < 100 && meterRegistry.find("carpooling.blockchain.gas.used").tag("function", "bookRide").summary() == null; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, meterRegistry.get("carpooling.blockchain.gas.used").tag("function", "bookRide").summary().count());
+    }
+
+    @Test
+    void importsAndTemplatesAreAnchoredApartFromRides() throws Exception {
+        String digest = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+        assertNotEquals("BLOCKCHAIN_ERROR", blockchainService.recordRideImport(21L, 3, digest));
+        assertNotEquals("BLOCKCHAIN_ERROR", blockchainService.recordRideTemplate(5L, "Chennai", "Pondicherry", 3, 400.0));
+
+        List<Type<?>> rides = call(new Function("rideCount", List.of(), List.of(new TypeReference<Uint256>() {})));
+        assertEquals(BigInteger.ZERO, rides.get(0).getValue());
+        List<Type<?>> imported = call(new Function("imports", List.of(new Uint256(21)), Arrays.asList(
+                new TypeReference<Uint256>() {}, new TypeReference<Address>() {}, new TypeReference<Uint256>() {},
+                new TypeReference<Bytes32>() {}, new TypeReference<Uint256>() {})));
+        assertEquals(BigInteger.valueOf(3), imported.get(2).getValue());
+        assertEquals(digest, Numeric.toHexStringNoPrefix((byte[]) imported.get(3).getValue()));
+        List<Type<?>> template = call(new Function("templates", List.of(new Uint256(5)), Arrays.asList(
+                new TypeReference<Uint256>() {}, new TypeReference<Address>() {}, new TypeReference<Utf8String>() {},
+                new TypeReference<Utf8String>() {}, new TypeReference<Uint256>() {}, new TypeReference<Uint256>() {},
+                new TypeReference<Uint256>() {})));
+        assertEquals("Pondicherry", template.get(3).getValue());
+        assertEquals(BigInteger.valueOf(400), template.get(5).getValue());
+    }
+
+    @Test
+    void injectedFailuresSurfaceAsBlockchainErrors() {
+        node.setFailureRate(1.0);
+        assertEquals("BLOCKCHAIN_ERROR", blockchainService.recordCancellation(3L, "Plans changed", 50.0));
+        assertEquals(1.0, meterRegistry.get("carpooling.blockchain.failures")
+                .tags("function", "cancelBooking", "reason", "IOException").counter().count());
+
+        node.setFailureRate(0.0);
+        assertNotEquals("BLOCKCHAIN_ERROR", blockchainService.recordCancellation(3L, "Plans changed", 50.0));
+    }
+
+    @Test
+    void gasUsedIsRecordedOnceTheReceiptCanBeRead() throws Exception {
+        ReflectionTestUtils.setField(blockchainService, "receiptPollMillis", 100L);
+        assertNotEquals("BLOCKCHAIN_ERROR", blockchainService.recordRideCreation(8L, "Chennai", "Mysore", 2, 500.0));
+        // The node stops answering before the first poll; polling goes on until it is back
+        node.setFailureRate(1.0);
+        Thread.sleep(300);
+        assertNull(meterRegistry.find("carpooling.blockchain.gas.used").summary());
+
+        node.setFailureRate(0.0);
+        for (int i = 0; i < 100 && meterRegistry.find("carpooling.blockchain.gas.used").summary() == null; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, meterRegistry.get("carpooling.blockchain.gas.used").tag("function", "createRide").summary().count());
+    }
+
+    private List<Type<?>> call(Function function) throws Exception {
+        String result = web3j.ethCall(Transaction.createEthCallTransaction(credentials.getAddress(), CONTRACT,
+                FunctionEncoder.encode(function)), DefaultBlockParameterName.LATEST).send().getValue();
+        return FunctionReturnDecoder.decode(result, function.getOutputParameters()).stream()
+                .<Type<?>>map(value -> value)
+                .toList();
+    }
+}
@@ -0,0 +1,84 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.TestFixtures;
+import com.carpooling.securecarpooling.dto.BookRideRequest;
+import com.carpooling.securecarpooling.dto.BookingResponse;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.model.User;
+import com.carpooling.securecarpooling.repository.BookingRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class BookingServiceTests {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void bookingChargesTheQuotedPriceAndRefusesAPriceThatWentUp() {
+        User driver = fixtures.user("Quote Driver");
+        RideResponse ride = fixtures.ride(driver, "Quotepur", "Chargenagar", 3);
+
+        BookRideRequest stale = new BookRideRequest(ride.getId(), 1);
+        stale.setQuotedPricePerSeat(ride.getQuotedPricePerSeat() - 1.0);
+        assertThrows(RuntimeException.class, () -> bookingService.bookRide(stale, fixtures.user("Quote Late").getId()));
+
+        BookRideRequest quoted = new BookRideRequest(ride.getId(), 2);
+        quoted.setQuotedPricePerSeat(ride.getQuotedPricePerSeat());
+        BookingResponse booking = bookingService.bookRide(quoted, fixtures.user("Quote Passenger").getId());
+        assertEquals(ride.getQuotedPricePerSeat(), booking.getPricePerSeat());
+        assertEquals(ride.getQuotedPricePerSeat() * 2, booking.getTotalAmount(), 0.01);
+    }
+
+    @Test
+    void onlySeatsTakenByOtherBookingsCountAsSoldOut() {
+        User driver = fixtures.user("Sold Out Driver");
+        RideResponse ride = fixtures.ride(driver, "Soldpur", "Fullnagar", 2);
+        double soldOut = soldOut();
+
+        // More seats than the car has: refused, but nobody took them
+        assertThrows(RuntimeException.class, () ->
+                bookingService.bookRide(new BookRideRequest(ride.getId(), 3), fixtures.user("Sold Out Greedy").getId()));
+        assertEquals(soldOut, soldOut());
+
+        bookingService.bookRide(new BookRideRequest(ride.getId(), 2), fixtures.user("Sold Out First").getId());
+        assertThrows(RuntimeException.class, () ->
+                bookingService.bookRide(new BookRideRequest(ride.getId(), 1), fixtures.user("Sold Out Late").getId()));
+        assertEquals(soldOut + 1, soldOut());
+    }
+
+    @Test
+    void bookingIsAnchoredOnceItHasCommitted() {
+        User driver = fixtures.user("Anchor Driver");
+        RideResponse ride = fixtures.ride(driver, "Commitpur", "Anchornagar", 2);
+
+        BookingResponse booking = bookingService.bookRide(new BookRideRequest(ride.getId(), 1),
+                fixtures.user("Anchor Passenger").getId());
+        String txHash = bookingRepository.findById(booking.getId()).orElseThrow().getBlockchainTxHash();
+        assertNotNull(txHash);
+        assertNotEquals("BLOCKCHAIN_ERROR", txHash);
+    }
+
+    private double soldOut() {
+        return meterRegistry.counter("carpooling.seats.contention", "type", "sold_out", "operation", "bookRide").count();
+    }
+}
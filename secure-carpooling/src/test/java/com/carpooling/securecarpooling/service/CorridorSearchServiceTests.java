@@ -0,0 +1,117 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.dto.CorridorRideResponse;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.routing.RoadNetwork;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CorridorSearchServiceTests {
+
+    private static RoadNetwork network() throws Exception {
+        try (InputStream in = CorridorSearchServiceTests.class.getResourceAsStream("/road-network.csv")) {
+            return RoadNetwork.load(in, 4);
+        }
+    }
+
+    private static RideResponse ride(long id, String source, String destination, Double maxDetourKm) {
+        RideResponse ride = new RideResponse();
+        ride.setId(id);
+        ride.setSource(source);
+        ride.setDestination(destination);
+        ride.setDateTime(LocalDateTime.of(2030, 1, 1, 8, 0).plusMinutes(id));
+        ride.setMaxDetourKm(maxDetourKm);
+        return ride;
+    }
+
+    @Test
+    void ridesWithinTheirDetourLimitAreReturned() throws Exception {
+        RoadNetwork network = network();
+        List<RideResponse> rides = List.of(
+                ride(1, "Chennai", "Bangalore", 0.0),     // Vellore and Hosur are on the way
+                ride(2, "Chennai", "Mysore", 10.0),       // Also on the way, then on to Mysore
+                ride(3, "Madurai", "Bangalore", 50.0),     // Needs a long detour via Vellore
+                ride(4, "Chennai", "Bangalore", null));   // Driver takes no detours
+
+        List<CorridorRideResponse> matches = CorridorSearchService.findWithinDetour(
+                network, network.node("Vellore"), network.node("Hosur"), rides);
+
+        assertEquals(2, matches.size());
+        assertEquals(1L, matches.get(0).getRide().getId());
+        assertEquals(0.0, matches.get(0).getDetourKm());
+        assertEquals("Chennai", matches.get(0).getFromStop());
+        assertEquals("Bangalore", matches.get(0).getToStop());
+        assertEquals(2L, matches.get(1).getRide().getId());
+    }
+
+    @Test
+    void ridesWithWaypointsAreBookedBetweenTheStopsAroundThePassenger() throws Exception {
+        RoadNetwork network = network();
+        List<String> stops = List.of("Chennai", "Vellore", "Krishnagiri", "Bangalore");
+        RideResponse open = ride(5, "Chennai", "Bangalore", 0.0);
+        open.setStops(stops);
+        open.setSegmentSeats(List.of(0, 1, 1));
+        RideResponse lastLegFull = ride(6, "Chennai", "Bangalore", 0.0);
+        lastLegFull.setStops(stops);
+        lastLegFull.setSegmentSeats(List.of(1, 1, 0));
+
+        List<CorridorRideResponse> matches = CorridorSearchService.findWithinDetour(
+                network, network.node("Vellore"), network.node("Hosur"), List.of(open, lastLegFull));
+
+        // Boards at Vellore, a stop; Hosur lies on the last leg, so the seat is held up to Bangalore
+        assertEquals(1, matches.size());
+        assertEquals(5L, matches.get(0).getRide().getId());
+        assertEquals(0.0, matches.get(0).getDetourKm());
+        assertEquals("Vellore", matches.get(0).getFromStop());
+        assertEquals("Bangalore", matches.get(0).getToStop());
+    }
+
+    /**
+     * 5000 candidate rides over the whole network; run with:
+     * mvn test -Pbenchmark -Dtest=CorridorSearchServiceTests
+     */
+    @Test
+    @Tag("benchmark")
+    void fiveThousandCandidatesAreFilteredInTensOfMilliseconds() throws Exception {
+        RoadNetwork network = network();
+        Random random = new Random(42);
+        List<RideResponse> rides = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            int source = random.nextInt(network.size());
+            int destination = random.nextInt(network.size());
+            rides.add(ride(i, network.name(source), network.name(destination), 10.0 + random.nextInt(90)));
+        }
+        int pickup = network.node("Vellore");
+        int dropOff = network.node("Hosur");
+
+        for (int i = 0; i < 20; i++) {
+            CorridorSearchService.findWithinDetour(network, pickup, dropOff, rides); // warm-up
+        }
+        long start = System.nanoTime();
+        List<CorridorRideResponse> matches = CorridorSearchService.findWithinDetour(network, pickup, dropOff, rides);
+        long elapsedMicros = (System.nanoTime() - start) / 1000;
+
+        // Every match really is within its limit, and no ride within its limit was pruned
+        int expected = 0;
+        for (RideResponse ride : rides) {
+            int source = network.node(ride.getSource());
+            int destination = network.node(ride.getDestination());
+            double detour = network.distance(source, pickup) + network.distance(pickup, dropOff)
+                    + network.distance(dropOff, destination) - network.distance(source, destination);
+            if (detour <= ride.getMaxDetourKm() + 1e-9) {
+                expected++;
+            }
+        }
+        assertEquals(expected, matches.size());
+        assertTrue(elapsedMicros < 50_000, "took " + elapsedMicros + " us for " + matches.size() + " matches");
+    }
+}
@@ -0,0 +1,66 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.TestFixtures;
+import com.carpooling.securecarpooling.dto.RequestRideRequest;
+import com.carpooling.securecarpooling.dto.RideRequestResponse;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.model.Booking;
+import com.carpooling.securecarpooling.model.User;
+import com.carpooling.securecarpooling.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class MatchingServiceTests {
+
+    @Autowired
+    private MatchingService matchingService;
+
+    @Autowired
+    private RideRequestService rideRequestService;
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void openRequestIsBookedOnAFittingRide() {
+        User driver = fixtures.user("Match Driver");
+        User passenger = fixtures.user("Match Passenger");
+        LocalDateTime departure = LocalDateTime.now().plusDays(3);
+        RideResponse ride = fixtures.ride(driver, "Matchpur", "Pairnagar", 3, departure);
+
+        rideRequestService.createRequest(new RequestRideRequest(" matchpur", "PAIRNAGAR",
+                departure.minusHours(1), departure.plusHours(1), 2, null), passenger.getId());
+        matchingService.matchOpenRequests();
+
+        List<RideRequestResponse> requests = rideRequestService.getMyRequests(passenger.getId());
+        assertEquals("MATCHED", requests.get(0).getStatus());
+        assertEquals(ride.getId(), requests.get(0).getRideId());
+        assertEquals(1, rideService.getRideById(ride.getId()).getSeatsAvailable());
+
+        // Priced and recorded on chain like a direct booking
+        Booking booking = bookingRepository.findById(requests.get(0).getBookingId()).orElseThrow();
+        assertEquals(pricingService.quote("Matchpur", "Pairnagar", ride.getPricePerSeat()) * 2, booking.getTotalAmount(), 0.01);
+        assertNotNull(booking.getBlockchainTxHash());
+        assertNotEquals("BLOCKCHAIN_ERROR", booking.getBlockchainTxHash());
+    }
+}
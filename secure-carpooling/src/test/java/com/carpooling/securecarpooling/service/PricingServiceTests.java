@@ -0,0 +1,53 @@
+package com.carpooling.securecarpooling.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PricingServiceTests {
+
+    @Test
+    void multiplierFollowsDemandAgainstSupplyWithinBounds() {
+        assertEquals(1.0, PricingService.multiplier(0, 0, 0, 0.8, 2.0));
+        assertEquals(1.0, PricingService.multiplier(50, 6, 16, 0.8, 2.0)); // Demand 16 seats vs 16 offered
+
+        double busy = PricingService.multiplier(100, 10, 8, 0.8, 2.0);
+        assertTrue(busy > 1.0 && busy < 2.0, "busy route: " + busy);
+
+        assertEquals(2.0, PricingService.multiplier(10_000, 500, 0, 0.8, 2.0));
+        assertEquals(0.8, PricingService.multiplier(0, 0, 200, 0.8, 2.0));
+    }
+
+    @Test
+    void onlyOfferedRoutesAreTrackedSearchesCountOncePerClientAndIdleRoutesAreEvicted() {
+        PricingService pricing = new PricingService();
+        ReflectionTestUtils.setField(pricing, "windowMinutes", 60);
+        ReflectionTestUtils.setField(pricing, "minMultiplier", 0.1);
+        ReflectionTestUtils.setField(pricing, "maxMultiplier", 10.0);
+        long minute = PricingService.currentMinute();
+
+        // Searches alone never take a slot
+        for (int i = 0; i < 100; i++) {
+            pricing.recordSearch("Nowhere", "Elsewhere " + i, "client " + i);
+        }
+        assertEquals(0, pricing.trackedRoutes());
+
+        pricing.recordOffer("Chennai", "Vellore", 1);
+        for (int i = 0; i < 20; i++) {
+            pricing.recordSearch("Chennai", "Vellore", "client 1");
+        }
+        pricing.recordSearch("chennai", "vellore", "client 2");
+        pricing.recomputeMultipliers(minute);
+        assertEquals(1, pricing.trackedRoutes());
+        assertEquals(PricingService.multiplier(2, 0, 1, 0.1, 10.0), pricing.multiplier("Chennai", "Vellore"));
+        assertEquals(PricingService.quote(100.0, pricing.multiplier("Chennai", "Vellore")),
+                pricing.quote("Chennai", "Vellore", 100.0));
+
+        // A window later nothing is left to price, so the slot is given back
+        pricing.recomputeMultipliers(minute + 61);
+        assertEquals(0, pricing.trackedRoutes());
+        assertEquals(1.0, pricing.multiplier("Chennai", "Vellore"));
+    }
+}
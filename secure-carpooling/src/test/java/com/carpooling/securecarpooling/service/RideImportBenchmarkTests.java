@@ -0,0 +1,73 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.TestFixtures;
+import com.carpooling.securecarpooling.dto.CreateRideRequest;
+import com.carpooling.securecarpooling.model.User;
+import com.carpooling.securecarpooling.repository.RideRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of the bulk ride import against the embedded database.
+ * Run with: mvn test -Pbenchmark -Dtest=RideImportBenchmarkTests
+ */
+@Tag("benchmark")
+@ActiveProfiles("test")
+@SpringBootTest
+class RideImportBenchmarkTests {
+
+    private static final int RIDE_COUNT = 100_000;
+
+    // Far below what batched inserts reach on the embedded database; a flush per ride falls under it
+    private static final double MIN_RIDES_PER_SECOND = 500;
+
+    private static final String[][] ROUTES = {
+            {"Chennai", "Bangalore"},
+            {"Mumbai", "Pune"},
+            {"Delhi", "Agra"},
+            {"Hyderabad", "Vijayawada"}
+    };
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void importHundredThousandRides() {
+        User driver = fixtures.user("Shuttle Operator");
+
+        LocalDateTime firstDeparture = LocalDateTime.now().plusDays(1);
+        List<CreateRideRequest> schedule = new ArrayList<>(RIDE_COUNT);
+        for (int i = 0; i < RIDE_COUNT; i++) {
+            String[] route = ROUTES[i % ROUTES.length];
+            schedule.add(new CreateRideRequest(route[0], route[1], firstDeparture.plusMinutes(i),
+                    4, "Tempo Traveller", "TN-01-" + i, "White"));
+        }
+
+        long before = rideRepository.count();
+        long start = System.nanoTime();
+        int imported = rideService.importRides(schedule, driver.getId());
+        long elapsedNanos = System.nanoTime() - start;
+
+        assertEquals(RIDE_COUNT, imported);
+        assertEquals(before + RIDE_COUNT, rideRepository.count());
+
+        double ridesPerSecond = imported / (elapsedNanos / 1_000_000_000.0);
+        assertTrue(ridesPerSecond >= MIN_RIDES_PER_SECOND, String.format("%.0f rides/s", ridesPerSecond));
+    }
+}
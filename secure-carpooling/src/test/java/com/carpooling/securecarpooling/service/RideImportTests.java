@@ -0,0 +1,52 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.TestFixtures;
+import com.carpooling.securecarpooling.dto.CreateRideRequest;
+import com.carpooling.securecarpooling.model.Ride;
+import com.carpooling.securecarpooling.model.User;
+import com.carpooling.securecarpooling.repository.RideRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class RideImportTests {
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void importIsAnchoredOnceForAllItsRides() {
+        User driver = fixtures.user("Import Driver");
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+        rideService.importRides(List.of(
+                new CreateRideRequest("Anchorpur", "Ledgernagar", tomorrow, 2, "Swift", "IMP-1", "Red"),
+                new CreateRideRequest("Anchorpur", "Ledgernagar", tomorrow.plusHours(1), 2, "Swift", "IMP-2", "Red"),
+                new CreateRideRequest("Ledgernagar", "Anchorpur", tomorrow.plusHours(8), 3, "Swift", "IMP-3", "Red")
+        ), driver.getId());
+
+        List<Ride> rides = rideRepository.findByDriverId(driver.getId());
+        assertEquals(3, rides.size());
+        String txHash = rides.get(0).getBlockchainTxHash();
+        assertNotNull(txHash);
+        assertNotEquals("BLOCKCHAIN_ERROR", txHash);
+        for (Ride ride : rides) {
+            assertEquals(txHash, ride.getBlockchainTxHash());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.TestFixtures;
+import com.carpooling.securecarpooling.dto.BookRideRequest;
+import com.carpooling.securecarpooling.model.BookingStatus;
+import com.carpooling.securecarpooling.model.RideStatus;
+import com.carpooling.securecarpooling.model.User;
+import com.carpooling.securecarpooling.repository.BookingRepository;
+import com.carpooling.securecarpooling.repository.RideRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Every test moves departures into the past in the database and runs a freshly started scheduler
+ * instance over them, so the application's own scheduler and its queue stay out of the way.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+class RideLifecycleServiceTests {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void departureExpiresUnbookedRidesAndStartsBookedOnesWhichSettleWithTheirBookings() {
+        User driver = fixtures.user("Lifecycle Driver");
+        User passenger = fixtures.user("Lifecycle Passenger");
+        Long booked = fixtures.ride(driver, "Departpur", "Settlenagar", 3).getId();
+        Long unbooked = fixtures.ride(driver, "Departpur", "Settlenagar", 3).getId();
+        Long bookingId = bookingService.bookRide(new BookRideRequest(booked, 1), passenger.getId()).getId();
+        departed(booked, unbooked);
+
+        RideLifecycleService scheduler = startedScheduler();
+        int pending = scheduler.pendingTransitions();
+
+        scheduler.advanceDueRides();
+        assertEquals(RideStatus.IN_PROGRESS, status(booked));
+        assertEquals(RideStatus.EXPIRED, status(unbooked));
+        // Both departures left the queue; only the started ride came back to be settled
+        assertEquals(pending - 1, scheduler.pendingTransitions());
+
+        scheduler.advanceDueRides();
+        assertEquals(RideStatus.COMPLETED, status(booked));
+        assertEquals(BookingStatus.COMPLETED, bookingRepository.findById(bookingId).orElseThrow().getStatus());
+        assertEquals(pending - 2, scheduler.pendingTransitions());
+    }
+
+    @Test
+    void restartRecoversRidesThatAreInProgress() {
+        User driver = fixtures.user("Restart Driver");
+        User passenger = fixtures.user("Restart Passenger");
+        Long rideId = fixtures.ride(driver, "Rebootpur", "Resumenagar", 2).getId();
+        Long bookingId = bookingService.bookRide(new BookRideRequest(rideId, 2), passenger.getId()).getId();
+        departed(rideId);
+
+        startedScheduler().advanceDueRides();
+        assertEquals(RideStatus.IN_PROGRESS, status(rideId));
+
+        // The first instance's queue is lost; the next one reads the ride back from the database
+        startedScheduler().advanceDueRides();
+        assertEquals(RideStatus.COMPLETED, status(rideId));
+        assertEquals(BookingStatus.COMPLETED, bookingRepository.findById(bookingId).orElseThrow().getStatus());
+    }
+
+    private void departed(Long... rideIds) {
+        for (Long rideId : rideIds) {
+            jdbcTemplate.update("UPDATE rides SET date_time = ? WHERE id = ?", LocalDateTime.now().minusMinutes(5), rideId);
+        }
+    }
+
+    /**
+     * A scheduler as after an application restart, settling rides right after departure
+     */
+    private RideLifecycleService startedScheduler() {
+        RideLifecycleService scheduler = new RideLifecycleService();
+        ReflectionTestUtils.setField(scheduler, "rideRepository", rideRepository);
+        ReflectionTestUtils.setField(scheduler, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(scheduler, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(scheduler, "settleAfterHours", 0L);
+        scheduler.loadSchedule();
+        return scheduler;
+    }
+
+    private RideStatus status(Long rideId) {
+        return rideRepository.findById(rideId).orElseThrow().getStatus();
+    }
+}
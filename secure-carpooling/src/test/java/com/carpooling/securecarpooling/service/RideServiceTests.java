@@ -0,0 +1,84 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.TestFixtures;
+import com.carpooling.securecarpooling.dto.BookRideRequest;
+import com.carpooling.securecarpooling.model.Booking;
+import com.carpooling.securecarpooling.model.BookingStatus;
+import com.carpooling.securecarpooling.model.User;
+import com.carpooling.securecarpooling.repository.BookingRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.carpooling.securecarpooling.metrics.QueryCountAssertions.assertStatementCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class RideServiceTests {
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void completingARideUpdatesAllBookingsInOneStatementAndEvictsThem() throws Exception {
+        User driver = fixtures.user("Complete Driver");
+        Long rideId = fixtures.ride(driver, "Finishpur", "Donenagar", 4).getId();
+        Long first = bookingService.bookRide(new BookRideRequest(rideId, 1), fixtures.user("Complete First").getId()).getId();
+        Long second = bookingService.bookRide(new BookRideRequest(rideId, 2), fixtures.user("Complete Second").getId()).getId();
+
+        // Ride update and one bulk booking update, however many bookings there are (the ride itself comes
+        // from the second-level cache); after commit the listing snapshot and time index re-read the ride
+        assertStatementCount(4, () -> rideService.completeRide(rideId, driver.getId()));
+        assertEquals(BookingStatus.COMPLETED, bookingRepository.findById(first).orElseThrow().getStatus());
+
+        // Bookings already loaded in the same persistence context are evicted, not left stale
+        Long rideId2 = fixtures.ride(driver, "Finishpur", "Donenagar", 4).getId();
+        Long third = bookingService.bookRide(new BookRideRequest(rideId2, 1), fixtures.user("Complete Third").getId()).getId();
+        BookingStatus seen = transactionTemplate.execute(status -> {
+            Booking loaded = bookingRepository.findById(third).orElseThrow();
+            assertEquals(BookingStatus.CONFIRMED, loaded.getStatus());
+            rideService.completeRide(rideId2, driver.getId());
+            return bookingRepository.findById(third).orElseThrow().getStatus();
+        });
+        assertEquals(BookingStatus.COMPLETED, seen);
+        assertEquals(BookingStatus.COMPLETED, bookingRepository.findById(second).orElseThrow().getStatus());
+    }
+
+    @Test
+    void cancellingARideCancelsAllBookingsInOneStatementAndRecordsEachOnChain() throws Exception {
+        User driver = fixtures.user("Cancel Driver");
+        Long rideId = fixtures.ride(driver, "Abortpur", "Stopnagar", 4).getId();
+        Long first = bookingService.bookRide(new BookRideRequest(rideId, 1), fixtures.user("Cancel First").getId()).getId();
+        Long second = bookingService.bookRide(new BookRideRequest(rideId, 2), fixtures.user("Cancel Second").getId()).getId();
+        double recorded = cancellationsRecorded();
+
+        // As for completion, plus the select of the booking IDs to record on chain
+        assertStatementCount(5, () -> rideService.cancelRide(rideId, driver.getId()));
+        assertEquals(BookingStatus.CANCELLED, bookingRepository.findById(first).orElseThrow().getStatus());
+        assertEquals(BookingStatus.CANCELLED, bookingRepository.findById(second).orElseThrow().getStatus());
+        assertEquals(recorded + 2, cancellationsRecorded());
+    }
+
+    private double cancellationsRecorded() {
+        return meterRegistry.timer("carpooling.blockchain.send", "function", "cancelBooking", "outcome", "success").count();
+    }
+}
@@ -0,0 +1,57 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.TestFixtures;
+import com.carpooling.securecarpooling.dto.BookRideRequest;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class RideSnapshotServiceTests {
+
+    @Autowired
+    private RideSnapshotService rideSnapshotService;
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void snapshotFollowsCreateBookAndCancel() {
+        User driver = fixtures.user("Snap Driver");
+        User passenger = fixtures.user("Snap Passenger");
+
+        RideResponse ride = fixtures.ride(driver, "Snapville", "Cachetown", 2);
+        assertTrue(availableJson().contains("\"id\":" + ride.getId() + ","));
+
+        // Booking the last seats removes the ride from the listing
+        Long bookingId = bookingService.bookRide(new BookRideRequest(ride.getId(), 2), passenger.getId()).getId();
+        assertFalse(availableJson().contains("\"id\":" + ride.getId() + ","));
+
+        // Seats given back bring it back
+        bookingService.cancelBooking(bookingId, passenger.getId());
+        assertTrue(availableJson().contains("\"id\":" + ride.getId() + ","));
+
+        // A cancelled ride leaves the listing even with free seats
+        rideService.cancelRide(ride.getId(), driver.getId());
+        assertFalse(availableJson().contains("\"id\":" + ride.getId() + ","));
+    }
+
+    private String availableJson() {
+        return new String(rideSnapshotService.getAvailableRidesJson(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,78 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.TestFixtures;
+import com.carpooling.securecarpooling.dto.BookRideRequest;
+import com.carpooling.securecarpooling.dto.BookingResponse;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class RideStopBookingTests {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void seatIsResoldOnTheSegmentsAnEarlierPassengerLeaves() {
+        User driver = fixtures.user("Stop Driver");
+        User first = fixtures.user("Stop First");
+        User second = fixtures.user("Stop Second");
+
+        RideResponse ride = fixtures.ride(driver, "Chennai", "Bangalore", 1,
+                LocalDateTime.now().plusDays(2), "Vellore", "Krishnagiri");
+        assertEquals(List.of("Chennai", "Vellore", "Krishnagiri", "Bangalore"), ride.getStops());
+
+        // The only seat, taken for the first leg
+        BookRideRequest firstLeg = new BookRideRequest(ride.getId(), 1);
+        firstLeg.setToStop("vellore");
+        BookingResponse firstBooking = bookingService.bookRide(firstLeg, first.getId());
+        assertEquals("Chennai", firstBooking.getFromStop());
+        assertEquals("Vellore", firstBooking.getToStop());
+        assertTrue(firstBooking.getTotalAmount() < ride.getPricePerSeat());
+        assertEquals(firstBooking.getTotalAmount(), firstBooking.getPricePerSeat());
+
+        // Still listed, and found by searching for the legs that are left, but not for the whole route
+        assertEquals(1, rideService.getRideById(ride.getId()).getSeatsAvailable());
+        assertFalse(ids(rideService.searchRides("Chennai", "Bangalore")).contains(ride.getId()));
+        assertFalse(ids(rideService.searchRides("Chennai", "Krishnagiri")).contains(ride.getId()));
+        assertFalse(ids(rideService.searchRides("Krishnagiri", "Vellore")).contains(ride.getId()));
+        assertTrue(ids(rideService.searchRides("Vellore", "Bangalore")).contains(ride.getId()));
+
+        // Sold again from where the first passenger gets off, as found, but not over the first leg
+        BookRideRequest rest = new BookRideRequest(ride.getId(), 1);
+        rest.setFromStop("Vellore");
+        rest.setToStop("Bangalore");
+        bookingService.bookRide(rest, second.getId());
+        assertEquals(0, rideService.getRideById(ride.getId()).getSeatsAvailable());
+        assertThrows(RuntimeException.class, () -> bookingService.bookRide(new BookRideRequest(ride.getId(), 1), second.getId()));
+
+        // Cancelling the first leg frees it again
+        bookingService.cancelBooking(firstBooking.getId(), first.getId());
+        BookRideRequest firstLegAgain = new BookRideRequest(ride.getId(), 1);
+        firstLegAgain.setToStop("Vellore");
+        assertEquals("Vellore", bookingService.bookRide(firstLegAgain, first.getId()).getToStop());
+    }
+
+    private static List<Long> ids(List<RideResponse> rides) {
+        return rides.stream().map(RideResponse::getId).toList();
+    }
+}
@@ -0,0 +1,101 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.TestFixtures;
+import com.carpooling.securecarpooling.dto.CreateRideTemplateRequest;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.dto.RideTemplateResponse;
+import com.carpooling.securecarpooling.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class RideTemplateServiceTests {
+
+    @Autowired
+    private RideTemplateService rideTemplateService;
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void occurrencesAreMaterializedInsideTheHorizonAndOnDemand() {
+        User driver = fixtures.user("Template Driver");
+
+        // Daily at 08:00; the test horizon is 14 days
+        RideTemplateResponse template = rideTemplateService.createTemplate(new CreateRideTemplateRequest(
+                "Templatepur", "Repeatnagar", "0 8 * * *", 3, "Swift", "TPL-1", "White"), driver.getId());
+        assertEquals("0 0 8 * * *", template.getSchedule());
+
+        List<RideResponse> rides = rideService.getMyRides(driver.getId());
+        assertTrue(rides.size() >= 13 && rides.size() <= 15, "rides in horizon: " + rides.size());
+        for (RideResponse ride : rides) {
+            assertEquals(template.getId(), ride.getTemplateId());
+            assertEquals(template.getPricePerSeat(), ride.getPricePerSeat());
+            assertEquals(8, ride.getDateTime().getHour());
+        }
+
+        // A search 30 days out is shown the missing occurrences without writing them
+        LocalDateTime searchEnd = LocalDateTime.now().plusDays(30);
+        List<RideResponse> occurrences = rideTemplateService.previewOccurrences("Templatepur", "Repeatnagar", null, searchEnd);
+        assertTrue(occurrences.size() >= 15 && occurrences.size() <= 17, "occurrences shown: " + occurrences.size());
+        LocalDateTime lastRide = rides.stream().map(RideResponse::getDateTime).max(LocalDateTime::compareTo).orElseThrow();
+        for (RideResponse occurrence : occurrences) {
+            assertNull(occurrence.getId());
+            assertEquals(template.getId(), occurrence.getTemplateId());
+            assertTrue(occurrence.getDateTime().isAfter(lastRide));
+        }
+        assertEquals(rides.size(), rideService.getMyRides(driver.getId()).size());
+
+        // ... and written in the background, once however often they were searched
+        rideTemplateService.previewOccurrences("Templatepur", "Repeatnagar", null, searchEnd);
+        rideTemplateService.materializeRequested();
+        assertEquals(rides.size() + occurrences.size(), rideService.getMyRides(driver.getId()).size());
+        assertTrue(rideTemplateService.previewOccurrences("Templatepur", "Repeatnagar", null, searchEnd).isEmpty());
+
+        rideTemplateService.cancelTemplate(template.getId(), driver.getId());
+        for (RideResponse ride : rideService.getMyRides(driver.getId())) {
+            assertEquals("CANCELLED", ride.getStatus());
+        }
+    }
+
+    @Test
+    void templatesPastTheirEndDateAreDeactivated() {
+        User driver = fixtures.user("Ended Template Driver");
+        CreateRideTemplateRequest request = new CreateRideTemplateRequest(
+                "Endpur", "Finalnagar", "0 9 * * *", 2, "Swift", "TPL-2", "White");
+        request.setEndsOn(LocalDate.now().plusDays(3));
+        Long templateId = rideTemplateService.createTemplate(request, driver.getId()).getId();
+        jdbcTemplate.update("UPDATE ride_templates SET ends_on = ? WHERE id = ?", LocalDate.now().minusDays(1), templateId);
+
+        rideTemplateService.extendHorizon();
+        assertFalse(rideTemplateService.getMyTemplates(driver.getId()).get(0).getActive());
+        assertTrue(rideTemplateService.previewOccurrences("Endpur", "Finalnagar", null,
+                LocalDateTime.now().plusDays(30)).isEmpty());
+    }
+
+    @Test
+    void schedulesFiringMoreThanHourlyAreRejected() {
+        assertThrows(RuntimeException.class, () -> RideTemplateService.normalizeSchedule("*/10 * * * *"));
+        assertThrows(RuntimeException.class, () -> RideTemplateService.normalizeSchedule("not a schedule"));
+    }
+}
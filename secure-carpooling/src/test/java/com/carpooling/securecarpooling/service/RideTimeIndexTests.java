@@ -0,0 +1,96 @@
+package com.carpooling.securecarpooling.service;
+
+import com.carpooling.securecarpooling.TestFixtures;
+import com.carpooling.securecarpooling.dto.BookRideRequest;
+import com.carpooling.securecarpooling.dto.CreateRideRequest;
+import com.carpooling.securecarpooling.dto.RideResponse;
+import com.carpooling.securecarpooling.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class RideTimeIndexTests {
+
+    @Autowired
+    private RideTimeIndex rideTimeIndex;
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void windowSearchFollowsImportsAndBookings() {
+        User driver = fixtures.user("Window Driver");
+        User passenger = fixtures.user("Window Passenger");
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+
+        rideService.importRides(List.of(
+                new CreateRideRequest("Windowpur", "Rangenagar", tomorrow.withHour(10), 2, "Swift", "WIN-1", "Red"),
+                new CreateRideRequest("Windowpur", "Rangenagar", tomorrow.withHour(8), 1, "Swift", "WIN-2", "Red"),
+                new CreateRideRequest("Windowpur", "Rangenagar", tomorrow.withHour(6).withMinute(30), 2, "Swift", "WIN-3", "Red"),
+                new CreateRideRequest("Elsewhere", "Rangenagar", tomorrow.withHour(7), 2, "Swift", "WIN-4", "Red")
+        ), driver.getId());
+
+        List<RideResponse> morning = rideTimeIndex.search("Windowpur", "Rangenagar", tomorrow.withHour(6), tomorrow.withHour(9));
+        assertEquals(List.of("WIN-3", "WIN-2"), carNumbers(morning));
+        List<String> anyRoute = carNumbers(rideTimeIndex.search(null, null, tomorrow.withHour(6), tomorrow.withHour(9)));
+        anyRoute.removeIf(number -> !number.startsWith("WIN-")); // Rides other tests left behind
+        assertEquals(List.of("WIN-3", "WIN-4", "WIN-2"), anyRoute);
+
+        // Taking the last seat drops the ride from the index
+        bookingService.bookRide(new BookRideRequest(morning.get(1).getId(), 1), passenger.getId());
+        assertEquals(List.of("WIN-3"),
+                carNumbers(rideTimeIndex.search("Windowpur", "Rangenagar", tomorrow.withHour(6), tomorrow.withHour(9))));
+    }
+
+    @Test
+    void windowSearchFindsTheRidesARouteSearchFinds() {
+        User driver = fixtures.user("Parity Driver");
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1);
+        Long direct = fixtures.ride(driver, "Paritypur", "Samenagar", 2, tomorrow).getId();
+        Long passing = fixtures.ride(driver, "Startpur", "Endnagar", 1, tomorrow, "Paritypur", "Samenagar").getId();
+        Long takenThere = fixtures.ride(driver, "Paritypur", "Endnagar", 1, tomorrow, "Samenagar").getId();
+
+        // The only seat of the last ride is taken as far as Samenagar; it stays free beyond
+        BookRideRequest firstLeg = new BookRideRequest(takenThere, 1);
+        firstLeg.setToStop("Samenagar");
+        bookingService.bookRide(firstLeg, fixtures.user("Parity Passenger").getId());
+
+        List<Long> routeSearch = rideIds(rideService.searchRides("Paritypur", "Samenagar"));
+        List<Long> windowSearch = rideIds(rideTimeIndex.search("Paritypur", "Samenagar", null, tomorrow.plusDays(1)));
+        assertEquals(List.of(direct, passing), routeSearch);
+        assertEquals(routeSearch, windowSearch);
+        assertEquals(List.of(passing, takenThere), rideIds(rideTimeIndex.search("Samenagar", "Endnagar", null, null)));
+    }
+
+    private static List<Long> rideIds(List<RideResponse> rides) {
+        List<Long> ids = new ArrayList<>();
+        for (RideResponse ride : rides) {
+            ids.add(ride.getId());
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    private static List<String> carNumbers(List<RideResponse> rides) {
+        List<String> numbers = new ArrayList<>();
+        for (RideResponse ride : rides) {
+            numbers.add(ride.getCarNumber());
+        }
+        return numbers;
+    }
+}